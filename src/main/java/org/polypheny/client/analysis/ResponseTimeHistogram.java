@@ -0,0 +1,208 @@
+package org.polypheny.client.analysis;
+
+
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntCountsHistogram;
+
+
+/**
+ * Response time distribution backed by an auto-resizing {@link Histogram}. Values are recorded with microsecond resolution and three significant digits, so the memory footprint only depends on the range of the values and not on how many were recorded. Histograms of the same metric can be merged.
+ *
+ * Use {@link #compact()} if many histograms are kept at the same time, e.g. one per interval.
+ */
+public class ResponseTimeHistogram implements Serializable {
+
+    /**
+     * Percentiles which are part of {@link #toJson()}
+     */
+    public static final double[] REPORTED_PERCENTILES = { 50, 90, 95, 99, 99.9 };
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final int COMPACT_SIGNIFICANT_DIGITS = 2;
+    private static final double MICROS_PER_MILLI = 1_000d;
+
+    //Serialized in its compressed encoding, HdrHistogram does not restore the size of auto-resized histograms
+    private transient AbstractHistogram histogram;
+
+
+    public ResponseTimeHistogram() {
+        this( new Histogram( SIGNIFICANT_DIGITS ) );
+    }
+
+
+    private ResponseTimeHistogram( AbstractHistogram histogram ) {
+        this.histogram = histogram;
+    }
+
+
+    /**
+     * @return a histogram with two significant digits and int counts which needs about a tenth of the memory
+     */
+    public static ResponseTimeHistogram compact() {
+        return new ResponseTimeHistogram( new IntCountsHistogram( COMPACT_SIGNIFICANT_DIGITS ) );
+    }
+
+
+    /**
+     * @param encoded histogram created by {@link #encode()}
+     * @throws IllegalArgumentException if the histogram cannot be decoded
+     */
+    public static ResponseTimeHistogram decode( String encoded ) {
+        try {
+            return new ResponseTimeHistogram( decode( Base64.getDecoder().decode( encoded ), false ) );
+        } catch ( DataFormatException e ) {
+            throw new IllegalArgumentException( "Invalid histogram", e );
+        }
+    }
+
+
+    private static AbstractHistogram decode( byte[] encoded, boolean compact ) throws DataFormatException {
+        AbstractHistogram histogram = compact ? IntCountsHistogram.decodeFromCompressedByteBuffer( ByteBuffer.wrap( encoded ), 0 ) : Histogram.decodeFromCompressedByteBuffer( ByteBuffer.wrap( encoded ), 0 );
+        histogram.setAutoResize( true );
+        return histogram;
+    }
+
+
+    /**
+     * @param responseTime in ms. Negative values are recorded as 0
+     */
+    public void record( double responseTime ) {
+        histogram.recordValue( toMicros( responseTime ) );
+    }
+
+
+    /**
+     * Corrects for coordinated omission: if the response time is longer than the expected interval, the samples a closed-loop client missed while waiting are recorded as well, with linearly decreasing response times. See {@link AbstractHistogram#recordValueWithExpectedInterval(long, long)}.
+     *
+     * @param responseTime in ms. Negative values are recorded as 0
+     * @param expectedInterval expected time between two samples in ms. 0 records the response time without correction
+     */
+    public void recordWithExpectedInterval( double responseTime, double expectedInterval ) {
+        histogram.recordValueWithExpectedInterval( toMicros( responseTime ), toMicros( expectedInterval ) );
+    }
+
+
+    /**
+     * @return a copy of this histogram corrected for coordinated omission, as if every value had been recorded with {@link #recordWithExpectedInterval(double, double)}
+     */
+    public ResponseTimeHistogram copyWithExpectedInterval( double expectedInterval ) {
+        return new ResponseTimeHistogram( histogram.copyCorrectedForCoordinatedOmission( toMicros( expectedInterval ) ) );
+    }
+
+
+    private static long toMicros( double ms ) {
+        return Math.max( 0, Math.round( ms * MICROS_PER_MILLI ) );
+    }
+
+
+    /**
+     * Adds all values of the other histogram to this one
+     */
+    public void merge( ResponseTimeHistogram other ) {
+        histogram.add( other.histogram );
+    }
+
+
+    public long getCount() {
+        return histogram.getTotalCount();
+    }
+
+
+    /**
+     * @param percentile between 0 and 100
+     * @return response time in ms
+     */
+    public double getPercentile( double percentile ) {
+        return histogram.getValueAtPercentile( percentile ) / MICROS_PER_MILLI;
+    }
+
+
+    /**
+     * @return mean response time in ms
+     */
+    public double getMean() {
+        return histogram.getMean() / MICROS_PER_MILLI;
+    }
+
+
+    /**
+     * @return maximum response time in ms
+     */
+    public double getMax() {
+        return histogram.getMaxValue() / MICROS_PER_MILLI;
+    }
+
+
+    /**
+     * @return compressed, base64-encoded histogram which can be stored along with the results and restored with {@link #decode(String)}
+     */
+    public String encode() {
+        return Base64.getEncoder().encodeToString( encodeBytes() );
+    }
+
+
+    private byte[] encodeBytes() {
+        //HdrHistogram keeps the buffer of the first encoding, which is too small once the histogram has grown. A copy starts without one.
+        AbstractHistogram copy = histogram.copy();
+        ByteBuffer buffer = ByteBuffer.allocate( copy.getNeededByteBufferCapacity() );
+        int length = copy.encodeIntoCompressedByteBuffer( buffer );
+        return Arrays.copyOf( buffer.array(), length );
+    }
+
+
+    private void writeObject( ObjectOutputStream out ) throws IOException {
+        out.defaultWriteObject();
+        out.writeBoolean( histogram instanceof IntCountsHistogram );
+        out.writeObject( encodeBytes() );
+    }
+
+
+    private void readObject( ObjectInputStream in ) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        boolean compact = in.readBoolean();
+        try {
+            histogram = decode( (byte[]) in.readObject(), compact );
+        } catch ( DataFormatException e ) {
+            throw new IOException( "Invalid histogram", e );
+        }
+    }
+
+
+    /**
+     * @return count, mean, max and {@link #REPORTED_PERCENTILES} in ms
+     */
+    public JsonObject toJson() {
+        JsonObject object = new JsonObject();
+        object.addProperty( "count", getCount() );
+        if ( getCount() == 0 ) {
+            return object;
+        }
+        object.addProperty( "mean", getMean() );
+        object.addProperty( "max", getMax() );
+        for ( double percentile : REPORTED_PERCENTILES ) {
+            object.addProperty( percentileName( percentile ), getPercentile( percentile ) );
+        }
+        return object;
+    }
+
+
+    /**
+     * @return e.g. p99 or p99.9
+     */
+    static String percentileName( double percentile ) {
+        if ( percentile == Math.rint( percentile ) ) {
+            return "p" + (long) percentile;
+        }
+        return "p" + percentile;
+    }
+}
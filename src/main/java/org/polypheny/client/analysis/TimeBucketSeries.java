@@ -0,0 +1,126 @@
+package org.polypheny.client.analysis;
+
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.Serializable;
+import java.util.Arrays;
+
+
+/**
+ * Counts values and sums them up in fixed-size time buckets. Buckets are stored in primitive arrays which grow in both directions, so tuples do not need to arrive sorted by their timestamp. Memory depends on the covered time span and not on the number of values.
+ */
+public class TimeBucketSeries implements Serializable {
+
+    private final long bucketSize;
+    private long firstBucket;
+    private long[] counts = new long[0];
+    private double[] sums = new double[0];
+
+
+    /**
+     * @param bucketSize size of a bucket in ms
+     */
+    public TimeBucketSeries( long bucketSize ) {
+        if ( bucketSize <= 0 ) {
+            throw new IllegalArgumentException( "The bucket size has to be positive, was " + bucketSize );
+        }
+        this.bucketSize = bucketSize;
+    }
+
+
+    /**
+     * @param timestamp determines the bucket, in ms
+     * @param value e.g. a response time
+     */
+    public void add( long timestamp, double value ) {
+        add( Math.floorDiv( timestamp, bucketSize ), 1, value );
+    }
+
+
+    private void add( long bucket, long count, double sum ) {
+        int index = indexOf( bucket );
+        counts[index] += count;
+        sums[index] += sum;
+    }
+
+
+    /**
+     * Grows the arrays so they contain the bucket
+     *
+     * @return index of the bucket
+     */
+    private int indexOf( long bucket ) {
+        if ( counts.length == 0 ) {
+            firstBucket = bucket;
+            counts = new long[1];
+            sums = new double[1];
+            return 0;
+        }
+        if ( bucket < firstBucket ) {
+            int shift = (int) (firstBucket - bucket);
+            long[] newCounts = new long[counts.length + shift];
+            double[] newSums = new double[sums.length + shift];
+            System.arraycopy( counts, 0, newCounts, shift, counts.length );
+            System.arraycopy( sums, 0, newSums, shift, sums.length );
+            counts = newCounts;
+            sums = newSums;
+            firstBucket = bucket;
+        }
+        int index = (int) (bucket - firstBucket);
+        if ( index >= counts.length ) {
+            int newLength = Math.max( index + 1, counts.length * 2 );
+            counts = Arrays.copyOf( counts, newLength );
+            sums = Arrays.copyOf( sums, newLength );
+        }
+        return index;
+    }
+
+
+    /**
+     * Adds all buckets of the other series to this one. Both need the same bucket size.
+     */
+    public void merge( TimeBucketSeries other ) {
+        if ( other.bucketSize != bucketSize ) {
+            throw new IllegalArgumentException( "Can not merge series with bucket sizes " + bucketSize + " and " + other.bucketSize );
+        }
+        for ( int i = 0; i < other.counts.length; i++ ) {
+            if ( other.counts[i] > 0 ) {
+                add( other.firstBucket + i, other.counts[i], other.sums[i] );
+            }
+        }
+    }
+
+
+    public long getBucketSize() {
+        return bucketSize;
+    }
+
+
+    /**
+     * @return number of values in the bucket containing the timestamp
+     */
+    public long getCount( long timestamp ) {
+        long index = Math.floorDiv( timestamp, bucketSize ) - firstBucket;
+        return index < 0 || index >= counts.length ? 0 : counts[(int) index];
+    }
+
+
+    /**
+     * @return one object per non-empty bucket with its start timestamp, the number of values and their mean as executionTime
+     */
+    public JsonArray toJson() {
+        JsonArray array = new JsonArray();
+        for ( int i = 0; i < counts.length; i++ ) {
+            if ( counts[i] == 0 ) {
+                continue;
+            }
+            JsonObject bucket = new JsonObject();
+            bucket.addProperty( "start", (firstBucket + i) * bucketSize );
+            bucket.addProperty( "count", counts[i] );
+            bucket.addProperty( "executionTime", sums[i] / counts[i] );
+            array.add( bucket );
+        }
+        return array;
+    }
+}
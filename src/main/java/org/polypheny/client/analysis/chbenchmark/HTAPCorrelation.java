@@ -0,0 +1,255 @@
+package org.polypheny.client.analysis.chbenchmark;
+
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+import org.polypheny.client.grpc.PolyClientGRPC.CHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+/**
+ * Correlates the transactional and the analytical side of a CH-benCHmark run per fixed interval. Per interval, it reports tpmC, analytical queries completed per hour and how many analytical queries were running on average. Intervals are aligned to the start of the side which started first.
+ *
+ * If one side starts later, the intervals before are run by the other side alone and serve as its baseline: the degradation of a side is how much lower its throughput is in the intervals in which both sides run. Intervals in which a side starts are left out of the baselines. Within the mixed intervals, the Pearson correlation of tpmC and the running analytical queries shows whether more analytical load goes along with less transactional throughput.
+ *
+ * @tpccversion 5.11
+ */
+public class HTAPCorrelation {
+
+    private final long interval;
+    private final long oltpStart;
+    private final long olapStart;
+    private final long windowStart;
+    private final long windowStop;
+    private final long[] newOrders;
+    private final long[] completedQueries;
+    //ms analytical queries were running per interval, summed over all streams
+    private final double[] busy;
+
+
+    enum Phase {
+        OLTP, OLAP, MIXED, TRANSITION
+    }
+
+
+    /**
+     * @param interval length of an interval in ms
+     * @param oltpStart when the TPC-C terminals started
+     * @param olapStart when the analytical streams started
+     * @param stop when both sides stopped
+     */
+    public HTAPCorrelation( long interval, long oltpStart, long olapStart, long stop ) {
+        if ( interval <= 0 ) {
+            throw new IllegalArgumentException( "The interval has to be positive, was " + interval );
+        }
+        this.interval = interval;
+        this.oltpStart = oltpStart;
+        this.olapStart = olapStart;
+        this.windowStart = Math.min( oltpStart, olapStart );
+        this.windowStop = stop;
+        int intervals = (int) Math.max( 0, (stop - windowStart + interval - 1) / interval );
+        newOrders = new long[intervals];
+        completedQueries = new long[intervals];
+        busy = new double[intervals];
+    }
+
+
+    /**
+     * Counts committed new-order transactions, all other transactions are ignored
+     */
+    public void addTransaction( TPCCResultTuple tuple ) {
+        if ( tuple.getAborted() || tuple.getTransactionType() != TPCCTransactionType.TPCCTRANSACTIONNEWORDER ) {
+            return;
+        }
+        int index = indexOf( tuple.getStartTimestamp() );
+        if ( index >= 0 ) {
+            newOrders[index]++;
+        }
+    }
+
+
+    /**
+     * A query counts as completed in the interval in which it ended, but adds to the running queries of every interval it overlaps
+     */
+    public void addQuery( CHResultTuple tuple ) {
+        long start = tuple.getStartTimestamp();
+        long end = start + (long) tuple.getResponseTime();
+        int last = indexOf( end );
+        if ( !tuple.getAborted() && last >= 0 ) {
+            completedQueries[last]++;
+        }
+        int first = indexOf( Math.max( start, windowStart ) );
+        if ( first < 0 ) {
+            return;
+        }
+        for ( int index = first; index < busy.length; index++ ) {
+            long intervalStart = windowStart + index * interval;
+            if ( intervalStart >= end ) {
+                break;
+            }
+            busy[index] += Math.min( end, intervalStart + duration( index ) ) - Math.max( start, intervalStart );
+        }
+    }
+
+
+    public JsonObject getResults() {
+        JsonObject results = new JsonObject();
+        results.addProperty( "interval", interval );
+        results.addProperty( "oltpStart", oltpStart );
+        results.addProperty( "olapStart", olapStart );
+        JsonArray starts = new JsonArray();
+        JsonArray phases = new JsonArray();
+        JsonArray tpmC = new JsonArray();
+        JsonArray queriesPerHour = new JsonArray();
+        JsonArray activeQueries = new JsonArray();
+        for ( int index = 0; index < newOrders.length; index++ ) {
+            starts.add( windowStart + index * interval );
+            phases.add( phase( index ).toString() );
+            tpmC.add( tpmC( index ) );
+            queriesPerHour.add( queriesPerHour( index ) );
+            activeQueries.add( activeQueries( index ) );
+        }
+        results.add( "intervalStart", starts );
+        results.add( "phase", phases );
+        results.add( "tpmC", tpmC );
+        results.add( "queriesPerHour", queriesPerHour );
+        results.add( "activeQueries", activeQueries );
+
+        JsonObject phaseResults = new JsonObject();
+        for ( Phase phase : new Phase[]{ Phase.OLTP, Phase.OLAP, Phase.MIXED } ) {
+            List<Integer> indices = indicesOf( phase );
+            if ( indices.isEmpty() ) {
+                continue;
+            }
+            JsonObject phaseResult = new JsonObject();
+            phaseResult.addProperty( "intervals", indices.size() );
+            phaseResult.addProperty( "tpmC", mean( indices, this::tpmC ) );
+            phaseResult.addProperty( "queriesPerHour", mean( indices, this::queriesPerHour ) );
+            phaseResult.addProperty( "activeQueries", mean( indices, this::activeQueries ) );
+            phaseResults.add( phase.toString(), phaseResult );
+        }
+        results.add( "phases", phaseResults );
+
+        List<Integer> mixed = indicesOf( Phase.MIXED );
+        List<Integer> oltp = indicesOf( Phase.OLTP );
+        List<Integer> olap = indicesOf( Phase.OLAP );
+        if ( !mixed.isEmpty() && !oltp.isEmpty() && mean( oltp, this::tpmC ) > 0 ) {
+            results.addProperty( "tpmCDegradation", 1 - mean( mixed, this::tpmC ) / mean( oltp, this::tpmC ) );
+        }
+        if ( !mixed.isEmpty() && !olap.isEmpty() && mean( olap, this::queriesPerHour ) > 0 ) {
+            results.addProperty( "queriesPerHourDegradation", 1 - mean( mixed, this::queriesPerHour ) / mean( olap, this::queriesPerHour ) );
+        }
+        double[] mixedTpmC = mixed.stream().mapToDouble( this::tpmC ).toArray();
+        double[] mixedActiveQueries = mixed.stream().mapToDouble( this::activeQueries ).toArray();
+        double correlation = pearson( mixedTpmC, mixedActiveQueries );
+        if ( !Double.isNaN( correlation ) ) {
+            results.addProperty( "tpmCActiveQueriesCorrelation", correlation );
+        }
+        return results;
+    }
+
+
+    Phase phase( int index ) {
+        long start = windowStart + index * interval;
+        long end = start + duration( index );
+        if ( (start < oltpStart && end > oltpStart) || (start < olapStart && end > olapStart) ) {
+            return Phase.TRANSITION;
+        }
+        boolean oltp = start >= oltpStart;
+        boolean olap = start >= olapStart;
+        if ( oltp && olap ) {
+            return Phase.MIXED;
+        }
+        return oltp ? Phase.OLTP : Phase.OLAP;
+    }
+
+
+    double tpmC( int index ) {
+        return newOrders[index] * 60_000d / duration( index );
+    }
+
+
+    double queriesPerHour( int index ) {
+        return completedQueries[index] * 3_600_000d / duration( index );
+    }
+
+
+    double activeQueries( int index ) {
+        return busy[index] / duration( index );
+    }
+
+
+    /**
+     * @return the Pearson correlation coefficient, NaN for less than three values or if one of the series is constant
+     */
+    static double pearson( double[] x, double[] y ) {
+        int n = x.length;
+        if ( n < 3 ) {
+            return Double.NaN;
+        }
+        double meanX = 0;
+        double meanY = 0;
+        for ( int i = 0; i < n; i++ ) {
+            meanX += x[i] / n;
+            meanY += y[i] / n;
+        }
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for ( int i = 0; i < n; i++ ) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            varianceX += (x[i] - meanX) * (x[i] - meanX);
+            varianceY += (y[i] - meanY) * (y[i] - meanY);
+        }
+        if ( varianceX == 0 || varianceY == 0 ) {
+            return Double.NaN;
+        }
+        return covariance / Math.sqrt( varianceX * varianceY );
+    }
+
+
+    private List<Integer> indicesOf( Phase phase ) {
+        List<Integer> indices = new ArrayList<>();
+        for ( int index = 0; index < newOrders.length; index++ ) {
+            if ( phase( index ) == phase ) {
+                indices.add( index );
+            }
+        }
+        return indices;
+    }
+
+
+    private static double mean( List<Integer> indices, IntervalMetric metric ) {
+        return indices.stream().mapToDouble( metric::get ).average().orElse( 0 );
+    }
+
+
+    /**
+     * @return index of the interval which contains the timestamp, -1 if it lies outside of the window
+     */
+    private int indexOf( long timestamp ) {
+        if ( timestamp < windowStart || timestamp >= windowStop ) {
+            return -1;
+        }
+        return (int) ((timestamp - windowStart) / interval);
+    }
+
+
+    /**
+     * @return length of the interval in ms, the last interval may be cut off by the end of the window
+     */
+    private long duration( int index ) {
+        long start = windowStart + index * interval;
+        return Math.max( 1, Math.min( start + interval, windowStop ) - start );
+    }
+
+
+    @FunctionalInterface
+    private interface IntervalMetric {
+
+        double get( int index );
+    }
+}
@@ -0,0 +1,57 @@
+package org.polypheny.client.analysis.musqle;
+
+
+import com.google.gson.JsonObject;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEEngineTime;
+import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEResultTuple;
+
+
+/**
+ * Time spent per engine over all queries, as far as the polystore reports it in {@link MUSQLEResultTuple#getEngineTimesList()}. The share of an engine is its part of the time of all engines, a dominant engine points to a routing or placement bottleneck.
+ */
+public class EngineBreakdown implements MusqleAnalyzer {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private TreeMap<String, MutablePair<Integer, Double>> engines = new TreeMap<>();
+    private int withoutBreakdown = 0;
+
+
+    @Override
+    public void process( MUSQLEResultTuple tuple ) {
+        if ( tuple.getEngineTimesCount() == 0 ) {
+            withoutBreakdown++;
+            return;
+        }
+        for ( MUSQLEEngineTime engineTime : tuple.getEngineTimesList() ) {
+            MutablePair<Integer, Double> engine = engines.computeIfAbsent( engineTime.getEngine(), name -> new MutablePair<>( 0, 0d ) );
+            engine.setLeft( engine.getLeft() + 1 );
+            engine.setRight( engine.getRight() + engineTime.getResponseTime() );
+        }
+    }
+
+
+    @Override
+    public JsonObject getResults() {
+        double total = engines.values().stream().mapToDouble( MutablePair::getRight ).sum();
+        JsonObject results = new JsonObject();
+        for ( Entry<String, MutablePair<Integer, Double>> entry : engines.entrySet() ) {
+            int queries = entry.getValue().getLeft();
+            double time = entry.getValue().getRight();
+            JsonObject engine = new JsonObject();
+            engine.addProperty( "queries", queries );
+            engine.addProperty( "totalResponseTime", time );
+            engine.addProperty( "avgResponseTime", time / queries );
+            engine.addProperty( "share", total > 0 ? time / total : 0 );
+            logger.info( "Engine {} took part in {} queries with an avg of {} ms", entry.getKey(), queries, time / queries );
+            results.add( entry.getKey(), engine );
+        }
+        results.addProperty( "queriesWithoutBreakdown", withoutBreakdown );
+        return results;
+    }
+}
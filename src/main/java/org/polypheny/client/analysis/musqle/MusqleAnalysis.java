@@ -15,6 +15,7 @@
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEResultTuple;
+import org.polypheny.client.main.analysis.TPCCAnalysis;
 import org.polypheny.client.storage.JsonStreamReader;
 import org.polypheny.client.storage.StorageGson;
 
@@ -42,7 +43,7 @@ public MusqleAnalysis( File inputPath, File outputPath ) {
 
 
     public static void main( String[] args ) {
-        MusqleAnalysis analysis = new MusqleAnalysis( new File( "storage/results/tpch/SYSTEMICARUS" ), new File( "output/results/tpch/SYSTEMICARUS" ) );
+        MusqleAnalysis analysis = new MusqleAnalysis( new File( "storage/results/musqle/SYSTEMICARUS" ), new File( "output/results/musqle/SYSTEMICARUS" ) );
         analysis.analyze();
     }
 
@@ -50,19 +51,24 @@ public static void main( String[] args ) {
     public void analyze() {
         visualizationAnalyzers.add( new AverageTransactionResponse() );
         visualizationAnalyzers.add( new TransactionResponseTimeFull() );
-
-        File storageFile = new File( inputPath, "allresults.json" );
-        JsonStreamReader<MUSQLEResultTuple> reader = new JsonStreamReader<>( storageFile, MUSQLEResultTuple.class, StorageGson.getGson() );
-        reader.start();
-
-        while ( reader.hasNext() ) {
-            for ( MUSQLEResultTuple tuple : reader.readFromStream( 100 ) ) {
-                if ( tuple.getAborted() ) {
-                    continue;
+        visualizationAnalyzers.add( new ResponseTimePercentiles() );
+        visualizationAnalyzers.add( new EngineBreakdown() );
+
+        //allresults.json of the power test and one allresults_<n>.json per worker
+        for ( File storageFile : TPCCAnalysis.findResultPartitions( inputPath ) ) {
+            JsonStreamReader<MUSQLEResultTuple> reader = new JsonStreamReader<>( storageFile, MUSQLEResultTuple.class, StorageGson.getGson() );
+            reader.start();
+
+            while ( reader.hasNext() ) {
+                for ( MUSQLEResultTuple tuple : reader.readFromStream( 100 ) ) {
+                    if ( tuple.getAborted() ) {
+                        continue;
+                    }
+                    visualizationAnalyzers.forEach( musqleAnalyzer -> musqleAnalyzer.process( tuple ) );
+                    fullAnalyzers.forEach( musqleAnalyzer -> musqleAnalyzer.process( tuple ) );
                 }
-                visualizationAnalyzers.forEach( musqleAnalyzer -> musqleAnalyzer.process( tuple ) );
-                fullAnalyzers.forEach( musqleAnalyzer -> musqleAnalyzer.process( tuple ) );
             }
+            reader.cleanup();
         }
 
         JsonObject element = new JsonObject();
@@ -0,0 +1,39 @@
+package org.polypheny.client.analysis.musqle;
+
+
+import com.google.gson.JsonObject;
+import java.util.EnumMap;
+import java.util.Map.Entry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.ResponseTimeHistogram;
+import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.MusqleTransactionType;
+
+
+/**
+ * Response time percentiles of {@link MUSQLEResultTuple#getResponseTime()} per {@link MusqleTransactionType}
+ */
+public class ResponseTimePercentiles implements MusqleAnalyzer {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private EnumMap<MusqleTransactionType, ResponseTimeHistogram> histograms = new EnumMap<>( MusqleTransactionType.class );
+
+
+    @Override
+    public void process( MUSQLEResultTuple tuple ) {
+        histograms.computeIfAbsent( tuple.getTransactionType(), type -> new ResponseTimeHistogram() ).record( tuple.getResponseTime() );
+    }
+
+
+    @Override
+    public JsonObject getResults() {
+        JsonObject results = new JsonObject();
+        for ( Entry<MusqleTransactionType, ResponseTimeHistogram> entry : histograms.entrySet() ) {
+            logger.info( "{} had a p90 response time of {} ms", entry.getKey(), entry.getValue().getPercentile( 90 ) );
+            results.add( entry.getKey().toString(), entry.getValue().toJson() );
+        }
+        return results;
+    }
+}
@@ -1,50 +1,52 @@
 package org.polypheny.client.analysis.musqle;
 
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import java.util.HashMap;
 import java.util.Map.Entry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.TimeBucketSeries;
 import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEResultTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.MusqleTransactionType;
 
 
 /**
- * Stores for each {@link MUSQLEResultTuple} the {@link MusqleTransactionType}, {@link MUSQLEResultTuple#getResponseTime()} and {@link MUSQLEResultTuple#getStartTimestamp()} which allows plotting response time versus time
+ * Aggregates {@link MUSQLEResultTuple#getResponseTime()} per {@link MusqleTransactionType} into buckets of {@link #BUCKET_SIZE} ms by {@link MUSQLEResultTuple#getStartTimestamp()}, which allows plotting response time versus time. Each bucket contains its start, the number of transactions and their average response time as executionTime.
  *
  * @author silvan on 26.07.17.
  */
 public class TransactionResponseTimeFull implements MusqleAnalyzer {
 
+    /**
+     * One point per second and transaction type
+     */
+    public static final long BUCKET_SIZE = 1_000;
+
     private static final Logger logger = LogManager.getLogger();
-    private HashMap<MusqleTransactionType, JsonArray> results = new HashMap<>();
+    private HashMap<MusqleTransactionType, TimeBucketSeries> results = new HashMap<>();
 
 
     TransactionResponseTimeFull() {
         for ( MusqleTransactionType type : MusqleTransactionType.values() ) {
-            results.put( type, new JsonArray() );
+            results.put( type, new TimeBucketSeries( BUCKET_SIZE ) );
         }
     }
 
 
     @Override
     public void process( MUSQLEResultTuple tuple ) {
-        JsonObject obj = new JsonObject();
-        obj.addProperty( "start", tuple.getStartTimestamp() );
-        obj.addProperty( "executionTime", tuple.getResponseTime() );
-        results.get( tuple.getTransactionType() ).add( obj );
+        results.get( tuple.getTransactionType() ).add( tuple.getStartTimestamp(), tuple.getResponseTime() );
     }
 
 
     @Override
     public JsonObject getResults() {
-        logger.trace( results );
         JsonObject object = new JsonObject();
-        for ( Entry<MusqleTransactionType, JsonArray> entry : results.entrySet() ) {
-            object.add( entry.getKey().toString(), entry.getValue() );
+        for ( Entry<MusqleTransactionType, TimeBucketSeries> entry : results.entrySet() ) {
+            object.add( entry.getKey().toString(), entry.getValue().toJson() );
         }
+        logger.trace( object );
         return object;
     }
 }
@@ -0,0 +1,150 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Keeps the serialized state of {@link TPCCAnalyzer}s per result partition, so a repeated analysis only processes tuples which were appended since. A checkpoint stores for every analyzer, identified by its {@link TPCCAnalyzer#getCheckpointKey()}, how many tuples of the partition it has processed. Analyzers which are not in the checkpoint start at the beginning of the partition, the others continue at their offset.
+ *
+ * Checkpoints are only valid for one pass, i.e. one filter over the tuples. They are discarded if the partition has been truncated or rewritten, which is detected by its length and a checksum of its first bytes, or if they cannot be deserialized because an analyzer class has changed.
+ *
+ * @tpccversion 5.11
+ */
+public class AnalysisCheckpoints {
+
+    private static final Logger logger = LogManager.getLogger();
+    private static final String SUFFIX = ".checkpoint";
+    private static final int FINGERPRINT_BYTES = 4_096;
+
+    private final File folder;
+
+
+    /**
+     * @param folder where the checkpoints are stored, created if necessary
+     */
+    public AnalysisCheckpoints( File folder ) {
+        this.folder = folder;
+    }
+
+
+    /**
+     * @param pass identifies the filter of the tuples, e.g. the analyzed window
+     * @return the checkpoint of the partition, an empty checkpoint if there is no valid one
+     */
+    Checkpoint load( File partition, String pass ) {
+        File file = fileFor( partition, pass );
+        if ( !file.exists() ) {
+            return new Checkpoint();
+        }
+        try ( ObjectInputStream in = new ObjectInputStream( new BufferedInputStream( new FileInputStream( file ) ) ) ) {
+            Checkpoint checkpoint = (Checkpoint) in.readObject();
+            if ( partition.length() < checkpoint.length || fingerprint( partition, checkpoint.fingerprintLength ) != checkpoint.fingerprint ) {
+                logger.info( "Partition {} has been rewritten since its checkpoint, analyzing it from the start", partition );
+                return new Checkpoint();
+            }
+            return checkpoint;
+        } catch ( IOException | ClassNotFoundException | ClassCastException e ) {
+            logger.warn( "Discarding checkpoint {}: {}", file, e.getMessage() );
+            return new Checkpoint();
+        }
+    }
+
+
+    /**
+     * Writes to a temporary file first, so an interrupted analysis never leaves a corrupt checkpoint behind
+     */
+    void save( File partition, String pass, Checkpoint checkpoint ) {
+        folder.mkdirs();
+        File file = fileFor( partition, pass );
+        File temporary = new File( folder, file.getName() + ".tmp" );
+        try {
+            checkpoint.length = partition.length();
+            checkpoint.fingerprintLength = (int) Math.min( FINGERPRINT_BYTES, checkpoint.length );
+            checkpoint.fingerprint = fingerprint( partition, checkpoint.fingerprintLength );
+            try ( ObjectOutputStream out = new ObjectOutputStream( new BufferedOutputStream( new FileOutputStream( temporary ) ) ) ) {
+                out.writeObject( checkpoint );
+            }
+            Files.move( temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        } catch ( IOException e ) {
+            logger.error( "Could not write checkpoint {}", file, e );
+        }
+    }
+
+
+    private File fileFor( File partition, String pass ) {
+        return new File( folder, partition.getName() + "." + pass + SUFFIX );
+    }
+
+
+    private static long fingerprint( File partition, int length ) throws IOException {
+        byte[] bytes = new byte[length];
+        int read = 0;
+        try ( InputStream in = new FileInputStream( partition ) ) {
+            while ( read < length ) {
+                int n = in.read( bytes, read, length - read );
+                if ( n < 0 ) {
+                    break;
+                }
+                read += n;
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update( bytes, 0, read );
+        return crc.getValue();
+    }
+
+
+    /**
+     * Analyzer states and offsets of a partition
+     */
+    static class Checkpoint implements Serializable {
+
+        private long length;
+        private int fingerprintLength;
+        private long fingerprint;
+        private final Map<String, TPCCAnalyzer> analyzers = new HashMap<>();
+        private final Map<String, Long> offsets = new HashMap<>();
+
+
+        /**
+         * @return the analyzer with the key, null if it has no state in this checkpoint
+         */
+        TPCCAnalyzer getAnalyzer( String key ) {
+            return analyzers.get( key );
+        }
+
+
+        /**
+         * @return how many tuples of the partition the analyzer has processed, 0 if it has no state in this checkpoint
+         */
+        long getOffset( String key ) {
+            return offsets.getOrDefault( key, 0L );
+        }
+
+
+        /**
+         * Analyzers which are in the checkpoint but not updated are kept with their old offset
+         */
+        void update( TPCCAnalyzer analyzer, long offset ) {
+            analyzers.put( analyzer.getCheckpointKey(), analyzer );
+            offsets.put( analyzer.getCheckpointKey(), offset );
+        }
+    }
+}
@@ -53,4 +53,14 @@ public JsonObject getResults() {
         }
         return object;
     }
+
+
+    @Override
+    public void merge( TPCCAnalyzer other ) {
+        for ( Entry<TPCCTransactionType, MutablePair<Integer, Long>> entry : ((AverageNumberOfQueries) other).queryCounts.entrySet() ) {
+            MutablePair<Integer, Long> pair = queryCounts.get( entry.getKey() );
+            pair.setLeft( pair.getLeft() + entry.getValue().getLeft() );
+            pair.setRight( pair.getRight() + entry.getValue().getRight() );
+        }
+    }
 }
@@ -0,0 +1,219 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map.Entry;
+import org.polypheny.client.analysis.ResponseTimeHistogram;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+/**
+ * Throughput, abort rate and response time percentiles per fixed interval, per {@link TPCCTransactionType} and over all transactions. Intervals are aligned to the start of the measurement window and cover it completely, so intervals without any transaction show up as zeros. This makes stalls of the SUT (checkpoints, GC pauses, vacuum) visible.
+ *
+ * Results are columnar: one array per metric with one entry per interval.
+ *
+ * @tpccversion 5.11
+ */
+public class IntervalSeries implements TPCCAnalyzer {
+
+    static final String TOTAL = "ALL";
+    private static final double[] SERIES_PERCENTILES = { 50, 90, 99 };
+
+    private final long interval;
+    private final long windowStart;
+    private final long windowStop;
+    private EnumMap<TPCCTransactionType, Buckets> perType = new EnumMap<>( TPCCTransactionType.class );
+    private Buckets total = new Buckets();
+
+
+    /**
+     * @param interval length of an interval in ms
+     * @param windowStart start of the measurement window, intervals are aligned to it. 0 aligns them to the epoch and starts with the first transaction
+     * @param windowStop end of the measurement window, {@link Long#MAX_VALUE} to end with the last transaction
+     */
+    public IntervalSeries( long interval, long windowStart, long windowStop ) {
+        if ( interval <= 0 ) {
+            throw new IllegalArgumentException( "The interval has to be positive, was " + interval );
+        }
+        this.interval = interval;
+        this.windowStart = windowStart;
+        this.windowStop = windowStop;
+    }
+
+
+    @Override
+    public boolean includesAborted() {
+        return true;
+    }
+
+
+    @Override
+    public String getCheckpointKey() {
+        return getClass().getSimpleName() + "_" + interval + "_" + windowStart + "_" + windowStop;
+    }
+
+
+    @Override
+    public void process( TPCCResultTuple tuple ) {
+        long index = Math.floorDiv( tuple.getStartTimestamp() - windowStart, interval );
+        perType.computeIfAbsent( tuple.getTransactionType(), type -> new Buckets() ).add( index, tuple );
+        total.add( index, tuple );
+    }
+
+
+    @Override
+    public void merge( TPCCAnalyzer other ) {
+        IntervalSeries otherSeries = (IntervalSeries) other;
+        otherSeries.perType.forEach( ( type, buckets ) -> perType.computeIfAbsent( type, t -> new Buckets() ).merge( buckets ) );
+        total.merge( otherSeries.total );
+    }
+
+
+    @Override
+    public JsonObject getResults() {
+        //Known windows are covered completely, otherwise from the first to the last transaction
+        long first = windowStart > 0 ? 0 : total.firstIndex;
+        long last = windowStop != Long.MAX_VALUE ? Math.floorDiv( windowStop - 1 - windowStart, interval ) : total.firstIndex + total.committed.length - 1;
+        JsonObject results = new JsonObject();
+        results.addProperty( "interval", interval );
+        if ( total.committed.length == 0 && (windowStart <= 0 || windowStop == Long.MAX_VALUE) ) {
+            return results;
+        }
+        JsonArray starts = new JsonArray();
+        for ( long index = first; index <= last; index++ ) {
+            starts.add( windowStart + index * interval );
+        }
+        results.add( "intervalStart", starts );
+        results.add( TOTAL, total.toJson( first, last ) );
+        for ( Entry<TPCCTransactionType, Buckets> entry : perType.entrySet() ) {
+            results.add( entry.getKey().toString(), entry.getValue().toJson( first, last ) );
+        }
+        return results;
+    }
+
+
+    /**
+     * @return length of the interval in ms, the last interval may be cut off by the end of the window
+     */
+    private long duration( long index ) {
+        long start = windowStart + index * interval;
+        return Math.max( 1, Math.min( start + interval, windowStop ) - start );
+    }
+
+
+    /**
+     * Counters and histograms per interval index. Grows in both directions since tuples are not sorted.
+     */
+    private class Buckets implements Serializable {
+
+        private long firstIndex;
+        private long[] committed = new long[0];
+        private long[] aborted = new long[0];
+        private ResponseTimeHistogram[] responseTimes = new ResponseTimeHistogram[0];
+
+
+        void add( long index, TPCCResultTuple tuple ) {
+            int position = positionOf( index );
+            if ( tuple.getAborted() ) {
+                aborted[position]++;
+                return;
+            }
+            committed[position]++;
+            if ( responseTimes[position] == null ) {
+                responseTimes[position] = ResponseTimeHistogram.compact();
+            }
+            responseTimes[position].record( tuple.getResponseTime() );
+        }
+
+
+        void merge( Buckets other ) {
+            for ( int i = 0; i < other.committed.length; i++ ) {
+                if ( other.committed[i] == 0 && other.aborted[i] == 0 ) {
+                    continue;
+                }
+                int position = positionOf( other.firstIndex + i );
+                committed[position] += other.committed[i];
+                aborted[position] += other.aborted[i];
+                if ( other.responseTimes[i] != null ) {
+                    if ( responseTimes[position] == null ) {
+                        responseTimes[position] = ResponseTimeHistogram.compact();
+                    }
+                    responseTimes[position].merge( other.responseTimes[i] );
+                }
+            }
+        }
+
+
+        private int positionOf( long index ) {
+            if ( committed.length == 0 ) {
+                firstIndex = index;
+                grow( 0, 1 );
+                return 0;
+            }
+            if ( index < firstIndex ) {
+                grow( (int) (firstIndex - index), committed.length + (int) (firstIndex - index) );
+                firstIndex = index;
+            }
+            int position = (int) (index - firstIndex);
+            if ( position >= committed.length ) {
+                grow( 0, Math.max( position + 1, committed.length * 2 ) );
+            }
+            return position;
+        }
+
+
+        /**
+         * @param shift how many empty intervals are inserted at the front
+         * @param length new length of the arrays
+         */
+        private void grow( int shift, int length ) {
+            long[] newCommitted = new long[length];
+            long[] newAborted = new long[length];
+            ResponseTimeHistogram[] newResponseTimes = new ResponseTimeHistogram[length];
+            System.arraycopy( committed, 0, newCommitted, shift, committed.length );
+            System.arraycopy( aborted, 0, newAborted, shift, aborted.length );
+            System.arraycopy( responseTimes, 0, newResponseTimes, shift, responseTimes.length );
+            committed = newCommitted;
+            aborted = newAborted;
+            responseTimes = newResponseTimes;
+        }
+
+
+        JsonObject toJson( long first, long last ) {
+            JsonArray throughput = new JsonArray();
+            JsonArray committedCounts = new JsonArray();
+            JsonArray abortRates = new JsonArray();
+            JsonArray[] percentiles = new JsonArray[SERIES_PERCENTILES.length];
+            Arrays.setAll( percentiles, i -> new JsonArray() );
+            JsonArray max = new JsonArray();
+            for ( long index = first; index <= last; index++ ) {
+                long position = index - firstIndex;
+                boolean present = committed.length > 0 && position >= 0 && position < committed.length;
+                long committedCount = present ? committed[(int) position] : 0;
+                long abortedCount = present ? aborted[(int) position] : 0;
+                ResponseTimeHistogram histogram = present ? responseTimes[(int) position] : null;
+                committedCounts.add( committedCount );
+                throughput.add( committedCount * 1_000d / duration( index ) );
+                abortRates.add( committedCount + abortedCount == 0 ? 0 : (double) abortedCount / (committedCount + abortedCount) );
+                for ( int i = 0; i < SERIES_PERCENTILES.length; i++ ) {
+                    percentiles[i].add( histogram == null ? 0 : histogram.getPercentile( SERIES_PERCENTILES[i] ) );
+                }
+                max.add( histogram == null ? 0 : histogram.getMax() );
+            }
+            JsonObject object = new JsonObject();
+            object.add( "committed", committedCounts );
+            object.add( "throughput", throughput );
+            object.add( "abortRate", abortRates );
+            for ( int i = 0; i < SERIES_PERCENTILES.length; i++ ) {
+                object.add( "p" + (int) SERIES_PERCENTILES[i], percentiles[i] );
+            }
+            object.add( "max", max );
+            return object;
+        }
+    }
+}
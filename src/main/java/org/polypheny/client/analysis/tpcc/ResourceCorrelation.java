@@ -0,0 +1,300 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.grpc.PolyClientGRPC.NetdataMeasurement;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+import org.polypheny.client.monitoring.NetdataMonitor;
+
+
+/**
+ * Aligns the Netdata samples of the workers and the DBMS host with the intervals of an {@link IntervalSeries}. Per host, it reports CPU and IO usage per interval and per transaction, and how many transactions a core completes per second. Intervals in which the p99 latency spikes while a host is saturated are flagged.
+ *
+ * Uses {@link #CPU_CHART} and {@link #IO_CHART}. CPU figures in ms require the number of cores which {@link NetdataMonitor} records.
+ *
+ * @tpccversion 5.11
+ */
+public class ResourceCorrelation {
+
+    static final String CPU_CHART = "system.cpu";
+    static final String IO_CHART = "system.io";
+    /**
+     * A host is saturated in an interval if its CPU is busy for at least this many percent ...
+     */
+    static final double CPU_SATURATION = 90;
+    /**
+     * ... or if it waits for IO for at least this many percent
+     */
+    static final double IOWAIT_SATURATION = 20;
+    /**
+     * The p99 latency of an interval spikes if it is this many times the median p99 of all intervals
+     */
+    static final double SPIKE_FACTOR = 2;
+
+    private static final Logger logger = LogManager.getLogger();
+    private static final String IOWAIT = "iowait";
+
+    private final Map<String, HostSamples> hosts = new TreeMap<>();
+
+
+    /**
+     * Netdata polls overlap, samples with the same timestamp and chart are only counted once
+     *
+     * @param host monitored host
+     */
+    public void add( String host, NetdataMeasurement measurement ) {
+        HostSamples samples = hosts.computeIfAbsent( host, h -> new HostSamples() );
+        long timestamp = measurement.getTimestamp();
+        //Netdata reports seconds unless asked for ms
+        if ( timestamp < 100_000_000_000L ) {
+            timestamp *= 1_000;
+        }
+        switch ( measurement.getType() ) {
+            case NetdataMonitor.INFO_TYPE:
+                samples.cores = Integer.parseInt( measurement.getMeasurementsOrDefault( NetdataMonitor.CORES, "0" ) );
+                break;
+            case CPU_CHART:
+                double busy = 0;
+                double iowait = 0;
+                for ( Entry<String, String> dimension : measurement.getMeasurementsMap().entrySet() ) {
+                    if ( isTime( dimension.getKey() ) || dimension.getKey().equals( "idle" ) ) {
+                        continue;
+                    }
+                    double value = Double.parseDouble( dimension.getValue() );
+                    busy += value;
+                    if ( dimension.getKey().equals( IOWAIT ) ) {
+                        iowait = value;
+                    }
+                }
+                samples.cpu.put( timestamp, new double[]{ busy, iowait } );
+                break;
+            case IO_CHART:
+                double kibPerSecond = 0;
+                for ( Entry<String, String> dimension : measurement.getMeasurementsMap().entrySet() ) {
+                    //Netdata reports writes as negative values
+                    if ( !isTime( dimension.getKey() ) ) {
+                        kibPerSecond += Math.abs( Double.parseDouble( dimension.getValue() ) );
+                    }
+                }
+                samples.io.put( timestamp, kibPerSecond * 1_024 );
+                break;
+            default:
+                logger.trace( "Ignoring netdata chart {}", measurement.getType() );
+        }
+    }
+
+
+    private static boolean isTime( String dimension ) {
+        return dimension.equals( "time" );
+    }
+
+
+    public boolean isEmpty() {
+        return hosts.isEmpty();
+    }
+
+
+    /**
+     * @param intervalSeries results of an {@link IntervalSeries}
+     * @return per host the resource usage per interval and per transaction, and the flagged intervals
+     */
+    public JsonObject correlate( JsonObject intervalSeries ) {
+        JsonObject results = new JsonObject();
+        JsonArray starts = intervalSeries.getAsJsonArray( "intervalStart" );
+        if ( starts == null || starts.size() == 0 ) {
+            logger.warn( "No intervals to correlate the resource usage with" );
+            return results;
+        }
+        long interval = intervalSeries.get( "interval" ).getAsLong();
+        long[] intervalStarts = new long[starts.size()];
+        Arrays.setAll( intervalStarts, i -> starts.get( i ).getAsLong() );
+        JsonObject total = intervalSeries.getAsJsonObject( IntervalSeries.TOTAL );
+        long[] committed = toLongs( total.getAsJsonArray( "committed" ) );
+        long[] newOrders = intervalSeries.has( TPCCTransactionType.TPCCTRANSACTIONNEWORDER.toString() ) ? toLongs( intervalSeries.getAsJsonObject( TPCCTransactionType.TPCCTRANSACTIONNEWORDER.toString() ).getAsJsonArray( "committed" ) ) : new long[intervalStarts.length];
+        JsonArray p99 = total.getAsJsonArray( "p99" );
+
+        double[] latencies = new double[intervalStarts.length];
+        Arrays.setAll( latencies, i -> p99.get( i ).getAsDouble() );
+        double medianLatency = median( latencies );
+
+        JsonObject hostResults = new JsonObject();
+        boolean[][] saturated = new boolean[hosts.size()][];
+        String[] hostNames = hosts.keySet().toArray( new String[0] );
+        int hostIdx = 0;
+        for ( Entry<String, HostSamples> entry : hosts.entrySet() ) {
+            HostUsage usage = entry.getValue().aggregate( intervalStarts, interval );
+            saturated[hostIdx++] = usage.saturated;
+            hostResults.add( entry.getKey(), usage.toJson( entry.getValue().cores, interval, committed, newOrders ) );
+        }
+        results.add( "hosts", hostResults );
+
+        JsonArray flagged = new JsonArray();
+        int spikes = 0;
+        for ( int i = 0; i < intervalStarts.length; i++ ) {
+            if ( medianLatency <= 0 || latencies[i] < SPIKE_FACTOR * medianLatency ) {
+                continue;
+            }
+            spikes++;
+            JsonArray saturatedHosts = new JsonArray();
+            for ( int host = 0; host < hostNames.length; host++ ) {
+                if ( saturated[host][i] ) {
+                    saturatedHosts.add( hostNames[host] );
+                }
+            }
+            if ( saturatedHosts.size() > 0 ) {
+                JsonObject spike = new JsonObject();
+                spike.addProperty( "intervalStart", intervalStarts[i] );
+                spike.addProperty( "p99", latencies[i] );
+                spike.add( "saturatedHosts", saturatedHosts );
+                flagged.add( spike );
+            }
+        }
+        results.addProperty( "medianP99", medianLatency );
+        results.addProperty( "latencySpikes", spikes );
+        results.add( "flaggedIntervals", flagged );
+        if ( flagged.size() > 0 ) {
+            logger.warn( "{} of {} latency spikes coincide with resource saturation", flagged.size(), spikes );
+        }
+        return results;
+    }
+
+
+    private static long[] toLongs( JsonArray array ) {
+        long[] values = new long[array.size()];
+        Arrays.setAll( values, i -> array.get( i ).getAsLong() );
+        return values;
+    }
+
+
+    /**
+     * @return median of the values which are greater than 0, 0 if there are none
+     */
+    private static double median( double[] values ) {
+        double[] positive = Arrays.stream( values ).filter( value -> value > 0 ).sorted().toArray();
+        if ( positive.length == 0 ) {
+            return 0;
+        }
+        return positive[positive.length / 2];
+    }
+
+
+    /**
+     * Samples of a host, ordered by timestamp
+     */
+    private static class HostSamples {
+
+        private int cores = 0;
+        //busy and iowait in percent
+        private final TreeMap<Long, double[]> cpu = new TreeMap<>();
+        //bytes per second
+        private final TreeMap<Long, Double> io = new TreeMap<>();
+
+
+        HostUsage aggregate( long[] intervalStarts, long interval ) {
+            HostUsage usage = new HostUsage( intervalStarts.length );
+            for ( int i = 0; i < intervalStarts.length; i++ ) {
+                Map<Long, double[]> cpuSamples = cpu.subMap( intervalStarts[i], intervalStarts[i] + interval );
+                if ( !cpuSamples.isEmpty() ) {
+                    usage.cpu[i] = cpuSamples.values().stream().mapToDouble( sample -> sample[0] ).average().orElse( 0 );
+                    usage.iowait[i] = cpuSamples.values().stream().mapToDouble( sample -> sample[1] ).average().orElse( 0 );
+                    usage.cpuSampled[i] = true;
+                }
+                Map<Long, Double> ioSamples = io.subMap( intervalStarts[i], intervalStarts[i] + interval );
+                if ( !ioSamples.isEmpty() ) {
+                    usage.ioBytes[i] = ioSamples.values().stream().mapToDouble( Double::doubleValue ).average().orElse( 0 );
+                    usage.ioSampled[i] = true;
+                }
+                usage.saturated[i] = usage.cpu[i] >= CPU_SATURATION || usage.iowait[i] >= IOWAIT_SATURATION;
+            }
+            return usage;
+        }
+    }
+
+
+    /**
+     * Mean usage of a host per interval
+     */
+    private static class HostUsage {
+
+        private final double[] cpu;
+        private final double[] iowait;
+        private final double[] ioBytes;
+        private final boolean[] cpuSampled;
+        private final boolean[] ioSampled;
+        private final boolean[] saturated;
+
+
+        HostUsage( int intervals ) {
+            cpu = new double[intervals];
+            iowait = new double[intervals];
+            ioBytes = new double[intervals];
+            cpuSampled = new boolean[intervals];
+            ioSampled = new boolean[intervals];
+            saturated = new boolean[intervals];
+        }
+
+
+        /**
+         * Per-transaction figures only include the intervals in which the host was sampled
+         */
+        JsonObject toJson( int cores, long interval, long[] committed, long[] newOrders ) {
+            double cpuMs = 0;
+            double ioBytesTotal = 0;
+            long cpuTransactions = 0;
+            long cpuNewOrders = 0;
+            long cpuIntervals = 0;
+            long ioTransactions = 0;
+            double utilization = 0;
+            for ( int i = 0; i < cpu.length; i++ ) {
+                if ( cpuSampled[i] ) {
+                    cpuMs += cpu[i] / 100 * cores * interval;
+                    utilization += cpu[i];
+                    cpuTransactions += committed[i];
+                    cpuNewOrders += newOrders[i];
+                    cpuIntervals++;
+                }
+                if ( ioSampled[i] ) {
+                    ioBytesTotal += ioBytes[i] * interval / 1_000;
+                    ioTransactions += committed[i];
+                }
+            }
+            JsonObject result = new JsonObject();
+            if ( cpuIntervals > 0 ) {
+                result.addProperty( "cpuUtilization", utilization / cpuIntervals );
+            }
+            if ( cores > 0 && cpuIntervals > 0 ) {
+                double coreSeconds = (double) cores * cpuIntervals * interval / 1_000;
+                result.addProperty( "cores", cores );
+                result.addProperty( "cpuMsPerTransaction", cpuTransactions == 0 ? 0 : cpuMs / cpuTransactions );
+                result.addProperty( "cpuMsPerNewOrder", cpuNewOrders == 0 ? 0 : cpuMs / cpuNewOrders );
+                result.addProperty( "transactionsPerCoreSecond", cpuTransactions / coreSeconds );
+                result.addProperty( "tpmCPerCore", cpuNewOrders * 60 / coreSeconds );
+            }
+            if ( ioTransactions > 0 ) {
+                result.addProperty( "ioBytesPerTransaction", ioBytesTotal / ioTransactions );
+            }
+            JsonArray cpuSeries = new JsonArray();
+            JsonArray iowaitSeries = new JsonArray();
+            JsonArray ioSeries = new JsonArray();
+            JsonArray saturatedSeries = new JsonArray();
+            for ( int i = 0; i < cpu.length; i++ ) {
+                cpuSeries.add( cpu[i] );
+                iowaitSeries.add( iowait[i] );
+                ioSeries.add( ioBytes[i] );
+                saturatedSeries.add( saturated[i] );
+            }
+            result.add( "cpu", cpuSeries );
+            result.add( "iowait", iowaitSeries );
+            result.add( "ioBytesPerSecond", ioSeries );
+            result.add( "saturated", saturatedSeries );
+            return result;
+        }
+    }
+}
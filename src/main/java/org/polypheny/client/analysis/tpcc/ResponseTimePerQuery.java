@@ -3,52 +3,53 @@
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
-import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.ResponseTimeHistogram;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCQueryTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
 
 
 /**
- * Calculates average {@link TPCCQueryTuple#getExecutionTime()} per query and stores it along with an example query
+ * Statistics of {@link TPCCQueryTuple#getExecutionTime()} per {@link StatementTemplate} and {@link TPCCTransactionType}. Statements are grouped by their template and not by their position within the transaction, since the number of statements varies, e.g. with the number of order lines of a New-Order.
+ *
+ * The histograms of the templates are stored as well, so {@link RunComparison} can tell which statement regressed. For every transaction type, the critical path summarizes which share of the response time is spent in statements and which templates account for most of it.
  *
  * @author silvan on 26.07.17.
  */
 public class ResponseTimePerQuery implements TPCCAnalyzer {
 
-    private static Logger logger = LogManager.getLogger();
-
-    HashMap<TPCCTransactionType, List<MutablePair<Integer, Long>>> queryResponseTimes = new HashMap<>();
-    HashMap<TPCCTransactionType, List<String>> exampleQueries = new HashMap<>();
+    /**
+     * The critical path lists the most expensive templates until they account for this share of the statement time
+     */
+    static final double CRITICAL_PATH_SHARE = 0.8;
 
+    private static Logger logger = LogManager.getLogger();
 
-    public ResponseTimePerQuery() {
-        for ( TPCCTransactionType transactionType : TPCCTransactionType.values() ) {
-            queryResponseTimes.put( transactionType, new ArrayList<>() );
-            exampleQueries.put( transactionType, new ArrayList<>() );
-        }
-    }
+    private EnumMap<TPCCTransactionType, TransactionStatistics> transactions = new EnumMap<>( TPCCTransactionType.class );
 
 
     @Override
     public void process( TPCCResultTuple tuple ) {
-        //Response Time / query
-        List<MutablePair<Integer, Long>> currentList = queryResponseTimes.get( tuple.getTransactionType() );
-
-        for ( int i = 0; i < tuple.getQueriesList().size(); i++ ) {
-            TPCCQueryTuple queryTuple = tuple.getQueries( i );
-            if ( currentList.size() <= i ) {
-                currentList.add( new MutablePair<>( 0, 0L ) );
-                exampleQueries.get( tuple.getTransactionType() ).add( queryTuple.getQuery() );
+        TransactionStatistics statistics = transactions.computeIfAbsent( tuple.getTransactionType(), type -> new TransactionStatistics() );
+        statistics.count++;
+        statistics.responseTime += tuple.getResponseTime();
+        for ( TPCCQueryTuple queryTuple : tuple.getQueriesList() ) {
+            String template = StatementTemplate.of( queryTuple.getQuery() );
+            StatementStatistics statement = statistics.statements.get( template );
+            if ( statement == null ) {
+                statement = new StatementStatistics( queryTuple.getQuery() );
+                statistics.statements.put( template, statement );
             }
-            currentList.get( i ).setLeft( currentList.get( i ).getLeft() + 1 );
-            currentList.get( i ).setRight( currentList.get( i ).getRight() + queryTuple.getExecutionTime() );
+            statement.add( queryTuple );
         }
     }
 
@@ -56,22 +57,115 @@ public void process( TPCCResultTuple tuple ) {
     @Override
     public JsonObject getResults() {
         JsonObject object = new JsonObject();
-        for ( Entry<TPCCTransactionType, List<MutablePair<Integer, Long>>> entry : queryResponseTimes.entrySet() ) {
-            JsonArray array = new JsonArray();
-            for ( int i = 0; i < entry.getValue().size(); i++ ) {
-                MutablePair<Integer, Long> pair = entry.getValue().get( i );
-                if ( pair.getLeft() == 0 ) {
-                    continue;
+        for ( Entry<TPCCTransactionType, TransactionStatistics> entry : transactions.entrySet() ) {
+            object.add( entry.getKey().toString(), entry.getValue().toJson( entry.getKey() ) );
+        }
+        return object;
+    }
+
+
+    @Override
+    public void merge( TPCCAnalyzer other ) {
+        ResponseTimePerQuery otherAnalyzer = (ResponseTimePerQuery) other;
+        otherAnalyzer.transactions.forEach( ( type, statistics ) -> transactions.computeIfAbsent( type, t -> new TransactionStatistics() ).merge( statistics ) );
+    }
+
+
+    private static class TransactionStatistics implements Serializable {
+
+        private long count = 0;
+        private double responseTime = 0;
+        private Map<String, StatementStatistics> statements = new HashMap<>();
+
+
+        void merge( TransactionStatistics other ) {
+            count += other.count;
+            responseTime += other.responseTime;
+            other.statements.forEach( ( template, statistics ) -> {
+                StatementStatistics statement = statements.get( template );
+                if ( statement == null ) {
+                    statements.put( template, statistics );
+                } else {
+                    statement.merge( statistics );
+                }
+            } );
+        }
+
+
+        JsonObject toJson( TPCCTransactionType type ) {
+            List<Entry<String, StatementStatistics>> sorted = new ArrayList<>( statements.entrySet() );
+            sorted.sort( ( first, second ) -> Long.compare( second.getValue().executionTime, first.getValue().executionTime ) );
+            long statementTime = sorted.stream().mapToLong( entry -> entry.getValue().executionTime ).sum();
+
+            JsonArray statementResults = new JsonArray();
+            JsonArray criticalPath = new JsonArray();
+            long cumulativeTime = 0;
+            for ( Entry<String, StatementStatistics> entry : sorted ) {
+                StatementStatistics statement = entry.getValue();
+                String templateID = StatementTemplate.id( entry.getKey() );
+                JsonObject result = statement.histogram.toJson();
+                result.addProperty( "templateID", templateID );
+                result.addProperty( "template", entry.getKey() );
+                result.addProperty( "perTransaction", count == 0 ? 0 : (double) statement.histogram.getCount() / count );
+                if ( statement.rowsReported > 0 ) {
+                    result.addProperty( "rowsTouched", (double) statement.rows / statement.rowsReported );
+                }
+                result.addProperty( "timeFraction", responseTime == 0 ? 0 : statement.executionTime / responseTime );
+                result.addProperty( "Example query", statement.example );
+                result.addProperty( "histogram", statement.histogram.encode() );
+                statementResults.add( result );
+
+                if ( statementTime > 0 && cumulativeTime < CRITICAL_PATH_SHARE * statementTime ) {
+                    criticalPath.add( templateID );
+                    cumulativeTime += statement.executionTime;
                 }
-                logger.trace( "Transaction {}, query with index {} had an average response time of {} ms \n Example query: {}", entry.getKey(), i, pair.getRight() / pair.getLeft(), exampleQueries.get( entry.getKey() ).get( i ) );
-                JsonObject result = new JsonObject();
-                result.addProperty( "index", i );
-                result.addProperty( "time", pair.getRight() / pair.getLeft() );
-                result.addProperty( "Example query", exampleQueries.get( entry.getKey() ).get( i ) );
-                array.add( result );
+                logger.trace( "Transaction {}, template {} took {} ms on average \n Example query: {}", type, templateID, statement.histogram.getMean(), statement.example );
             }
-            object.add( entry.getKey().toString(), array );
+
+            JsonObject summary = new JsonObject();
+            summary.addProperty( "transactions", count );
+            summary.addProperty( "meanResponseTime", count == 0 ? 0 : responseTime / count );
+            summary.addProperty( "statementFraction", responseTime == 0 ? 0 : Math.min( 1, statementTime / responseTime ) );
+            summary.add( "templates", criticalPath );
+
+            JsonObject results = new JsonObject();
+            results.add( "criticalPath", summary );
+            results.add( "statements", statementResults );
+            return results;
+        }
+    }
+
+
+    private static class StatementStatistics implements Serializable {
+
+        private final String example;
+        private final ResponseTimeHistogram histogram = new ResponseTimeHistogram();
+        private long executionTime = 0;
+        private long rows = 0;
+        //Executions which reported how many rows they touched
+        private long rowsReported = 0;
+
+
+        StatementStatistics( String example ) {
+            this.example = example;
+        }
+
+
+        void add( TPCCQueryTuple queryTuple ) {
+            histogram.record( queryTuple.getExecutionTime() );
+            executionTime += queryTuple.getExecutionTime();
+            if ( queryTuple.getRows() > 0 ) {
+                rows += queryTuple.getRows();
+                rowsReported++;
+            }
+        }
+
+
+        void merge( StatementStatistics other ) {
+            histogram.merge( other.histogram );
+            executionTime += other.executionTime;
+            rows += other.rows;
+            rowsReported += other.rowsReported;
         }
-        return object;
     }
 }
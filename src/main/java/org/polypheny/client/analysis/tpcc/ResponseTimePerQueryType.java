@@ -55,4 +55,14 @@ public JsonObject getResults() {
         }
         return results;
     }
+
+
+    @Override
+    public void merge( TPCCAnalyzer other ) {
+        for ( Entry<QueryType, MutablePair<Integer, Long>> entry : ((ResponseTimePerQueryType) other).avgResponseTime.entrySet() ) {
+            MutablePair<Integer, Long> pair = avgResponseTime.get( entry.getKey() );
+            pair.setLeft( pair.getLeft() + entry.getValue().getLeft() );
+            pair.setRight( pair.getRight() + entry.getValue().getRight() );
+        }
+    }
 }
@@ -0,0 +1,154 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import com.google.gson.JsonObject;
+import java.util.EnumMap;
+import java.util.Map.Entry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.ResponseTimeHistogram;
+import org.polypheny.client.grpc.PolyClientGRPC.QueryType;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCQueryTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+/**
+ * Response time percentiles of {@link TPCCResultTuple#getResponseTime()} per {@link TPCCTransactionType} and of {@link TPCCQueryTuple#getExecutionTime()} per {@link QueryType}.
+ *
+ * Every entry contains the encoded histogram, so runs can be compared later on.
+ *
+ * {@link TPCCResultTuple#getResponseTime()} is the service time of a transaction. If a terminal stalls, it issues fewer transactions and the stall is under-represented. Therefore, the response time including queueing is reported separately: scheduled transactions use {@link TPCCResultTuple#getIntendedResponseTime()}, for all others the service time is corrected with the expected interval between two transactions of a terminal. A terminal which runs back-to-back starts a transaction whenever the previous one finished, so its expected interval can be derived from the median service time, see {@link #DERIVED_INTERVAL}.
+ *
+ * @tpccversion 5.11
+ */
+public class ResponseTimePercentiles implements TPCCAnalyzer {
+
+    /**
+     * Expected interval which is derived from the median service time of the transactions which were not scheduled
+     */
+    public static final long DERIVED_INTERVAL = -1;
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final long expectedInterval;
+    private EnumMap<TPCCTransactionType, ResponseTimeHistogram> transactions = new EnumMap<>( TPCCTransactionType.class );
+    private EnumMap<TPCCTransactionType, ResponseTimeHistogram> responseTimes = new EnumMap<>( TPCCTransactionType.class );
+    //Service times of the transactions which were not scheduled, corrected once the interval is derived from all of them
+    private EnumMap<TPCCTransactionType, ResponseTimeHistogram> backToBack = new EnumMap<>( TPCCTransactionType.class );
+    private EnumMap<QueryType, ResponseTimeHistogram> queries = new EnumMap<>( QueryType.class );
+    private long scheduled = 0;
+    private long corrected = 0;
+    private long uncorrected = 0;
+
+
+    /**
+     * Only scheduled transactions contribute to the response times, the others are reported as uncorrected
+     */
+    public ResponseTimePercentiles() {
+        this( 0 );
+    }
+
+
+    /**
+     * @param expectedInterval ms a terminal is expected to take between two transactions which were not scheduled, e.g. its think time. {@link #DERIVED_INTERVAL} derives it from the median service time, 0 disables the correction.
+     */
+    public ResponseTimePercentiles( long expectedInterval ) {
+        this.expectedInterval = expectedInterval;
+    }
+
+
+    @Override
+    public String getCheckpointKey() {
+        return getClass().getSimpleName() + "_" + expectedInterval;
+    }
+
+
+    @Override
+    public void process( TPCCResultTuple tuple ) {
+        transactions.computeIfAbsent( tuple.getTransactionType(), type -> new ResponseTimeHistogram() ).record( tuple.getResponseTime() );
+        if ( tuple.getIntendedStartTimestamp() > 0 ) {
+            responseTimes.computeIfAbsent( tuple.getTransactionType(), type -> new ResponseTimeHistogram() ).record( tuple.getIntendedResponseTime() );
+            scheduled++;
+        } else if ( expectedInterval > 0 ) {
+            responseTimes.computeIfAbsent( tuple.getTransactionType(), type -> new ResponseTimeHistogram() ).recordWithExpectedInterval( tuple.getResponseTime(), expectedInterval );
+            corrected++;
+        } else if ( expectedInterval == DERIVED_INTERVAL ) {
+            backToBack.computeIfAbsent( tuple.getTransactionType(), type -> new ResponseTimeHistogram() ).record( tuple.getResponseTime() );
+            corrected++;
+        } else {
+            uncorrected++;
+        }
+        for ( TPCCQueryTuple queryTuple : tuple.getQueriesList() ) {
+            queries.computeIfAbsent( queryTuple.getQueryType(), type -> new ResponseTimeHistogram() ).record( queryTuple.getExecutionTime() );
+        }
+    }
+
+
+    @Override
+    public JsonObject getResults() {
+        JsonObject transactionResults = new JsonObject();
+        for ( Entry<TPCCTransactionType, ResponseTimeHistogram> entry : transactions.entrySet() ) {
+            logger.info( "Transaction {} had a p90 response time of {} ms", entry.getKey(), entry.getValue().getPercentile( 90 ) );
+            transactionResults.add( entry.getKey().toString(), toJson( entry.getValue() ) );
+        }
+        double interval = expectedInterval == DERIVED_INTERVAL ? derivedInterval() : expectedInterval;
+        EnumMap<TPCCTransactionType, ResponseTimeHistogram> correctedResponseTimes = new EnumMap<>( TPCCTransactionType.class );
+        responseTimes.forEach( ( type, histogram ) -> correctedResponseTimes.computeIfAbsent( type, t -> new ResponseTimeHistogram() ).merge( histogram ) );
+        backToBack.forEach( ( type, histogram ) -> correctedResponseTimes.computeIfAbsent( type, t -> new ResponseTimeHistogram() ).merge( histogram.copyWithExpectedInterval( interval ) ) );
+        JsonObject responseTimeResults = new JsonObject();
+        for ( Entry<TPCCTransactionType, ResponseTimeHistogram> entry : correctedResponseTimes.entrySet() ) {
+            logger.info( "Transaction {} had a p90 response time including queueing of {} ms", entry.getKey(), entry.getValue().getPercentile( 90 ) );
+            responseTimeResults.add( entry.getKey().toString(), toJson( entry.getValue() ) );
+        }
+        JsonObject queryResults = new JsonObject();
+        for ( Entry<QueryType, ResponseTimeHistogram> entry : queries.entrySet() ) {
+            queryResults.add( entry.getKey().toString(), toJson( entry.getValue() ) );
+        }
+        JsonObject results = new JsonObject();
+        results.add( "transactions", transactionResults );
+        JsonObject correction = new JsonObject();
+        correction.addProperty( "scheduled", scheduled );
+        correction.addProperty( "corrected", corrected );
+        //Service times only, the response times of these transactions are not reported
+        correction.addProperty( "uncorrected", uncorrected );
+        correction.addProperty( "expectedInterval", interval );
+        correction.addProperty( "derivedInterval", expectedInterval == DERIVED_INTERVAL );
+        results.add( "responseTimeCorrection", correction );
+        if ( !correctedResponseTimes.isEmpty() ) {
+            results.add( "responseTimes", responseTimeResults );
+        }
+        results.add( "queries", queryResults );
+        return results;
+    }
+
+
+    /**
+     * @return median service time of the transactions which were not scheduled in ms, the interval at which a terminal running back-to-back starts them
+     */
+    private double derivedInterval() {
+        ResponseTimeHistogram all = new ResponseTimeHistogram();
+        backToBack.values().forEach( all::merge );
+        return all.getCount() > 0 ? all.getPercentile( 50 ) : 0;
+    }
+
+
+    private static JsonObject toJson( ResponseTimeHistogram histogram ) {
+        JsonObject json = histogram.toJson();
+        json.addProperty( "histogram", histogram.encode() );
+        return json;
+    }
+
+
+    @Override
+    public void merge( TPCCAnalyzer other ) {
+        ResponseTimePercentiles otherAnalyzer = (ResponseTimePercentiles) other;
+        otherAnalyzer.transactions.forEach( ( type, histogram ) -> transactions.computeIfAbsent( type, t -> new ResponseTimeHistogram() ).merge( histogram ) );
+        otherAnalyzer.responseTimes.forEach( ( type, histogram ) -> responseTimes.computeIfAbsent( type, t -> new ResponseTimeHistogram() ).merge( histogram ) );
+        otherAnalyzer.backToBack.forEach( ( type, histogram ) -> backToBack.computeIfAbsent( type, t -> new ResponseTimeHistogram() ).merge( histogram ) );
+        scheduled += otherAnalyzer.scheduled;
+        corrected += otherAnalyzer.corrected;
+        uncorrected += otherAnalyzer.uncorrected;
+        otherAnalyzer.queries.forEach( ( type, histogram ) -> queries.computeIfAbsent( type, t -> new ResponseTimeHistogram() ).merge( histogram ) );
+    }
+}
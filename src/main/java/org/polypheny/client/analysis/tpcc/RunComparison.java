@@ -0,0 +1,288 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import org.apache.commons.math3.distribution.BetaDistribution;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.ResponseTimeHistogram;
+
+
+/**
+ * Compares the analysis.json of a candidate run against a baseline. Metrics are aligned by transaction and query type:
+ *
+ * <ul>
+ * <li>Throughput per transaction type, from the intervals of the {@link IntervalSeries}. The confidence interval of the difference of the mean throughputs is bootstrapped by resampling the intervals.</li>
+ * <li>{@link #COMPARED_PERCENTILES} of the service times, response times and query execution times, from the histograms stored by {@link ResponseTimePercentiles}, and of every statement template, from {@link ResponseTimePerQuery}. A bootstrap resample of a percentile is drawn directly: the k-th smallest of n samples from a distribution is the value at a Beta(k, n - k + 1) distributed quantile.</li>
+ * </ul>
+ *
+ * A metric regressed if it got worse by more than the threshold and the difference is significant after a Holm correction over all metrics of the candidate. The p-value of a metric is the two-sided bootstrap p-value of the difference being 0, the reported confidence intervals are not corrected. With many
+ * statements, the smallest possible p-value of 2 / (resamples + 1) has to stay below (1 - confidence) / metrics, otherwise no metric can be significant.
+ *
+ * @tpccversion 5.11
+ */
+public class RunComparison {
+
+    /**
+     * Percentiles of the response time histograms which are compared
+     */
+    public static final double[] COMPARED_PERCENTILES = { 50, 90, 99 };
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final double threshold;
+    private final double confidence;
+    private final int resamples;
+    private final RandomGenerator random;
+    private int regressions = 0;
+    private List<Metric> metrics = new ArrayList<>();
+
+
+    /**
+     * @param threshold minimal relative change of a metric to be reported as regression, e.g. 0.05
+     * @param confidence level of the confidence intervals, e.g. 0.95
+     * @param resamples number of bootstrap resamples per metric
+     * @param seed for the bootstrap, so reports are reproducible
+     */
+    public RunComparison( double threshold, double confidence, int resamples, long seed ) {
+        this.threshold = threshold;
+        this.confidence = confidence;
+        this.resamples = resamples;
+        this.random = new Well19937c( seed );
+    }
+
+
+    /**
+     * @param baseline content of the analysis.json of the baseline
+     * @param candidate content of the analysis.json of the candidate
+     * @return the compared metrics, grouped into throughput, transactions, responseTimes, queries and statements, and the correction for multiple comparisons
+     */
+    public JsonObject compare( JsonObject baseline, JsonObject candidate ) {
+        metrics.clear();
+        JsonObject results = new JsonObject();
+        results.add( "throughput", compareThroughput( baseline.getAsJsonObject( IntervalSeries.class.getSimpleName() ), candidate.getAsJsonObject( IntervalSeries.class.getSimpleName() ) ) );
+        JsonObject baselinePercentiles = baseline.getAsJsonObject( ResponseTimePercentiles.class.getSimpleName() );
+        JsonObject candidatePercentiles = candidate.getAsJsonObject( ResponseTimePercentiles.class.getSimpleName() );
+        for ( String group : new String[]{ "transactions", "responseTimes", "queries" } ) {
+            results.add( group, compareHistograms( member( baselinePercentiles, group ), member( candidatePercentiles, group ) ) );
+        }
+        results.add( "statements", compareHistograms( statements( baseline ), statements( candidate ) ) );
+        results.add( "correction", correct() );
+        return results;
+    }
+
+
+    /**
+     * @return how many metrics regressed in all comparisons so far
+     */
+    public int getRegressions() {
+        return regressions;
+    }
+
+
+    private JsonObject compareThroughput( JsonObject baseline, JsonObject candidate ) {
+        JsonObject results = new JsonObject();
+        if ( baseline == null || candidate == null ) {
+            logger.warn( "Throughput can only be compared if both runs contain an {}", IntervalSeries.class.getSimpleName() );
+            return results;
+        }
+        for ( Entry<String, JsonElement> entry : baseline.entrySet() ) {
+            if ( !entry.getValue().isJsonObject() || !candidate.has( entry.getKey() ) ) {
+                continue;
+            }
+            double[] baselineIntervals = toArray( entry.getValue().getAsJsonObject().getAsJsonArray( "throughput" ) );
+            double[] candidateIntervals = toArray( candidate.getAsJsonObject( entry.getKey() ).getAsJsonArray( "throughput" ) );
+            if ( baselineIntervals.length == 0 || candidateIntervals.length == 0 ) {
+                continue;
+            }
+            double[] deltas = new double[resamples];
+            for ( int i = 0; i < resamples; i++ ) {
+                deltas[i] = resampleMean( candidateIntervals ) - resampleMean( baselineIntervals );
+            }
+            results.add( entry.getKey(), metric( mean( baselineIntervals ), mean( candidateIntervals ), deltas, false ) );
+        }
+        return results;
+    }
+
+
+    private JsonObject compareHistograms( JsonObject baseline, JsonObject candidate ) {
+        JsonObject results = new JsonObject();
+        for ( Entry<String, JsonElement> entry : baseline.entrySet() ) {
+            if ( !candidate.has( entry.getKey() ) || !entry.getValue().getAsJsonObject().has( "histogram" ) || !candidate.getAsJsonObject( entry.getKey() ).has( "histogram" ) ) {
+                continue;
+            }
+            ResponseTimeHistogram baselineHistogram = ResponseTimeHistogram.decode( entry.getValue().getAsJsonObject().get( "histogram" ).getAsString() );
+            ResponseTimeHistogram candidateHistogram = ResponseTimeHistogram.decode( candidate.getAsJsonObject( entry.getKey() ).get( "histogram" ).getAsString() );
+            if ( baselineHistogram.getCount() == 0 || candidateHistogram.getCount() == 0 ) {
+                continue;
+            }
+            JsonObject percentiles = new JsonObject();
+            for ( double percentile : COMPARED_PERCENTILES ) {
+                double[] deltas = new double[resamples];
+                for ( int i = 0; i < resamples; i++ ) {
+                    deltas[i] = resamplePercentile( candidateHistogram, percentile ) - resamplePercentile( baselineHistogram, percentile );
+                }
+                percentiles.add( "p" + (long) percentile, metric( baselineHistogram.getPercentile( percentile ), candidateHistogram.getPercentile( percentile ), deltas, true ) );
+            }
+            results.add( entry.getKey(), percentiles );
+        }
+        return results;
+    }
+
+
+    /**
+     * The regression of the metric is decided by {@link #correct()} once all metrics of the candidate are known.
+     *
+     * @param higherIsWorse true for response times, false for throughput
+     */
+    private JsonObject metric( double baseline, double candidate, double[] deltas, boolean higherIsWorse ) {
+        Arrays.sort( deltas );
+        double alpha = (1 - confidence) / 2;
+        double lower = deltas[(int) Math.floor( alpha * (deltas.length - 1) )];
+        double upper = deltas[(int) Math.ceil( (1 - alpha) * (deltas.length - 1) )];
+        double relativeDelta = baseline == 0 ? 0 : (candidate - baseline) / baseline;
+        JsonObject metric = new JsonObject();
+        metric.addProperty( "baseline", baseline );
+        metric.addProperty( "candidate", candidate );
+        metric.addProperty( "delta", candidate - baseline );
+        metric.addProperty( "relativeDelta", relativeDelta );
+        metric.addProperty( "ciLower", lower );
+        metric.addProperty( "ciUpper", upper );
+        metrics.add( new Metric( metric, pValue( deltas ), higherIsWorse ? relativeDelta > threshold : relativeDelta < -threshold ) );
+        return metric;
+    }
+
+
+    /**
+     * @param deltas sorted bootstrap differences
+     * @return two-sided p-value of the difference being 0
+     */
+    static double pValue( double[] deltas ) {
+        long notAbove = Arrays.stream( deltas ).filter( delta -> delta <= 0 ).count();
+        long notBelow = Arrays.stream( deltas ).filter( delta -> delta >= 0 ).count();
+        return Math.min( 1, 2.0 * (Math.min( notAbove, notBelow ) + 1) / (deltas.length + 1) );
+    }
+
+
+    /**
+     * Holm step-down correction over the metrics of the current candidate. Adds the raw and adjusted p-value and the decision to every metric.
+     *
+     * @return the method, the number of corrected metrics and the family-wise error rate
+     */
+    private JsonObject correct() {
+        double alpha = 1 - confidence;
+        List<Metric> sorted = new ArrayList<>( metrics );
+        sorted.sort( Comparator.comparingDouble( metric -> metric.pValue ) );
+        double adjusted = 0;
+        for ( int i = 0; i < sorted.size(); i++ ) {
+            Metric metric = sorted.get( i );
+            adjusted = Math.max( adjusted, Math.min( 1, (sorted.size() - i) * metric.pValue ) );
+            boolean regression = adjusted <= alpha && metric.worseThanThreshold;
+            if ( regression ) {
+                regressions++;
+            }
+            metric.json.addProperty( "pValue", metric.pValue );
+            metric.json.addProperty( "adjustedPValue", adjusted );
+            metric.json.addProperty( "regression", regression );
+        }
+        if ( !metrics.isEmpty() && 2.0 / (resamples + 1) > alpha / metrics.size() ) {
+            logger.warn( "With {} resamples none of the {} metrics can be significant, increase the resamples", resamples, metrics.size() );
+        }
+        JsonObject correction = new JsonObject();
+        correction.addProperty( "method", "holm" );
+        correction.addProperty( "metrics", metrics.size() );
+        correction.addProperty( "familyWiseErrorRate", alpha );
+        return correction;
+    }
+
+
+    /**
+     * @return the percentile of a bootstrap resample of the values in the histogram, without drawing the resample
+     */
+    double resamplePercentile( ResponseTimeHistogram histogram, double percentile ) {
+        long count = histogram.getCount();
+        long rank = Math.max( 1, (long) Math.ceil( percentile / 100 * count ) );
+        double quantile = new BetaDistribution( random, rank, count - rank + 1 ).sample();
+        return histogram.getPercentile( quantile * 100 );
+    }
+
+
+    private double resampleMean( double[] values ) {
+        double sum = 0;
+        for ( int i = 0; i < values.length; i++ ) {
+            sum += values[random.nextInt( values.length )];
+        }
+        return sum / values.length;
+    }
+
+
+    private static double mean( double[] values ) {
+        return Arrays.stream( values ).average().orElse( 0 );
+    }
+
+
+    private static double[] toArray( JsonArray array ) {
+        if ( array == null ) {
+            return new double[0];
+        }
+        double[] values = new double[array.size()];
+        for ( int i = 0; i < values.length; i++ ) {
+            values[i] = array.get( i ).getAsDouble();
+        }
+        return values;
+    }
+
+
+    /**
+     * @return statistics of the statement templates of {@link ResponseTimePerQuery}, keyed by transaction type and template id
+     */
+    private static JsonObject statements( JsonObject analysis ) {
+        JsonObject statements = new JsonObject();
+        JsonObject perQuery = analysis.getAsJsonObject( ResponseTimePerQuery.class.getSimpleName() );
+        if ( perQuery == null ) {
+            return statements;
+        }
+        for ( Entry<String, JsonElement> type : perQuery.entrySet() ) {
+            JsonArray templates = type.getValue().isJsonObject() ? type.getValue().getAsJsonObject().getAsJsonArray( "statements" ) : null;
+            if ( templates == null ) {
+                continue;
+            }
+            for ( JsonElement template : templates ) {
+                statements.add( type.getKey() + "/" + template.getAsJsonObject().get( "templateID" ).getAsString(), template );
+            }
+        }
+        return statements;
+    }
+
+
+    private static JsonObject member( JsonObject object, String name ) {
+        if ( object == null || !object.has( name ) ) {
+            return new JsonObject();
+        }
+        return object.getAsJsonObject( name );
+    }
+
+
+    private static class Metric {
+
+        private final JsonObject json;
+        private final double pValue;
+        private final boolean worseThanThreshold;
+
+
+        private Metric( JsonObject json, double pValue, boolean worseThanThreshold ) {
+            this.json = json;
+            this.pValue = pValue;
+            this.worseThanThreshold = worseThanThreshold;
+        }
+    }
+}
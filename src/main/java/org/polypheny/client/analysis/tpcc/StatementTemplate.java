@@ -0,0 +1,136 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+
+/**
+ * Groups executed statements by their template: string and numeric literals are replaced by ?, lists of literals and the rows of multi-row inserts are collapsed and whitespace is collapsed. Digits within identifiers such as s_dist_01 are kept.
+ *
+ * @tpccversion 5.11
+ */
+public class StatementTemplate {
+
+    //Multi-row inserts, all literals of a row are already collapsed into one ?
+    private static final Pattern ROW_LIST = Pattern.compile( "\\( ?\\? ?\\)( ?, ?\\( ?\\? ?\\))+" );
+
+    private StatementTemplate() {
+    }
+
+
+    /**
+     * @param statement executed statement
+     * @return statement without literals
+     */
+    public static String of( String statement ) {
+        StringBuilder template = new StringBuilder( statement.length() );
+        int length = statement.length();
+        int i = 0;
+        while ( i < length ) {
+            char c = statement.charAt( i );
+            if ( c == '\'' ) {
+                //Skip the literal, '' is an escaped quote
+                i++;
+                while ( i < length ) {
+                    if ( statement.charAt( i ) == '\'' ) {
+                        if ( i + 1 < length && statement.charAt( i + 1 ) == '\'' ) {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                appendPlaceholder( template );
+            } else if ( Character.isDigit( c ) && !isIdentifierPart( template ) ) {
+                while ( i < length && (Character.isDigit( statement.charAt( i ) ) || statement.charAt( i ) == '.') ) {
+                    i++;
+                }
+                removeUnaryMinus( template );
+                appendPlaceholder( template );
+            } else if ( Character.isWhitespace( c ) ) {
+                while ( i < length && Character.isWhitespace( statement.charAt( i ) ) ) {
+                    i++;
+                }
+                if ( template.length() > 0 ) {
+                    template.append( ' ' );
+                }
+            } else {
+                template.append( c );
+                i++;
+            }
+        }
+        int end = template.length();
+        while ( end > 0 && (template.charAt( end - 1 ) == ' ' || template.charAt( end - 1 ) == ';') ) {
+            end--;
+        }
+        template.setLength( end );
+        if ( template.indexOf( ")," ) < 0 && template.indexOf( ") ," ) < 0 ) {
+            return template.toString();
+        }
+        return ROW_LIST.matcher( template ).replaceAll( "(?)" );
+    }
+
+
+    /**
+     * @return short, stable identifier of a template
+     */
+    public static String id( String template ) {
+        return Hashing.murmur3_32().hashString( template, StandardCharsets.UTF_8 ).toString();
+    }
+
+
+    /**
+     * @return true if the last character belongs to an identifier, so a following digit does not start a literal
+     */
+    private static boolean isIdentifierPart( StringBuilder template ) {
+        if ( template.length() == 0 ) {
+            return false;
+        }
+        char last = template.charAt( template.length() - 1 );
+        return Character.isLetterOrDigit( last ) || last == '_' || last == '.' || last == '"';
+    }
+
+
+    /**
+     * Removes a trailing minus if it is the sign of the following literal and not a subtraction
+     */
+    private static void removeUnaryMinus( StringBuilder template ) {
+        int end = template.length();
+        if ( end == 0 || template.charAt( end - 1 ) != '-' ) {
+            return;
+        }
+        int before = end - 1;
+        while ( before > 0 && template.charAt( before - 1 ) == ' ' ) {
+            before--;
+        }
+        if ( before == 0 || "=<>(,+-*/".indexOf( template.charAt( before - 1 ) ) >= 0 ) {
+            template.setLength( end - 1 );
+        }
+    }
+
+
+    /**
+     * Appends ?, unless the placeholder continues a list of placeholders
+     */
+    private static void appendPlaceholder( StringBuilder template ) {
+        int end = template.length();
+        while ( end > 0 && template.charAt( end - 1 ) == ' ' ) {
+            end--;
+        }
+        if ( end > 0 && template.charAt( end - 1 ) == ',' ) {
+            int before = end - 1;
+            while ( before > 0 && template.charAt( before - 1 ) == ' ' ) {
+                before--;
+            }
+            if ( before > 0 && template.charAt( before - 1 ) == '?' ) {
+                template.setLength( before );
+                return;
+            }
+        }
+        template.append( '?' );
+    }
+}
@@ -0,0 +1,118 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import com.google.gson.JsonObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.TimeBucketSeries;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+
+
+/**
+ * Detects when a run reaches steady state. Transactions are counted in buckets of {@link #bucketSize} ms according to their start timestamp. The steady state begins with the first window of {@link #windowBuckets} consecutive buckets whose throughput has a coefficient of variation below {@link #maxVariation}.
+ *
+ * Call {@link #detect(long, long)} after all tuples have been processed.
+ */
+public class SteadyStateDetector implements TPCCAnalyzer {
+
+    private static Logger logger = LogManager.getLogger();
+
+    private final long bucketSize;
+    private final int windowBuckets;
+    private final double maxVariation;
+    private final TimeBucketSeries transactionsPerBucket;
+    private long steadyStateStart = -1;
+    private double steadyStateVariation = Double.NaN;
+
+
+    /**
+     * @param bucketSize size of a throughput bucket in ms
+     * @param windowBuckets how many consecutive buckets have to be stable
+     * @param maxVariation upper bound for the coefficient of variation (standard deviation / mean) of the throughput within a window
+     */
+    public SteadyStateDetector( long bucketSize, int windowBuckets, double maxVariation ) {
+        this.bucketSize = bucketSize;
+        this.windowBuckets = windowBuckets;
+        this.maxVariation = maxVariation;
+        this.transactionsPerBucket = new TimeBucketSeries( bucketSize );
+    }
+
+
+    /**
+     * One second buckets, a window of 10 seconds and at most 10% variation
+     */
+    public SteadyStateDetector() {
+        this( 1_000, 10, 0.1 );
+    }
+
+
+    @Override
+    public void process( TPCCResultTuple tuple ) {
+        transactionsPerBucket.add( tuple.getStartTimestamp(), 1 );
+    }
+
+
+    @Override
+    public void merge( TPCCAnalyzer other ) {
+        transactionsPerBucket.merge( ((SteadyStateDetector) other).transactionsPerBucket );
+    }
+
+
+    /**
+     * Searches for the start of the steady state within [from, to)
+     *
+     * @param from earliest timestamp at which the steady state may start, e.g. the end of the warm-up
+     * @param to end of the measurement
+     * @return start of the steady state or from if no stable window was found
+     */
+    public long detect( long from, long to ) {
+        long firstBucket = (from + bucketSize - 1) / bucketSize;
+        long lastBucket = to / bucketSize;
+        for ( long windowStart = firstBucket; windowStart + windowBuckets <= lastBucket; windowStart++ ) {
+            double sum = 0;
+            double squares = 0;
+            for ( long bucket = windowStart; bucket < windowStart + windowBuckets; bucket++ ) {
+                long count = transactionsPerBucket.getCount( bucket * bucketSize );
+                sum += count;
+                squares += (double) count * count;
+            }
+            double mean = sum / windowBuckets;
+            if ( mean == 0 ) {
+                continue;
+            }
+            double variation = Math.sqrt( Math.max( 0, squares / windowBuckets - mean * mean ) ) / mean;
+            if ( variation <= maxVariation ) {
+                steadyStateStart = windowStart * bucketSize;
+                steadyStateVariation = variation;
+                logger.info( "Steady state reached at {} with a throughput variation of {}", steadyStateStart, variation );
+                return steadyStateStart;
+            }
+        }
+        logger.warn( "No steady state detected between {} and {}", from, to );
+        steadyStateStart = -1;
+        return from;
+    }
+
+
+    /**
+     * @return true if the last call to {@link #detect(long, long)} found a stable window
+     */
+    public boolean isSteadyStateDetected() {
+        return steadyStateStart >= 0;
+    }
+
+
+    @Override
+    public JsonObject getResults() {
+        JsonObject results = new JsonObject();
+        results.addProperty( "detected", isSteadyStateDetected() );
+        if ( isSteadyStateDetected() ) {
+            results.addProperty( "steadyStateStart", steadyStateStart );
+            results.addProperty( "variation", steadyStateVariation );
+        }
+        results.addProperty( "bucketSize", bucketSize );
+        results.addProperty( "windowBuckets", windowBuckets );
+        results.addProperty( "maxVariation", maxVariation );
+        return results;
+    }
+}
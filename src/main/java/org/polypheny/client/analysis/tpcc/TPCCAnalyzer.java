@@ -2,15 +2,16 @@
 
 
 import com.google.gson.JsonObject;
+import java.io.Serializable;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
 
 
 /**
- * Top-level analyzer class for map-like aggregation.
+ * Top-level analyzer class for map-like aggregation. Analyzers are serializable so their intermediate state can be kept in {@link AnalysisCheckpoints}.
  *
  * @author silvan on 26.07.17.
  */
-public interface TPCCAnalyzer {
+public interface TPCCAnalyzer extends Serializable {
 
     /**
      * Receive and process the next {@link TPCCResultTuple}
@@ -22,4 +23,27 @@ public interface TPCCAnalyzer {
      */
     JsonObject getResults();
 
+    /**
+     * Adds everything the other analyzer has processed to this one. Used to combine analyzers which processed different partitions of the results in parallel.
+     *
+     * @param other an analyzer of the same class
+     */
+    void merge( TPCCAnalyzer other );
+
+    /**
+     * @return true if the analyzer also wants to receive aborted transactions
+     */
+    default boolean includesAborted() {
+        return false;
+    }
+
+    /**
+     * Identifies the state of this analyzer in {@link AnalysisCheckpoints}. Analyzers whose results depend on parameters have to include them.
+     *
+     * @return by default the name of the class
+     */
+    default String getCheckpointKey() {
+        return getClass().getSimpleName();
+    }
+
 }
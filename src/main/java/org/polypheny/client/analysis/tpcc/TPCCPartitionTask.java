@@ -0,0 +1,172 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.tpcc.AnalysisCheckpoints.Checkpoint;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.storage.JsonStreamReader;
+import org.polypheny.client.storage.StorageGson;
+
+
+/**
+ * Analyzes partitioned result files in parallel. Aborted transactions are only passed to analyzers which {@link TPCCAnalyzer#includesAborted()}. Every partition is read by its own task into fresh {@link TPCCAnalyzer} instances which are only touched by that task. The analyzers of two halves are combined with {@link TPCCAnalyzer#merge(TPCCAnalyzer)} when the tasks are joined.
+ *
+ * With {@link AnalysisCheckpoints}, a task starts from the checkpointed analyzers of its partition and skips the tuples they have already processed. The state of a partition is checkpointed every {@link #CHECKPOINT_INTERVAL} tuples and when it has been read, before it is merged with other partitions.
+ *
+ * @tpccversion 5.11
+ */
+public class TPCCPartitionTask extends RecursiveTask<List<TPCCAnalyzer>> {
+
+    /**
+     * Number of tuples after which the state of a partition is checkpointed
+     */
+    static final long CHECKPOINT_INTERVAL = 1_000_000;
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final List<File> partitions;
+    private final List<Supplier<? extends TPCCAnalyzer>> analyzers;
+    private final Predicate<TPCCResultTuple> filter;
+    private final AnalysisCheckpoints checkpoints;
+    private final String pass;
+
+
+    /**
+     * @param partitions JSON arrays of {@link TPCCResultTuple}s
+     * @param analyzers creates the analyzers, called once per partition
+     * @param filter only tuples matching the filter are processed
+     */
+    public TPCCPartitionTask( List<File> partitions, List<Supplier<? extends TPCCAnalyzer>> analyzers, Predicate<TPCCResultTuple> filter ) {
+        this( partitions, analyzers, filter, null, null );
+    }
+
+
+    /**
+     * @param checkpoints null to analyze every partition from the start
+     * @param pass identifies the filter in the checkpoints, a different filter needs a different pass
+     */
+    public TPCCPartitionTask( List<File> partitions, List<Supplier<? extends TPCCAnalyzer>> analyzers, Predicate<TPCCResultTuple> filter, AnalysisCheckpoints checkpoints, String pass ) {
+        this.partitions = partitions;
+        this.analyzers = analyzers;
+        this.filter = filter;
+        this.checkpoints = checkpoints;
+        this.pass = pass;
+    }
+
+
+    /**
+     * Runs the analysis on the common {@link ForkJoinPool}
+     *
+     * @return merged analyzers in the order of the suppliers
+     */
+    public static List<TPCCAnalyzer> analyze( List<File> partitions, List<Supplier<? extends TPCCAnalyzer>> analyzers, Predicate<TPCCResultTuple> filter ) {
+        return ForkJoinPool.commonPool().invoke( new TPCCPartitionTask( partitions, analyzers, filter ) );
+    }
+
+
+    /**
+     * Like {@link #analyze(List, List, Predicate)}, but only processes the tuples which are not covered by the checkpoints yet
+     */
+    public static List<TPCCAnalyzer> analyze( List<File> partitions, List<Supplier<? extends TPCCAnalyzer>> analyzers, Predicate<TPCCResultTuple> filter, AnalysisCheckpoints checkpoints, String pass ) {
+        return ForkJoinPool.commonPool().invoke( new TPCCPartitionTask( partitions, analyzers, filter, checkpoints, pass ) );
+    }
+
+
+    @Override
+    protected List<TPCCAnalyzer> compute() {
+        if ( partitions.isEmpty() ) {
+            List<TPCCAnalyzer> instances = new ArrayList<>( analyzers.size() );
+            analyzers.forEach( supplier -> instances.add( supplier.get() ) );
+            return instances;
+        }
+        if ( partitions.size() == 1 ) {
+            return process( partitions.get( 0 ) );
+        }
+        int middle = partitions.size() / 2;
+        TPCCPartitionTask left = new TPCCPartitionTask( partitions.subList( 0, middle ), analyzers, filter, checkpoints, pass );
+        TPCCPartitionTask right = new TPCCPartitionTask( partitions.subList( middle, partitions.size() ), analyzers, filter, checkpoints, pass );
+        left.fork();
+        List<TPCCAnalyzer> results = right.compute();
+        List<TPCCAnalyzer> leftResults = left.join();
+        for ( int i = 0; i < results.size(); i++ ) {
+            results.get( i ).merge( leftResults.get( i ) );
+        }
+        return results;
+    }
+
+
+    /**
+     * @return the analyzers of the partition, in the order of the suppliers
+     */
+    private List<TPCCAnalyzer> process( File partition ) {
+        Checkpoint checkpoint = checkpoints == null ? new Checkpoint() : checkpoints.load( partition, pass );
+        List<TPCCAnalyzer> instances = new ArrayList<>( analyzers.size() );
+        long[] offsets = new long[analyzers.size()];
+        long skip = Long.MAX_VALUE;
+        for ( int i = 0; i < analyzers.size(); i++ ) {
+            TPCCAnalyzer analyzer = analyzers.get( i ).get();
+            TPCCAnalyzer checkpointed = checkpoint.getAnalyzer( analyzer.getCheckpointKey() );
+            if ( checkpointed != null ) {
+                analyzer = checkpointed;
+                offsets[i] = checkpoint.getOffset( analyzer.getCheckpointKey() );
+            }
+            instances.add( analyzer );
+            skip = Math.min( skip, offsets[i] );
+        }
+
+        logger.debug( "Analyzing partition {} from tuple {}", partition, skip );
+        JsonStreamReader<TPCCResultTuple> reader = new JsonStreamReader<>( partition, TPCCResultTuple.class, StorageGson.getGson() );
+        reader.start();
+        long position = reader.skip( skip );
+        long checkpointed = position;
+        while ( reader.hasNext() ) {
+            List<TPCCResultTuple> tuples;
+            try {
+                tuples = reader.readFromStream( 1_000 );
+            } catch ( RuntimeException e ) {
+                if ( checkpoints == null ) {
+                    throw e;
+                }
+                //Results which are still being written end with an incomplete tuple, the next analysis continues before it
+                logger.warn( "Partition {} ends after tuple {}: {}", partition, position, e.getMessage() );
+                break;
+            }
+            for ( TPCCResultTuple tuple : tuples ) {
+                if ( filter.test( tuple ) ) {
+                    for ( int i = 0; i < instances.size(); i++ ) {
+                        TPCCAnalyzer analyzer = instances.get( i );
+                        if ( position >= offsets[i] && (!tuple.getAborted() || analyzer.includesAborted()) ) {
+                            analyzer.process( tuple );
+                        }
+                    }
+                }
+                position++;
+            }
+            if ( checkpoints != null && position - checkpointed >= CHECKPOINT_INTERVAL ) {
+                save( partition, checkpoint, instances, offsets, position );
+                checkpointed = position;
+            }
+        }
+        reader.cleanup();
+        if ( checkpoints != null ) {
+            save( partition, checkpoint, instances, offsets, position );
+        }
+        return instances;
+    }
+
+
+    private void save( File partition, Checkpoint checkpoint, List<TPCCAnalyzer> instances, long[] offsets, long position ) {
+        for ( int i = 0; i < instances.size(); i++ ) {
+            checkpoint.update( instances.get( i ), Math.max( offsets[i], position ) );
+        }
+        checkpoints.save( partition, pass, checkpoint );
+    }
+}
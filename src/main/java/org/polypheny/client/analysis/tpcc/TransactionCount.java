@@ -0,0 +1,68 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import com.google.gson.JsonObject;
+import java.util.EnumMap;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+/**
+ * Counts transactions per {@link TPCCTransactionType} and remembers the first and last {@link TPCCResultTuple#getStartTimestamp()}
+ *
+ * @tpccversion 5.11
+ */
+public class TransactionCount implements TPCCAnalyzer {
+
+    private EnumMap<TPCCTransactionType, Long> counts = new EnumMap<>( TPCCTransactionType.class );
+    private long firstStart = Long.MAX_VALUE;
+    private long lastStart = Long.MIN_VALUE;
+
+
+    @Override
+    public void process( TPCCResultTuple tuple ) {
+        counts.merge( tuple.getTransactionType(), 1L, Long::sum );
+        firstStart = Math.min( firstStart, tuple.getStartTimestamp() );
+        lastStart = Math.max( lastStart, tuple.getStartTimestamp() );
+    }
+
+
+    @Override
+    public void merge( TPCCAnalyzer other ) {
+        TransactionCount otherCount = (TransactionCount) other;
+        otherCount.counts.forEach( ( type, count ) -> counts.merge( type, count, Long::sum ) );
+        firstStart = Math.min( firstStart, otherCount.firstStart );
+        lastStart = Math.max( lastStart, otherCount.lastStart );
+    }
+
+
+    public long getCount( TPCCTransactionType type ) {
+        return counts.getOrDefault( type, 0L );
+    }
+
+
+    /**
+     * @return true if no transaction was processed
+     */
+    public boolean isEmpty() {
+        return firstStart > lastStart;
+    }
+
+
+    public long getFirstStart() {
+        return firstStart;
+    }
+
+
+    public long getLastStart() {
+        return lastStart;
+    }
+
+
+    @Override
+    public JsonObject getResults() {
+        JsonObject results = new JsonObject();
+        counts.forEach( ( type, count ) -> results.addProperty( type.toString(), count ) );
+        return results;
+    }
+}
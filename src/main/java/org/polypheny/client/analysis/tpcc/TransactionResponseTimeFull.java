@@ -1,50 +1,60 @@
 package org.polypheny.client.analysis.tpcc;
 
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import java.util.HashMap;
 import java.util.Map.Entry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.TimeBucketSeries;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
 
 
 /**
- * Stores for each {@link TPCCResultTuple} the {@link TPCCTransactionType}, {@link TPCCResultTuple#getResponseTime()} and {@link TPCCResultTuple#getStartTimestamp()} which allows plotting response time versus time
+ * Aggregates {@link TPCCResultTuple#getResponseTime()} per {@link TPCCTransactionType} into buckets of {@link #BUCKET_SIZE} ms by {@link TPCCResultTuple#getStartTimestamp()}, which allows plotting response time versus time. Each bucket contains its start, the number of transactions and their average response time as executionTime.
  *
  * @author silvan on 26.07.17.
  */
 public class TransactionResponseTimeFull implements TPCCAnalyzer {
 
+    /**
+     * One point per second and transaction type
+     */
+    public static final long BUCKET_SIZE = 1_000;
+
     private static final Logger logger = LogManager.getLogger();
-    private HashMap<TPCCTransactionType, JsonArray> results = new HashMap<>();
+    private HashMap<TPCCTransactionType, TimeBucketSeries> results = new HashMap<>();
 
 
     public TransactionResponseTimeFull() {
         for ( TPCCTransactionType type : TPCCTransactionType.values() ) {
-            results.put( type, new JsonArray() );
+            results.put( type, new TimeBucketSeries( BUCKET_SIZE ) );
         }
     }
 
 
     @Override
     public void process( TPCCResultTuple tuple ) {
-        JsonObject obj = new JsonObject();
-        obj.addProperty( "start", tuple.getStartTimestamp() );
-        obj.addProperty( "executionTime", tuple.getResponseTime() );
-        results.get( tuple.getTransactionType() ).add( obj );
+        results.get( tuple.getTransactionType() ).add( tuple.getStartTimestamp(), tuple.getResponseTime() );
     }
 
 
     @Override
     public JsonObject getResults() {
-        logger.trace( results );
         JsonObject object = new JsonObject();
-        for ( Entry<TPCCTransactionType, JsonArray> entry : results.entrySet() ) {
-            object.add( entry.getKey().toString(), entry.getValue() );
+        for ( Entry<TPCCTransactionType, TimeBucketSeries> entry : results.entrySet() ) {
+            object.add( entry.getKey().toString(), entry.getValue().toJson() );
         }
+        logger.trace( object );
         return object;
     }
+
+
+    @Override
+    public void merge( TPCCAnalyzer other ) {
+        for ( Entry<TPCCTransactionType, TimeBucketSeries> entry : ((TransactionResponseTimeFull) other).results.entrySet() ) {
+            results.get( entry.getKey() ).merge( entry.getValue() );
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package org.polypheny.client.analysis.tpch;
+
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.db.tpch.PostgresPlan;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
+
+
+/**
+ * Summarizes the plans of the profiled executions in {@link TPCHResultTuple#getPlan()}: the operators which took the most time over all profiled executions, and per query. An operator is a node type together with the table it scans, so a sequential scan of lineitem and one of orders are reported separately.
+ *
+ * @tpchversion 2.17.1
+ */
+public class OperatorProfile implements TPCHAnalyzer {
+
+    static final int TOP_OPERATORS = 10;
+    static final int TOP_OPERATORS_PER_QUERY = 3;
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Map<String, MutablePair<Integer, Double>> operators = new HashMap<>();
+    private final Map<Integer, Map<String, MutablePair<Integer, Double>>> queries = new TreeMap<>();
+    private final Map<Integer, Integer> profiledExecutions = new TreeMap<>();
+
+
+    @Override
+    public void process( TPCHResultTuple tuple ) {
+        if ( tuple.getPlan().isEmpty() ) {
+            return;
+        }
+        profiledExecutions.merge( tuple.getQueryID(), 1, Integer::sum );
+        Map<String, MutablePair<Integer, Double>> queryOperators = queries.computeIfAbsent( tuple.getQueryID(), id -> new HashMap<>() );
+        try {
+            PostgresPlan.forEachOperator( tuple.getPlan(), ( nodeType, relation, exclusiveTime ) -> {
+                String operator = relation.isEmpty() ? nodeType : nodeType + " on " + relation;
+                add( operators, operator, exclusiveTime );
+                add( queryOperators, operator, exclusiveTime );
+            } );
+        } catch ( RuntimeException e ) {
+            logger.warn( "Skipping unreadable plan of Q{}: {}", tuple.getQueryID(), e.getMessage() );
+        }
+    }
+
+
+    private static void add( Map<String, MutablePair<Integer, Double>> operators, String operator, double time ) {
+        MutablePair<Integer, Double> pair = operators.computeIfAbsent( operator, key -> new MutablePair<>( 0, 0d ) );
+        pair.setLeft( pair.getLeft() + 1 );
+        pair.setRight( pair.getRight() + time );
+    }
+
+
+    @Override
+    public JsonObject getResults() {
+        JsonObject results = new JsonObject();
+        results.addProperty( "profiledExecutions", profiledExecutions.values().stream().mapToInt( Integer::intValue ).sum() );
+        results.add( "topOperators", top( operators, TOP_OPERATORS ) );
+        JsonObject perQuery = new JsonObject();
+        for ( Entry<Integer, Map<String, MutablePair<Integer, Double>>> entry : queries.entrySet() ) {
+            JsonObject query = new JsonObject();
+            query.addProperty( "profiledExecutions", profiledExecutions.get( entry.getKey() ) );
+            query.add( "topOperators", top( entry.getValue(), TOP_OPERATORS_PER_QUERY ) );
+            perQuery.add( "Q" + entry.getKey(), query );
+        }
+        results.add( "queries", perQuery );
+        return results;
+    }
+
+
+    /**
+     * @return the operators with the most time, with their share of the time of all operators
+     */
+    private static JsonArray top( Map<String, MutablePair<Integer, Double>> operators, int limit ) {
+        double total = operators.values().stream().mapToDouble( MutablePair::getRight ).sum();
+        List<Entry<String, MutablePair<Integer, Double>>> sorted = new ArrayList<>( operators.entrySet() );
+        sorted.sort( ( a, b ) -> Double.compare( b.getValue().getRight(), a.getValue().getRight() ) );
+        JsonArray top = new JsonArray();
+        for ( Entry<String, MutablePair<Integer, Double>> entry : sorted.subList( 0, Math.min( limit, sorted.size() ) ) ) {
+            JsonObject operator = new JsonObject();
+            operator.addProperty( "operator", entry.getKey() );
+            operator.addProperty( "occurrences", entry.getValue().getLeft() );
+            operator.addProperty( "totalTime", entry.getValue().getRight() );
+            operator.addProperty( "share", total > 0 ? entry.getValue().getRight() / total : 0 );
+            top.add( operator );
+        }
+        return top;
+    }
+}
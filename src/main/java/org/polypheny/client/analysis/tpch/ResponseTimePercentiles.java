@@ -0,0 +1,39 @@
+package org.polypheny.client.analysis.tpch;
+
+
+import com.google.gson.JsonObject;
+import java.util.EnumMap;
+import java.util.Map.Entry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.ResponseTimeHistogram;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHTransactionType;
+
+
+/**
+ * Response time percentiles of {@link TPCHResultTuple#getResponseTime()} per {@link TPCHTransactionType}
+ */
+public class ResponseTimePercentiles implements TPCHAnalyzer {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private EnumMap<TPCHTransactionType, ResponseTimeHistogram> histograms = new EnumMap<>( TPCHTransactionType.class );
+
+
+    @Override
+    public void process( TPCHResultTuple tuple ) {
+        histograms.computeIfAbsent( tuple.getTransactionType(), type -> new ResponseTimeHistogram() ).record( tuple.getResponseTime() );
+    }
+
+
+    @Override
+    public JsonObject getResults() {
+        JsonObject results = new JsonObject();
+        for ( Entry<TPCHTransactionType, ResponseTimeHistogram> entry : histograms.entrySet() ) {
+            logger.info( "{} had a p90 response time of {} ms", entry.getKey(), entry.getValue().getPercentile( 90 ) );
+            results.add( entry.getKey().toString(), entry.getValue().toJson() );
+        }
+        return results;
+    }
+}
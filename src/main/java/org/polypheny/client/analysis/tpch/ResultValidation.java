@@ -0,0 +1,138 @@
+package org.polypheny.client.analysis.tpch;
+
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.db.tpch.ResultChecksum;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHTest;
+
+
+/**
+ * Compares the {@link ResultChecksum}s of the query results with the answers of a reference run. The substitution parameters of a stream only depend on its number, so a query of a stream has the same parameters in every run with the same seed, and the answers are keyed by test, stream and query.
+ *
+ * The answers of this run are stored in {@link #ANSWERS_FILE}, so a run against a reference DBMS provides the reference for later runs. Answers of the throughput test are only compared if no refresh functions run concurrently to the queries, otherwise they depend on the interleaving.
+ *
+ * @tpchversion 2.17.1
+ */
+public class ResultValidation implements TPCHAnalyzer {
+
+    public static final String ANSWERS_FILE = "answers.properties";
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Properties reference;
+    private final boolean compareThroughput;
+    private final Properties answers = new Properties();
+    private final JsonArray mismatches = new JsonArray();
+    private int compared = 0;
+    private int missing = 0;
+
+
+    /**
+     * @param reference answers of the reference run, empty to only record the answers of this run
+     * @param compareThroughput if the answers of the throughput test should be compared as well
+     */
+    public ResultValidation( Properties reference, boolean compareThroughput ) {
+        this.reference = reference;
+        this.compareThroughput = compareThroughput;
+    }
+
+
+    /**
+     * @param file answers stored by a previous run, see {@link #store(File)}
+     */
+    public static Properties load( File file ) throws IOException {
+        Properties properties = new Properties();
+        try ( Reader reader = Files.newBufferedReader( file.toPath(), StandardCharsets.UTF_8 ) ) {
+            properties.load( reader );
+        }
+        return properties;
+    }
+
+
+    @Override
+    public void process( TPCHResultTuple tuple ) {
+        if ( tuple.getChecksum().isEmpty() ) {
+            return;
+        }
+        String key = key( tuple );
+        answers.setProperty( key, answer( tuple ) );
+        if ( !isComparable( tuple ) ) {
+            return;
+        }
+        String expected = reference.getProperty( key );
+        if ( expected == null ) {
+            missing++;
+            return;
+        }
+        compared++;
+        if ( !expected.equals( answer( tuple ) ) ) {
+            logger.warn( "Wrong answer for {}: expected {}, got {}", key, expected, answer( tuple ) );
+            mismatches.add( key );
+        }
+    }
+
+
+    /**
+     * @return true if the reference has a different answer for the query
+     */
+    public boolean isWrong( TPCHResultTuple tuple ) {
+        if ( tuple.getChecksum().isEmpty() || !isComparable( tuple ) ) {
+            return false;
+        }
+        String expected = reference.getProperty( key( tuple ) );
+        return expected != null && !expected.equals( answer( tuple ) );
+    }
+
+
+    @Override
+    public JsonObject getResults() {
+        JsonObject results = new JsonObject();
+        results.addProperty( "answers", answers.size() );
+        results.addProperty( "compared", compared );
+        results.addProperty( "missingReference", missing );
+        results.add( "wrongAnswers", mismatches );
+        results.addProperty( "valid", mismatches.size() == 0 );
+        return results;
+    }
+
+
+    /**
+     * Writes the answers of this run to {@link #ANSWERS_FILE} in the folder, if results were validated
+     */
+    public void store( File folder ) throws IOException {
+        if ( answers.isEmpty() ) {
+            return;
+        }
+        try ( Writer writer = Files.newBufferedWriter( new File( folder, ANSWERS_FILE ).toPath(), StandardCharsets.UTF_8 ) ) {
+            answers.store( writer, "TPC-H answers: checksum:rows" );
+        }
+    }
+
+
+    private boolean isComparable( TPCHResultTuple tuple ) {
+        return tuple.getTest() == TPCHTest.TPCHTESTPOWER || compareThroughput;
+    }
+
+
+    static String key( TPCHResultTuple tuple ) {
+        if ( tuple.getTest() == TPCHTest.TPCHTESTPOWER ) {
+            return "power.Q" + tuple.getQueryID();
+        }
+        return "throughput." + tuple.getStream() + ".Q" + tuple.getQueryID();
+    }
+
+
+    private static String answer( TPCHResultTuple tuple ) {
+        return tuple.getChecksum() + ":" + tuple.getResultRows();
+    }
+}
@@ -14,6 +14,7 @@
 import java.util.Properties;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.polypheny.client.config.TPCHConfig;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
 import org.polypheny.client.storage.JsonStreamReader;
 import org.polypheny.client.storage.StorageGson;
@@ -29,13 +30,49 @@ public class TPCHAnalysis {
     public static Logger logger = LogManager.getLogger();
     private final File inputPath;
     private final File outputPath;
+    private final TPCHMetrics metrics;
+    private final ResultValidation validation;
     List<TPCHAnalyzer> fullAnalyzers = new ArrayList<>();
     List<TPCHAnalyzer> visualizationAnalyzers = new ArrayList<>();
 
 
+    /**
+     * Computes the metrics for a scale factor of 1
+     */
     public TPCHAnalysis( File inputPath, File outputPath ) {
+        this( inputPath, outputPath, 1 );
+    }
+
+
+    /**
+     * @param scaleFactor SF of the database, used by {@link TPCHMetrics}
+     */
+    public TPCHAnalysis( File inputPath, File outputPath, double scaleFactor ) {
+        this( inputPath, outputPath, scaleFactor, null, TPCHConfig.EXECUTE_REFRESH_FUNCTIONS );
+    }
+
+
+    /**
+     * @param scaleFactor SF of the database, used by {@link TPCHMetrics}
+     * @param referenceAnswers answers of a reference run for the {@link ResultValidation}, null to only store the answers of this run
+     * @param refreshFunctions if RF1 and RF2 were executed
+     */
+    public TPCHAnalysis( File inputPath, File outputPath, double scaleFactor, File referenceAnswers, boolean refreshFunctions ) {
         this.inputPath = inputPath;
         this.outputPath = outputPath;
+        this.metrics = new TPCHMetrics( scaleFactor );
+        this.metrics.setRefreshFunctions( refreshFunctions );
+        Properties reference = new Properties();
+        if ( referenceAnswers != null ) {
+            try {
+                reference = ResultValidation.load( referenceAnswers );
+            } catch ( IOException e ) {
+                logger.error( "Could not read the reference answers {}, answers are not compared", referenceAnswers, e );
+            }
+        }
+        //Concurrent refresh functions change the answers of the throughput test
+        this.validation = new ResultValidation( reference, !refreshFunctions );
+        this.metrics.setValidation( validation );
         inputPath.mkdirs();
         outputPath.mkdirs();
     }
@@ -50,6 +87,10 @@ public static void main( String[] args ) {
     public void analyze() {
         visualizationAnalyzers.add( new AverageTransactionResponse() );
         visualizationAnalyzers.add( new TransactionResponseTimeFull() );
+        visualizationAnalyzers.add( new ResponseTimePercentiles() );
+        visualizationAnalyzers.add( new OperatorProfile() );
+        fullAnalyzers.add( metrics );
+        fullAnalyzers.add( validation );
 
         File storageFile = new File( inputPath, "allresults.json" );
         JsonStreamReader<TPCHResultTuple> reader = new JsonStreamReader<>( storageFile, TPCHResultTuple.class, StorageGson.getGson() );
@@ -57,11 +98,8 @@ public void analyze() {
 
         while ( reader.hasNext() ) {
             for ( TPCHResultTuple tuple : reader.readFromStream( 100 ) ) {
-                if ( tuple.getAborted() ) {
-                    continue;
-                }
-                visualizationAnalyzers.forEach( tpchAnalyzer -> tpchAnalyzer.process( tuple ) );
-                fullAnalyzers.forEach( tpchAnalyzer -> tpchAnalyzer.process( tuple ) );
+                visualizationAnalyzers.stream().filter( tpchAnalyzer -> !tuple.getAborted() || tpchAnalyzer.includesAborted() ).forEach( tpchAnalyzer -> tpchAnalyzer.process( tuple ) );
+                fullAnalyzers.stream().filter( tpchAnalyzer -> !tuple.getAborted() || tpchAnalyzer.includesAborted() ).forEach( tpchAnalyzer -> tpchAnalyzer.process( tuple ) );
             }
         }
 
@@ -78,6 +116,12 @@ public void analyze() {
             logger.error( e );
         }
 
+        try {
+            validation.store( outputPath );
+        } catch ( IOException e ) {
+            logger.error( e );
+        }
+
         logger.trace( element );
     }
 
@@ -85,6 +129,8 @@ public void analyze() {
     public Properties getProperties() {
         JsonObject element = new JsonObject();
         visualizationAnalyzers.forEach( tpchAnalyzer -> element.add( tpchAnalyzer.getClass().getSimpleName(), tpchAnalyzer.getResults() ) );
+        element.add( metrics.getClass().getSimpleName(), metrics.getResults() );
+        element.add( validation.getClass().getSimpleName(), validation.getResults() );
         Properties props = new Properties();
         props.put( "results", element );
         return props;
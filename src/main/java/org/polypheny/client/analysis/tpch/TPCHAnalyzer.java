@@ -24,4 +24,12 @@ public interface TPCHAnalyzer {
      */
     JsonObject getResults();
 
+
+    /**
+     * @return true if the analyzer also wants to receive aborted queries
+     */
+    default boolean includesAborted() {
+        return false;
+    }
+
 }
@@ -0,0 +1,244 @@
+package org.polypheny.client.analysis.tpch;
+
+
+import com.google.gson.JsonObject;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
+
+
+/**
+ * Computes the TPC-H metrics of clause 5.4 from the timing intervals of the power and the throughput test:
+ *
+ * <ul>
+ * <li>Power@Size = 3600 * SF / (QI(1,0) * ... * QI(22,0) * RI(1,0) * RI(2,0))^(1/24), with the timing intervals of the queries and refresh functions of the power test in seconds</li>
+ * <li>Throughput@Size = S * 22 * 3600 / Ts * SF, with S query streams and the measurement interval Ts of the throughput test in seconds</li>
+ * <li>QphH@Size = sqrt(Power@Size * Throughput@Size)</li>
+ * </ul>
+ *
+ * Timing intervals are rounded up to 0.1 s. Intervals of the power test which are shorter than the longest one divided by {@link #MAX_RATIO} are raised to that bound. A test is reported as incomplete if a query or refresh function is missing, was aborted or returned a wrong answer according to the {@link ResultValidation}, its metric is then not comparable to other runs. Runs without refresh functions do not require them, but are not compliant and report so. Queries the system does not support are substituted by a placeholder query, a test with substituted queries is incomplete and reports how many of its queries were substituted. Profiled executions include the overhead of the profiling, each test reports how many of its executions were profiled.
+ *
+ * @tpchversion 2.17.1
+ */
+public class TPCHMetrics implements TPCHAnalyzer {
+
+    static final int QUERIES = 22;
+    static final int RF1 = 23;
+    static final int RF2 = 24;
+    /**
+     * Maximum ratio between the longest and the shortest timing interval of the power test
+     */
+    static final double MAX_RATIO = 1_000;
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final double scaleFactor;
+    //Power test: query or refresh function ID to timing interval in ms
+    private final Map<Integer, Double> powerIntervals = new TreeMap<>();
+    private long powerStart = Long.MAX_VALUE;
+    private long powerStop = Long.MIN_VALUE;
+    private boolean powerAborted = false;
+    private int powerProfiled = 0;
+    private int powerSubstituted = 0;
+    //Throughput test: stream to start and stop, stream 0 is the refresh stream
+    private final Map<Integer, long[]> streamIntervals = new TreeMap<>();
+    private final Map<Integer, Integer> executedPerStream = new TreeMap<>();
+    private boolean throughputAborted = false;
+    private int throughputProfiled = 0;
+    private int throughputSubstituted = 0;
+    private int wrongAnswers = 0;
+    //null if results are not validated
+    private ResultValidation validation;
+    private boolean refreshFunctions = true;
+
+
+    /**
+     * @param scaleFactor SF of the database
+     */
+    public TPCHMetrics( double scaleFactor ) {
+        this.scaleFactor = scaleFactor;
+    }
+
+
+    /**
+     * Queries with a wrong answer make their test incomplete
+     */
+    public void setValidation( ResultValidation validation ) {
+        this.validation = validation;
+    }
+
+
+    /**
+     * @param refreshFunctions if RF1 and RF2 were executed, otherwise the tests are complete without them
+     */
+    public void setRefreshFunctions( boolean refreshFunctions ) {
+        this.refreshFunctions = refreshFunctions;
+    }
+
+
+    @Override
+    public boolean includesAborted() {
+        return true;
+    }
+
+
+    @Override
+    public void process( TPCHResultTuple tuple ) {
+        long start = tuple.getStartTimestamp();
+        long stop = start + (long) Math.ceil( tuple.getResponseTime() );
+        boolean wrong = validation != null && validation.isWrong( tuple );
+        if ( wrong ) {
+            wrongAnswers++;
+        }
+        switch ( tuple.getTest() ) {
+            case TPCHTESTPOWER:
+                powerAborted |= tuple.getAborted() || wrong;
+                powerProfiled += tuple.getPlan().isEmpty() ? 0 : 1;
+                powerSubstituted += tuple.getSubstituted() ? 1 : 0;
+                powerIntervals.put( tuple.getQueryID(), (double) tuple.getResponseTime() );
+                powerStart = Math.min( powerStart, start );
+                powerStop = Math.max( powerStop, stop );
+                break;
+            case TPCHTESTTHROUGHPUT:
+                throughputAborted |= tuple.getAborted() || wrong;
+                throughputProfiled += tuple.getPlan().isEmpty() ? 0 : 1;
+                throughputSubstituted += tuple.getSubstituted() ? 1 : 0;
+                long[] interval = streamIntervals.computeIfAbsent( tuple.getStream(), stream -> new long[]{ Long.MAX_VALUE, Long.MIN_VALUE } );
+                interval[0] = Math.min( interval[0], start );
+                interval[1] = Math.max( interval[1], stop );
+                executedPerStream.merge( tuple.getStream(), 1, Integer::sum );
+                break;
+            default:
+                logger.trace( "Ignoring query {} which is not part of a test", tuple.getQueryID() );
+        }
+    }
+
+
+    @Override
+    public JsonObject getResults() {
+        JsonObject results = new JsonObject();
+        results.addProperty( "scaleFactor", scaleFactor );
+        results.addProperty( "wrongAnswers", wrongAnswers );
+        results.addProperty( "refreshFunctions", refreshFunctions );
+        double power = getPower( results );
+        double throughput = getThroughput( results );
+        if ( power > 0 && throughput > 0 ) {
+            double qphH = Math.sqrt( power * throughput );
+            results.addProperty( "QphHAtSize", qphH );
+            logger.info( "QphH@{}GB = {}", scaleFactor, qphH );
+        }
+        return results;
+    }
+
+
+    /**
+     * Adds the results of the power test
+     *
+     * @return Power@Size, 0 if there was no power test
+     */
+    private double getPower( JsonObject results ) {
+        if ( powerIntervals.isEmpty() ) {
+            return 0;
+        }
+        double longest = 0;
+        for ( double interval : powerIntervals.values() ) {
+            longest = Math.max( longest, toSeconds( interval ) );
+        }
+        JsonObject intervals = new JsonObject();
+        double logSum = 0;
+        for ( Entry<Integer, Double> entry : powerIntervals.entrySet() ) {
+            double seconds = Math.max( toSeconds( entry.getValue() ), longest / MAX_RATIO );
+            intervals.addProperty( name( entry.getKey() ), seconds );
+            logSum += Math.log( seconds );
+        }
+        double power = 3600 * scaleFactor / Math.exp( logSum / powerIntervals.size() );
+        boolean complete = !powerAborted && powerSubstituted == 0 && powerIntervals.size() == QUERIES + (refreshFunctions ? 2 : 0);
+        for ( int id = 1; id <= QUERIES; id++ ) {
+            complete &= powerIntervals.containsKey( id );
+        }
+
+        JsonObject result = new JsonObject();
+        result.add( "intervals", intervals );
+        result.addProperty( "start", powerStart );
+        result.addProperty( "stop", powerStop );
+        result.addProperty( "complete", complete );
+        result.addProperty( "profiledExecutions", powerProfiled );
+        result.addProperty( "substitutedQueries", powerSubstituted );
+        result.addProperty( "PowerAtSize", power );
+        results.add( "power", result );
+        logger.info( "Power@{}GB = {}{}", scaleFactor, power, complete ? "" : " (incomplete)" );
+        return power;
+    }
+
+
+    /**
+     * Adds the results of the throughput test
+     *
+     * @return Throughput@Size, 0 if there was no throughput test
+     */
+    private double getThroughput( JsonObject results ) {
+        JsonObject streams = new JsonObject();
+        long start = Long.MAX_VALUE;
+        long stop = Long.MIN_VALUE;
+        int queryStreams = 0;
+        boolean complete = !throughputAborted && throughputSubstituted == 0;
+        for ( Entry<Integer, long[]> entry : streamIntervals.entrySet() ) {
+            int executed = executedPerStream.get( entry.getKey() );
+            JsonObject stream = new JsonObject();
+            stream.addProperty( "start", entry.getValue()[0] );
+            stream.addProperty( "stop", entry.getValue()[1] );
+            stream.addProperty( "duration", toSeconds( entry.getValue()[1] - entry.getValue()[0] ) );
+            stream.addProperty( "executed", executed );
+            streams.add( entry.getKey() == 0 ? "refresh" : entry.getKey().toString(), stream );
+            start = Math.min( start, entry.getValue()[0] );
+            stop = Math.max( stop, entry.getValue()[1] );
+            if ( entry.getKey() != 0 ) {
+                queryStreams++;
+                complete &= executed == QUERIES;
+            }
+        }
+        if ( queryStreams == 0 ) {
+            return 0;
+        }
+        //The refresh stream executes one pair per query stream
+        if ( refreshFunctions ) {
+            complete &= executedPerStream.getOrDefault( 0, 0 ) == 2 * queryStreams;
+        }
+        double measurementInterval = toSeconds( stop - start );
+        double throughput = queryStreams * QUERIES * 3600 / measurementInterval * scaleFactor;
+
+        JsonObject result = new JsonObject();
+        result.addProperty( "streams", queryStreams );
+        result.add( "streamIntervals", streams );
+        result.addProperty( "measurementInterval", measurementInterval );
+        result.addProperty( "complete", complete );
+        result.addProperty( "profiledExecutions", throughputProfiled );
+        result.addProperty( "substitutedQueries", throughputSubstituted );
+        result.addProperty( "ThroughputAtSize", throughput );
+        results.add( "throughput", result );
+        logger.info( "Throughput@{}GB = {}{}", scaleFactor, throughput, complete ? "" : " (incomplete)" );
+        return throughput;
+    }
+
+
+    /**
+     * @return ms in seconds, rounded up to 0.1 s
+     */
+    static double toSeconds( double millis ) {
+        return Math.max( 1, Math.ceil( millis / 100 ) ) / 10;
+    }
+
+
+    private static String name( int id ) {
+        if ( id == RF1 ) {
+            return "RF1";
+        }
+        if ( id == RF2 ) {
+            return "RF2";
+        }
+        return "Q" + id;
+    }
+}
@@ -1,50 +1,52 @@
 package org.polypheny.client.analysis.tpch;
 
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import java.util.HashMap;
 import java.util.Map.Entry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.TimeBucketSeries;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHTransactionType;
 
 
 /**
- * Stores for each {@link TPCHResultTuple} the {@link TPCHTransactionType}, {@link TPCHResultTuple#getResponseTime()} and {@link TPCHResultTuple#getStartTimestamp()} which allows plotting response time versus time
+ * Aggregates {@link TPCHResultTuple#getResponseTime()} per {@link TPCHTransactionType} into buckets of {@link #BUCKET_SIZE} ms by {@link TPCHResultTuple#getStartTimestamp()}, which allows plotting response time versus time. Each bucket contains its start, the number of transactions and their average response time as executionTime.
  *
  * @author silvan on 26.07.17.
  */
 public class TransactionResponseTimeFull implements TPCHAnalyzer {
 
+    /**
+     * One point per second and transaction type
+     */
+    public static final long BUCKET_SIZE = 1_000;
+
     private static final Logger logger = LogManager.getLogger();
-    private HashMap<TPCHTransactionType, JsonArray> results = new HashMap<>();
+    private HashMap<TPCHTransactionType, TimeBucketSeries> results = new HashMap<>();
 
 
     TransactionResponseTimeFull() {
         for ( TPCHTransactionType type : TPCHTransactionType.values() ) {
-            results.put( type, new JsonArray() );
+            results.put( type, new TimeBucketSeries( BUCKET_SIZE ) );
         }
     }
 
 
     @Override
     public void process( TPCHResultTuple tuple ) {
-        JsonObject obj = new JsonObject();
-        obj.addProperty( "start", tuple.getStartTimestamp() );
-        obj.addProperty( "executionTime", tuple.getResponseTime() );
-        results.get( tuple.getTransactionType() ).add( obj );
+        results.get( tuple.getTransactionType() ).add( tuple.getStartTimestamp(), tuple.getResponseTime() );
     }
 
 
     @Override
     public JsonObject getResults() {
-        logger.trace( results );
         JsonObject object = new JsonObject();
-        for ( Entry<TPCHTransactionType, JsonArray> entry : results.entrySet() ) {
-            object.add( entry.getKey().toString(), entry.getValue() );
+        for ( Entry<TPCHTransactionType, TimeBucketSeries> entry : results.entrySet() ) {
+            object.add( entry.getKey().toString(), entry.getValue().toJson() );
         }
+        logger.trace( object );
         return object;
     }
 }
@@ -0,0 +1,17 @@
+package org.polypheny.client.config;
+
+
+/**
+ * Collection of static parameters of the CH-benCHmark. The transactional side uses the {@link TPCCConfig}.
+ *
+ * @tpccversion 5.11
+ */
+public class CHBenchmarkConfig {
+
+    public static final int STREAMS = 1; // analytical streams per worker
+    public static final long STREAM_PACING = 0; // ms between the starts of two queries of a stream, 0 to run them back-to-back
+    public static final int QUERY_TIMEOUT = 0; // seconds before a query is cancelled, 0 for no limit
+    public static final int OLTP_DELAY_S = 0; // seconds the TPC-C terminals start after the analytical streams
+    public static final int OLAP_DELAY_S = 0; // seconds the analytical streams start after the TPC-C terminals
+    public static final long SERIES_INTERVAL = 10_000; // ms per interval in which throughput of both sides is correlated
+}
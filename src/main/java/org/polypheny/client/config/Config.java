@@ -9,6 +9,7 @@
 import org.polypheny.client.grpc.PolyClientGRPC.AccessMethod;
 import org.polypheny.client.grpc.PolyClientGRPC.DBMSSystem;
 import org.polypheny.client.grpc.PolyClientGRPC.Scenario;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCArrivalMode;
 
 
 /**
@@ -47,6 +48,22 @@ public class Config {
     //TPCC
     public static final int DEFAULT_TPCC_WAREHOUSES = 1;
     public static final boolean TPCC_TERMINAL_THINK = false;
+    public static final String DEFAULT_TPCC_ARRIVAL_MODE = TPCCArrivalMode.TPCCARRIVALCLOSED.toString();
+    public static final int TPCC_MAX_PENDING_ARRIVALS = 1_000;
+    public static final int TPCC_RAMPUP_WAVES = 1;
+    public static final int TPCC_WARMUP_TIME_S = 0;
+    public static final boolean TPCC_STEADY_STATE_DETECTION = false;
+    public static final boolean TPCC_LOAD_BALANCING = false;
+    public static final int TPCC_CALIBRATION_TIME_S = 5;
+    public static final int TPCC_MAX_REBALANCES = 3;
+    public static final int TPCC_MAX_REASSIGNMENTS = 3;
+    public static final boolean TPCC_CAPACITY_SEARCH = false;
+    public static final int TPCC_CAPACITY_MAX_TERMINALS = 10;
+    /**
+     * 5.2.5.3: 90% of all New-Order transactions have to complete within 5 seconds
+     */
+    public static final double TPCC_SLA_PERCENTILE = 90;
+    public static final double TPCC_SLA_RESPONSE_TIME = 5_000;
     //TPCH
     public static final double TPCH_SCALEFACTOR = 1;
     //YCSB
@@ -62,6 +79,11 @@ public class Config {
     public static final String DEFAULT_WORKER_STORAGE_LOCATION = "storage/worker/" + new SimpleDateFormat( "MM_dd_HH_mm_ss" ).format( Date.from( Instant.now() ) );
     public static final String DEFAULT_MASTER_STORAGE_LOCATION = "storage/master/" + new SimpleDateFormat( "MM_dd_HH_mm_ss" ).format( Date.from( Instant.now() ) );
 
-    public static final boolean EXECUTE_REFRESH_FUNCTIONS = false;
+    /**
+     * Deadlines in ms for RPC calls from master to worker. Launching creates all connections of a worker. Fetching streams all results and has no deadline, the worker has to answer a heartbeat within RPC_DEADLINE every RPC_DEADLINE ms instead.
+     */
+    public static final long RPC_DEADLINE = 30_000;
+    public static final long RPC_LAUNCH_DEADLINE = 300_000;
+
     public static final boolean EXECUTE_POWER_TEST = true;
 }
@@ -9,4 +9,5 @@ public class MusqleConfig {
     public static final int PART = 1; // part must be at least 1
     public static final int PART_COUNT = 1; // part must be less than or equal to part count
     public static final int STREAMS = 2;
+    public static final int QUERY_TIMEOUT = 0; // seconds before a query is cancelled, 0 for no limit
 }
@@ -26,4 +26,20 @@ SF      S(Streams)
       100000  11
      */
     public static final int STREAMS = 2; // (S) number of query streams used in Throughput test (depends on SF (refer to page 96 of the TPCH-Specification)
+    public static final int MAX_CONCURRENT_QUERIES = 0; // queries executing at once per worker, 0 for one per stream
+    public static final int QUERY_TIMEOUT = 0; // seconds before a query or refresh function is cancelled, 0 for no limit
+    public static final int STREAM_TIMEOUT = 0; // seconds before a stream stops executing queries, 0 for no limit
+    public static final boolean VALIDATE_RESULTS = false; // compute checksums of the query results
+    public static final int RESULT_CHECKSUM_SCALE = 2; // decimal places numbers are rounded to before they are hashed
+    public static final String REFERENCE_ANSWERS = ""; // checksums of a reference run to compare the results with, empty for none
+    public static final boolean EXECUTE_REFRESH_FUNCTIONS = true; // execute RF1 and RF2 in the power and the throughput test, required for a compliant run
+    public static final int REFRESH_BATCH_SIZE = 1_000; // rows per batch and transaction of RF1 and RF2
+    public static final boolean DATA_CACHE = false; // populate from table files generated once per scale factor instead of generating rows for every population
+    public static final int DATA_CACHE_CHUNKS = 8; // files per table of the data cache, chunks are generated and loaded in parallel
+    public static final int LOADER_THREADS = 4; // chunks loaded at once, each on its own connection
+    public static final int LOAD_BATCH_SIZE = 1_000; // rows per insert statement when loading from the data cache
+    public static final boolean INCREMENTAL_POPULATION = false; // grow a database populated with a smaller scale factor by inserting only the missing keys, keeps the schema
+    public static final int PROFILE_SAMPLING = 0; // every n-th execution of a profiled query is executed with the profiling of the system, 0 to disable profiling
+    public static final String PROFILED_QUERIES = ""; // comma-separated ids of the profiled queries, empty for all
+    public static final long QUERY_SEED = 1_018_120_000L; // seed of the substitution parameters, stream s uses QUERY_SEED + s (2.1.3.3)
 }
@@ -26,8 +26,10 @@ public interface DBConnector {
 
     /**
      * Execute a Statement. The key difference to {@link #executeQuery(String)} is that you do not expect a result here.
+     *
+     * @return number of affected rows, -1 if the {@link DBConnector} does not know
      */
-    void executeStatement( String statement ) throws ConnectionException;
+    int executeStatement( String statement ) throws ConnectionException;
 
     /**
      * Execute a statement from a file, returning no results.
@@ -38,5 +40,19 @@ public interface DBConnector {
      * Closes all relevant resources
      */
     void close();
+
+    /**
+     * Limits the execution time of the following queries and statements. A query which exceeds it is cancelled with a {@link QueryCancelledException}. Connectors which cannot limit queries ignore it.
+     *
+     * @param seconds 0 for no limit
+     */
+    default void setQueryTimeout( int seconds ) {
+    }
+
+    /**
+     * Cancels the query or statement which is currently executing, can be called from any thread. The executing thread gets a {@link QueryCancelledException}. Connectors which cannot cancel queries ignore it.
+     */
+    default void cancel() {
+    }
 }
 
@@ -30,6 +30,7 @@
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Calendar;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import org.apache.logging.log4j.LogManager;
@@ -44,6 +45,7 @@
 public class IcarusResultSet implements ResultSet {
 
     private static Logger logger = LogManager.getLogger();
+    static final String ENGINE_TIMES_FIELD = "engineTimes";
     private JsonArray resultRows = null;
     private int currentIndex = -1;
     private String json;
@@ -124,6 +126,34 @@ public JsonPrimitive element( String name ) throws SQLException {
     }
 
 
+    /**
+     * Reads the top-level field {@value #ENGINE_TIMES_FIELD}, an object from store name to the ms the store spent on the query. Icarus only sends it if the breakdown is enabled, nothing is guessed from the entries of results.
+     *
+     * @return ms spent per store, null if the response carries no breakdown
+     */
+    public Map<String, Double> engineTimes() {
+        JsonReader reader = new JsonReader( new StringReader( json ) );
+        reader.setLenient( true );
+        JsonElement element = new JsonParser().parse( reader );
+        if ( !element.isJsonObject() ) {
+            return null;
+        }
+        JsonElement breakdown = element.getAsJsonObject().get( ENGINE_TIMES_FIELD );
+        if ( breakdown == null || !breakdown.isJsonObject() ) {
+            return null;
+        }
+        Map<String, Double> times = new LinkedHashMap<>();
+        for ( Entry<String, JsonElement> entry : breakdown.getAsJsonObject().entrySet() ) {
+            if ( !entry.getValue().isJsonPrimitive() || !entry.getValue().getAsJsonPrimitive().isNumber() ) {
+                logger.debug( "Skipping non-numeric time {} of store {}", entry.getValue(), entry.getKey() );
+                continue;
+            }
+            times.put( entry.getKey(), entry.getValue().getAsDouble() );
+        }
+        return times;
+    }
+
+
     /**
      * Moves the cursor forward one row from its current position. A <code>ResultSet</code> cursor is initially positioned before the first row; the first call to the method <code>next</code> makes the first row the current row; the second call makes the second row the current row, and so on. <p>
      * When a call to the <code>next</code> method returns <code>false</code>, the cursor is positioned after the last row. Any invocation of a <code>ResultSet</code> method which requires a current row will result in a <code>SQLException</code> being thrown. If the result set type is
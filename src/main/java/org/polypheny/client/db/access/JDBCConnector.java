@@ -29,6 +29,9 @@ public abstract class JDBCConnector implements DBConnector {
     ReentrantLock staticConnectionLock = new ReentrantLock();
     private Logger logger = LogManager.getLogger();
     private Connection connection;
+    private volatile int queryTimeout = 0;
+    //the statement cancel() cancels, the last one prepared
+    private volatile PreparedStatement runningStatement;
 
 
     /**
@@ -118,8 +121,10 @@ public ResultSet executeQuery( String query ) throws ConnectionException {
         Connection conn = getConnection();
         try {
             Statement statement = PolySqlParserUtil.parse( query );
-            return conn.prepareStatement( statement.getEscapedSql( polySqlParserConfig ) ).executeQuery();
-        } catch ( SQLException | PolySqlParserException e ) {
+            return prepare( conn, statement.getEscapedSql( polySqlParserConfig ) ).executeQuery();
+        } catch ( SQLException e ) {
+            throw wrap( e );
+        } catch ( PolySqlParserException e ) {
             throw new ConnectionException( e );
         }
         // We can't close the preparedStatement here since that would also close the associated resultset.
@@ -127,14 +132,17 @@ public ResultSet executeQuery( String query ) throws ConnectionException {
 
 
     @Override
-    public void executeStatement( String query ) throws ConnectionException {
+    public int executeStatement( String query ) throws ConnectionException {
         Connection conn = getConnection();
         PreparedStatement preparedStatement = null;
         try {
             Statement statement = PolySqlParserUtil.parse( query );
-            preparedStatement = conn.prepareStatement( statement.getEscapedSql( polySqlParserConfig ) );
+            preparedStatement = prepare( conn, statement.getEscapedSql( polySqlParserConfig ) );
             preparedStatement.execute();
-        } catch ( SQLException | PolySqlParserException e ) {
+            return preparedStatement.getUpdateCount();
+        } catch ( SQLException e ) {
+            throw wrap( e );
+        } catch ( PolySqlParserException e ) {
             throw new ConnectionException( e );
         } finally {
             if ( preparedStatement != null ) {
@@ -169,6 +177,61 @@ public void close() {
     }
 
 
+    /**
+     * Prepares the statement on the connection of this connector as it is, without the rewriting of {@link #executeStatement(String)}. The statement uses the current query timeout and can be cancelled with {@link #cancel()}. The caller closes the statement.
+     */
+    public PreparedStatement prepareStatement( String statement ) throws ConnectionException {
+        try {
+            return prepare( getConnection(), statement );
+        } catch ( SQLException e ) {
+            throw new ConnectionException( e );
+        }
+    }
+
+
+    @Override
+    public void setQueryTimeout( int seconds ) {
+        this.queryTimeout = seconds;
+    }
+
+
+    @Override
+    public void cancel() {
+        PreparedStatement statement = runningStatement;
+        if ( statement == null ) {
+            return;
+        }
+        try {
+            statement.cancel();
+        } catch ( SQLException e ) {
+            //The statement may already be finished or closed
+            logger.debug( "Could not cancel statement", e );
+        }
+    }
+
+
+    /**
+     * Prepares a statement with the current query timeout. The statement is the one {@link #cancel()} cancels until the next one is prepared.
+     */
+    protected PreparedStatement prepare( Connection conn, String sql ) throws SQLException {
+        PreparedStatement statement = conn.prepareStatement( sql );
+        statement.setQueryTimeout( queryTimeout );
+        runningStatement = statement;
+        return statement;
+    }
+
+
+    /**
+     * @return a {@link QueryCancelledException} if the statement was cancelled or timed out, a {@link ConnectionException} otherwise
+     */
+    protected ConnectionException wrap( SQLException e ) {
+        if ( QueryCancelledException.isCancellation( e ) ) {
+            return new QueryCancelledException( e );
+        }
+        return new ConnectionException( e );
+    }
+
+
     public void setAutoCommit( boolean autoCommit ) throws ConnectionException {
         try {
             getConnection().setAutoCommit( autoCommit );
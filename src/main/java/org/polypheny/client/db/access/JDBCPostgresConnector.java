@@ -43,23 +43,24 @@ public JDBCPostgresConnector( String dbHost, int port, String dbName, String use
     public ResultSet executeQuery( String query ) throws ConnectionException {
         try {
             Connection conn = getConnection();
-            return conn.prepareStatement( query ).executeQuery();
+            return prepare( conn, query ).executeQuery();
         } catch ( SQLException e ) {
-            throw new ConnectionException( e );
+            throw wrap( e );
         }
         // We can't close the preparedStatement here since that would also close the associated resultset.
     }
 
 
     @Override
-    public void executeStatement( String statement ) throws ConnectionException {
+    public int executeStatement( String statement ) throws ConnectionException {
         PreparedStatement preparedStatement = null;
         try {
             Connection conn = getConnection();
-            preparedStatement = conn.prepareStatement( statement );
+            preparedStatement = prepare( conn, statement );
             preparedStatement.execute();
+            return preparedStatement.getUpdateCount();
         } catch ( SQLException e ) {
-            throw new ConnectionException( e );
+            throw wrap( e );
         } finally {
             if ( preparedStatement != null ) {
                 try {
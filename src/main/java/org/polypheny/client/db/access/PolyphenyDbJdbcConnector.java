@@ -94,9 +94,10 @@ public ResultSet executeQuery( String query ) throws ConnectionException {
 
 
     @Override
-    public void executeStatement( String statement ) throws ConnectionException {
+    public int executeStatement( String statement ) throws ConnectionException {
         try {
             executeQueryStatement.execute( statement );
+            return executeQueryStatement.getUpdateCount();
         } catch ( SQLException e ) {
             throw new ConnectionException( e );
         }
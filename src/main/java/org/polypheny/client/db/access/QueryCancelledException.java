@@ -0,0 +1,38 @@
+package org.polypheny.client.db.access;
+
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+
+/**
+ * Thrown if a query was cancelled, either because it exceeded the timeout of {@link DBConnector#setQueryTimeout(int)} or because of {@link DBConnector#cancel()}.
+ */
+public class QueryCancelledException extends ConnectionException {
+
+    // SQLSTATE query_canceled of PostgreSQL, also used for statement timeouts
+    private static final String QUERY_CANCELED = "57014";
+
+
+    QueryCancelledException( Exception e ) {
+        super( e );
+    }
+
+
+    QueryCancelledException( String errorMessage ) {
+        super( errorMessage );
+    }
+
+
+    /**
+     * @return true if the exception, or one chained to it, reports a cancelled query
+     */
+    public static boolean isCancellation( SQLException e ) {
+        for ( SQLException current = e; current != null; current = current.getNextException() ) {
+            if ( current instanceof QueryCancelledException || current instanceof SQLTimeoutException || QUERY_CANCELED.equals( current.getSQLState() ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -12,6 +12,11 @@
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.sql.ResultSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpPost;
@@ -38,6 +43,8 @@ public class RESTConnector implements DBConnector {
     private int port;
     private JsonObject query = new JsonObject();
     private String icarusURL;
+    private volatile int queryTimeout = 0;
+    private volatile Future<HttpResponse<String>> runningRequest;
 
 
     public RESTConnector( String url, int port ) {
@@ -101,29 +108,44 @@ private synchronized String postIcarusClient( String sql ) {
 
 
     /**
-     * Performs a simple post request to the given url, returning the string.
+     * Performs a simple post request to the given url, returning the string. The request is cancelled if it exceeds the query timeout or {@link #cancel()} is called.
      *
      * @param sql sql-text
      */
     private synchronized String postRequest( String sql ) throws ConnectionException {
-        try {
-            query.addProperty( "sql", sql );
-            String request = Unirest.post( "http://" + url + ":" + port + "/request" ).body( query.toString() ).asString().getBody();
-            JsonObject obj = new JsonParser().parse( request ).getAsJsonObject();
-            if ( obj.getAsJsonPrimitive( "responseCode" ).getAsInt() != 200 ) {
-                if ( sql.length() < 1000 ) {
-                    logger.debug( "Error for queryString {}", sql );
-                } else {
-                    logger.trace( "Error for queryString {}", sql );
-                }
-                logger.debug( "Error message: {}", obj.getAsJsonPrimitive( "errorMessage" ).getAsString() );
-                throw new ConnectionException( obj.toString() );
+        query.addProperty( "sql", sql );
+        Future<HttpResponse<String>> response = Unirest.post( "http://" + url + ":" + port + "/request" ).body( query.toString() ).asStringAsync();
+        runningRequest = response;
+        String request = await( response ).getBody();
+        JsonObject obj = new JsonParser().parse( request ).getAsJsonObject();
+        if ( obj.getAsJsonPrimitive( "responseCode" ).getAsInt() != 200 ) {
+            if ( sql.length() < 1000 ) {
+                logger.debug( "Error for queryString {}", sql );
+            } else {
+                logger.trace( "Error for queryString {}", sql );
             }
-            return request;
-        } catch ( UnirestException e ) {
-            e.printStackTrace();
+            logger.debug( "Error message: {}", obj.getAsJsonPrimitive( "errorMessage" ).getAsString() );
+            throw new ConnectionException( obj.toString() );
+        }
+        return request;
+    }
+
+
+    private HttpResponse<String> await( Future<HttpResponse<String>> response ) throws ConnectionException {
+        try {
+            return queryTimeout > 0 ? response.get( queryTimeout, TimeUnit.SECONDS ) : response.get();
+        } catch ( TimeoutException e ) {
+            response.cancel( true );
+            throw new QueryCancelledException( "Request exceeded the timeout of " + queryTimeout + " s" );
+        } catch ( CancellationException e ) {
+            throw new QueryCancelledException( "Request was cancelled" );
+        } catch ( InterruptedException e ) {
+            response.cancel( true );
+            Thread.currentThread().interrupt();
+            throw new QueryCancelledException( e );
+        } catch ( ExecutionException e ) {
+            throw new ConnectionException( e );
         }
-        return null;
     }
 
 
@@ -153,8 +175,9 @@ public ResultSet executeQuery( String query ) throws ConnectionException {
 
 
     @Override
-    public void executeStatement( String statement ) throws ConnectionException {
+    public int executeStatement( String statement ) throws ConnectionException {
         logger.trace( postRequest( statement ) );
+        return -1;
     }
 
 
@@ -164,6 +187,24 @@ public void executeScript( File file ) {
     }
 
 
+    @Override
+    public void setQueryTimeout( int seconds ) {
+        this.queryTimeout = seconds;
+    }
+
+
+    /**
+     * Cancels the request on the client, Icarus is not notified.
+     */
+    @Override
+    public void cancel() {
+        Future<HttpResponse<String>> response = runningRequest;
+        if ( response != null ) {
+            response.cancel( true );
+        }
+    }
+
+
     @Override
     public void close() {
         logger.trace( "The REST-Connector does not bind any resources" );
@@ -0,0 +1,93 @@
+package org.polypheny.client.db.chbenchmark;
+
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.db.access.ConnectionException;
+import org.polypheny.client.db.access.DBConnector;
+import org.polypheny.client.db.access.QueryCancelledException;
+import org.polypheny.client.grpc.PolyClientGRPC.CHResultTuple;
+import org.polypheny.client.rpc.ProtoObjectFactory;
+
+
+/**
+ * Executes the {@link CHQueries} of an analytical stream over its own connection. The queries only use SQL, so one implementation serves every {@link DBConnector}. Results are drained, so the response time includes transferring them.
+ *
+ * @tpccversion 5.11
+ */
+public class CHBenchmarker {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final DBConnector connector;
+
+
+    public CHBenchmarker( DBConnector connector ) {
+        this.connector = connector;
+    }
+
+
+    /**
+     * @param queryID number of the query, see {@link CHQueries#QUERY_IDS}
+     * @param stream analytical stream which executes the query
+     * @return information about the query. Failed queries are aborted, queries which exceeded the timeout or were cancelled are cancelled as well
+     */
+    public CHResultTuple executeQuery( int queryID, int stream ) {
+        String query = CHQueries.createQuery( queryID );
+        logger.trace( "Starting Q{} on stream {}", queryID, stream );
+        long start = System.currentTimeMillis();
+        connector.startTransaction();
+        try ( ResultSet resultSet = connector.executeQuery( query ) ) {
+            while ( resultSet.next() ) {
+                //Drain the result
+            }
+            connector.commitTransaction();
+        } catch ( QueryCancelledException e ) {
+            logger.warn( "Q{} on stream {} was cancelled after {} ms", queryID, stream, System.currentTimeMillis() - start );
+            abortTransaction();
+            return ProtoObjectFactory.CHResultTuple( start, System.currentTimeMillis() - start, queryID, stream, true ).toBuilder().setCancelled( true ).build();
+        } catch ( SQLException e ) {
+            logger.error( "Q{} on stream {} failed, logging and continuing", queryID, stream, e );
+            abortTransaction();
+            return ProtoObjectFactory.CHResultTuple( start, System.currentTimeMillis() - start, queryID, stream, true );
+        }
+        long responseTime = System.currentTimeMillis() - start;
+        logger.trace( "Finished Q{} on stream {} in {} ms", queryID, stream, responseTime );
+        return ProtoObjectFactory.CHResultTuple( start, responseTime, queryID, stream, false );
+    }
+
+
+    private void abortTransaction() {
+        try {
+            connector.abortTransaction();
+        } catch ( ConnectionException ignored ) {
+            //Ignore
+        }
+    }
+
+
+    /**
+     * Limits the execution time of the following queries, 0 for no limit
+     */
+    public void setQueryTimeout( int seconds ) {
+        connector.setQueryTimeout( seconds );
+    }
+
+
+    /**
+     * Cancels the query which is currently executing. Can be called from any thread.
+     */
+    public void cancel() {
+        connector.cancel();
+    }
+
+
+    /**
+     * Closes the connection. Must not throw exceptions.
+     */
+    public void abort() {
+        connector.close();
+    }
+}
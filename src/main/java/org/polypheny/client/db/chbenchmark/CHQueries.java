@@ -0,0 +1,99 @@
+package org.polypheny.client.db.chbenchmark;
+
+
+/**
+ * Analytical queries of the CH-benCHmark which only read the TPC-C schema. The queries which need the supplier, nation and region tables of the CH-benCHmark (Q2, Q5, Q7-Q11, Q15, Q16, Q20, Q21) are not part of it since the TPC-C population does not create them.
+ *
+ * The population and the new-order transactions use the current time for O_ENTRY_D and OL_DELIVERY_D. The date ranges of the original queries end before that, so they are widened to {@link #END_DATE} to keep the queries from selecting nothing.
+ *
+ * @tpccversion 5.11
+ */
+public class CHQueries {
+
+    /**
+     * Numbers of the supported queries in the order a stream executes them
+     */
+    public static final int[] QUERY_IDS = { 1, 3, 4, 6, 12, 13, 14, 17, 18, 19, 22 };
+
+    private static final String START_DATE = "'2007-01-02 00:00:00'";
+    private static final String END_DATE = "'2100-01-01 00:00:00'";
+
+
+    /**
+     * @param queryID number of the query in the CH-benCHmark
+     * @return the SQL of the query
+     */
+    public static String createQuery( int queryID ) {
+        switch ( queryID ) {
+            case 1:
+                return "SELECT ol_number, SUM(ol_quantity) AS sum_qty, SUM(ol_amount) AS sum_amount, AVG(ol_quantity) AS avg_qty, AVG(ol_amount) AS avg_amount, COUNT(*) AS count_order "
+                        + "FROM tpcc_order_line WHERE ol_delivery_d > " + START_DATE + " "
+                        + "GROUP BY ol_number ORDER BY ol_number";
+            case 3:
+                return "SELECT ol_o_id, ol_w_id, ol_d_id, SUM(ol_amount) AS revenue, o_entry_d "
+                        + "FROM tpcc_customer, tpcc_new_order, tpcc_order, tpcc_order_line "
+                        + "WHERE c_state LIKE 'A%' AND c_id = o_c_id AND c_w_id = o_w_id AND c_d_id = o_d_id "
+                        + "AND no_w_id = o_w_id AND no_d_id = o_d_id AND no_o_id = o_id "
+                        + "AND ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id AND o_entry_d > " + START_DATE + " "
+                        + "GROUP BY ol_o_id, ol_w_id, ol_d_id, o_entry_d ORDER BY revenue DESC, o_entry_d";
+            case 4:
+                return "SELECT o_ol_cnt, COUNT(*) AS order_count FROM tpcc_order "
+                        + "WHERE o_entry_d >= " + START_DATE + " AND o_entry_d < " + END_DATE + " "
+                        + "AND EXISTS (SELECT * FROM tpcc_order_line WHERE o_id = ol_o_id AND o_w_id = ol_w_id AND o_d_id = ol_d_id AND ol_delivery_d >= o_entry_d) "
+                        + "GROUP BY o_ol_cnt ORDER BY o_ol_cnt";
+            case 6:
+                return "SELECT SUM(ol_amount) AS revenue FROM tpcc_order_line "
+                        + "WHERE ol_delivery_d >= '1999-01-01 00:00:00' AND ol_delivery_d < " + END_DATE + " AND ol_quantity BETWEEN 1 AND 100000";
+            case 12:
+                return "SELECT o_ol_cnt, SUM(CASE WHEN o_carrier_id = 1 OR o_carrier_id = 2 THEN 1 ELSE 0 END) AS high_line_count, "
+                        + "SUM(CASE WHEN o_carrier_id <> 1 AND o_carrier_id <> 2 THEN 1 ELSE 0 END) AS low_line_count "
+                        + "FROM tpcc_order, tpcc_order_line "
+                        + "WHERE ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id AND o_entry_d <= ol_delivery_d AND ol_delivery_d < " + END_DATE + " "
+                        + "GROUP BY o_ol_cnt ORDER BY o_ol_cnt";
+            case 13:
+                return "SELECT c_count, COUNT(*) AS custdist FROM ("
+                        + "SELECT c_id, COUNT(o_id) AS c_count FROM tpcc_customer LEFT OUTER JOIN tpcc_order ON (c_w_id = o_w_id AND c_d_id = o_d_id AND c_id = o_c_id AND o_carrier_id > 8) "
+                        + "GROUP BY c_id) AS c_orders "
+                        + "GROUP BY c_count ORDER BY custdist DESC, c_count DESC";
+            case 14:
+                return "SELECT 100.00 * SUM(CASE WHEN i_data LIKE 'PR%' THEN ol_amount ELSE 0 END) / (1 + SUM(ol_amount)) AS promo_revenue "
+                        + "FROM tpcc_order_line, tpcc_item "
+                        + "WHERE ol_i_id = i_id AND ol_delivery_d >= " + START_DATE + " AND ol_delivery_d < " + END_DATE;
+            case 17:
+                return "SELECT SUM(ol_amount) / 2.0 AS avg_yearly FROM tpcc_order_line, ("
+                        + "SELECT i_id, AVG(ol_quantity) AS a FROM tpcc_item, tpcc_order_line WHERE i_data LIKE '%b' AND ol_i_id = i_id GROUP BY i_id) t "
+                        + "WHERE ol_i_id = t.i_id AND ol_quantity < t.a";
+            case 18:
+                return "SELECT c_last, c_id, o_id, o_entry_d, o_ol_cnt, SUM(ol_amount) AS amount_sum "
+                        + "FROM tpcc_customer, tpcc_order, tpcc_order_line "
+                        + "WHERE c_id = o_c_id AND c_w_id = o_w_id AND c_d_id = o_d_id AND ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id "
+                        + "GROUP BY o_id, o_w_id, o_d_id, c_id, c_last, o_entry_d, o_ol_cnt HAVING SUM(ol_amount) > 200 "
+                        + "ORDER BY amount_sum DESC, o_entry_d";
+            case 19:
+                return "SELECT SUM(ol_amount) AS revenue FROM tpcc_order_line, tpcc_item "
+                        + "WHERE (ol_i_id = i_id AND i_data LIKE '%a' AND ol_quantity >= 1 AND ol_quantity <= 10 AND i_price BETWEEN 1 AND 400000 AND ol_w_id IN (1, 2, 3)) "
+                        + "OR (ol_i_id = i_id AND i_data LIKE '%b' AND ol_quantity >= 1 AND ol_quantity <= 10 AND i_price BETWEEN 1 AND 400000 AND ol_w_id IN (1, 2, 4)) "
+                        + "OR (ol_i_id = i_id AND i_data LIKE '%c' AND ol_quantity >= 1 AND ol_quantity <= 10 AND i_price BETWEEN 1 AND 400000 AND ol_w_id IN (1, 5, 3))";
+            case 22:
+                return "SELECT SUBSTRING(c_state FROM 1 FOR 1) AS country, COUNT(*) AS numcust, SUM(c_balance) AS totacctbal FROM tpcc_customer "
+                        + "WHERE SUBSTRING(c_phone FROM 1 FOR 1) IN ('1', '2', '3', '4', '5', '6', '7') "
+                        + "AND c_balance > (SELECT AVG(c_balance) FROM tpcc_customer WHERE c_balance > 0.00 AND SUBSTRING(c_phone FROM 1 FOR 1) IN ('1', '2', '3', '4', '5', '6', '7')) "
+                        + "AND NOT EXISTS (SELECT * FROM tpcc_order WHERE o_c_id = c_id AND o_w_id = c_w_id AND o_d_id = c_d_id) "
+                        + "GROUP BY SUBSTRING(c_state FROM 1 FOR 1) ORDER BY SUBSTRING(c_state FROM 1 FOR 1)";
+            default:
+                throw new IllegalArgumentException( "Query " + queryID + " of the CH-benCHmark is not supported" );
+        }
+    }
+
+
+    /**
+     * Every stream executes the queries in the order of {@link #QUERY_IDS}, but starts at a different query so concurrent streams do not run the same query at the same time.
+     *
+     * @param stream number of the stream, starting at 1
+     * @param position how many queries the stream has executed before
+     * @return number of the next query of the stream
+     */
+    public static int queryForStream( int stream, long position ) {
+        return QUERY_IDS[(int) Math.floorMod( stream - 1 + position, (long) QUERY_IDS.length )];
+    }
+}
@@ -27,7 +27,7 @@ public IcarusMusqleBenchmarker( PolyphenyJobCdl cdl ) {
 
 
     public IcarusMusqleBenchmarker( LaunchWorkerMessage workerMessage ) {
-        this( workerMessage.getTpchWorkerMessage().getSCALEFACTOR(), workerMessage.getDbInfo().getDbHost(), workerMessage.getDbInfo().getDbPort() );
+        this( workerMessage.getMusqleWorkerMessage().getSCALEFACTOR(), workerMessage.getDbInfo().getDbHost(), workerMessage.getDbInfo().getDbPort() );
     }
 
 
@@ -48,6 +48,18 @@ public void abort() {
     }
 
 
+    @Override
+    public void setQueryTimeout( int seconds ) {
+        connector.setQueryTimeout( seconds );
+    }
+
+
+    @Override
+    public void cancel() {
+        connector.cancel();
+    }
+
+
     @Override
     public MUSQLEResultTuple genericQueryExecutor( int queryID ) {
         logger.trace( "Executing Query {}", queryID );
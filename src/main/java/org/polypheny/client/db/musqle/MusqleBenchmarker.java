@@ -3,10 +3,14 @@
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.polypheny.client.db.access.ConnectionException;
 import org.polypheny.client.db.access.DBConnector;
+import org.polypheny.client.db.access.IcarusResultSet;
+import org.polypheny.client.db.access.QueryCancelledException;
+import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEEngineTime;
 import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEResultTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.MusqleTransactionType;
 import org.polypheny.client.rpc.ProtoObjectFactory;
@@ -19,6 +23,11 @@
  */
 public abstract class MusqleBenchmarker {
 
+    /**
+     * Number of MuSQLE queries, numbered from 1
+     */
+    public static final int QUERIES = 18;
+
     // scale factor (SF) must be either 1, 10, 30, 100, 300, 1000, 3000, 10000, 30000 or 100000
     private double SCALE_FACTOR;
     private Logger logger = LogManager.getLogger();
@@ -41,6 +50,30 @@ public MusqleBenchmarker( final double SCALE_FACTOR ) {
     public abstract MUSQLEResultTuple genericQueryExecutor( final int queryID );
 
 
+    /**
+     * Limits the execution time of the following queries, 0 for no limit. Queries which exceed it are cancelled and reported with {@link MUSQLEResultTuple#getCancelled()}.
+     */
+    public abstract void setQueryTimeout( int seconds );
+
+
+    /**
+     * Cancels the query which is currently executing. Can be called from any thread.
+     */
+    public abstract void cancel();
+
+
+    /**
+     * Each stream starts at a different query, so parallel streams do not hit the same engines at the same time. Stream 0 runs the queries in order.
+     *
+     * @param stream number of the stream, 0 for the power test
+     * @param position how many queries the stream has executed before
+     * @return id of the query to execute next
+     */
+    public static int queryForStream( int stream, long position ) {
+        return (int) ((stream + position) % QUERIES) + 1;
+    }
+
+
     public MusqleTransactionType getTypeForQueryID( int queryID ) {
         switch ( queryID ) {
             case 1:
@@ -90,6 +123,7 @@ public MUSQLEResultTuple genericQueryExecutor( int queryID, DBConnector connecto
 
         long start;
         long stop;
+        Map<String, Double> engineTimes = null;
         logger.trace( "Starting Q" + queryID + " transaction" );
         start = System.currentTimeMillis();
         connector.startTransaction();
@@ -100,6 +134,18 @@ public MUSQLEResultTuple genericQueryExecutor( int queryID, DBConnector connecto
             connector.commitTransaction();
             stop = System.currentTimeMillis();
             logger.trace( "Finished Q" + queryID + " transaction. Elapsed time: {} ms", (stop - start) );
+            //Parsing the breakdown is not part of the response time
+            if ( resultSet instanceof IcarusResultSet ) {
+                engineTimes = ((IcarusResultSet) resultSet).engineTimes();
+            }
+        } catch ( QueryCancelledException e ) {
+            logger.warn( "Q{} was cancelled after {} ms", queryID, System.currentTimeMillis() - start );
+            try {
+                connector.abortTransaction();
+            } catch ( ConnectionException ignored ) {
+                //Ignore
+            }
+            return ProtoObjectFactory.MusqleResultTuple( start, (System.currentTimeMillis() - start), transactionType, queryID, true, query ).toBuilder().setCancelled( true ).build();
         } catch ( SQLException e ) {
             //We just log exceptions. For example Q11 throws an expected exception for VoltDB
             logger.error( "ConnectionException while Q" + queryID + " transaction. Logging and continuing. \n" );
@@ -119,7 +165,11 @@ public MUSQLEResultTuple genericQueryExecutor( int queryID, DBConnector connecto
             //throw new RuntimeException( e );
         }
         logger.trace( "Finished Q{} with text {}", queryID, query );
-        return ProtoObjectFactory.MusqleResultTuple( start, (stop - start), transactionType, queryID, false, query );
+        MUSQLEResultTuple.Builder tuple = ProtoObjectFactory.MusqleResultTuple( start, (stop - start), transactionType, queryID, false, query ).toBuilder();
+        if ( engineTimes != null ) {
+            engineTimes.forEach( ( engine, time ) -> tuple.addEngineTimes( MUSQLEEngineTime.newBuilder().setEngine( engine ).setResponseTime( time.floatValue() ) ) );
+        }
+        return tuple.build();
     }
 
 
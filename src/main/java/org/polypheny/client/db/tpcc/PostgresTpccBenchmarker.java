@@ -64,6 +64,21 @@ public PostgresTpccBenchmarker( AccessMethod accessMethod, String dbHost, int po
             throw new IllegalArgumentException();
         }
         this.connector = new JDBCPostgresConnector( dbHost, port, database, username, password );
+        createExecutors( NUMBER_OF_CONFIGURED_WAREHOUSES );
+    }
+
+
+    /**
+     * Creates a Benchmarker on an existing connection, for example one which runs the transactions without a database in a test.
+     */
+    public PostgresTpccBenchmarker( DBConnector connector, int NUMBER_OF_CONFIGURED_WAREHOUSES ) {
+        super( NUMBER_OF_CONFIGURED_WAREHOUSES );
+        this.connector = connector;
+        createExecutors( NUMBER_OF_CONFIGURED_WAREHOUSES );
+    }
+
+
+    private void createExecutors( int NUMBER_OF_CONFIGURED_WAREHOUSES ) {
         this.newOrderTransactionExecutor = new PostgresNewOrderTransactionExecutor( NUMBER_OF_CONFIGURED_WAREHOUSES, this.connector, this );
         this.paymentTransactionExecutor = new PostgresPaymentTransactionExecutor( this.connector, this );
         this.orderStatusTransactionExecutor = new PostgresOrderStatusTransactionExecutor( this.connector );
@@ -12,6 +12,7 @@
 import org.polypheny.client.db.access.DBConnector;
 import org.polypheny.client.db.exceptions.TransactionAbortedException;
 import org.polypheny.client.db.utils.CheckedResultSetFunction;
+import org.polypheny.client.db.utils.CountingResultSet;
 import org.polypheny.client.db.utils.DatabaseAccessFunction;
 import org.polypheny.client.grpc.PolyClientGRPC.QueryType;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCQueryTuple;
@@ -38,7 +39,7 @@ public abstract class TransactionExecutor {
     /**
      * Executes AND logs a given query. Allows you to apply a function to the resultset.
      *
-     * @param function The ResultSet will already have one next() call applied to it, so you start at the first row.
+     * @param function The ResultSet will already have one next() call applied to it, so you start at the first row. It counts the rows it is moved to, use {@link ResultSet#unwrap(Class)} for the ResultSet of the connector.
      * @param query The query you want executed
      * @param level which loglevel you want the query logged at
      * @return the result of your function
@@ -46,14 +47,16 @@ public abstract class TransactionExecutor {
     public <T> T executeQuery( CheckedResultSetFunction<ResultSet, T> function, String query, QueryType type, Level level ) {
         logger.log( level, query );
         long start = System.currentTimeMillis();
-        try ( ResultSet resultSet = connector.executeQuery( query ) ) {
+        try ( ResultSet rows = connector.executeQuery( query ) ) {
+            CountingResultSet counter = new CountingResultSet( rows );
+            ResultSet resultSet = counter.getResultSet();
             if ( !resultSet.next() ) {
                 logger.error( "ResultSet could not be moved for query \n{} \n", query );
                 throw new TransactionAbortedException();
             }
             T result = function.apply( resultSet );
             long stop = System.currentTimeMillis();
-            logQuery( ProtoObjectFactory.TPCCQueryTuple( query, stop - start, type ) );
+            logQuery( ProtoObjectFactory.TPCCQueryTuple( query, stop - start, type, counter.countRows() ) );
             return result;
         } catch ( SQLException e ) {
             throw new RuntimeException( e );
@@ -96,9 +99,9 @@ protected void executeAndLogStatement( String statement, QueryType type, Level l
         logger.log( level, statement );
         long start = System.currentTimeMillis();
         try {
-            connector.executeStatement( statement );
+            int rows = connector.executeStatement( statement );
             long stop = System.currentTimeMillis();
-            logQuery( ProtoObjectFactory.TPCCQueryTuple( statement, stop - start, type ) );
+            logQuery( ProtoObjectFactory.TPCCQueryTuple( statement, stop - start, type, rows ) );
         } catch ( SQLException e ) {
             throw new RuntimeException( e );
         }
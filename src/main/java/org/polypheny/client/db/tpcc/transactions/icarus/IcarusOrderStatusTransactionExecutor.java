@@ -34,7 +34,7 @@ protected Customer getCustomerInfo( int c_w_id, int c_d_id, String c_last ) {
         String query = "SELECT C_BALANCE, C_FIRST, C_MIDDLE, C_ID FROM tpcc_customer WHERE C_W_ID=" + c_w_id + " AND C_D_ID=" + c_d_id + " AND C_LAST= '" + c_last + "' ORDER BY C_FIRST ASC";
         return executeQuery( resultSet -> {
             int index;
-            IcarusResultSet rs = (IcarusResultSet) resultSet;
+            IcarusResultSet rs = resultSet.unwrap( IcarusResultSet.class );
             int count = rs.size();
             if ( count == 0 ) {
                 logger.error( "No elements retrieved for query {}. Aborting.", query );
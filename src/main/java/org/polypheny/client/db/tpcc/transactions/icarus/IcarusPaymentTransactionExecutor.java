@@ -65,7 +65,7 @@ protected Customer getCustomerAndPay( int c_w_id, int c_d_id, Integer c_id, Doub
     protected Customer getCustomerAndPay( int c_w_id, int c_d_id, String C_LAST, Double h_amount ) {
         String query = "SELECT * FROM tpcc_customer WHERE C_W_ID=" + c_w_id + " AND C_D_ID=" + c_d_id + " AND C_LAST= '" + C_LAST + "' ORDER BY C_FIRST ASC";
         Customer customer = executeQuery( resultSet -> {
-            IcarusResultSet rs = (IcarusResultSet) resultSet;
+            IcarusResultSet rs = resultSet.unwrap( IcarusResultSet.class );
             int index;
             int count = rs.size();
             if ( count == 0 ) {
@@ -1,11 +1,13 @@
 package org.polypheny.client.db.tpch;
 
 
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.polypheny.client.config.TPCHConfig;
 import org.polypheny.client.db.access.ConnectionException;
 import org.polypheny.client.db.access.DBConnector;
+import org.polypheny.client.db.access.QueryCancelledException;
 import org.polypheny.client.db.access.RESTConnector;
 import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.CustomerGenerator;
 import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.LineItemGenerator;
@@ -41,6 +43,8 @@ public class IcarusTpchBenchmarker extends TPCHBenchmarker {
     private static final int DELETE_BATCH_SIZE = 200;
     private final double SCALE_FACTOR;
     private DBConnector connector;
+    private final String host;
+    private final int port;
 
 
     public IcarusTpchBenchmarker( PolyphenyJobCdl cdl ) {
@@ -57,6 +61,8 @@ public IcarusTpchBenchmarker( double SCALE_FACTOR, String host, int port ) {
         super( SCALE_FACTOR );
         this.SCALE_FACTOR = SCALE_FACTOR;
         this.connector = new RESTConnector( host, port );
+        this.host = host;
+        this.port = port;
     }
 
 
@@ -86,6 +92,34 @@ public void createTables() {
     }
 
 
+    @Override
+    protected DBConnector createLoaderConnector() {
+        return new RESTConnector( host, port );
+    }
+
+
+    /**
+     * Icarus gets one INSERT with the column names per row, like the rows written from the generators
+     */
+    @Override
+    protected String insertStatement( TPCHTable table, List<String[]> rows ) {
+        String prefix = "INSERT INTO " + table.getTableName() + " (" + String.join( ", ", table.getColumns() ) + ") VALUES(";
+        StringBuilder statement = new StringBuilder();
+        for ( String[] row : rows ) {
+            statement.append( prefix );
+            appendValues( statement, table, row );
+            statement.append( ");" );
+        }
+        return statement.toString();
+    }
+
+
+    @Override
+    protected String dateLiteral( String date ) {
+        return "'" + date + "'";
+    }
+
+
     @Override
     public void abort() {
         try {
@@ -440,9 +474,10 @@ protected void writeRegions() throws ConnectionException {
     @Override
     public TPCHResultTuple genericQueryExecutor( int queryID ) {
         logger.trace( "Executing Query {}", queryID );
-        String query = new String( QGenIcarus.createQuery( SCALE_FACTOR, queryID ) );
+        String query = QGenIcarus.createQuery( getQueryGenerator(), SCALE_FACTOR, queryID );
         //TODO Jar Execution needs modification
-        return super.genericQueryExecutor( queryID, connector, query );
+        TPCHResultTuple tuple = super.genericQueryExecutor( queryID, connector, query );
+        return QGenIcarus.isDisabled( queryID ) ? tuple.toBuilder().setSubstituted( true ).build() : tuple;
     }
 
 
@@ -462,6 +497,8 @@ public TPCHResultTuple genericRefreshFunctionExecutor( int refreshFunctionID ) {
                 try {
                     writeOrders( SCALE_FACTOR / 1_000d, TPCHConfig.PART, TPCHConfig.PART_COUNT );
                     writeLineItems( SCALE_FACTOR / 1_143, TPCHConfig.PART, TPCHConfig.PART_COUNT );
+                } catch ( QueryCancelledException e ) {
+                    return cancelled( start, transactionType, refreshFunctionID, query.toString() );
                 } catch ( ConnectionException e ) {
                     //We expect a ConnectionException here if there are duplicate inserts, so we just log it
                     logger.trace( e );
@@ -503,6 +540,8 @@ public TPCHResultTuple genericRefreshFunctionExecutor( int refreshFunctionID ) {
                     stop = System.currentTimeMillis();
                     logger.trace( "Finished RF{}. Elapsed time: {} ms", (refreshFunctionID - 22), (stop - start) );
                     return ProtoObjectFactory.TPCHResultTuple( start, (stop - start), transactionType, refreshFunctionID, false, query.toString() );
+                } catch ( QueryCancelledException e ) {
+                    return cancelled( start, transactionType, refreshFunctionID, query.toString() );
                 } catch ( ConnectionException e ) {
                     logger.error( "ConnectionException while executing RF{}. Exiting.", (refreshFunctionID - 22) );
                     abort();
@@ -513,4 +552,22 @@ public TPCHResultTuple genericRefreshFunctionExecutor( int refreshFunctionID ) {
         }
         throw new IllegalArgumentException( "RefreshFunction " + refreshFunctionID + " is not supported" );
     }
+
+
+    private TPCHResultTuple cancelled( long start, TPCHTransactionType transactionType, int refreshFunctionID, String query ) {
+        logger.warn( "RF{} was cancelled", (refreshFunctionID - 22) );
+        return ProtoObjectFactory.TPCHResultTuple( start, (System.currentTimeMillis() - start), transactionType, refreshFunctionID, true, query ).toBuilder().setCancelled( true ).build();
+    }
+
+
+    @Override
+    public void setQueryTimeout( int seconds ) {
+        connector.setQueryTimeout( seconds );
+    }
+
+
+    @Override
+    public void cancel() {
+        connector.cancel();
+    }
 }
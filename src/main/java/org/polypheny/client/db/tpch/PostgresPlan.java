@@ -0,0 +1,106 @@
+package org.polypheny.client.db.tpch;
+
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+
+/**
+ * Compact form of the output of EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) on PostgreSQL. Of every plan node, only the fields needed to attribute time and I/O to operators are kept, which shrinks a plan to a fraction of its size.
+ *
+ * @tpchversion 2.17.1
+ */
+public class PostgresPlan {
+
+    static final String EXPLAIN = "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) ";
+
+    private static final String PLAN = "Plan";
+    private static final String PLANS = "Plans";
+    private static final String NODE_TYPE = "Node Type";
+    private static final String RELATION = "Relation Name";
+    private static final String TOTAL_TIME = "Actual Total Time";
+    private static final String LOOPS = "Actual Loops";
+    private static final String[] TOP_LEVEL_FIELDS = { "Planning Time", "Execution Time" };
+    private static final String[] NODE_FIELDS = { NODE_TYPE, RELATION, "Index Name", "Join Type", TOTAL_TIME, "Actual Rows", LOOPS, "Shared Hit Blocks", "Shared Read Blocks", "Temp Read Blocks", "Temp Written Blocks" };
+
+
+    private PostgresPlan() {
+    }
+
+
+    /**
+     * @param explain output of EXPLAIN in the JSON format, an array with a single element
+     * @return the plan with the relevant fields only, serialized without whitespace
+     */
+    public static String compact( String explain ) {
+        JsonElement parsed = new JsonParser().parse( explain );
+        JsonObject root = parsed.isJsonArray() ? parsed.getAsJsonArray().get( 0 ).getAsJsonObject() : parsed.getAsJsonObject();
+        JsonObject compact = new JsonObject();
+        copy( root, compact, TOP_LEVEL_FIELDS );
+        compact.add( PLAN, compactNode( root.getAsJsonObject( PLAN ) ) );
+        return compact.toString();
+    }
+
+
+    private static JsonObject compactNode( JsonObject node ) {
+        JsonObject compact = new JsonObject();
+        copy( node, compact, NODE_FIELDS );
+        if ( node.has( PLANS ) ) {
+            JsonArray children = new JsonArray();
+            for ( JsonElement child : node.getAsJsonArray( PLANS ) ) {
+                children.add( compactNode( child.getAsJsonObject() ) );
+            }
+            compact.add( PLANS, children );
+        }
+        return compact;
+    }
+
+
+    private static void copy( JsonObject from, JsonObject to, String[] fields ) {
+        for ( String field : fields ) {
+            if ( from.has( field ) ) {
+                to.add( field, from.get( field ) );
+            }
+        }
+    }
+
+
+    /**
+     * Visits every operator of a compact plan with the time spent in the operator itself, without its children. Actual Total Time is the average of a loop, so the time of a node is its total time times its loops.
+     *
+     * @param plan plan created by {@link #compact(String)}
+     */
+    public static void forEachOperator( String plan, OperatorConsumer consumer ) {
+        visit( new JsonParser().parse( plan ).getAsJsonObject().getAsJsonObject( PLAN ), consumer );
+    }
+
+
+    /**
+     * @return the inclusive time of the node
+     */
+    private static double visit( JsonObject node, OperatorConsumer consumer ) {
+        double total = node.has( TOTAL_TIME ) ? node.get( TOTAL_TIME ).getAsDouble() * (node.has( LOOPS ) ? node.get( LOOPS ).getAsDouble() : 1) : 0;
+        double children = 0;
+        if ( node.has( PLANS ) ) {
+            for ( JsonElement child : node.getAsJsonArray( PLANS ) ) {
+                children += visit( child.getAsJsonObject(), consumer );
+            }
+        }
+        String relation = node.has( RELATION ) ? node.get( RELATION ).getAsString() : "";
+        consumer.accept( node.get( NODE_TYPE ).getAsString(), relation, Math.max( 0, total - children ) );
+        return total;
+    }
+
+
+    @FunctionalInterface
+    public interface OperatorConsumer {
+
+        /**
+         * @param relation scanned table, empty for operators which do not scan a table
+         * @param exclusiveTime ms spent in the operator without its children
+         */
+        void accept( String nodeType, String relation, double exclusiveTime );
+    }
+}
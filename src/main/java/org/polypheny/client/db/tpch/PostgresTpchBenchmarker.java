@@ -1,13 +1,24 @@
 package org.polypheny.client.db.tpch;
 
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.polypheny.client.config.TPCHConfig;
 import org.polypheny.client.db.access.ConnectionException;
 import org.polypheny.client.db.access.DBConnector;
 import org.polypheny.client.db.access.JDBCPostgresConnector;
+import org.polypheny.client.db.access.QueryCancelledException;
 import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.CustomerGenerator;
 import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.LineItemGenerator;
 import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.NationGenerator;
@@ -41,8 +52,39 @@
 public class PostgresTpchBenchmarker extends TPCHBenchmarker {
 
     private static final int BATCH_SIZE = 10_000;
+    private static final String INSERT_ORDER = "INSERT INTO tpch_orders VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (o_orderkey) DO UPDATE " +
+            "SET o_custkey=excluded.o_custkey, " +
+            "o_orderstatus=excluded.o_orderstatus, " +
+            "o_totalprice=excluded.o_totalprice, " +
+            "o_orderdate=excluded.o_orderdate, " +
+            "o_orderpriority=excluded.o_orderpriority, " +
+            "o_clerk=excluded.o_clerk, " +
+            "o_shippriority=excluded.o_shippriority, " +
+            "o_comment=excluded.o_comment;";
+    private static final String INSERT_LINEITEM = "INSERT INTO tpch_lineitem VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (l_orderkey, l_linenumber) DO UPDATE " +
+            "SET l_partkey=excluded.l_partkey, " +
+            "l_suppkey=excluded.l_suppkey, " +
+            "l_quantity=excluded.l_quantity, " +
+            "l_extendedprice=excluded.l_extendedprice, " +
+            "l_discount=excluded.l_discount, " +
+            "l_tax=excluded.l_tax, " +
+            "l_returnflag=excluded.l_returnflag, " +
+            "l_linestatus=excluded.l_linestatus, " +
+            "l_shipdate=excluded.l_shipdate, " +
+            "l_commitdate=excluded.l_commitdate, " +
+            "l_receiptdate=excluded.l_receiptdate, " +
+            "l_shipinstruct=excluded.l_shipinstruct, " +
+            "l_shipmode=excluded.l_shipmode, " +
+            "l_comment=excluded.l_comment;";
+    private static final String DELETE_ORDER = "DELETE FROM tpch_orders WHERE o_orderkey = ?;";
     private final double SCALE_FACTOR;
-    private DBConnector connector;
+    private JDBCPostgresConnector connector;
+    private final String dbHost;
+    private final int port;
+    private final String database;
+    private final String username;
+    private final String password;
+    private int refreshBatchSize = TPCHConfig.REFRESH_BATCH_SIZE;
     private Logger logger = LogManager.getLogger();
 
 
@@ -62,6 +104,11 @@ public PostgresTpchBenchmarker( AccessMethod accessMethod, String dbHost, int po
             throw new IllegalArgumentException();
         }
         this.connector = new JDBCPostgresConnector( dbHost, port, database, username, password );
+        this.dbHost = dbHost;
+        this.port = port;
+        this.database = database;
+        this.username = username;
+        this.password = password;
     }
 
 
@@ -73,6 +120,7 @@ public PostgresTpchBenchmarker( AccessMethod accessMethod, String dbHost, int po
     public PostgresTpchBenchmarker( LaunchWorkerMessage workerMessage ) throws ConnectionException {
         this( workerMessage.getDbInfo().getAccessMethod(), workerMessage.getDbInfo().getDbHost(), workerMessage.getDbInfo().getDbPort(), workerMessage.getDbInfo().getDatabase(), workerMessage.getDbInfo().getUsername(), workerMessage.getDbInfo().getPassword(),
                 workerMessage.getTpchWorkerMessage().getSCALEFACTOR() );
+        setRefreshBatchSize( workerMessage.getTpchWorkerMessage().getRefreshBatchSize() );
     }
 
 
@@ -91,6 +139,18 @@ public void createTables() {
     }
 
 
+    @Override
+    protected DBConnector createLoaderConnector() throws ConnectionException {
+        return new JDBCPostgresConnector( dbHost, port, database, username, password );
+    }
+
+
+    @Override
+    protected int getLoadBatchSize() {
+        return BATCH_SIZE;
+    }
+
+
     @Override
     public void abort() {
         logger.trace( "Aborting TPC-H Benchmarker" );
@@ -514,194 +574,60 @@ public void writeRegions() {
 
     @Override
     public TPCHResultTuple genericQueryExecutor( int queryID ) {
-        String query = new String( QGenPostgresql.createQuery( SCALE_FACTOR, queryID ) );
+        String query = QGenPostgresql.createQuery( getQueryGenerator(), SCALE_FACTOR, queryID );
         //TODO Jar Execution needs modification
-        return super.genericQueryExecutor( queryID, connector, query );
+        TPCHResultTuple tuple = super.genericQueryExecutor( queryID, connector, query );
+        return QGenPostgresql.isDisabled( queryID ) ? tuple.toBuilder().setSubstituted( true ).build() : tuple;
+    }
+
+
+    /**
+     * Runs the query with EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON), which executes it and reports time and buffer accesses per plan node
+     */
+    @Override
+    protected String explain( DBConnector connector, String query ) throws SQLException {
+        try ( ResultSet resultSet = connector.executeQuery( PostgresPlan.EXPLAIN + query ) ) {
+            if ( !resultSet.next() ) {
+                return null;
+            }
+            return PostgresPlan.compact( resultSet.getString( 1 ) );
+        }
     }
 
 
     @Override
     public TPCHResultTuple genericRefreshFunctionExecutor( int refreshFunctionID ) {
+        TPCHTransactionType transactionType = refreshFunctionID == 23 ? TPCHTransactionType.TPCHTRANSACTIONNEWSALES : TPCHTransactionType.TPCHTRANSACTIONOLDSALES;
+        logger.trace( "Executing RF" + (refreshFunctionID - 22) + " transaction" );
+        List<Float> batchResponseTimes = new ArrayList<>();
+        long start = 0;
+        String query = refreshFunctionID == 23 ? INSERT_ORDER + " " + INSERT_LINEITEM : DELETE_ORDER;
         try {
-            TPCHTransactionType transactionType = TPCHTransactionType.TPCHTRANSACTIONUNDEFINED;
-            logger.trace( "Executing RF" + (refreshFunctionID - 22) + " transaction" );
-            long start = System.currentTimeMillis();
-            connector.startTransaction();
-            StringBuilder query = new StringBuilder();
-            int cnt = 1;
-            switch ( refreshFunctionID ) {
-                case 23:
-                    transactionType = TPCHTransactionType.TPCHTRANSACTIONNEWSALES;
-                    //insert into tpch_orders
-                    query.append( "INSERT INTO tpch_orders VALUES" );
-                    for ( Order entity : new OrderGenerator( SCALE_FACTOR / 1_000d, TPCHConfig.PART, TPCHConfig.PART_COUNT ) ) {
-                        query.append( "(" );
-                        query.append( entity.getOrderKey() + 8 ); // second 8 key values of a group of 32
-                        query.append( "," );
-                        query.append( entity.getCustomerKey() );
-                        query.append( "," );
-                        query.append( "\'" + entity.getOrderStatus() + "\'" );
-                        query.append( "," );
-                        query.append( entity.getTotalPrice() );
-                        query.append( "," );
-                        String orderDate = GenerateUtils.formatDate( entity.getOrderDate() );
-                        query.append( "TO_DATE(\'" + orderDate + "\', \'YYYY-MM-DD\')" );
-                        query.append( "," );
-                        query.append( "\'" + entity.getOrderPriority() + "\'" );
-                        query.append( "," );
-                        query.append( "\'" + entity.getClerk() + "\'" );
-                        query.append( "," );
-                        query.append( entity.getShipPriority() );
-                        query.append( "," );
-                        query.append( "\'" + entity.getComment() + "\'" );
-                        query.append( ")" );
-                        if ( cnt % BATCH_SIZE == 0 && cnt != SCALE_FACTOR * 1_500_000 ) {
-                            query.append( " ON CONFLICT (o_orderkey) DO UPDATE " +
-                                    "SET o_custkey=excluded.o_custkey, " +
-                                    "o_orderstatus=excluded.o_orderstatus, " +
-                                    "o_totalprice=excluded.o_totalprice, " +
-                                    "o_orderdate=excluded.o_orderdate, " +
-                                    "o_orderpriority=excluded.o_orderpriority, " +
-                                    "o_clerk=excluded.o_clerk, " +
-                                    "o_shippriority=excluded.o_shippriority, " +
-                                    "o_comment=excluded.o_comment" );
-                            query.append( ";" );
-                            connector.executeStatement( query.toString() );
-                            connector.commitTransaction();
-                            query = new StringBuilder();
-                            query.append( "INSERT INTO tpch_orders VALUES" );
-                        } else {
-                            if ( cnt != SCALE_FACTOR * 1_500_000 ) {
-                                query.append( "," );
-                            }
-                        }
-                        cnt++;
-                    }
-                    query.deleteCharAt( query.length() - 1 ); // ugly remove of last ','
-                    query.append( " ON CONFLICT (o_orderkey) DO UPDATE " +
-                            "SET o_custkey=excluded.o_custkey, " +
-                            "o_orderstatus=excluded.o_orderstatus, " +
-                            "o_totalprice=excluded.o_totalprice, " +
-                            "o_orderdate=excluded.o_orderdate, " +
-                            "o_orderpriority=excluded.o_orderpriority, " +
-                            "o_clerk=excluded.o_clerk, " +
-                            "o_shippriority=excluded.o_shippriority, " +
-                            "o_comment=excluded.o_comment" );
-                    query.append( ";" );
-                    connector.executeStatement( query.toString() );
-                    connector.commitTransaction();
-                    query = new StringBuilder();
-                    cnt = 1;
-                    query.append( "INSERT INTO tpch_lineitem VALUES" );
-                    for ( LineItem entity : new LineItemGenerator( SCALE_FACTOR / 1_143,
-                            TPCHConfig.PART, TPCHConfig.PART_COUNT ) ) {
-                        query.append( "(" );
-                        query.append( entity.getOrderKey() + 8 ); // second 8 key values of group of 32
-                        query.append( "," );
-                        query.append( "1" );
-                        query.append( "," );
-                        query.append( "2" );
-                        query.append( "," );
-                        query.append( entity.getLineNumber() );
-                        query.append( "," );
-                        query.append( entity.getQuantity() );
-                        query.append( "," );
-                        query.append( entity.getExtendedPrice() );
-                        query.append( "," );
-                        query.append( entity.getDiscount() );
-                        query.append( "," );
-                        query.append( entity.getTax() );
-                        query.append( "," );
-                        query.append( "\'" + entity.getReturnFlag() + "\'" );
-                        query.append( "," );
-                        query.append( "\'" + entity.getStatus() + "\'" );
-                        query.append( "," );
-                        String shipDate = GenerateUtils.formatDate( entity.getShipDate() );
-                        query.append( "TO_DATE(\'" + shipDate + "\', \'YYYY-MM-DD\')" );
-                        query.append( "," );
-                        String commitDate = GenerateUtils.formatDate( entity.getCommitDate() );
-                        query.append( "TO_DATE(\'" + commitDate + "\', \'YYYY-MM-DD\')" );
-                        query.append( "," );
-                        String receiptDate = GenerateUtils.formatDate( entity.getReceiptDate() );
-                        query.append( "TO_DATE(\'" + receiptDate + "\', \'YYYY-MM-DD\')" );
-                        query.append( "," );
-                        query.append( "\'" + entity.getShipInstructions() + "\'" );
-                        query.append( "," );
-                        query.append( "\'" + entity.getShipMode() + "\'" );
-                        query.append( "," );
-                        query.append( "\'" + entity.getComment() + "\'" );
-                        query.append( ")" );
-                        if ( cnt % BATCH_SIZE == 0 && cnt != SCALE_FACTOR * 6_001_215 ) {
-                            query.append( " ON CONFLICT (l_orderkey, l_linenumber) DO UPDATE " +
-                                    "SET l_partkey=excluded.l_partkey, " +
-                                    "l_suppkey=excluded.l_suppkey, " +
-                                    "l_quantity=excluded.l_quantity, " +
-                                    "l_extendedprice=excluded.l_extendedprice, " +
-                                    "l_discount=excluded.l_discount, " +
-                                    "l_tax=excluded.l_tax, " +
-                                    "l_returnflag=excluded.l_returnflag, " +
-                                    "l_linestatus=excluded.l_linestatus, " +
-                                    "l_shipdate=excluded.l_shipdate, " +
-                                    "l_commitdate=excluded.l_commitdate, " +
-                                    "l_receiptdate=excluded.l_receiptdate, " +
-                                    "l_shipinstruct=excluded.l_shipinstruct, " +
-                                    "l_shipmode=excluded.l_shipmode, " +
-                                    "l_comment=excluded.l_comment" );
-                            query.append( ";" );
-                            connector.executeStatement( query.toString() );
-                            connector.commitTransaction();
-                            query = new StringBuilder();
-                            query.append( "INSERT INTO tpch_lineitem VALUES" );
-                        } else {
-                            if ( cnt != SCALE_FACTOR * 6_001_215 ) {
-                                query.append( "," );
-                            }
-                        }
-                        cnt++;
-                    }
-                    query.deleteCharAt( query.length() - 1 ); // ugly remove of last ','
-                    query.append( " ON CONFLICT (l_orderkey, l_linenumber) DO UPDATE " +
-                            "SET l_partkey=excluded.l_partkey, " +
-                            "l_suppkey=excluded.l_suppkey, " +
-                            "l_quantity=excluded.l_quantity, " +
-                            "l_extendedprice=excluded.l_extendedprice, " +
-                            "l_discount=excluded.l_discount, " +
-                            "l_tax=excluded.l_tax, " +
-                            "l_returnflag=excluded.l_returnflag, " +
-                            "l_linestatus=excluded.l_linestatus, " +
-                            "l_shipdate=excluded.l_shipdate, " +
-                            "l_commitdate=excluded.l_commitdate, " +
-                            "l_receiptdate=excluded.l_receiptdate, " +
-                            "l_shipinstruct=excluded.l_shipinstruct, " +
-                            "l_shipmode=excluded.l_shipmode, " +
-                            "l_comment=excluded.l_comment" );
-                    query.append( ";" );
-                    connector.executeStatement( query.toString() );
-                    connector.commitTransaction();
-                    break;
-                case 24:
-                    transactionType = TPCHTransactionType.TPCHTRANSACTIONOLDSALES;
-                    // Deleting rows in the sparsely populated second 8 key values of tpch_orders (deleting lineitems as well)
-                    query.append( "DELETE FROM tpch_orders WHERE o_orderkey IN (" );
-                    for ( int i = 0; i < SCALE_FACTOR * 1500; i++ ) {
-                        for ( int j = 8; j < 16; j++ ) {
-                            int index = i * 32 + j;
-                            // no entry with ID 8
-                            if ( index != 8 ) {
-                                query.append( index + ", " );
-                            }
-                        }
-                    }
-                    query.delete( query.length() - 2, query.length() );
-                    query.append( ");" );
-                    connector.executeStatement( query.toString() );
-                    connector.commitTransaction();
+            // Generating the data set on the first call is not part of the response time
+            RefreshDataSet dataSet = RefreshDataSet.get( SCALE_FACTOR );
+            start = System.currentTimeMillis();
+            if ( refreshFunctionID == 23 ) {
+                executeBatches( dataSet.openOrders(), INSERT_ORDER, PostgresTpchBenchmarker::bindOrder, batchResponseTimes );
+                executeBatches( dataSet.openLineItems(), INSERT_LINEITEM, PostgresTpchBenchmarker::bindLineItem, batchResponseTimes );
+            } else {
+                // Deleting the orders of RF1 deletes their lineitems as well
+                executeBatches( dataSet.openDeletes(), DELETE_ORDER, ( statement, row ) -> statement.setLong( 1, Long.parseLong( row[0] ) ), batchResponseTimes );
             }
-            long stop = System.currentTimeMillis();
-            logger.trace( "Finished RF{}. Elapsed time: {} ms", (refreshFunctionID - 22), (stop - start) );
-            return ProtoObjectFactory.TPCHResultTuple( start, (stop - start), transactionType, refreshFunctionID, false, query.toString() );
-        } catch ( ConnectionException e ) {
-            logger.error( "ConnectionException while executing RF{}. Ignoring.", (refreshFunctionID - 22) );
+        } catch ( SQLException e ) {
+            try {
+                connector.abortTransaction();
+            } catch ( ConnectionException e1 ) {
+                //Ignore
+            }
+            if ( QueryCancelledException.isCancellation( e ) ) {
+                logger.warn( "RF{} was cancelled after {} batches", (refreshFunctionID - 22), batchResponseTimes.size() );
+                return ProtoObjectFactory.TPCHResultTuple( start, (System.currentTimeMillis() - start), transactionType, refreshFunctionID, true, query, batchResponseTimes ).toBuilder().setCancelled( true ).build();
+            }
+            logger.error( "Exception while executing RF{}. Ignoring.", (refreshFunctionID - 22) );
+            logger.error( e );
+            return TPCHResultTuple.getDefaultInstance();
+        } catch ( IOException | UncheckedIOException e ) {
+            logger.error( "Exception while executing RF{}. Ignoring.", (refreshFunctionID - 22) );
             logger.error( e );
             try {
                 connector.abortTransaction();
@@ -710,5 +636,110 @@ public TPCHResultTuple genericRefreshFunctionExecutor( int refreshFunctionID ) {
             }
             return TPCHResultTuple.getDefaultInstance();
         }
+        long stop = System.currentTimeMillis();
+        logger.trace( "Finished RF{} in {} batches. Elapsed time: {} ms", (refreshFunctionID - 22), batchResponseTimes.size(), (stop - start) );
+        return ProtoObjectFactory.TPCHResultTuple( start, (stop - start), transactionType, refreshFunctionID, false, query, batchResponseTimes );
+    }
+
+
+    /**
+     * Executes the statement once for every row, {@link #refreshBatchSize} rows per batch. Every batch is a transaction of its own, its response time is added to the list.
+     *
+     * @param rows rows of the {@link RefreshDataSet}, closed after the last batch
+     */
+    private void executeBatches( BufferedReader rows, String sql, RowBinder binder, List<Float> batchResponseTimes ) throws SQLException, IOException {
+        try ( BufferedReader reader = rows; PreparedStatement statement = connector.prepareStatement( sql ) ) {
+            int batched = 0;
+            String line;
+            while ( (line = reader.readLine()) != null ) {
+                binder.bind( statement, RefreshDataSet.split( line ) );
+                statement.addBatch();
+                if ( ++batched == refreshBatchSize ) {
+                    batchResponseTimes.add( executeBatch( statement ) );
+                    batched = 0;
+                }
+            }
+            if ( batched > 0 ) {
+                batchResponseTimes.add( executeBatch( statement ) );
+            }
+        }
+    }
+
+
+    /**
+     * @return the response time of the batch in ms
+     */
+    private float executeBatch( PreparedStatement statement ) throws SQLException {
+        long start = System.currentTimeMillis();
+        connector.startTransaction();
+        statement.executeBatch();
+        connector.commitTransaction();
+        return System.currentTimeMillis() - start;
+    }
+
+
+    private static void bindOrder( PreparedStatement statement, String[] row ) throws SQLException {
+        statement.setLong( 1, Long.parseLong( row[0] ) );
+        statement.setLong( 2, Long.parseLong( row[1] ) );
+        statement.setString( 3, row[2] );
+        statement.setBigDecimal( 4, new BigDecimal( row[3] ) );
+        statement.setDate( 5, Date.valueOf( row[4] ) );
+        statement.setString( 6, row[5] );
+        statement.setString( 7, row[6] );
+        statement.setInt( 8, Integer.parseInt( row[7] ) );
+        statement.setString( 9, row[8] );
+    }
+
+
+    private static void bindLineItem( PreparedStatement statement, String[] row ) throws SQLException {
+        statement.setLong( 1, Long.parseLong( row[0] ) );
+        // The parts and suppliers of the smaller scale factor are not in tpch_partsupp, use a pair which is
+        statement.setLong( 2, 1 );
+        statement.setLong( 3, 2 );
+        statement.setInt( 4, Integer.parseInt( row[3] ) );
+        statement.setBigDecimal( 5, new BigDecimal( row[4] ) );
+        statement.setBigDecimal( 6, new BigDecimal( row[5] ) );
+        statement.setBigDecimal( 7, new BigDecimal( row[6] ) );
+        statement.setBigDecimal( 8, new BigDecimal( row[7] ) );
+        statement.setString( 9, row[8] );
+        statement.setString( 10, row[9] );
+        statement.setDate( 11, Date.valueOf( row[10] ) );
+        statement.setDate( 12, Date.valueOf( row[11] ) );
+        statement.setDate( 13, Date.valueOf( row[12] ) );
+        statement.setString( 14, row[13] );
+        statement.setString( 15, row[14] );
+        statement.setString( 16, row[15] );
+    }
+
+
+    @Override
+    public void setQueryTimeout( int seconds ) {
+        connector.setQueryTimeout( seconds );
+    }
+
+
+    @Override
+    public void cancel() {
+        connector.cancel();
+    }
+
+
+    /**
+     * @param refreshBatchSize rows per batch of RF1 and RF2, values below 1 keep the current size
+     */
+    public void setRefreshBatchSize( int refreshBatchSize ) {
+        if ( refreshBatchSize > 0 ) {
+            this.refreshBatchSize = refreshBatchSize;
+        }
+    }
+
+
+    /**
+     * Sets the columns of a row of the {@link RefreshDataSet} as parameters of a statement.
+     */
+    @FunctionalInterface
+    private interface RowBinder {
+
+        void bind( PreparedStatement statement, String[] row ) throws SQLException;
     }
 }
@@ -0,0 +1,125 @@
+package org.polypheny.client.db.tpch;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A query template in the style of the qgen templates of clause 2.1.3: the query text with substitution parameters {@code :1}, {@code :2}, ... which replace a whole SQL literal. The template is parsed once into its literal segments and parameter slots, rendering a query only concatenates them.
+ *
+ * Parameters are typed Java values, the {@link TPCHDialect} decides how they are written as literals. Colons in quoted SQL literals are not parameters.
+ *
+ * @tpchversion 2.17.1
+ */
+public class QueryTemplate {
+
+    private final String[] segments;
+    //1-based parameter index per slot, slot i is between segments i and i+1
+    private final int[] slots;
+    private final int parameterCount;
+
+
+    private QueryTemplate( String[] segments, int[] slots ) {
+        this.segments = segments;
+        this.slots = slots;
+        int max = 0;
+        for ( int slot : slots ) {
+            max = Math.max( max, slot );
+        }
+        this.parameterCount = max;
+    }
+
+
+    /**
+     * @param template query text with substitution parameters {@code :n}
+     */
+    public static QueryTemplate parse( String template ) {
+        List<String> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder segment = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while ( i < template.length() ) {
+            char c = template.charAt( i );
+            if ( c == '\'' ) {
+                quoted = !quoted;
+            }
+            if ( !quoted && c == ':' && i + 1 < template.length() && Character.isDigit( template.charAt( i + 1 ) ) ) {
+                int end = i + 1;
+                while ( end < template.length() && Character.isDigit( template.charAt( end ) ) ) {
+                    end++;
+                }
+                segments.add( segment.toString() );
+                segment.setLength( 0 );
+                slots.add( Integer.parseInt( template.substring( i + 1, end ) ) );
+                i = end;
+                continue;
+            }
+            segment.append( c );
+            i++;
+        }
+        if ( quoted ) {
+            throw new IllegalArgumentException( "Unterminated literal in template " + template );
+        }
+        segments.add( segment.toString() );
+        return new QueryTemplate( segments.toArray( new String[0] ), slots.stream().mapToInt( Integer::intValue ).toArray() );
+    }
+
+
+    /**
+     * @param parameters substitution parameters, parameter {@code :n} is at index n-1
+     * @return the query with the parameters written as literals of the dialect
+     */
+    public String render( Object[] parameters, TPCHDialect dialect ) {
+        checkParameters( parameters );
+        StringBuilder query = new StringBuilder( segments[0] );
+        for ( int i = 0; i < slots.length; i++ ) {
+            query.append( dialect.literal( parameters[slots[i] - 1] ) );
+            query.append( segments[i + 1] );
+        }
+        return query.toString();
+    }
+
+
+    /**
+     * @return the query with a {@code ?} per slot, for a prepared statement whose parameters are bound with {@link #bind(Object[])}
+     */
+    public String toPreparedStatement() {
+        StringBuilder query = new StringBuilder( segments[0] );
+        for ( int i = 0; i < slots.length; i++ ) {
+            query.append( '?' );
+            query.append( segments[i + 1] );
+        }
+        return query.toString();
+    }
+
+
+    /**
+     * @param parameters substitution parameters, parameter {@code :n} is at index n-1
+     * @return the parameters in the order of the {@code ?} of {@link #toPreparedStatement()}, a parameter which is used twice is bound twice
+     */
+    public Object[] bind( Object[] parameters ) {
+        checkParameters( parameters );
+        Object[] bound = new Object[slots.length];
+        for ( int i = 0; i < slots.length; i++ ) {
+            bound[i] = parameters[slots[i] - 1];
+        }
+        return bound;
+    }
+
+
+    /**
+     * @return the highest parameter index of the template
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+
+    private void checkParameters( Object[] parameters ) {
+        if ( parameters.length < parameterCount ) {
+            throw new IllegalArgumentException( "Template requires " + parameterCount + " parameters, got " + parameters.length );
+        }
+    }
+}
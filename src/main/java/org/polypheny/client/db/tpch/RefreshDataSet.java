@@ -0,0 +1,165 @@
+package org.polypheny.client.db.tpch;
+
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.config.Config;
+import org.polypheny.client.config.TPCHConfig;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.LineItemGenerator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.OrderGenerator;
+import org.polypheny.client.generator.tpch.objects.LineItem;
+import org.polypheny.client.generator.tpch.objects.Order;
+
+
+/**
+ * The update and delete set of the refresh functions (4.2.1), written once per scale factor in the .tbl format of dbgen, so generating rows does not count towards the time of RF1 and RF2.
+ *
+ * RF1 inserts SF * 1500 orders with their lineitems, RF2 deletes the same orders again, so the refresh pairs of a run can be repeated on the same database. The keys are the second 8 key values of a group of 32, which the population leaves empty.
+ *
+ * @tpchversion 2.17.1
+ */
+public class RefreshDataSet {
+
+    static final String ORDERS = "orders.tbl.u1";
+    static final String LINEITEMS = "lineitem.tbl.u1";
+    static final String DELETES = "delete.1";
+    static final long KEY_OFFSET = 8;
+
+    private static final Logger logger = LogManager.getLogger();
+    private static final Map<File, RefreshDataSet> dataSets = new HashMap<>();
+
+    private final File folder;
+
+
+    private RefreshDataSet( File folder ) {
+        this.folder = folder;
+    }
+
+
+    /**
+     * @return the data set of the scale factor in the storage of this process, generated on the first call
+     */
+    public static RefreshDataSet get( double scaleFactor ) {
+        return get( new File( new File( Config.DEFAULT_WORKER_STORAGE_LOCATION ), "tpch/refresh/sf" + scaleFactor ), scaleFactor );
+    }
+
+
+    /**
+     * Terminals of a worker share the data set, the files are only generated if they are missing.
+     */
+    static synchronized RefreshDataSet get( File folder, double scaleFactor ) {
+        RefreshDataSet dataSet = dataSets.get( folder );
+        if ( dataSet == null ) {
+            dataSet = new RefreshDataSet( folder );
+            if ( !dataSet.file( ORDERS ).exists() || !dataSet.file( LINEITEMS ).exists() || !dataSet.file( DELETES ).exists() ) {
+                try {
+                    dataSet.generate( scaleFactor );
+                } catch ( IOException e ) {
+                    throw new UncheckedIOException( "Could not write the refresh data set to " + folder, e );
+                }
+            }
+            dataSets.put( folder, dataSet );
+        }
+        return dataSet;
+    }
+
+
+    private void generate( double scaleFactor ) throws IOException {
+        logger.info( "Generating the refresh data set for SF {} in {}", scaleFactor, folder );
+        long start = System.currentTimeMillis();
+        if ( !folder.exists() && !folder.mkdirs() ) {
+            throw new IOException( "Could not create " + folder );
+        }
+        // The generators of SF / 1000 create SF * 1500 orders, lineitems belong to the same orders
+        try ( BufferedWriter orders = writer( ORDERS ); BufferedWriter deletes = writer( DELETES ) ) {
+            for ( Order order : new OrderGenerator( scaleFactor / 1_000d, TPCHConfig.PART, TPCHConfig.PART_COUNT ) ) {
+                long orderKey = order.getOrderKey() + KEY_OFFSET;
+                orders.write( withKey( orderKey, order.toLine() ) );
+                orders.newLine();
+                deletes.write( orderKey + "|" );
+                deletes.newLine();
+            }
+        }
+        try ( BufferedWriter lineItems = writer( LINEITEMS ) ) {
+            for ( LineItem lineItem : new LineItemGenerator( scaleFactor / 1_000d, TPCHConfig.PART, TPCHConfig.PART_COUNT ) ) {
+                lineItems.write( withKey( lineItem.getOrderKey() + KEY_OFFSET, lineItem.toLine() ) );
+                lineItems.newLine();
+            }
+        }
+        for ( String name : new String[]{ ORDERS, LINEITEMS, DELETES } ) {
+            Files.move( temporaryFile( name ).toPath(), file( name ).toPath(), StandardCopyOption.REPLACE_EXISTING );
+        }
+        logger.info( "Generated the refresh data set in {} ms", System.currentTimeMillis() - start );
+    }
+
+
+    /**
+     * @return the orders inserted by RF1, one row per line
+     */
+    public BufferedReader openOrders() throws IOException {
+        return reader( ORDERS );
+    }
+
+
+    /**
+     * @return the lineitems inserted by RF1, one row per line
+     */
+    public BufferedReader openLineItems() throws IOException {
+        return reader( LINEITEMS );
+    }
+
+
+    /**
+     * @return the keys of the orders deleted by RF2, one row per line
+     */
+    public BufferedReader openDeletes() throws IOException {
+        return reader( DELETES );
+    }
+
+
+    /**
+     * @param line row of a .tbl file, which ends with a delimiter
+     * @return the columns of the row
+     */
+    public static String[] split( String line ) {
+        return line.substring( 0, line.length() - 1 ).split( "\\|", -1 );
+    }
+
+
+    /**
+     * @return the row with the order key in the first column replaced
+     */
+    private static String withKey( long orderKey, String line ) {
+        return orderKey + line.substring( line.indexOf( '|' ) );
+    }
+
+
+    private File file( String name ) {
+        return new File( folder, name );
+    }
+
+
+    private File temporaryFile( String name ) {
+        return new File( folder, name + ".tmp" );
+    }
+
+
+    private BufferedWriter writer( String name ) throws IOException {
+        return Files.newBufferedWriter( temporaryFile( name ).toPath(), StandardCharsets.UTF_8 );
+    }
+
+
+    private BufferedReader reader( String name ) throws IOException {
+        return Files.newBufferedReader( file( name ).toPath(), StandardCharsets.UTF_8 );
+    }
+}
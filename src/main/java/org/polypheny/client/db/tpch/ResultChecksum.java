@@ -0,0 +1,182 @@
+package org.polypheny.client.db.tpch;
+
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import org.polypheny.client.db.access.IcarusResultSet;
+
+
+/**
+ * Order-insensitive hash of a query result, computed while the rows are drained so results are never materialized. Two results have the same checksum if they contain the same rows, in any order.
+ *
+ * Values are normalized by column type before they are hashed: numbers are rounded to {@link #scale} decimal places and compared by value, so 5, 5.0 and 5.0001 match at scale 2. Character values lose the padding of CHAR columns, dates are compared as yyyy-mm-dd. The tolerance is a rounding, so values which differ by less than the tolerance can still round apart at a boundary like x.xx5.
+ *
+ * Each row is hashed with FNV-1a, the mixed row hashes are summed. The sum does not depend on the order of the rows, but on how often each row occurs.
+ *
+ * @tpchversion 2.17.1
+ */
+public class ResultChecksum {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final String NULL = "\u0000null";
+    private static final char SEPARATOR = '\u001f';
+
+    private final int scale;
+    private long sum = 0;
+    private long rows = 0;
+    //SQL types of the columns, read from the metadata of the first row
+    private int[] columnTypes;
+
+
+    /**
+     * @param scale decimal places numbers are rounded to
+     */
+    public ResultChecksum( int scale ) {
+        this.scale = scale;
+    }
+
+
+    /**
+     * Adds all remaining rows of the result set
+     */
+    public void addRows( ResultSet resultSet ) throws SQLException {
+        while ( resultSet.next() ) {
+            addRow( resultSet );
+        }
+    }
+
+
+    /**
+     * Adds the current row of the result set
+     */
+    public void addRow( ResultSet resultSet ) throws SQLException {
+        if ( resultSet instanceof IcarusResultSet ) {
+            //Icarus returns JSON without metadata, the JSON types tell numbers from text
+            List<Object> values = new ArrayList<>();
+            for ( Entry<String, JsonElement> entry : ((IcarusResultSet) resultSet).row().entrySet() ) {
+                values.add( entry.getValue().isJsonNull() ? null : jsonValue( entry.getValue().getAsJsonPrimitive() ) );
+            }
+            addRow( values );
+            return;
+        }
+        if ( columnTypes == null ) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            columnTypes = new int[metaData.getColumnCount()];
+            for ( int i = 0; i < columnTypes.length; i++ ) {
+                columnTypes[i] = metaData.getColumnType( i + 1 );
+            }
+        }
+        List<Object> values = new ArrayList<>( columnTypes.length );
+        for ( int i = 0; i < columnTypes.length; i++ ) {
+            values.add( value( resultSet, i + 1, columnTypes[i] ) );
+        }
+        addRow( values );
+    }
+
+
+    /**
+     * Adds a row of values, numbers as {@link Number}, everything else is compared as text
+     */
+    void addRow( List<Object> values ) {
+        long hash = FNV_OFFSET;
+        for ( Object value : values ) {
+            hash = fnv( hash, normalize( value ) );
+            hash = (hash ^ SEPARATOR) * FNV_PRIME;
+        }
+        sum += mix( hash );
+        rows++;
+    }
+
+
+    /**
+     * @return the checksum as 16 hex digits
+     */
+    public String getValue() {
+        return String.format( "%016x", sum );
+    }
+
+
+    public long getRows() {
+        return rows;
+    }
+
+
+    private static Object value( ResultSet resultSet, int column, int type ) throws SQLException {
+        Object value;
+        switch ( type ) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                value = resultSet.getLong( column );
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                value = resultSet.getBigDecimal( column );
+                break;
+            case Types.DATE:
+                value = resultSet.getDate( column );
+                break;
+            default:
+                value = resultSet.getString( column );
+        }
+        return resultSet.wasNull() ? null : value;
+    }
+
+
+    private static Object jsonValue( JsonPrimitive primitive ) {
+        return primitive.isNumber() ? primitive.getAsBigDecimal() : primitive.getAsString();
+    }
+
+
+    private String normalize( Object value ) {
+        if ( value == null ) {
+            return NULL;
+        }
+        if ( value instanceof Number ) {
+            BigDecimal number = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal( value.toString() );
+            BigDecimal rounded = number.setScale( scale, RoundingMode.HALF_UP );
+            //stripTrailingZeros keeps the exponent of 0, e.g. 0.00
+            return rounded.signum() == 0 ? "0" : rounded.stripTrailingZeros().toPlainString();
+        }
+        String text = value.toString();
+        int end = text.length();
+        while ( end > 0 && text.charAt( end - 1 ) == ' ' ) {
+            end--;
+        }
+        return text.substring( 0, end );
+    }
+
+
+    private static long fnv( long hash, String value ) {
+        for ( byte b : value.getBytes( StandardCharsets.UTF_8 ) ) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+
+    /**
+     * Finalizer of SplitMix64, spreads the row hashes before they are summed
+     */
+    private static long mix( long hash ) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
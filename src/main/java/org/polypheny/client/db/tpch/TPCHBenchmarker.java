@@ -1,13 +1,35 @@
 package org.polypheny.client.db.tpch;
 
 
+import com.google.common.collect.Iterables;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongUnaryOperator;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.polypheny.client.config.TPCHConfig;
 import org.polypheny.client.db.access.ConnectionException;
 import org.polypheny.client.db.access.DBConnector;
+import org.polypheny.client.db.access.QueryCancelledException;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.PartGenerator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.PartSupplierGenerator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.SupplierGenerator;
 import org.polypheny.client.generator.tpch.objects.Customer;
 import org.polypheny.client.generator.tpch.objects.LineItem;
 import org.polypheny.client.generator.tpch.objects.Nation;
@@ -16,9 +38,11 @@
 import org.polypheny.client.generator.tpch.objects.PartSupplier;
 import org.polypheny.client.generator.tpch.objects.Region;
 import org.polypheny.client.generator.tpch.objects.Supplier;
+import org.polypheny.client.generator.tpch.objects.TpchEntity;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHTransactionType;
 import org.polypheny.client.rpc.ProtoObjectFactory;
+import org.polypheny.client.storage.MappedRows;
 
 
 /**
@@ -32,6 +56,13 @@ public abstract class TPCHBenchmarker {
     // scale factor (SF) must be either 1, 10, 30, 100, 300, 1000, 3000, 10000, 30000 or 100000
     private double SCALE_FACTOR;
     private Logger logger = LogManager.getLogger();
+    private TPCHQueryGenerator queryGenerator = TPCHQueryGenerator.forStream( TPCHConfig.QUERY_SEED, 0 );
+    private boolean validateResults = TPCHConfig.VALIDATE_RESULTS;
+    private TPCHDataCache dataCache = null;
+    private int loaderThreads = TPCHConfig.LOADER_THREADS;
+    private int profileSampling = TPCHConfig.PROFILE_SAMPLING;
+    private Set<Integer> profiledQueries = new HashSet<>();
+    private long profileCandidates = 0;
 
 
     public TPCHBenchmarker( final double SCALE_FACTOR ) {
@@ -46,6 +77,10 @@ public TPCHBenchmarker( final double SCALE_FACTOR ) {
 
 
     public void populateDatabase() {
+        if ( dataCache != null ) {
+            populateFromCache();
+            return;
+        }
         try {
             logger.trace( "populating database" );
             final double scaleFactor = SCALE_FACTOR;
@@ -84,6 +119,329 @@ public void populateDatabase() {
     }
 
 
+    /**
+     * Populates from the {@link TPCHDataCache} instead of generating the rows. The tables are loaded one after the other because of their foreign keys, the chunks of a table in parallel.
+     *
+     * @param chunks number of chunks per table
+     * @param loaderThreads number of chunks loaded at once, each on its own connection
+     */
+    public void useDataCache( int chunks, int loaderThreads ) {
+        this.dataCache = TPCHDataCache.get( SCALE_FACTOR, chunks );
+        setLoaderThreads( loaderThreads );
+    }
+
+
+    /**
+     * @param loaderThreads number of chunks or key ranges loaded at once, each on its own connection
+     */
+    public void setLoaderThreads( int loaderThreads ) {
+        this.loaderThreads = Math.max( 1, loaderThreads );
+    }
+
+
+    private void populateFromCache() {
+        logger.trace( "populating database from the data cache" );
+        dataCache.generate( loaderThreads );
+        for ( TPCHTable table : TPCHTable.values() ) {
+            List<Callable<Long>> loads = new ArrayList<>();
+            for ( File chunk : dataCache.chunks( table, loaderThreads ) ) {
+                loads.add( () -> loadChunk( table, chunk ) );
+            }
+            long start = System.currentTimeMillis();
+            long rows = loadInParallel( table, loads );
+            logger.info( "Finished populating table {} with {} rows in {} ms", table.getTableName(), rows, System.currentTimeMillis() - start );
+        }
+        logger.info( "Finished populating database" );
+    }
+
+
+    /**
+     * Grows a database populated with a smaller scale factor to the scale factor of this benchmarker. Only the rows of the keys the tables do not have yet are generated, split into one range per loader thread. The rows of a key do not depend on the rows before it, so the ranges are generated and inserted in parallel and the existing rows are kept.
+     *
+     * Part, supplier and customer end up identical to a population with the new scale factor. The rows which partsupp, orders and lineitem already had keep the suppliers, customers and parts drawn for the smaller scale factor, and the partsupp rows of the new parts are generated with the suppliers of the new scale factor. The suppliers of a part therefore depend on the scale factor the part was added with, and the new line items draw their suppliers from the partsupp rows of their part as they are loaded instead of from the suppliers of the new scale factor. All rows reference existing rows and have the same distributions, but partsupp, orders and lineitem are not the rows of a population with the new scale factor.
+     *
+     * @throws IllegalStateException if a table has more keys than the scale factor or misses keys below its largest key
+     */
+    public void growDatabase() {
+        logger.trace( "growing database to SF {}", SCALE_FACTOR );
+        for ( TPCHTable table : TPCHTable.values() ) {
+            long target = table.getKeyCount( SCALE_FACTOR );
+            long loaded;
+            LongUnaryOperator supplierCounts;
+            try {
+                loaded = loadedKeys( table );
+                supplierCounts = table == TPCHTable.LINEITEM ? loadedSupplierCounts() : null;
+            } catch ( SQLException e ) {
+                logger.error( "Exception while reading the keys of {}. Exiting.", table.getTableName() );
+                abort();
+                throw new RuntimeException( e );
+            }
+            if ( loaded > target ) {
+                throw new IllegalStateException( table.getTableName() + " has " + loaded + " keys, more than the " + target + " of SF " + SCALE_FACTOR + ". Populate the database to shrink it." );
+            }
+            List<Pair<Long, Long>> ranges = missingRanges( loaded, target, table.isPartitioned() ? loaderThreads : 1 );
+            if ( ranges.isEmpty() ) {
+                logger.info( "Table {} already has all {} keys of SF {}", table.getTableName(), target, SCALE_FACTOR );
+                continue;
+            }
+            List<Callable<Long>> loads = new ArrayList<>();
+            for ( Pair<Long, Long> range : ranges ) {
+                loads.add( () -> {
+                    Iterable<? extends TpchEntity> rows = supplierCounts == null ? table.generateRange( SCALE_FACTOR, range.getLeft(), range.getRight() ) : table.generateRange( SCALE_FACTOR, range.getLeft(), range.getRight(), supplierCounts );
+                    return load( table, Iterables.transform( rows, TpchEntity::toLine ) );
+                } );
+            }
+            long start = System.currentTimeMillis();
+            long rows = loadInParallel( table, loads );
+            logger.info( "Grew table {} from {} to {} keys with {} rows in {} ms", table.getTableName(), loaded, target, rows, System.currentTimeMillis() - start );
+        }
+        logger.info( "Finished growing database to SF {}", SCALE_FACTOR );
+    }
+
+
+    /**
+     * @return the number of keys of the table, counted as in {@link TPCHTable#keysUpTo(long)}
+     */
+    private long loadedKeys( TPCHTable table ) throws SQLException {
+        DBConnector connector = createLoaderConnector();
+        try ( ResultSet resultSet = connector.executeQuery( "SELECT COUNT(DISTINCT " + table.getKeyColumn() + "), MAX(" + table.getKeyColumn() + ") FROM " + table.getTableName() ) ) {
+            resultSet.next();
+            long distinctKeys = resultSet.getLong( 1 );
+            if ( distinctKeys == 0 ) {
+                return 0;
+            }
+            long keys = table.keysUpTo( resultSet.getLong( 2 ) );
+            if ( distinctKeys != keys ) {
+                throw new IllegalStateException( table.getTableName() + " has " + distinctKeys + " of the " + keys + " keys up to its largest key, it was not populated completely" );
+            }
+            return keys;
+        } finally {
+            connector.close();
+        }
+    }
+
+
+    /**
+     * @return number of suppliers the partsupp rows of a part were generated with, for every part partsupp has
+     */
+    private LongUnaryOperator loadedSupplierCounts() throws SQLException {
+        long parts = loadedKeys( TPCHTable.PARTSUPP );
+        DBConnector connector = createLoaderConnector();
+        try {
+            NavigableMap<Long, Long> supplierCounts = partSupplierCounts( parts, part -> {
+                Set<Long> suppliers = new HashSet<>();
+                try ( ResultSet resultSet = connector.executeQuery( "SELECT PS_SUPPKEY FROM tpch_partsupp WHERE PS_PARTKEY = " + part ) ) {
+                    while ( resultSet.next() ) {
+                        suppliers.add( resultSet.getLong( 1 ) );
+                    }
+                }
+                return suppliers;
+            } );
+            logger.info( "The partsupp rows of the parts up to {} were generated with {} suppliers", supplierCounts.keySet(), supplierCounts.values() );
+            return partKey -> supplierCounts.ceilingEntry( partKey ).getValue();
+        } finally {
+            connector.close();
+        }
+    }
+
+
+    /**
+     * A population generates the partsupp rows of all its parts with the suppliers of its scale factor, a grow those of the parts it adds with the suppliers of its scale factor. The parts of a scale factor are {@link PartGenerator#SCALE_BASE} / {@link SupplierGenerator#SCALE_BASE} times its suppliers, so the parts added last were generated with the suppliers of the largest part, and the parts before them are searched for the first part which was not.
+     *
+     * @param parts number of parts partsupp has
+     * @param partSuppliers the suppliers partsupp has for a part
+     * @return by the largest part of each population or grow, the number of suppliers its partsupp rows were generated with
+     * @throws IllegalStateException if the suppliers of a part were not generated by a population or grow
+     */
+    static NavigableMap<Long, Long> partSupplierCounts( long parts, PartSuppliers partSuppliers ) throws SQLException {
+        NavigableMap<Long, Long> supplierCounts = new TreeMap<>();
+        long largestPart = parts;
+        while ( largestPart > 0 ) {
+            long supplierCount = largestPart * SupplierGenerator.SCALE_BASE / PartGenerator.SCALE_BASE;
+            if ( supplierCount == 0 || !isGeneratedWith( largestPart, supplierCount, partSuppliers ) ) {
+                throw new IllegalStateException( "The partsupp rows of part " + largestPart + " were not generated with the " + supplierCount + " suppliers of its scale factor. Populate the database to grow it." );
+            }
+            long first = 1;
+            long last = largestPart;
+            while ( first < last ) {
+                long middle = first + (last - first) / 2;
+                if ( isGeneratedWith( middle, supplierCount, partSuppliers ) ) {
+                    last = middle;
+                } else {
+                    first = middle + 1;
+                }
+            }
+            supplierCounts.put( largestPart, supplierCount );
+            largestPart = first - 1;
+        }
+        return supplierCounts;
+    }
+
+
+    private static boolean isGeneratedWith( long part, long supplierCount, PartSuppliers partSuppliers ) throws SQLException {
+        Set<Long> suppliers = new HashSet<>();
+        for ( int supplierNumber = 0; supplierNumber < PartSupplierGenerator.SUPPLIERS_PER_PART; supplierNumber++ ) {
+            suppliers.add( PartSupplierGenerator.selectSupplier( part, supplierNumber, supplierCount ) );
+        }
+        return suppliers.equals( partSuppliers.of( part ) );
+    }
+
+
+    /**
+     * @param loadedKeys keys the table has
+     * @param targetKeys keys the table should have
+     * @param splits maximal number of ranges
+     * @return the ranges of the missing keys as start index and number of keys, at most splits ranges of almost equal size
+     */
+    static List<Pair<Long, Long>> missingRanges( long loadedKeys, long targetKeys, int splits ) {
+        List<Pair<Long, Long>> ranges = new ArrayList<>();
+        long missing = targetKeys - loadedKeys;
+        int count = (int) Math.max( 0, Math.min( splits, missing ) );
+        long start = loadedKeys;
+        for ( int i = 0; i < count; i++ ) {
+            long keys = missing / count + (i < missing % count ? 1 : 0);
+            ranges.add( Pair.of( start, keys ) );
+            start += keys;
+        }
+        return ranges;
+    }
+
+
+    /**
+     * Runs the loads of a table, at most {@link #loaderThreads} at once
+     *
+     * @return number of rows inserted
+     */
+    private long loadInParallel( TPCHTable table, List<Callable<Long>> loads ) {
+        long rows = 0;
+        ExecutorService loaders = Executors.newFixedThreadPool( Math.max( 1, Math.min( loaderThreads, loads.size() ) ) );
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for ( Callable<Long> load : loads ) {
+                futures.add( loaders.submit( load ) );
+            }
+            for ( Future<Long> future : futures ) {
+                rows += future.get();
+            }
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            abort();
+            throw new RuntimeException( e );
+        } catch ( ExecutionException e ) {
+            logger.error( "Exception while populating {}. Exiting.", table.getTableName() );
+            abort();
+            throw new RuntimeException( e.getCause() );
+        } finally {
+            loaders.shutdownNow();
+        }
+        return rows;
+    }
+
+
+    private long loadChunk( TPCHTable table, File chunk ) throws ConnectionException {
+        try {
+            return load( table, new MappedRows( chunk ) );
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( "Could not read " + chunk, e );
+        }
+    }
+
+
+    /**
+     * Inserts rows in the .tbl format on a connection of its own, {@link #getLoadBatchSize()} rows per statement and transaction.
+     *
+     * @return number of rows inserted
+     */
+    private long load( TPCHTable table, Iterable<String> lines ) throws ConnectionException {
+        DBConnector connector = createLoaderConnector();
+        long rows = 0;
+        try {
+            List<String[]> batch = new ArrayList<>();
+            for ( String line : lines ) {
+                batch.add( RefreshDataSet.split( line ) );
+                if ( batch.size() == getLoadBatchSize() ) {
+                    rows += insert( connector, table, batch );
+                }
+            }
+            if ( !batch.isEmpty() ) {
+                rows += insert( connector, table, batch );
+            }
+        } finally {
+            connector.close();
+        }
+        return rows;
+    }
+
+
+    private int insert( DBConnector connector, TPCHTable table, List<String[]> batch ) throws ConnectionException {
+        connector.startTransaction();
+        connector.executeStatement( insertStatement( table, batch ) );
+        connector.commitTransaction();
+        int rows = batch.size();
+        batch.clear();
+        return rows;
+    }
+
+
+    /**
+     * @param rows columns of the rows, in the order of {@link TPCHTable#getColumns()}
+     * @return a statement which inserts all rows. Defaults to a single INSERT with one VALUES tuple per row.
+     */
+    protected String insertStatement( TPCHTable table, List<String[]> rows ) {
+        StringBuilder statement = new StringBuilder( "INSERT INTO " ).append( table.getTableName() ).append( " VALUES" );
+        for ( int i = 0; i < rows.size(); i++ ) {
+            statement.append( i == 0 ? "(" : ",(" );
+            appendValues( statement, table, rows.get( i ) );
+            statement.append( ")" );
+        }
+        return statement.append( ";" ).toString();
+    }
+
+
+    /**
+     * Appends the values of a row, separated by commas
+     */
+    protected void appendValues( StringBuilder statement, TPCHTable table, String[] row ) {
+        for ( int column = 0; column < row.length; column++ ) {
+            if ( column > 0 ) {
+                statement.append( "," );
+            }
+            switch ( table.getType( column ) ) {
+                case TPCHTable.NUMBER:
+                    statement.append( row[column] );
+                    break;
+                case TPCHTable.DATE:
+                    statement.append( dateLiteral( row[column] ) );
+                    break;
+                default:
+                    statement.append( "'" ).append( row[column].replace( "'", "''" ) ).append( "'" );
+            }
+        }
+    }
+
+
+    /**
+     * @param date date in the format YYYY-MM-DD
+     */
+    protected String dateLiteral( String date ) {
+        return "DATE '" + date + "'";
+    }
+
+
+    /**
+     * @return rows per insert statement when populating from the {@link TPCHDataCache}
+     */
+    protected int getLoadBatchSize() {
+        return TPCHConfig.LOAD_BATCH_SIZE;
+    }
+
+
+    /**
+     * @return a new connection to the database, which is closed by the caller. Used to load chunks of the {@link TPCHDataCache} in parallel.
+     */
+    protected abstract DBConnector createLoaderConnector() throws ConnectionException;
+
+
     /**
      * Aborts the currently running benchmark, closing all associated resources. Must not throw exceptions.
      */
@@ -144,12 +502,80 @@ public void populateDatabase() {
     public abstract TPCHResultTuple genericQueryExecutor( final int queryID );
 
 
+    /**
+     * The queries of {@link #genericQueryExecutor(int)} use the substitution parameters of this stream. Defaults to stream 0, the power test.
+     */
+    public void setQueryStream( int stream ) {
+        queryGenerator = TPCHQueryGenerator.forStream( TPCHConfig.QUERY_SEED, stream );
+    }
+
+
+    protected TPCHQueryGenerator getQueryGenerator() {
+        return queryGenerator;
+    }
+
+
+    /**
+     * If set, {@link #genericQueryExecutor(int, DBConnector, String)} drains the whole result and reports its {@link ResultChecksum}. Otherwise only the first row is fetched.
+     */
+    public void setValidateResults( boolean validateResults ) {
+        this.validateResults = validateResults;
+    }
+
+
+    /**
+     * Every n-th execution of a profiled query is executed with {@link #explain(DBConnector, String)}, which captures the plan of the query. Its response time is the one of the profiled execution, so the query is not executed twice. The profiling overhead is part of it, and its result is not drained or validated.
+     *
+     * @param sampling every n-th execution is profiled, 0 to disable profiling
+     * @param queries ids of the profiled queries, all queries if empty
+     */
+    public void setProfiling( int sampling, Collection<Integer> queries ) {
+        this.profileSampling = sampling;
+        this.profiledQueries = new HashSet<>( queries );
+    }
+
+
+    /**
+     * Counts the executions of profiled queries, the first execution is profiled
+     */
+    boolean sampleProfile( int queryID ) {
+        if ( profileSampling <= 0 || (!profiledQueries.isEmpty() && !profiledQueries.contains( queryID )) ) {
+            return false;
+        }
+        return profileCandidates++ % profileSampling == 0;
+    }
+
+
+    /**
+     * Executes the query with the profiling of the system.
+     *
+     * @return a compact operator tree with the time spent per operator, null if the system does not support profiling
+     */
+    protected String explain( DBConnector connector, String query ) throws SQLException {
+        return null;
+    }
+
+
     /**
      * Fire Refresh Function against Database.
      */
     public abstract TPCHResultTuple genericRefreshFunctionExecutor( final int refreshFunctionID );
 
 
+    /**
+     * Limits the execution time of the following queries and refresh functions. Queries which exceed it are cancelled and reported with {@link TPCHResultTuple#getCancelled()}.
+     *
+     * @param seconds 0 for no limit
+     */
+    public abstract void setQueryTimeout( int seconds );
+
+
+    /**
+     * Cancels the query or refresh function which is currently executing. Can be called from any thread, e.g. when the run is stopped.
+     */
+    public abstract void cancel();
+
+
     public TPCHTransactionType getTypeForQueryID( int queryID ) {
         TPCHTransactionType transactionType = TPCHTransactionType.TPCHTRANSACTIONUNDEFINED;
         switch ( queryID ) {
@@ -233,16 +659,31 @@ public TPCHResultTuple genericQueryExecutor( int queryID, DBConnector connector,
         }
         long start;
         long stop;
+        boolean profiled = sampleProfile( queryID );
+        String plan = null;
+        ResultChecksum checksum = validateResults ? new ResultChecksum( TPCHConfig.RESULT_CHECKSUM_SCALE ) : null;
         logger.trace( "Starting Q" + queryID + " transaction" );
         start = System.currentTimeMillis();
         connector.startTransaction();
-        try ( ResultSet resultSet = connector.executeQuery( query ) ) {
-            if ( !resultSet.next() ) {
-                logger.error( "Could not move resultset for query {}", query );
+        try {
+            if ( profiled ) {
+                plan = explain( connector, query );
+            }
+            //Systems without profiling execute the query as usual
+            if ( plan == null ) {
+                fetchResult( connector, query, checksum );
             }
             connector.commitTransaction();
             stop = System.currentTimeMillis();
             logger.trace( "Finished Q" + queryID + " transaction. Elapsed time: {} ms", (stop - start) );
+        } catch ( QueryCancelledException e ) {
+            logger.warn( "Q{} was cancelled after {} ms", queryID, System.currentTimeMillis() - start );
+            try {
+                connector.abortTransaction();
+            } catch ( ConnectionException ignored ) {
+                //Ignore
+            }
+            return ProtoObjectFactory.TPCHResultTuple( start, (System.currentTimeMillis() - start), transactionType, queryID, true, query ).toBuilder().setCancelled( true ).build();
         } catch ( SQLException e ) {
             //We just log exceptions. For example Q11 throws an expected exception for VoltDB
             logger.error( "ConnectionException while Q" + queryID + " transaction. Logging and continuing. \n" );
@@ -258,6 +699,33 @@ public TPCHResultTuple genericQueryExecutor( int queryID, DBConnector connector,
             //throw new RuntimeException( e );
         }
         logger.trace( "Finished Q{} with text {}", queryID, query );
-        return ProtoObjectFactory.TPCHResultTuple( start, (stop - start), transactionType, queryID, false, query );
+        TPCHResultTuple.Builder tuple = ProtoObjectFactory.TPCHResultTuple( start, (stop - start), transactionType, queryID, false, query ).toBuilder();
+        if ( plan != null ) {
+            tuple.setPlan( plan );
+        } else if ( checksum != null ) {
+            tuple.setChecksum( checksum.getValue() ).setResultRows( checksum.getRows() );
+        }
+        return tuple.build();
+    }
+
+
+    /**
+     * Executes the query and drains its result into the checksum, only fetches the first row without one
+     */
+    private void fetchResult( DBConnector connector, String query, ResultChecksum checksum ) throws SQLException {
+        try ( ResultSet resultSet = connector.executeQuery( query ) ) {
+            if ( checksum != null ) {
+                checksum.addRows( resultSet );
+            } else if ( !resultSet.next() ) {
+                logger.error( "Could not move resultset for query {}", query );
+            }
+        }
+    }
+
+
+    @FunctionalInterface
+    interface PartSuppliers {
+
+        Set<Long> of( long part ) throws SQLException;
     }
 }
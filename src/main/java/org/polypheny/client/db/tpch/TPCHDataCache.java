@@ -0,0 +1,149 @@
+package org.polypheny.client.db.tpch;
+
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.config.Config;
+import org.polypheny.client.generator.tpch.objects.TpchEntity;
+
+
+/**
+ * The tables of a scale factor, generated once in the .tbl format of dbgen and reused by every following population. Each table is split into chunks which are generated and loaded in parallel, region and nation are a single chunk.
+ *
+ * The data is deterministic for a scale factor, so the files only depend on the scale factor and the number of chunks. A chunk is written to a temporary file first, an existing chunk is always complete.
+ *
+ * @tpchversion 2.17.1
+ */
+public class TPCHDataCache {
+
+    private static final Logger logger = LogManager.getLogger();
+    private static final Map<File, TPCHDataCache> caches = new HashMap<>();
+
+    private final File folder;
+    private final double scaleFactor;
+    private final int chunks;
+
+
+    private TPCHDataCache( File folder, double scaleFactor, int chunks ) {
+        this.folder = folder;
+        this.scaleFactor = scaleFactor;
+        this.chunks = chunks;
+    }
+
+
+    /**
+     * @param chunks number of chunks per table, at least 1
+     * @return the cache of the scale factor in the storage of this process
+     */
+    public static TPCHDataCache get( double scaleFactor, int chunks ) {
+        return get( new File( new File( Config.DEFAULT_WORKER_STORAGE_LOCATION ), "tpch/data/sf" + scaleFactor + "_" + chunks ), scaleFactor, chunks );
+    }
+
+
+    static synchronized TPCHDataCache get( File folder, double scaleFactor, int chunks ) {
+        if ( chunks < 1 ) {
+            throw new IllegalArgumentException( "A table needs at least one chunk, was " + chunks );
+        }
+        return caches.computeIfAbsent( folder, f -> new TPCHDataCache( f, scaleFactor, chunks ) );
+    }
+
+
+    /**
+     * Generates the missing chunks of all tables
+     *
+     * @param threads number of chunks generated at once
+     */
+    public synchronized void generate( int threads ) {
+        List<File> missing = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
+        for ( TPCHTable table : TPCHTable.values() ) {
+            for ( int part = 1; part <= chunkCount( table ); part++ ) {
+                File chunk = chunk( table, part );
+                if ( !chunk.exists() ) {
+                    int generatedPart = part;
+                    missing.add( chunk );
+                    tasks.add( () -> writeChunk( table, generatedPart ) );
+                }
+            }
+        }
+        if ( tasks.isEmpty() ) {
+            logger.debug( "All tables of SF {} are cached in {}", scaleFactor, folder );
+            return;
+        }
+        logger.info( "Generating {} chunks of SF {} in {}", tasks.size(), scaleFactor, folder );
+        if ( !folder.exists() && !folder.mkdirs() ) {
+            throw new UncheckedIOException( new IOException( "Could not create " + folder ) );
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool( Math.max( 1, Math.min( threads, tasks.size() ) ) );
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            tasks.forEach( task -> futures.add( executor.submit( task ) ) );
+            for ( Future<?> future : futures ) {
+                future.get();
+            }
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
+        } catch ( ExecutionException e ) {
+            throw new RuntimeException( "Could not generate the chunks " + missing, e.getCause() );
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info( "Generated {} chunks in {} ms", tasks.size(), System.currentTimeMillis() - start );
+    }
+
+
+    /**
+     * @return the chunks of the table, generated if they are missing
+     */
+    public List<File> chunks( TPCHTable table, int threads ) {
+        generate( threads );
+        List<File> files = new ArrayList<>();
+        for ( int part = 1; part <= chunkCount( table ); part++ ) {
+            files.add( chunk( table, part ) );
+        }
+        return files;
+    }
+
+
+    private void writeChunk( TPCHTable table, int part ) {
+        File temporary = new File( folder, chunk( table, part ).getName() + ".tmp" );
+        try {
+            try ( BufferedWriter writer = Files.newBufferedWriter( temporary.toPath(), StandardCharsets.UTF_8 ) ) {
+                for ( TpchEntity entity : table.generate( scaleFactor, part, chunkCount( table ) ) ) {
+                    writer.write( entity.toLine() );
+                    writer.newLine();
+                }
+            }
+            Files.move( temporary.toPath(), chunk( table, part ).toPath(), StandardCopyOption.REPLACE_EXISTING );
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( "Could not write chunk " + part + " of " + table, e );
+        }
+    }
+
+
+    private int chunkCount( TPCHTable table ) {
+        return table.isPartitioned() ? chunks : 1;
+    }
+
+
+    private File chunk( TPCHTable table, int part ) {
+        return new File( folder, table.getTableName() + ".tbl." + part );
+    }
+}
@@ -0,0 +1,53 @@
+package org.polypheny.client.db.tpch;
+
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+
+/**
+ * How a {@link QueryTemplate} writes its substitution parameters as SQL literals.
+ *
+ * @tpchversion 2.17.1
+ */
+public enum TPCHDialect {
+
+    POSTGRESQL {
+        @Override
+        String date( LocalDate date ) {
+            return "DATE '" + date + "'";
+        }
+    },
+    /**
+     * Icarus does not support typed date literals, dates are compared as strings
+     */
+    ICARUS {
+        @Override
+        String date( LocalDate date ) {
+            return "'" + date + "'";
+        }
+    };
+
+
+    abstract String date( LocalDate date );
+
+
+    /**
+     * @param value a {@link String}, {@link LocalDate}, {@link BigDecimal} or integer
+     */
+    String literal( Object value ) {
+        if ( value instanceof String ) {
+            return "'" + ((String) value).replace( "'", "''" ) + "'";
+        }
+        if ( value instanceof LocalDate ) {
+            return date( (LocalDate) value );
+        }
+        if ( value instanceof BigDecimal ) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if ( value instanceof Integer || value instanceof Long ) {
+            return value.toString();
+        }
+        throw new IllegalArgumentException( "Unsupported substitution parameter " + value );
+    }
+}
@@ -0,0 +1,207 @@
+package org.polypheny.client.db.tpch;
+
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.Distribution;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.Distributions;
+
+
+/**
+ * Generates the substitution parameters of the 22 queries according to the rules of clause 2.4, from the same distributions dbgen uses. The parameters of a stream only depend on its seed, so a stream can be repeated with the same queries. Like qgen, stream s uses seed + s (2.1.3.3).
+ *
+ * Dates are substituted as the bounds of the interval, e.g. Q4 gets {@code DATE} and {@code DATE + 3 months}, so templates do not need interval arithmetic. Not thread-safe, every stream needs its own generator.
+ *
+ * @tpchversion 2.17.1
+ */
+public class TPCHQueryGenerator {
+
+    private static final LocalDate Q1_DATE = LocalDate.of( 1998, Month.DECEMBER, 1 );
+    private static final int FIRST_COUNTRY_CODE = 10;
+
+    private final Random random;
+    private final Distributions distributions = Distributions.getDefaultDistributions();
+
+
+    public TPCHQueryGenerator( long seed ) {
+        this.random = new Random( seed );
+    }
+
+
+    /**
+     * @param seed seed of the run, e.g. {@link org.polypheny.client.config.TPCHConfig#QUERY_SEED}
+     * @param stream query stream, 0 for the power test
+     */
+    public static TPCHQueryGenerator forStream( long seed, int stream ) {
+        return new TPCHQueryGenerator( seed + stream );
+    }
+
+
+    /**
+     * @param queryID 1 to 22
+     * @return the substitution parameters of the next execution of the query, parameter {@code :n} of the {@link QueryTemplate} is at index n-1
+     */
+    public Object[] parameters( int queryID, double scaleFactor ) {
+        switch ( queryID ) {
+            case 1:
+                return new Object[]{ Q1_DATE.minusDays( nextInt( 60, 120 ) ) };
+            case 2:
+                return new Object[]{ nextInt( 1, 50 ), "%" + typeSyllables()[2], pick( distributions.getRegions() ) };
+            case 3:
+                return new Object[]{ pick( distributions.getMarketSegments() ), LocalDate.of( 1995, Month.MARCH, nextInt( 1, 31 ) ) };
+            case 4:
+            case 15: {
+                //First day of a month between January 1993 and October 1997
+                LocalDate date = firstOfMonth( 1993, 58 );
+                return new Object[]{ date, date.plusMonths( 3 ) };
+            }
+            case 5: {
+                LocalDate date = firstOfYear();
+                return new Object[]{ pick( distributions.getRegions() ), date, date.plusYears( 1 ) };
+            }
+            case 6: {
+                LocalDate date = firstOfYear();
+                int discount = nextInt( 2, 9 );
+                return new Object[]{ date, date.plusYears( 1 ), BigDecimal.valueOf( discount - 1, 2 ), BigDecimal.valueOf( discount + 1, 2 ), nextInt( 24, 25 ) };
+            }
+            case 7: {
+                int[] nations = distinct( distributions.getNations().size(), 2 );
+                return new Object[]{ nation( nations[0] ), nation( nations[1] ) };
+            }
+            case 8: {
+                int nation = random.nextInt( distributions.getNations().size() );
+                return new Object[]{ nation( nation ), distributions.getRegions().getValue( distributions.getNations().getWeight( nation ) ), pick( distributions.getPartTypes() ) };
+            }
+            case 9:
+                return new Object[]{ "%" + pick( distributions.getPartColors() ) + "%" };
+            case 10: {
+                //First day of a month between February 1993 and January 1995
+                LocalDate date = firstOfMonth( 1993, 24 ).plusMonths( 1 );
+                return new Object[]{ date, date.plusMonths( 3 ) };
+            }
+            case 11:
+                return new Object[]{ randomNation(), BigDecimal.valueOf( 0.0001 / scaleFactor ) };
+            case 12: {
+                int[] modes = distinct( distributions.getShipModes().size(), 2 );
+                LocalDate date = firstOfYear();
+                return new Object[]{ distributions.getShipModes().getValue( modes[0] ), distributions.getShipModes().getValue( modes[1] ), date, date.plusYears( 1 ) };
+            }
+            case 13:
+                return new Object[]{ "%" + pick( "special", "pending", "unusual", "express" ) + "%" + pick( "packages", "requests", "accounts", "deposits" ) + "%" };
+            case 14: {
+                LocalDate date = firstOfMonth( 1993, 60 );
+                return new Object[]{ date, date.plusMonths( 1 ) };
+            }
+            case 16: {
+                String[] type = typeSyllables();
+                Object[] parameters = new Object[10];
+                parameters[0] = brand();
+                parameters[1] = type[0] + " " + type[1] + "%";
+                int[] sizes = distinct( 50, 8 );
+                for ( int i = 0; i < sizes.length; i++ ) {
+                    parameters[i + 2] = sizes[i] + 1;
+                }
+                return parameters;
+            }
+            case 17:
+                return new Object[]{ brand(), pick( distributions.getPartContainers() ) };
+            case 18:
+                return new Object[]{ nextInt( 312, 315 ) };
+            case 19:
+                return new Object[]{ nextInt( 1, 10 ), nextInt( 10, 20 ), nextInt( 20, 30 ), brand(), brand(), brand() };
+            case 20: {
+                LocalDate date = firstOfYear();
+                return new Object[]{ pick( distributions.getPartColors() ) + "%", date, date.plusYears( 1 ), randomNation() };
+            }
+            case 21:
+                return new Object[]{ randomNation() };
+            case 22: {
+                //Country codes are the nation keys + 10
+                int[] nations = distinct( distributions.getNations().size(), 7 );
+                Object[] parameters = new Object[nations.length];
+                for ( int i = 0; i < nations.length; i++ ) {
+                    parameters[i] = String.valueOf( nations[i] + FIRST_COUNTRY_CODE );
+                }
+                return parameters;
+            }
+            default:
+                throw new IllegalArgumentException( "There is no query " + queryID );
+        }
+    }
+
+
+    /**
+     * @return a random int between min and max, both inclusive
+     */
+    private int nextInt( int min, int max ) {
+        return min + random.nextInt( max - min + 1 );
+    }
+
+
+    private String pick( Distribution distribution ) {
+        return distribution.getValue( random.nextInt( distribution.size() ) );
+    }
+
+
+    private String pick( String... values ) {
+        return values[random.nextInt( values.length )];
+    }
+
+
+    private String nation( int nationKey ) {
+        return distributions.getNations().getValue( nationKey );
+    }
+
+
+    private String randomNation() {
+        return pick( distributions.getNations() );
+    }
+
+
+    private String[] typeSyllables() {
+        return pick( distributions.getPartTypes() ).split( " " );
+    }
+
+
+    /**
+     * @return Brand#MN with M and N between 1 and 5
+     */
+    private String brand() {
+        return "Brand#" + nextInt( 1, 5 ) + nextInt( 1, 5 );
+    }
+
+
+    private LocalDate firstOfYear() {
+        return LocalDate.of( nextInt( 1993, 1997 ), Month.JANUARY, 1 );
+    }
+
+
+    /**
+     * @return the first day of one of the months following January of the year
+     */
+    private LocalDate firstOfMonth( int year, int months ) {
+        return LocalDate.of( year, Month.JANUARY, 1 ).plusMonths( random.nextInt( months ) );
+    }
+
+
+    /**
+     * @return n distinct values between 0 and bound - 1
+     */
+    private int[] distinct( int bound, int n ) {
+        List<Integer> values = new ArrayList<>( bound );
+        for ( int i = 0; i < bound; i++ ) {
+            values.add( i );
+        }
+        Collections.shuffle( values, random );
+        int[] result = new int[n];
+        for ( int i = 0; i < n; i++ ) {
+            result[i] = values.get( i );
+        }
+        return result;
+    }
+}
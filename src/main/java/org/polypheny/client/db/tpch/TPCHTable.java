@@ -0,0 +1,166 @@
+package org.polypheny.client.db.tpch;
+
+
+import com.google.common.collect.Iterables;
+import java.util.function.LongUnaryOperator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.CustomerGenerator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.LineItemGenerator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.NationGenerator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.OrderGenerator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.PartGenerator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.PartSupplierGenerator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.RegionGenerator;
+import org.polypheny.client.generator.tpch.TPCHPopulationGenerators.SupplierGenerator;
+import org.polypheny.client.generator.tpch.objects.GenerateUtils;
+import org.polypheny.client.generator.tpch.objects.TpchEntity;
+
+
+/**
+ * The tables of the TPC-H schema (1.4) in the order they have to be populated in because of their foreign keys. The columns are in the order of the rows of the generators, each column is either a number (N), a string (S) or a date (D). A table has scaleBase keys per unit of the scale factor, region and nation always have scaleBase keys.
+ *
+ * @tpchversion 2.17.1
+ */
+public enum TPCHTable {
+    PART( "tpch_part", "NSSSSNSNS", PartGenerator.SCALE_BASE, true, PartGenerator::forRange,
+            "P_PARTKEY", "P_NAME", "P_MFGR", "P_BRAND", "P_TYPE", "P_SIZE", "P_CONTAINER", "P_RETAILPRICE", "P_COMMENT" ),
+    REGION( "tpch_region", "NSS", 5, false, ( scaleFactor, startIndex, rowCount ) -> Iterables.limit( Iterables.skip( new RegionGenerator(), (int) startIndex ), (int) rowCount ),
+            "R_REGIONKEY", "R_NAME", "R_COMMENT" ),
+    NATION( "tpch_nation", "NSNS", 25, false, ( scaleFactor, startIndex, rowCount ) -> Iterables.limit( Iterables.skip( new NationGenerator(), (int) startIndex ), (int) rowCount ),
+            "N_NATIONKEY", "N_NAME", "N_REGIONKEY", "N_COMMENT" ),
+    SUPPLIER( "tpch_supplier", "NSSNSNS", SupplierGenerator.SCALE_BASE, true, SupplierGenerator::forRange,
+            "S_SUPPKEY", "S_NAME", "S_ADDRESS", "S_NATIONKEY", "S_PHONE", "S_ACCTBAL", "S_COMMENT" ),
+    PARTSUPP( "tpch_partsupp", "NNNNS", PartGenerator.SCALE_BASE, true, PartSupplierGenerator::forRange,
+            "PS_PARTKEY", "PS_SUPPKEY", "PS_AVAILQTY", "PS_SUPPLYCOST", "PS_COMMENT" ),
+    CUSTOMER( "tpch_customer", "NSSNSNSS", CustomerGenerator.SCALE_BASE, true, CustomerGenerator::forRange,
+            "C_CUSTKEY", "C_NAME", "C_ADDRESS", "C_NATIONKEY", "C_PHONE", "C_ACCTBAL", "C_MKTSEGMENT", "C_COMMENT" ),
+    ORDERS( "tpch_orders", "NNSNDSSNS", OrderGenerator.SCALE_BASE, true, OrderGenerator::forRange,
+            "O_ORDERKEY", "O_CUSTKEY", "O_ORDERSTATUS", "O_TOTALPRICE", "O_ORDERDATE", "O_ORDERPRIORITY", "O_CLERK", "O_SHIPPRIORITY", "O_COMMENT" ),
+    LINEITEM( "tpch_lineitem", "NNNNNNNNSSDDDSSS", OrderGenerator.SCALE_BASE, true, LineItemGenerator::forRange,
+            "L_ORDERKEY", "L_PARTKEY", "L_SUPPKEY", "L_LINENUMBER", "L_QUANTITY", "L_EXTENDEDPRICE", "L_DISCOUNT", "L_TAX", "L_RETURNFLAG", "L_LINESTATUS", "L_SHIPDATE", "L_COMMITDATE", "L_RECEIPTDATE", "L_SHIPINSTRUCT",
+            "L_SHIPMODE", "L_COMMENT" );
+
+    public static final char NUMBER = 'N';
+    public static final char STRING = 'S';
+    public static final char DATE = 'D';
+
+    private final String tableName;
+    private final String types;
+    private final int scaleBase;
+    private final boolean partitioned;
+    private final RowGenerator generator;
+    private final String[] columns;
+
+
+    TPCHTable( String tableName, String types, int scaleBase, boolean partitioned, RowGenerator generator, String... columns ) {
+        this.tableName = tableName;
+        this.types = types;
+        this.scaleBase = scaleBase;
+        this.partitioned = partitioned;
+        this.generator = generator;
+        this.columns = columns;
+    }
+
+
+    public String getTableName() {
+        return tableName;
+    }
+
+
+    public String[] getColumns() {
+        return columns;
+    }
+
+
+    /**
+     * @return {@link #NUMBER}, {@link #STRING} or {@link #DATE}
+     */
+    public char getType( int column ) {
+        return types.charAt( column );
+    }
+
+
+    /**
+     * @return false for the fixed tables region and nation, which do not depend on the scale factor and are not split into parts
+     */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+
+    /**
+     * @return the column the rows are generated in the order of, the first column
+     */
+    public String getKeyColumn() {
+        return columns[0];
+    }
+
+
+    /**
+     * @return number of keys of the scale factor. Partsupp has the keys of part, lineitem the keys of orders.
+     */
+    public long getKeyCount( double scaleFactor ) {
+        return partitioned ? (long) (scaleBase * scaleFactor) : scaleBase;
+    }
+
+
+    /**
+     * @param key value of the {@link #getKeyColumn() key column}
+     * @return the number of keys up to and including the key, which is the number of keys of a table holding all keys up to it
+     */
+    public long keysUpTo( long key ) {
+        switch ( this ) {
+            case REGION:
+            case NATION:
+                return key + 1;
+            case ORDERS:
+            case LINEITEM:
+                return OrderGenerator.orderIndex( key );
+            default:
+                return key;
+        }
+    }
+
+
+    /**
+     * @param part part to generate, from 1 to partCount
+     * @return the rows of the part
+     */
+    public Iterable<? extends TpchEntity> generate( double scaleFactor, int part, int partCount ) {
+        if ( !partitioned ) {
+            return generateRange( scaleFactor, 0, scaleBase );
+        }
+        return generateRange( scaleFactor, GenerateUtils.calculateStartIndex( scaleBase, scaleFactor, part, partCount ), GenerateUtils.calculateRowCount( scaleBase, scaleFactor, part, partCount ) );
+    }
+
+
+    /**
+     * Rows are generated independently of the rows before them, so any range of keys can be generated on its own.
+     *
+     * @param startIndex number of keys before the range
+     * @param keyCount number of keys in the range
+     * @return the rows of the keys startIndex + 1 to startIndex + keyCount, counted as in {@link #keysUpTo(long)}
+     */
+    public Iterable<? extends TpchEntity> generateRange( double scaleFactor, long startIndex, long keyCount ) {
+        return generator.generate( scaleFactor, startIndex, keyCount );
+    }
+
+
+    /**
+     * Like {@link #generateRange(double, long, long)}, but the line items reference the partsupp rows of a database grown from smaller scale factors, which generated the partsupp rows of its parts with different numbers of suppliers. Only lineitem references partsupp, the other tables are generated as by {@link #generateRange(double, long, long)}.
+     *
+     * @param supplierCounts number of suppliers the partsupp rows of a part were generated with
+     */
+    public Iterable<? extends TpchEntity> generateRange( double scaleFactor, long startIndex, long keyCount, LongUnaryOperator supplierCounts ) {
+        if ( this == LINEITEM ) {
+            return LineItemGenerator.forRange( scaleFactor, startIndex, keyCount, supplierCounts );
+        }
+        return generateRange( scaleFactor, startIndex, keyCount );
+    }
+
+
+    @FunctionalInterface
+    private interface RowGenerator {
+
+        Iterable<? extends TpchEntity> generate( double scaleFactor, long startIndex, long rowCount );
+    }
+}
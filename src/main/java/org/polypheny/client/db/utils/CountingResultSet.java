@@ -0,0 +1,91 @@
+package org.polypheny.client.db.utils;
+
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Decorates a {@link ResultSet} and counts the rows while it is iterated, so the count is right no matter how far a function moved the cursor. The decorated ResultSet can be reached with {@link ResultSet#unwrap(Class)}.
+ */
+public class CountingResultSet implements InvocationHandler {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final ResultSet delegate;
+    private final ResultSet resultSet;
+    private long rows = 0;
+    private boolean afterLast = false;
+
+
+    public CountingResultSet( ResultSet delegate ) {
+        this.delegate = delegate;
+        this.resultSet = (ResultSet) Proxy.newProxyInstance( ResultSet.class.getClassLoader(), new Class<?>[]{ ResultSet.class }, this );
+    }
+
+
+    /**
+     * @return the ResultSet which counts every row it is moved to
+     */
+    public ResultSet getResultSet() {
+        return resultSet;
+    }
+
+
+    /**
+     * Moves past the rows which were not visited yet
+     *
+     * @return all rows of the result, or the rows visited so far if the remaining ones cannot be read
+     */
+    public long countRows() {
+        try {
+            while ( !afterLast && resultSet.next() ) {
+                //Counted by next()
+            }
+        } catch ( SQLException | UnsupportedOperationException e ) {
+            logger.trace( "Could not count the remaining rows", e );
+        }
+        return rows;
+    }
+
+
+    @Override
+    public Object invoke( Object proxy, Method method, Object[] args ) throws Throwable {
+        switch ( method.getName() ) {
+            case "next":
+                if ( afterLast ) {
+                    return false;
+                }
+                boolean moved = delegate.next();
+                if ( moved ) {
+                    rows++;
+                } else {
+                    afterLast = true;
+                }
+                return moved;
+            case "unwrap":
+                if ( ((Class<?>) args[0]).isInstance( delegate ) ) {
+                    return delegate;
+                }
+                break;
+            case "isWrapperFor":
+                if ( ((Class<?>) args[0]).isInstance( delegate ) ) {
+                    return true;
+                }
+                break;
+            default:
+                break;
+        }
+        try {
+            return method.invoke( delegate, args );
+        } catch ( InvocationTargetException e ) {
+            throw e.getCause();
+        }
+    }
+}
@@ -35,8 +35,8 @@
     private static final int COMMENT_AVERAGE_LENGTH = 73;
 
     private final double scaleFactor;
-    private final int part;
-    private final int partCount;
+    private final long startIndex;
+    private final long rowCount;
 
     private final Distributions distributions;
     private final TextPool textPool;
@@ -55,22 +55,44 @@ public CustomerGenerator( double scaleFactor, int part, int partCount,
         checkArgument( part <= partCount, "part must be less than or equal to part count" );
 
         this.scaleFactor = scaleFactor;
-        this.part = part;
-        this.partCount = partCount;
+        this.startIndex = GenerateUtils.calculateStartIndex( SCALE_BASE, scaleFactor, part, partCount );
+        this.rowCount = GenerateUtils.calculateRowCount( SCALE_BASE, scaleFactor, part, partCount );
 
         this.distributions = checkNotNull( distributions, "distributions is null" );
         this.textPool = checkNotNull( textPool, "textPool is null" );
     }
 
 
+    private CustomerGenerator( double scaleFactor, long startIndex, long rowCount, Distributions distributions, TextPool textPool ) {
+        checkArgument( scaleFactor > 0, "scaleFactor must be greater than 0" );
+        checkArgument( startIndex >= 0, "startIndex must not be negative" );
+        checkArgument( rowCount >= 0, "rowCount must not be negative" );
+
+        this.scaleFactor = scaleFactor;
+        this.startIndex = startIndex;
+        this.rowCount = rowCount;
+
+        this.distributions = checkNotNull( distributions, "distributions is null" );
+        this.textPool = checkNotNull( textPool, "textPool is null" );
+    }
+
+
+    /**
+     * Generates the customers with the keys startIndex + 1 to startIndex + rowCount.
+     */
+    public static CustomerGenerator forRange( double scaleFactor, long startIndex, long rowCount ) {
+        return new CustomerGenerator( scaleFactor, startIndex, rowCount, Distributions.getDefaultDistributions(), TextPool.getDefaultTestPool() );
+    }
+
+
     @Override
     public Iterator<Customer> iterator() {
 
         return new CustomerGeneratorIterator(
                 distributions,
                 textPool,
-                GenerateUtils.calculateStartIndex( SCALE_BASE, scaleFactor, part, partCount ),
-                GenerateUtils.calculateRowCount( SCALE_BASE, scaleFactor, part, partCount ) );
+                startIndex,
+                rowCount );
     }
 
 
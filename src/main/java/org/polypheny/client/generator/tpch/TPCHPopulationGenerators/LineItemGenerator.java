@@ -20,6 +20,7 @@
 
 import com.google.common.collect.AbstractIterator;
 import java.util.Iterator;
+import java.util.function.LongUnaryOperator;
 import org.polypheny.client.generator.tpch.objects.GenerateUtils;
 import org.polypheny.client.generator.tpch.objects.LineItem;
 
@@ -47,8 +48,9 @@
     private static final int COMMENT_AVERAGE_LENGTH = 27;
 
     private final double scaleFactor;
-    private final int part;
-    private final int partCount;
+    private final long startIndex;
+    private final long rowCount;
+    private final LongUnaryOperator supplierCounts;
 
     private final Distributions distributions;
     private final TextPool textPool;
@@ -67,14 +69,52 @@ public LineItemGenerator( double scaleFactor, int part, int partCount,
         checkArgument( part <= partCount, "part must be less than or equal to part count" );
 
         this.scaleFactor = scaleFactor;
-        this.part = part;
-        this.partCount = partCount;
+        this.startIndex = GenerateUtils.calculateStartIndex( OrderGenerator.SCALE_BASE, scaleFactor, part, partCount );
+        this.rowCount = GenerateUtils.calculateRowCount( OrderGenerator.SCALE_BASE, scaleFactor, part, partCount );
+        this.supplierCounts = supplierCounts( scaleFactor );
 
         this.distributions = checkNotNull( distributions, "distributions is null" );
         this.textPool = checkNotNull( textPool, "textPool is null" );
     }
 
 
+    private LineItemGenerator( double scaleFactor, long startIndex, long rowCount, LongUnaryOperator supplierCounts, Distributions distributions, TextPool textPool ) {
+        checkArgument( scaleFactor > 0, "scaleFactor must be greater than 0" );
+        checkArgument( startIndex >= 0, "startIndex must not be negative" );
+        checkArgument( rowCount >= 0, "rowCount must not be negative" );
+
+        this.scaleFactor = scaleFactor;
+        this.startIndex = startIndex;
+        this.rowCount = rowCount;
+        this.supplierCounts = checkNotNull( supplierCounts, "supplierCounts is null" );
+
+        this.distributions = checkNotNull( distributions, "distributions is null" );
+        this.textPool = checkNotNull( textPool, "textPool is null" );
+    }
+
+
+    /**
+     * Generates the line items of the orders with the indexes startIndex + 1 to startIndex + rowCount. Parts and suppliers are drawn for the given scale factor.
+     */
+    public static LineItemGenerator forRange( double scaleFactor, long startIndex, long rowCount ) {
+        return forRange( scaleFactor, startIndex, rowCount, supplierCounts( scaleFactor ) );
+    }
+
+
+    /**
+     * Generates the line items of the orders with the indexes startIndex + 1 to startIndex + rowCount. Parts are drawn for the given scale factor, the supplier of a part is one of its partsupp rows generated with supplierCounts( partKey ) suppliers.
+     */
+    public static LineItemGenerator forRange( double scaleFactor, long startIndex, long rowCount, LongUnaryOperator supplierCounts ) {
+        return new LineItemGenerator( scaleFactor, startIndex, rowCount, supplierCounts, Distributions.getDefaultDistributions(), TextPool.getDefaultTestPool() );
+    }
+
+
+    private static LongUnaryOperator supplierCounts( double scaleFactor ) {
+        long supplierCount = (long) (SupplierGenerator.SCALE_BASE * scaleFactor);
+        return partKey -> supplierCount;
+    }
+
+
     static RandomBoundedInt createQuantityRandom() {
         return new RandomBoundedInt( 209208115, QUANTITY_MIN, QUANTITY_MAX, OrderGenerator.LINE_COUNT_MAX );
     }
@@ -107,8 +147,9 @@ public Iterator<LineItem> iterator() {
                 distributions,
                 textPool,
                 scaleFactor,
-                GenerateUtils.calculateStartIndex( OrderGenerator.SCALE_BASE, scaleFactor, part, partCount ),
-                GenerateUtils.calculateRowCount( OrderGenerator.SCALE_BASE, scaleFactor, part, partCount ) );
+                startIndex,
+                rowCount,
+                supplierCounts );
     }
 
 
@@ -139,11 +180,12 @@ public Iterator<LineItem> iterator() {
 
         private final RandomText commentRandom;
 
-        private final double scaleFactor;
         private final long startIndex;
 
         private final long rowCount;
 
+        private final LongUnaryOperator supplierCounts;
+
         private long index;
         private int orderDate;
         private int lineCount;
@@ -151,10 +193,10 @@ public Iterator<LineItem> iterator() {
 
 
         private LineItemGeneratorIterator( Distributions distributions, TextPool textPool,
-                double scaleFactor, long startIndex, long rowCount ) {
-            this.scaleFactor = scaleFactor;
+                double scaleFactor, long startIndex, long rowCount, LongUnaryOperator supplierCounts ) {
             this.startIndex = startIndex;
             this.rowCount = rowCount;
+            this.supplierCounts = supplierCounts;
 
             returnedFlagRandom = new RandomString( 717419739, distributions.getReturnFlags(),
                     OrderGenerator.LINE_COUNT_MAX );
@@ -247,7 +289,7 @@ private LineItem makeLineitem( long orderIndex ) {
             long partKey = linePartKeyRandom.nextValue();
 
             int supplierNumber = supplierNumberRandom.nextValue();
-            long supplierKey = PartSupplierGenerator.selectPartSupplier( partKey, supplierNumber, scaleFactor );
+            long supplierKey = PartSupplierGenerator.selectSupplier( partKey, supplierNumber, supplierCounts.applyAsLong( partKey ) );
 
             long partPrice = PartGenerator.calculatePartPrice( partKey );
             long extendedPrice = partPrice * quantity;
@@ -56,8 +56,8 @@
     private static final int ORDER_KEY_SPARSE_KEEP = 3;
 
     private final double scaleFactor;
-    private final int part;
-    private final int partCount;
+    private final long startIndex;
+    private final long rowCount;
 
     private final Distributions distributions;
     private final TextPool textPool;
@@ -76,14 +76,36 @@ public OrderGenerator( double scaleFactor, int part, int partCount, Distribution
         checkArgument( part <= partCount, "part must be less than or equal to part count" );
 
         this.scaleFactor = scaleFactor;
-        this.part = part;
-        this.partCount = partCount;
+        this.startIndex = calculateStartIndex( SCALE_BASE, scaleFactor, part, partCount );
+        this.rowCount = calculateRowCount( SCALE_BASE, scaleFactor, part, partCount );
 
         this.distributions = checkNotNull( distributions, "distributions is null" );
         this.textPool = checkNotNull( textPool, "textPool is null" );
     }
 
 
+    private OrderGenerator( double scaleFactor, long startIndex, long rowCount, Distributions distributions, TextPool textPool ) {
+        checkArgument( scaleFactor > 0, "scaleFactor must be greater than 0" );
+        checkArgument( startIndex >= 0, "startIndex must not be negative" );
+        checkArgument( rowCount >= 0, "rowCount must not be negative" );
+
+        this.scaleFactor = scaleFactor;
+        this.startIndex = startIndex;
+        this.rowCount = rowCount;
+
+        this.distributions = checkNotNull( distributions, "distributions is null" );
+        this.textPool = checkNotNull( textPool, "textPool is null" );
+    }
+
+
+    /**
+     * Generates the orders with the indexes startIndex + 1 to startIndex + rowCount, see {@link #makeOrderKey(long)} for their keys. The customers are drawn for the given scale factor.
+     */
+    public static OrderGenerator forRange( double scaleFactor, long startIndex, long rowCount ) {
+        return new OrderGenerator( scaleFactor, startIndex, rowCount, Distributions.getDefaultDistributions(), TextPool.getDefaultTestPool() );
+    }
+
+
     static RandomBoundedInt createLineCountRandom() {
         return new RandomBoundedInt( 1434868289, LINE_COUNT_MIN, LINE_COUNT_MAX );
     }
@@ -107,14 +129,25 @@ static long makeOrderKey( long orderIndex ) {
     }
 
 
+    /**
+     * Inverse of {@link #makeOrderKey(long)}
+     *
+     * @return the index of the order with the key
+     */
+    public static long orderIndex( long orderKey ) {
+        long low_bits = orderKey & ((1 << ORDER_KEY_SPARSE_KEEP) - 1);
+        return ((orderKey >> (ORDER_KEY_SPARSE_BITS + ORDER_KEY_SPARSE_KEEP)) << ORDER_KEY_SPARSE_KEEP) + low_bits;
+    }
+
+
     @Override
     public Iterator<Order> iterator() {
         return new OrderGeneratorIterator(
                 distributions,
                 textPool,
                 scaleFactor,
-                calculateStartIndex( SCALE_BASE, scaleFactor, part, partCount ),
-                calculateRowCount( SCALE_BASE, scaleFactor, part, partCount ) );
+                startIndex,
+                rowCount );
     }
 
 
@@ -40,8 +40,8 @@
     private static final int COMMENT_AVERAGE_LENGTH = 14;
 
     private final double scaleFactor;
-    private final int part;
-    private final int partCount;
+    private final long startIndex;
+    private final long rowCount;
 
     private final Distributions distributions;
     private final TextPool textPool;
@@ -60,14 +60,36 @@ public PartGenerator( double scaleFactor, int part, int partCount, Distributions
         checkArgument( part <= partCount, "part must be less than or equal to part count" );
 
         this.scaleFactor = scaleFactor;
-        this.part = part;
-        this.partCount = partCount;
+        this.startIndex = GenerateUtils.calculateStartIndex( SCALE_BASE, scaleFactor, part, partCount );
+        this.rowCount = GenerateUtils.calculateRowCount( SCALE_BASE, scaleFactor, part, partCount );
 
         this.distributions = checkNotNull( distributions, "distributions is null" );
         this.textPool = checkNotNull( textPool, "textPool is null" );
     }
 
 
+    private PartGenerator( double scaleFactor, long startIndex, long rowCount, Distributions distributions, TextPool textPool ) {
+        checkArgument( scaleFactor > 0, "scaleFactor must be greater than 0" );
+        checkArgument( startIndex >= 0, "startIndex must not be negative" );
+        checkArgument( rowCount >= 0, "rowCount must not be negative" );
+
+        this.scaleFactor = scaleFactor;
+        this.startIndex = startIndex;
+        this.rowCount = rowCount;
+
+        this.distributions = checkNotNull( distributions, "distributions is null" );
+        this.textPool = checkNotNull( textPool, "textPool is null" );
+    }
+
+
+    /**
+     * Generates the parts with the keys startIndex + 1 to startIndex + rowCount, the same rows a whole scale factor has for these keys.
+     */
+    public static PartGenerator forRange( double scaleFactor, long startIndex, long rowCount ) {
+        return new PartGenerator( scaleFactor, startIndex, rowCount, Distributions.getDefaultDistributions(), TextPool.getDefaultTestPool() );
+    }
+
+
     static long calculatePartPrice( long p ) {
         long price = 90000;
 
@@ -84,8 +106,8 @@ public Iterator<Part> iterator() {
         return new PartGeneratorIterator(
                 distributions,
                 textPool,
-                GenerateUtils.calculateStartIndex( SCALE_BASE, scaleFactor, part, partCount ),
-                GenerateUtils.calculateRowCount( SCALE_BASE, scaleFactor, part, partCount ) );
+                startIndex,
+                rowCount );
     }
 
 
@@ -27,7 +27,7 @@
 public class PartSupplierGenerator
         implements Iterable<PartSupplier> {
 
-    private static final int SUPPLIERS_PER_PART = 4;
+    public static final int SUPPLIERS_PER_PART = 4;
 
     private static final int AVAILABLE_QUANTITY_MIN = 1;
     private static final int AVAILABLE_QUANTITY_MAX = 9999;
@@ -38,8 +38,8 @@
     private static final int COMMENT_AVERAGE_LENGTH = 124;
 
     private final double scaleFactor;
-    private final int part;
-    private final int partCount;
+    private final long startIndex;
+    private final long rowCount;
 
     private final TextPool textPool;
 
@@ -55,15 +55,45 @@ public PartSupplierGenerator( double scaleFactor, int part, int partCount, TextP
         checkArgument( part <= partCount, "part must be less than or equal to part count" );
 
         this.scaleFactor = scaleFactor;
-        this.part = part;
-        this.partCount = partCount;
+        this.startIndex = GenerateUtils.calculateStartIndex( PartGenerator.SCALE_BASE, scaleFactor, part, partCount );
+        this.rowCount = GenerateUtils.calculateRowCount( PartGenerator.SCALE_BASE, scaleFactor, part, partCount );
 
         this.textPool = checkNotNull( textPool, "textPool is null" );
     }
 
 
+    private PartSupplierGenerator( double scaleFactor, long startIndex, long rowCount, TextPool textPool ) {
+        checkArgument( scaleFactor > 0, "scaleFactor must be greater than 0" );
+        checkArgument( startIndex >= 0, "startIndex must not be negative" );
+        checkArgument( rowCount >= 0, "rowCount must not be negative" );
+
+        this.scaleFactor = scaleFactor;
+        this.startIndex = startIndex;
+        this.rowCount = rowCount;
+
+        this.textPool = checkNotNull( textPool, "textPool is null" );
+    }
+
+
+    /**
+     * Generates the partsupp rows of the parts startIndex + 1 to startIndex + rowCount. The suppliers are selected for the given scale factor.
+     */
+    public static PartSupplierGenerator forRange( double scaleFactor, long startIndex, long rowCount ) {
+        return new PartSupplierGenerator( scaleFactor, startIndex, rowCount, TextPool.getDefaultTestPool() );
+    }
+
+
     static long selectPartSupplier( long partKey, long supplierNumber, double scaleFactor ) {
-        long supplierCount = (long) (SupplierGenerator.SCALE_BASE * scaleFactor);
+        return selectSupplier( partKey, supplierNumber, (long) (SupplierGenerator.SCALE_BASE * scaleFactor) );
+    }
+
+
+    /**
+     * @param supplierNumber from 0 to {@link #SUPPLIERS_PER_PART} - 1
+     * @param supplierCount number of suppliers the partsupp rows of the part are generated with
+     * @return the key of the supplier
+     */
+    public static long selectSupplier( long partKey, long supplierNumber, long supplierCount ) {
         return ((partKey + (supplierNumber * ((supplierCount / SUPPLIERS_PER_PART) + ((partKey - 1)
                 / supplierCount)))) % supplierCount) + 1;
     }
@@ -74,8 +104,8 @@ public Iterator<PartSupplier> iterator() {
         return new PartSupplierGeneratorIterator(
                 textPool,
                 scaleFactor,
-                GenerateUtils.calculateStartIndex( PartGenerator.SCALE_BASE, scaleFactor, part, partCount ),
-                GenerateUtils.calculateRowCount( PartGenerator.SCALE_BASE, scaleFactor, part, partCount ) );
+                startIndex,
+                rowCount );
     }
 
 
@@ -39,8 +39,8 @@ public class SupplierGenerator implements Iterable<Supplier> {
     private static final int ADDRESS_AVERAGE_LENGTH = 25;
     private static final int COMMENT_AVERAGE_LENGTH = 63;
     private final double scaleFactor;
-    private final int part;
-    private final int partCount;
+    private final long startIndex;
+    private final long rowCount;
 
     private final Distributions distributions;
     private final TextPool textPool;
@@ -57,21 +57,43 @@ public SupplierGenerator( double scaleFactor, int part, int partCount, Distribut
         checkArgument( part <= partCount, "part must be less than or equal to part count" );
 
         this.scaleFactor = scaleFactor;
-        this.part = part;
-        this.partCount = partCount;
+        this.startIndex = GenerateUtils.calculateStartIndex( SCALE_BASE, scaleFactor, part, partCount );
+        this.rowCount = GenerateUtils.calculateRowCount( SCALE_BASE, scaleFactor, part, partCount );
 
         this.distributions = checkNotNull( distributions, "distributions is null" );
         this.textPool = checkNotNull( textPool, "textPool is null" );
     }
 
 
+    private SupplierGenerator( double scaleFactor, long startIndex, long rowCount, Distributions distributions, TextPool textPool ) {
+        checkArgument( scaleFactor > 0, "scaleFactor must be greater than 0" );
+        checkArgument( startIndex >= 0, "startIndex must not be negative" );
+        checkArgument( rowCount >= 0, "rowCount must not be negative" );
+
+        this.scaleFactor = scaleFactor;
+        this.startIndex = startIndex;
+        this.rowCount = rowCount;
+
+        this.distributions = checkNotNull( distributions, "distributions is null" );
+        this.textPool = checkNotNull( textPool, "textPool is null" );
+    }
+
+
+    /**
+     * Generates the suppliers with the keys startIndex + 1 to startIndex + rowCount.
+     */
+    public static SupplierGenerator forRange( double scaleFactor, long startIndex, long rowCount ) {
+        return new SupplierGenerator( scaleFactor, startIndex, rowCount, Distributions.getDefaultDistributions(), TextPool.getDefaultTestPool() );
+    }
+
+
     @Override
     public Iterator<Supplier> iterator() {
         return new SupplierGeneratorIterator(
                 distributions,
                 textPool,
-                GenerateUtils.calculateStartIndex( SCALE_BASE, scaleFactor, part, partCount ),
-                GenerateUtils.calculateRowCount( SCALE_BASE, scaleFactor, part, partCount ) );
+                startIndex,
+                rowCount );
     }
 
 
@@ -14,12 +14,14 @@
 import javax.xml.bind.annotation.XmlRootElement;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.polypheny.client.config.CHBenchmarkConfig;
 import org.polypheny.client.config.Config;
 import org.polypheny.client.config.MusqleConfig;
 import org.polypheny.client.config.TPCHConfig;
 import org.polypheny.client.grpc.PolyClientGRPC.AccessMethod;
 import org.polypheny.client.grpc.PolyClientGRPC.DBMSSystem;
 import org.polypheny.client.grpc.PolyClientGRPC.Scenario;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCArrivalMode;
 
 
 /**
@@ -44,15 +46,123 @@ public class PolyphenyCdlOptions {
     @XmlAttribute(name = "tpcc_terminal_think")
     private boolean tpccTerminalThink = Config.TPCC_TERMINAL_THINK;
 
+    @XmlAttribute(name = "tpcc_terminal_pacing")
+    private long tpccTerminalPacing = 0;
+
+    @XmlAttribute(name = "tpcc_arrival_mode")
+    private String tpccArrivalMode = Config.DEFAULT_TPCC_ARRIVAL_MODE;
+
+    @XmlAttribute(name = "tpcc_arrival_rate")
+    private double tpccArrivalRate = 0;
+
+    @XmlAttribute(name = "tpcc_max_pending_arrivals")
+    private int tpccMaxPendingArrivals = Config.TPCC_MAX_PENDING_ARRIVALS;
+
+    @XmlAttribute(name = "tpcc_rampup_waves")
+    private int tpccRampUpWaves = Config.TPCC_RAMPUP_WAVES;
+
+    @XmlAttribute(name = "tpcc_rampup_interval")
+    private int tpccRampUpInterval = 0;
+
+    @XmlAttribute(name = "tpcc_warmup_time")
+    private int tpccWarmupTime = Config.TPCC_WARMUP_TIME_S;
+
+    @XmlAttribute(name = "tpcc_steady_state_detection")
+    private boolean tpccSteadyStateDetection = Config.TPCC_STEADY_STATE_DETECTION;
+
+    @XmlAttribute(name = "tpcc_load_balancing")
+    private boolean tpccLoadBalancing = Config.TPCC_LOAD_BALANCING;
+
+    @XmlAttribute(name = "tpcc_calibration_time")
+    private int tpccCalibrationTime = Config.TPCC_CALIBRATION_TIME_S;
+
+    @XmlAttribute(name = "tpcc_rebalance_threshold")
+    private double tpccRebalanceThreshold = 0;
+
+    @XmlAttribute(name = "tpcc_capacity_search")
+    private boolean tpccCapacitySearch = Config.TPCC_CAPACITY_SEARCH;
+
+    @XmlAttribute(name = "tpcc_capacity_min_terminals")
+    private int tpccCapacityMinTerminals = 1;
+
+    @XmlAttribute(name = "tpcc_capacity_max_terminals")
+    private int tpccCapacityMaxTerminals = Config.TPCC_CAPACITY_MAX_TERMINALS;
+
+    @XmlAttribute(name = "tpcc_sla_percentile")
+    private double tpccSlaPercentile = Config.TPCC_SLA_PERCENTILE;
+
+    @XmlAttribute(name = "tpcc_sla_response_time")
+    private double tpccSlaResponseTime = Config.TPCC_SLA_RESPONSE_TIME;
+
     @XmlAttribute(name = "tpch_scalefactor")
     private double tpchScalefactor = Config.TPCH_SCALEFACTOR;
 
     @XmlAttribute(name = "tpch_streams")
     private int tpchStreams = TPCHConfig.STREAMS;
 
+    @XmlAttribute(name = "tpch_max_concurrent_queries")
+    private int tpchMaxConcurrentQueries = TPCHConfig.MAX_CONCURRENT_QUERIES;
+
+    @XmlAttribute(name = "tpch_execute_refresh_functions")
+    private boolean tpchExecuteRefreshFunctions = TPCHConfig.EXECUTE_REFRESH_FUNCTIONS;
+
+    @XmlAttribute(name = "tpch_refresh_batch_size")
+    private int tpchRefreshBatchSize = TPCHConfig.REFRESH_BATCH_SIZE;
+
+    @XmlAttribute(name = "tpch_query_timeout")
+    private int tpchQueryTimeout = TPCHConfig.QUERY_TIMEOUT;
+
+    @XmlAttribute(name = "tpch_stream_timeout")
+    private int tpchStreamTimeout = TPCHConfig.STREAM_TIMEOUT;
+
+    @XmlAttribute(name = "tpch_validate_results")
+    private boolean tpchValidateResults = TPCHConfig.VALIDATE_RESULTS;
+
+    @XmlAttribute(name = "tpch_reference_answers")
+    private String tpchReferenceAnswers = TPCHConfig.REFERENCE_ANSWERS;
+
+    @XmlAttribute(name = "tpch_data_cache")
+    private boolean tpchDataCache = TPCHConfig.DATA_CACHE;
+
+    @XmlAttribute(name = "tpch_data_cache_chunks")
+    private int tpchDataCacheChunks = TPCHConfig.DATA_CACHE_CHUNKS;
+
+    @XmlAttribute(name = "tpch_loader_threads")
+    private int tpchLoaderThreads = TPCHConfig.LOADER_THREADS;
+
+    @XmlAttribute(name = "tpch_incremental_population")
+    private boolean tpchIncrementalPopulation = TPCHConfig.INCREMENTAL_POPULATION;
+
+    @XmlAttribute(name = "tpch_profile_sampling")
+    private int tpchProfileSampling = TPCHConfig.PROFILE_SAMPLING;
+
+    @XmlAttribute(name = "tpch_profiled_queries")
+    private String tpchProfiledQueries = TPCHConfig.PROFILED_QUERIES;
+
     @XmlAttribute(name = "musqle_streams")
     private int musqleStreams = MusqleConfig.STREAMS;
 
+    @XmlAttribute(name = "musqle_query_timeout")
+    private int musqleQueryTimeout = MusqleConfig.QUERY_TIMEOUT;
+
+    @XmlAttribute(name = "chbenchmark_streams")
+    private int chbenchmarkStreams = CHBenchmarkConfig.STREAMS;
+
+    @XmlAttribute(name = "chbenchmark_stream_pacing")
+    private long chbenchmarkStreamPacing = CHBenchmarkConfig.STREAM_PACING;
+
+    @XmlAttribute(name = "chbenchmark_query_timeout")
+    private int chbenchmarkQueryTimeout = CHBenchmarkConfig.QUERY_TIMEOUT;
+
+    @XmlAttribute(name = "chbenchmark_oltp_delay")
+    private int chbenchmarkOltpDelay = CHBenchmarkConfig.OLTP_DELAY_S;
+
+    @XmlAttribute(name = "chbenchmark_olap_delay")
+    private int chbenchmarkOlapDelay = CHBenchmarkConfig.OLAP_DELAY_S;
+
+    @XmlAttribute(name = "chbenchmark_interval")
+    private long chbenchmarkInterval = CHBenchmarkConfig.SERIES_INTERVAL;
+
     @XmlAttribute(name = "system", required = true)
     private String system = Config.DEFAULT_DBMS_SYSTEM;
 
@@ -70,9 +180,39 @@ public String toString() {
                 ", scenario='" + getScenario() + '\'' +
                 ", tpccWarehouses=" + tpccWarehouses +
                 ", tpccTerminalThink=" + tpccTerminalThink +
+                ", tpccTerminalPacing=" + tpccTerminalPacing +
+                ", tpccArrivalMode=" + tpccArrivalMode +
+                ", tpccArrivalRate=" + tpccArrivalRate +
+                ", tpccRampUpWaves=" + tpccRampUpWaves +
+                ", tpccRampUpInterval=" + tpccRampUpInterval +
+                ", tpccWarmupTime=" + tpccWarmupTime +
+                ", tpccSteadyStateDetection=" + tpccSteadyStateDetection +
+                ", tpccLoadBalancing=" + tpccLoadBalancing +
+                ", tpccRebalanceThreshold=" + tpccRebalanceThreshold +
+                ", tpccCapacitySearch=" + tpccCapacitySearch +
                 ", tpchScalefactor=" + tpchScalefactor +
                 ", tpchStreams=" + tpchStreams +
+                ", tpchMaxConcurrentQueries=" + tpchMaxConcurrentQueries +
+                ", tpchExecuteRefreshFunctions=" + tpchExecuteRefreshFunctions +
+                ", tpchRefreshBatchSize=" + tpchRefreshBatchSize +
+                ", tpchQueryTimeout=" + tpchQueryTimeout +
+                ", tpchStreamTimeout=" + tpchStreamTimeout +
+                ", tpchValidateResults=" + tpchValidateResults +
+                ", tpchReferenceAnswers='" + tpchReferenceAnswers + '\'' +
+                ", tpchDataCache=" + tpchDataCache +
+                ", tpchDataCacheChunks=" + tpchDataCacheChunks +
+                ", tpchLoaderThreads=" + tpchLoaderThreads +
+                ", tpchIncrementalPopulation=" + tpchIncrementalPopulation +
+                ", tpchProfileSampling=" + tpchProfileSampling +
+                ", tpchProfiledQueries='" + tpchProfiledQueries + '\'' +
                 ", musqleStreams=" + musqleStreams +
+                ", musqleQueryTimeout=" + musqleQueryTimeout +
+                ", chbenchmarkStreams=" + chbenchmarkStreams +
+                ", chbenchmarkStreamPacing=" + chbenchmarkStreamPacing +
+                ", chbenchmarkQueryTimeout=" + chbenchmarkQueryTimeout +
+                ", chbenchmarkOltpDelay=" + chbenchmarkOltpDelay +
+                ", chbenchmarkOlapDelay=" + chbenchmarkOlapDelay +
+                ", chbenchmarkInterval=" + chbenchmarkInterval +
                 ",\n ycsbProperties=" + getYcsbProperties() +
                 ",\n system='" + getSystem() + '\'' +
                 ", measurements='" + getMeasurementOptions() + '\'' +
@@ -122,11 +262,124 @@ public boolean getTpccTerminalThink() {
     }
 
 
+    /**
+     * @return ms between two scheduled starts of a closed-loop terminal, 0 if terminals are not paced. If set, terminals wait for their next scheduled start instead of thinking.
+     */
+    public long getTpccTerminalPacing() {
+        return tpccTerminalPacing;
+    }
+
+
     public void setTpccTerminalThink( boolean tpccTerminalThink ) {
         this.tpccTerminalThink = tpccTerminalThink;
     }
 
 
+    /**
+     * Parses the String for an arrival mode. Accepts {@link TPCCArrivalMode#toString()}
+     */
+    public TPCCArrivalMode getTpccArrivalMode() {
+        return TPCCArrivalMode.valueOf( tpccArrivalMode );
+    }
+
+
+    /**
+     * @return transactions per second over all workers. Only used for open-loop arrival modes
+     */
+    public double getTpccArrivalRate() {
+        return tpccArrivalRate;
+    }
+
+
+    public int getTpccMaxPendingArrivals() {
+        return tpccMaxPendingArrivals;
+    }
+
+
+    public int getTpccRampUpWaves() {
+        return tpccRampUpWaves;
+    }
+
+
+    /**
+     * @return time between two ramp-up waves in ms. The XML value is in seconds
+     */
+    public long getTpccRampUpInterval() {
+        return tpccRampUpInterval * 1_000L;
+    }
+
+
+    /**
+     * @return time at the beginning of the measurement which is excluded from the analysis in ms. The XML value is in seconds. Never shorter than the ramp-up.
+     */
+    public long getTpccWarmupTime() {
+        return Math.max( tpccWarmupTime * 1_000L, (Math.max( 1, tpccRampUpWaves ) - 1) * getTpccRampUpInterval() );
+    }
+
+
+    public boolean getTpccSteadyStateDetection() {
+        return tpccSteadyStateDetection;
+    }
+
+
+    /**
+     * If true, warehouses are assigned to workers according to the capacity they report instead of evenly
+     */
+    public boolean getTpccLoadBalancing() {
+        return tpccLoadBalancing;
+    }
+
+
+    /**
+     * @return how long each worker calibrates in ms, running transactions against the database. The XML value is in seconds
+     */
+    public long getTpccCalibrationTime() {
+        return tpccCalibrationTime * 1_000L;
+    }
+
+
+    /**
+     * @return a worker whose throughput per warehouse falls below this fraction of the mean triggers a rebalance during the warm-up. 0 disables rebalancing
+     */
+    public double getTpccRebalanceThreshold() {
+        return tpccRebalanceThreshold;
+    }
+
+
+    /**
+     * If true, the TPC-C scenario searches for the highest number of terminals per district which still meets the SLA instead of running a single measurement.
+     */
+    public boolean getTpccCapacitySearch() {
+        return tpccCapacitySearch;
+    }
+
+
+    public int getTpccCapacityMinTerminals() {
+        return tpccCapacityMinTerminals;
+    }
+
+
+    public int getTpccCapacityMaxTerminals() {
+        return tpccCapacityMaxTerminals;
+    }
+
+
+    /**
+     * @return percentile of the New-Order response time which is checked against {@link #getTpccSlaResponseTime()}
+     */
+    public double getTpccSlaPercentile() {
+        return tpccSlaPercentile;
+    }
+
+
+    /**
+     * @return SLA for the New-Order response time in ms
+     */
+    public double getTpccSlaResponseTime() {
+        return tpccSlaResponseTime;
+    }
+
+
     public double getTpchScalefactor() {
         return tpchScalefactor;
     }
@@ -189,9 +442,130 @@ public int getTpchStreams() {
     }
 
 
+    public int getTpchMaxConcurrentQueries() {
+        return tpchMaxConcurrentQueries;
+    }
+
+
+    public boolean getTpchExecuteRefreshFunctions() {
+        return tpchExecuteRefreshFunctions;
+    }
+
+
+    public int getTpchRefreshBatchSize() {
+        return tpchRefreshBatchSize;
+    }
+
+
+    public int getTpchQueryTimeout() {
+        return tpchQueryTimeout;
+    }
+
+
+    public int getTpchStreamTimeout() {
+        return tpchStreamTimeout;
+    }
+
+
+    public boolean getTpchValidateResults() {
+        return tpchValidateResults;
+    }
+
+
+    public String getTpchReferenceAnswers() {
+        return tpchReferenceAnswers;
+    }
+
+
+    public boolean getTpchDataCache() {
+        return tpchDataCache;
+    }
+
+
+    public int getTpchDataCacheChunks() {
+        return tpchDataCacheChunks;
+    }
+
+
+    public int getTpchLoaderThreads() {
+        return tpchLoaderThreads;
+    }
+
+
+    public boolean getTpchIncrementalPopulation() {
+        return tpchIncrementalPopulation;
+    }
+
+
+    public int getTpchProfileSampling() {
+        return tpchProfileSampling;
+    }
+
+
+    /**
+     * @return ids of the profiled queries, empty for all
+     */
+    public List<Integer> getTpchProfiledQueries() {
+        List<Integer> queries = new ArrayList<>();
+        for ( String query : tpchProfiledQueries.split( "," ) ) {
+            if ( !query.trim().isEmpty() ) {
+                queries.add( Integer.parseInt( query.trim() ) );
+            }
+        }
+        return queries;
+    }
+
+
     public int getMusqleStreams() {
         return musqleStreams;
     }
 
 
+    public int getMusqleQueryTimeout() {
+        return musqleQueryTimeout;
+    }
+
+
+    public int getChbenchmarkStreams() {
+        return chbenchmarkStreams;
+    }
+
+
+    /**
+     * @return ms between the starts of two queries of an analytical stream, 0 to run them back-to-back
+     */
+    public long getChbenchmarkStreamPacing() {
+        return chbenchmarkStreamPacing;
+    }
+
+
+    public int getChbenchmarkQueryTimeout() {
+        return chbenchmarkQueryTimeout;
+    }
+
+
+    /**
+     * @return ms the TPC-C terminals start after the analytical streams
+     */
+    public long getChbenchmarkOltpDelay() {
+        return chbenchmarkOltpDelay * 1_000L;
+    }
+
+
+    /**
+     * @return ms the analytical streams start after the TPC-C terminals
+     */
+    public long getChbenchmarkOlapDelay() {
+        return chbenchmarkOlapDelay * 1_000L;
+    }
+
+
+    /**
+     * @return length in ms of the intervals in which both sides are correlated
+     */
+    public long getChbenchmarkInterval() {
+        return chbenchmarkInterval;
+    }
+
+
 }
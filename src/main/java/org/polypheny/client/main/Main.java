@@ -3,7 +3,9 @@
 
 import com.github.rvesse.airline.annotations.Cli;
 import com.github.rvesse.airline.help.Help;
+import org.polypheny.client.main.analysis.AnalysisCompare;
 import org.polypheny.client.main.analysis.TPCCAnalysis;
+import org.polypheny.client.main.analysis.TPCCColumnScan;
 
 
 /**
@@ -12,7 +14,7 @@
 @Cli(
         name = "polyphenydb-client",
         description = "A client for DBMS which dynamically replicate and partition big data. The client is able to stress the DBMS with different benchmarks and scenarios.",
-        commands = { MasterCommand.class, WorkerCommand.class, LocalCommand.class, Help.class, ConsoleCommand.class, TPCCAnalysis.class },
+        commands = { MasterCommand.class, WorkerCommand.class, LocalCommand.class, Help.class, ConsoleCommand.class, TPCCAnalysis.class, TPCCColumnScan.class, AnalysisCompare.class },
         defaultCommand = Help.class)
 public class Main {
 
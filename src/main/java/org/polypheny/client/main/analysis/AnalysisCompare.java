@@ -0,0 +1,99 @@
+package org.polypheny.client.main.analysis;
+
+
+import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.annotations.restrictions.Required;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.tpcc.RunComparison;
+
+
+/**
+ * Compares TPC-C runs analyzed by {@link TPCCAnalysis} against a baseline. Exits with status 1 if any metric regressed significantly, so it can be used as a pass/fail check for nightly runs. The metrics of each candidate are Holm-corrected, see {@link RunComparison}.
+ */
+@Command(name = "analysis-compare", description = "Compare analyzed TPC-C runs against a baseline and detect significant regressions.")
+public class AnalysisCompare implements Runnable {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    @Option(title = "Input", name = { "--input" }, description = "Folder containing an analysis.json, or the file itself. Repeat for every run, the first one is the baseline.")
+    @Required
+    private List<String> inputs = new ArrayList<>();
+
+    @Option(title = "Output File", name = { "--output" }, description = "Where the report should be written to. Logged if omitted.")
+    private String output;
+
+    @Option(title = "Threshold", name = { "--threshold" }, description = "Minimal relative change of a metric to be reported as regression")
+    private double threshold = 0.05;
+
+    @Option(title = "Confidence", name = { "--confidence" }, description = "Level of the bootstrap confidence intervals")
+    private double confidence = 0.95;
+
+    @Option(title = "Resamples", name = { "--resamples" }, description = "Number of bootstrap resamples per metric")
+    private int resamples = 1_000;
+
+    @Option(title = "Seed", name = { "--seed" }, description = "Seed of the bootstrap")
+    private long seed = 0;
+
+
+    @Override
+    public void run() {
+        if ( inputs.size() < 2 ) {
+            logger.error( "At least a baseline and one candidate are required" );
+            System.exit( 1 );
+        }
+        RunComparison comparison = new RunComparison( threshold, confidence, resamples, seed );
+        JsonObject report = new JsonObject();
+        try {
+            JsonObject baseline = load( inputs.get( 0 ) );
+            report.addProperty( "baseline", inputs.get( 0 ) );
+            JsonObject candidates = new JsonObject();
+            for ( String input : inputs.subList( 1, inputs.size() ) ) {
+                candidates.add( input, comparison.compare( baseline, load( input ) ) );
+            }
+            report.add( "candidates", candidates );
+        } catch ( IOException e ) {
+            logger.error( "Could not read the analysis of a run", e );
+            System.exit( 1 );
+        }
+        report.addProperty( "regressions", comparison.getRegressions() );
+        report.addProperty( "passed", comparison.getRegressions() == 0 );
+
+        String json = new GsonBuilder().setPrettyPrinting().create().toJson( report );
+        if ( output == null ) {
+            logger.info( "Comparison against {}:\n{}", inputs.get( 0 ), json );
+        } else {
+            try ( Writer writer = new OutputStreamWriter( new FileOutputStream( output ), StandardCharsets.UTF_8 ) ) {
+                writer.write( json );
+            } catch ( IOException e ) {
+                logger.error( "Could not write report to {}", output, e );
+            }
+        }
+        if ( comparison.getRegressions() > 0 ) {
+            logger.error( "{} metrics regressed", comparison.getRegressions() );
+            System.exit( 1 );
+        }
+    }
+
+
+    private static JsonObject load( String input ) throws IOException {
+        File file = new File( input );
+        if ( file.isDirectory() ) {
+            file = new File( file, "analysis.json" );
+        }
+        return new JsonParser().parse( new String( Files.readAllBytes( file.toPath() ), StandardCharsets.UTF_8 ) ).getAsJsonObject();
+    }
+}
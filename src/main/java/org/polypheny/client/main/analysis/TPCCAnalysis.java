@@ -13,18 +13,32 @@
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.tpcc.AnalysisCheckpoints;
 import org.polypheny.client.analysis.tpcc.AverageNumberOfQueries;
 import org.polypheny.client.analysis.tpcc.AverageTransactionResponse;
+import org.polypheny.client.analysis.tpcc.IntervalSeries;
+import org.polypheny.client.analysis.tpcc.ResourceCorrelation;
 import org.polypheny.client.analysis.tpcc.ResponseTimePerQuery;
 import org.polypheny.client.analysis.tpcc.ResponseTimePerQueryType;
+import org.polypheny.client.analysis.tpcc.ResponseTimePercentiles;
+import org.polypheny.client.analysis.tpcc.SteadyStateDetector;
 import org.polypheny.client.analysis.tpcc.TPCCAnalyzer;
+import org.polypheny.client.analysis.tpcc.TPCCPartitionTask;
+import org.polypheny.client.analysis.tpcc.TransactionCount;
 import org.polypheny.client.analysis.tpcc.TransactionResponseTimeFull;
-import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.NetdataMeasurement;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+import org.polypheny.client.monitoring.NetdataMonitorAdmin;
 import org.polypheny.client.storage.JsonStreamReader;
 import org.polypheny.client.storage.StorageGson;
 
@@ -36,11 +50,25 @@
 public class TPCCAnalysis implements Runnable {
 
     public static Logger logger = LogManager.getLogger();
+    private static final Pattern RESULT_PARTITION_PATTERN = Pattern.compile( "allresults(_\\d+)?\\.json" );
+    private static final Pattern NETDATA_PATTERN = Pattern.compile( "netdata_(.+)\\.json" );
     private File inputPath;
     private File outputPath;
     private int totalExecutionTime;
     private List<TPCCAnalyzer> fullAnalyzers = new ArrayList<>();
     private List<TPCCAnalyzer> visualizationAnalyzers = new ArrayList<>();
+    private long measurementStart = 0;
+    private long measurementStop = Long.MAX_VALUE;
+    private long warmupTime = 0;
+    private boolean detectSteadyState = false;
+    //Window of start timestamps which is analyzed, determined in analyze()
+    private long windowStart;
+    private long windowStop;
+    private SteadyStateDetector steadyStateDetector;
+    private double tpmC;
+    private long seriesInterval = 10_000;
+    private long expectedInterval = ResponseTimePercentiles.DERIVED_INTERVAL;
+    private AnalysisCheckpoints checkpoints;
 
     @Option(title = "Input Folder", name = { "--input" }, description = "Folder where the results are located")
     @Required
@@ -52,6 +80,21 @@ public class TPCCAnalysis implements Runnable {
     @Option(title = "Execution Time", name = { "--time" }, description = "How long the benchmark ran for")
     private int executionTime = 60_000;
 
+    @Option(title = "Warm-up Time", name = { "--warmup" }, description = "How many ms after the first transaction are excluded from the analysis")
+    private long warmup = 0;
+
+    @Option(title = "Steady-State Detection", name = { "--steady-state" }, description = "Only analyze transactions after throughput has stabilized")
+    private boolean steadyState = false;
+
+    @Option(title = "Series Interval", name = { "--interval" }, description = "Length in ms of the intervals of the throughput and latency series")
+    private long interval = 10_000;
+
+    @Option(title = "Expected Interval", name = { "--expected-interval" }, description = "ms a terminal is expected to take between two unscheduled transactions, e.g. its think time. Used to correct response times for coordinated omission, -1 derives it from the median service time of terminals which run back-to-back, 0 disables the correction.")
+    private long expectedTransactionInterval = ResponseTimePercentiles.DERIVED_INTERVAL;
+
+    @Option(title = "Incremental", name = { "--incremental" }, description = "Keep the state of the analyzers per result partition in <output>/checkpoints. Repeated analyses only process results which were added since and analyzers which were not checkpointed yet.")
+    private boolean incremental = false;
+
 
     public TPCCAnalysis( File inputPath, File outputPath, int totalExecutionTime ) {
         this.inputPath = inputPath;
@@ -72,45 +115,89 @@ public void run() {
             output = input;
         }
         TPCCAnalysis analysis = new TPCCAnalysis( new File( input ), new File( output ), executionTime );
+        analysis.setMeasurementWindow( 0, Long.MAX_VALUE, warmup, steadyState );
+        analysis.setSeriesInterval( interval );
+        analysis.setExpectedInterval( expectedTransactionInterval );
+        if ( incremental ) {
+            analysis.setCheckpoints( new AnalysisCheckpoints( new File( output, "checkpoints" ) ) );
+        }
         analysis.analyze();
     }
 
 
+    /**
+     * Restricts the analysis to transactions which started within the measurement. The first warmupTime ms are excluded. If steady-state detection is enabled, everything before throughput stabilized is excluded as well.
+     *
+     * @param start start of the measurement, 0 to use the first transaction
+     * @param stop end of the measurement, {@link Long#MAX_VALUE} to use the last transaction
+     * @param warmupTime ms after start which are excluded from the analysis
+     * @param detectSteadyState whether to use a {@link SteadyStateDetector}
+     */
+    public void setMeasurementWindow( long start, long stop, long warmupTime, boolean detectSteadyState ) {
+        this.measurementStart = start;
+        this.measurementStop = stop;
+        this.warmupTime = warmupTime;
+        this.detectSteadyState = detectSteadyState;
+    }
+
+
+    /**
+     * @param seriesInterval length in ms of the intervals of the {@link IntervalSeries}
+     */
+    public void setSeriesInterval( long seriesInterval ) {
+        this.seriesInterval = seriesInterval;
+    }
+
+
+    /**
+     * @param expectedInterval ms a terminal is expected to take between two transactions which were not scheduled. See {@link ResponseTimePercentiles#ResponseTimePercentiles(long)}
+     */
+    public void setExpectedInterval( long expectedInterval ) {
+        this.expectedInterval = expectedInterval;
+    }
+
+
+    /**
+     * @param checkpoints where the state of the analyzers is kept between analyses, null to always analyze all results
+     */
+    public void setCheckpoints( AnalysisCheckpoints checkpoints ) {
+        this.checkpoints = checkpoints;
+    }
+
+
     public void analyze() {
         inputPath.mkdirs();
         outputPath.mkdirs();
-        int newOrderCount = 0;
-
-        visualizationAnalyzers.add( new AverageTransactionResponse() );
-        fullAnalyzers.add( new AverageNumberOfQueries() );
-        fullAnalyzers.add( new ResponseTimePerQuery() );
-        visualizationAnalyzers.add( new ResponseTimePerQueryType() );
-        visualizationAnalyzers.add( new TransactionResponseTimeFull() );
-
-        File storageFile = new File( getInputPath(), "allresults.json" );
-        JsonStreamReader<TPCCResultTuple> reader = new JsonStreamReader<>( storageFile, TPCCResultTuple.class, StorageGson.getGson() );
-        reader.start();
-
-        while ( reader.hasNext() ) {
-            //Handle each tuple
-            for ( TPCCResultTuple tuple : reader.readFromStream( 100 ) ) {
-                if ( tuple.getAborted() ) {
-                    continue;
-                }
-                fullAnalyzers.forEach( tpccAnalyzer -> tpccAnalyzer.process( tuple ) );
-                visualizationAnalyzers.forEach( tpccAnalyzer -> tpccAnalyzer.process( tuple ) );
 
-                if ( tuple.getTransactionType().equals( TPCCTransactionType.TPCCTRANSACTIONNEWORDER ) ) {
-                    newOrderCount++;
-                }
-            }
-        }
+        List<File> partitions = findResultPartitions( getInputPath() );
+        logger.info( "Analyzing {} result partitions", partitions.size() );
+        determineMeasurementWindow( partitions );
 
-        int elapsedTimeInMinutes = totalExecutionTime / 60_000;
-        logger.info( "tmpC {}", newOrderCount / elapsedTimeInMinutes );
+        //A stop taken from the last transaction moves with every result which is added, so the window is left open instead. Everything up to the last transaction is analyzed either way, and the checkpoints stay valid.
+        long filterStop = measurementStop;
+        List<Supplier<? extends TPCCAnalyzer>> full = Arrays.asList( AverageNumberOfQueries::new, ResponseTimePerQuery::new, () -> new IntervalSeries( seriesInterval, windowStart, filterStop ) );
+        List<Supplier<? extends TPCCAnalyzer>> visualization = Arrays.asList( AverageTransactionResponse::new, ResponseTimePerQueryType::new, TransactionResponseTimeFull::new, () -> new ResponseTimePercentiles( expectedInterval ) );
+        List<Supplier<? extends TPCCAnalyzer>> suppliers = new ArrayList<>( full );
+        suppliers.addAll( visualization );
+        suppliers.add( TransactionCount::new );
+
+        List<TPCCAnalyzer> analyzers = TPCCPartitionTask.analyze( partitions, suppliers, tuple -> tuple.getStartTimestamp() >= windowStart && tuple.getStartTimestamp() < filterStop, checkpoints, "window_" + windowStart + "_" + filterStop );
+        fullAnalyzers = new ArrayList<>( analyzers.subList( 0, full.size() ) );
+        visualizationAnalyzers = new ArrayList<>( analyzers.subList( full.size(), full.size() + visualization.size() ) );
+        TransactionCount transactionCount = (TransactionCount) analyzers.get( analyzers.size() - 1 );
+        fullAnalyzers.add( transactionCount );
+
+        long elapsedTime = getElapsedTime( transactionCount );
+        tpmC = elapsedTime > 0 ? transactionCount.getCount( TPCCTransactionType.TPCCTRANSACTIONNEWORDER ) * 60_000d / elapsedTime : 0;
+        logger.info( "tmpC {}", tpmC );
 
         JsonObject element = new JsonObject();
+        element.add( "MeasurementWindow", getMeasurementWindow() );
         fullAnalyzers.forEach( tpccAnalyzer -> element.add( tpccAnalyzer.getClass().getSimpleName(), tpccAnalyzer.getResults() ) );
+        ResourceCorrelation resources = loadNetdataMeasurements();
+        if ( !resources.isEmpty() ) {
+            element.add( ResourceCorrelation.class.getSimpleName(), resources.correlate( element.getAsJsonObject( IntervalSeries.class.getSimpleName() ) ) );
+        }
         visualizationAnalyzers.forEach( tpccAnalyzer -> element.add( tpccAnalyzer.getClass().getSimpleName(), tpccAnalyzer.getResults() ) );
 
         File resultJSON = new File( outputPath, "analysis.json" );
@@ -126,6 +213,123 @@ public void analyze() {
     }
 
 
+    /**
+     * @return length of the analyzed window in ms. Bounds which were not recorded are taken from the first and last transaction, the configured execution time is only used if there are no transactions at all.
+     */
+    private long getElapsedTime( TransactionCount transactionCount ) {
+        if ( windowStart > 0 && windowStop != Long.MAX_VALUE ) {
+            return windowStop - windowStart;
+        }
+        if ( transactionCount.isEmpty() ) {
+            return totalExecutionTime;
+        }
+        long start = windowStart > 0 ? windowStart : transactionCount.getFirstStart();
+        long stop = windowStop != Long.MAX_VALUE ? windowStop : transactionCount.getLastStart() + 1;
+        return stop - start;
+    }
+
+
+    /**
+     * Reads the netdata_&lt;host&gt;.json files written by {@link NetdataMonitorAdmin} from the output and the input folder
+     */
+    private ResourceCorrelation loadNetdataMeasurements() {
+        ResourceCorrelation resources = new ResourceCorrelation();
+        Set<String> hosts = new HashSet<>();
+        for ( File folder : new File[]{ outputPath, inputPath } ) {
+            File[] files = folder.listFiles( ( dir, name ) -> NETDATA_PATTERN.matcher( name ).matches() );
+            if ( files == null ) {
+                continue;
+            }
+            for ( File file : files ) {
+                Matcher matcher = NETDATA_PATTERN.matcher( file.getName() );
+                if ( !matcher.matches() || !hosts.add( matcher.group( 1 ) ) ) {
+                    continue;
+                }
+                JsonStreamReader<NetdataMeasurement> reader = new JsonStreamReader<>( file, NetdataMeasurement.class, StorageGson.getGson() );
+                reader.start();
+                while ( reader.hasNext() ) {
+                    reader.readFromStream( 1_000 ).forEach( measurement -> resources.add( matcher.group( 1 ), measurement ) );
+                }
+                reader.cleanup();
+            }
+        }
+        logger.debug( "Correlating resource usage of hosts {}", hosts );
+        return resources;
+    }
+
+
+    /**
+     * Results are either stored in a single allresults.json or partitioned into allresults_&lt;n&gt;.json, one per worker
+     *
+     * @return all result files in the folder, sorted by name
+     */
+    public static List<File> findResultPartitions( File folder ) {
+        File[] files = folder.listFiles( ( dir, name ) -> RESULT_PARTITION_PATTERN.matcher( name ).matches() );
+        if ( files == null ) {
+            return new ArrayList<>();
+        }
+        Arrays.sort( files );
+        return new ArrayList<>( Arrays.asList( files ) );
+    }
+
+
+    /**
+     * Sets {@link #windowStart} and {@link #windowStop}. Only reads the results if the window depends on them.
+     */
+    private void determineMeasurementWindow( List<File> partitions ) {
+        windowStart = measurementStart;
+        windowStop = measurementStop;
+        if ( warmupTime <= 0 && !detectSteadyState ) {
+            return;
+        }
+        List<TPCCAnalyzer> analyzers = TPCCPartitionTask.analyze( partitions, Arrays.asList( SteadyStateDetector::new, TransactionCount::new ), tuple -> true, checkpoints, "all" );
+        SteadyStateDetector detector = (SteadyStateDetector) analyzers.get( 0 );
+        TransactionCount count = (TransactionCount) analyzers.get( 1 );
+        if ( count.isEmpty() ) {
+            logger.warn( "No committed transactions, analyzing the whole measurement" );
+            return;
+        }
+        if ( measurementStart <= 0 ) {
+            windowStart = count.getFirstStart();
+        }
+        if ( measurementStop == Long.MAX_VALUE ) {
+            windowStop = count.getLastStart() + 1;
+        }
+        windowStart += warmupTime;
+        if ( detectSteadyState ) {
+            windowStart = detector.detect( windowStart, windowStop );
+            steadyStateDetector = detector;
+        }
+        logger.info( "Analyzing transactions which started between {} and {}", windowStart, windowStop );
+    }
+
+
+    /**
+     * @return metadata about which part of the measurement was analyzed
+     */
+    private JsonObject getMeasurementWindow() {
+        JsonObject window = new JsonObject();
+        if ( measurementStart > 0 ) {
+            window.addProperty( "measurementStart", measurementStart );
+        }
+        if ( measurementStop != Long.MAX_VALUE ) {
+            window.addProperty( "measurementStop", measurementStop );
+        }
+        window.addProperty( "warmupTime", warmupTime );
+        if ( windowStart > 0 ) {
+            window.addProperty( "windowStart", windowStart );
+        }
+        if ( windowStop != Long.MAX_VALUE ) {
+            window.addProperty( "windowStop", windowStop );
+        }
+        if ( steadyStateDetector != null ) {
+            window.add( "steadyState", steadyStateDetector.getResults() );
+        }
+        window.addProperty( "tpmC", tpmC );
+        return window;
+    }
+
+
     private File getInputPath() {
         return inputPath;
     }
@@ -133,6 +337,7 @@ private File getInputPath() {
 
     public Properties getProperties() {
         JsonObject element = new JsonObject();
+        element.add( "MeasurementWindow", getMeasurementWindow() );
         visualizationAnalyzers.forEach( tpccAnalyzer -> element.add( tpccAnalyzer.getClass().getSimpleName(), tpccAnalyzer.getResults() ) );
         Properties props = new Properties();
         props.put( "results", element );
@@ -0,0 +1,120 @@
+package org.polypheny.client.main.analysis;
+
+
+import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.annotations.restrictions.Required;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.ResponseTimeHistogram;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+import org.polypheny.client.storage.columnar.TPCCColumnReader;
+
+
+/**
+ * Answers ad-hoc questions about a finished TPC-C run from the columnar results without parsing the JSON results
+ */
+@Command(name = "scan-tpcc", description = "Response times and abort rates of TPC-C transactions within a time range, read from the columnar results.")
+public class TPCCColumnScan implements Runnable {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    @Option(title = "Input Folder", name = { "--input" }, description = "Folder with the results of the master, or its columns subfolder")
+    @Required
+    private String input;
+
+    @Option(title = "From", name = { "--from" }, description = "Only transactions which started at or after this timestamp in ms")
+    private long from = Long.MIN_VALUE;
+
+    @Option(title = "To", name = { "--to" }, description = "Only transactions which started before this timestamp in ms")
+    private long to = Long.MAX_VALUE;
+
+    @Option(title = "Transaction Type", name = { "--type" }, description = "Only transactions of this type, e.g. TPCCTRANSACTIONNEWORDER. Can be repeated.")
+    private List<String> types = new ArrayList<>();
+
+    @Option(title = "Output File", name = { "--output" }, description = "Where the result should be written to. Logged if omitted.")
+    private String output;
+
+
+    @Override
+    public void run() {
+        File folder = new File( input );
+        if ( !TPCCColumnReader.exists( folder ) ) {
+            folder = new File( folder, "columns" );
+        }
+        Set<TPCCTransactionType> typeFilter = EnumSet.noneOf( TPCCTransactionType.class );
+        types.forEach( type -> typeFilter.add( TPCCTransactionType.valueOf( type ) ) );
+        String json;
+        try {
+            json = new GsonBuilder().setPrettyPrinting().create().toJson( scan( new TPCCColumnReader( folder ), from, to, typeFilter ) );
+        } catch ( IOException e ) {
+            logger.error( "Could not read columns in {}", folder, e );
+            return;
+        }
+        if ( output == null ) {
+            logger.info( "Transactions in {}:\n{}", folder, json );
+            return;
+        }
+        try ( Writer writer = new OutputStreamWriter( new FileOutputStream( output ), StandardCharsets.UTF_8 ) ) {
+            writer.write( json );
+        } catch ( IOException e ) {
+            logger.error( "Could not write result to {}", output, e );
+        }
+    }
+
+
+    /**
+     * @return per transaction type the number of commits and aborts, the abort rate, response time percentiles and, for scheduled transactions, intended response time percentiles
+     */
+    public static JsonObject scan( TPCCColumnReader reader, long from, long to, Set<TPCCTransactionType> types ) {
+        EnumMap<TPCCTransactionType, long[]> aborts = new EnumMap<>( TPCCTransactionType.class );
+        EnumMap<TPCCTransactionType, ResponseTimeHistogram> responseTimes = new EnumMap<>( TPCCTransactionType.class );
+        EnumMap<TPCCTransactionType, ResponseTimeHistogram> intendedResponseTimes = new EnumMap<>( TPCCTransactionType.class );
+        long skipped = reader.scan( from, to, types, row -> {
+            TPCCTransactionType type = row.getTransactionType();
+            if ( row.isAborted() ) {
+                aborts.computeIfAbsent( type, t -> new long[1] )[0]++;
+                return;
+            }
+            responseTimes.computeIfAbsent( type, t -> new ResponseTimeHistogram() ).record( row.getResponseTime() );
+            if ( row.getIntendedResponseTime() > 0 ) {
+                intendedResponseTimes.computeIfAbsent( type, t -> new ResponseTimeHistogram() ).record( row.getIntendedResponseTime() );
+            }
+        } );
+        logger.info( "Skipped {} blocks", skipped );
+
+        Set<TPCCTransactionType> seen = EnumSet.noneOf( TPCCTransactionType.class );
+        seen.addAll( aborts.keySet() );
+        seen.addAll( responseTimes.keySet() );
+        JsonObject results = new JsonObject();
+        for ( TPCCTransactionType type : seen ) {
+            long committed = responseTimes.containsKey( type ) ? responseTimes.get( type ).getCount() : 0;
+            long aborted = aborts.containsKey( type ) ? aborts.get( type )[0] : 0;
+            JsonObject result = new JsonObject();
+            result.addProperty( "committed", committed );
+            result.addProperty( "aborted", aborted );
+            result.addProperty( "abortRate", (double) aborted / (committed + aborted) );
+            if ( responseTimes.containsKey( type ) ) {
+                result.add( "responseTime", responseTimes.get( type ).toJson() );
+            }
+            if ( intendedResponseTimes.containsKey( type ) ) {
+                result.add( "intendedResponseTime", intendedResponseTimes.get( type ).toJson() );
+            }
+            results.add( type.toString(), result );
+        }
+        return results;
+    }
+}
@@ -33,6 +33,12 @@
  */
 public class NetdataMonitor implements Runnable {
 
+    /**
+     * Type of the measurement which carries the number of cores of the monitored host in {@link #CORES}. It is repeated with every poll, so it is part of every fetched time range.
+     */
+    public static final String INFO_TYPE = "netdata.info";
+    public static final String CORES = "cores";
+
     private static final Logger logger = LogManager.getLogger();
     private volatile boolean running = false;
     private String url;
@@ -66,10 +72,17 @@ public void run() {
             logger.debug( "Starting netdata monitor for url {}", url );
             running = true;
             long timestamp = System.currentTimeMillis() - 5_000;
+            String cores = null;
             while ( running ) {
                 try {
                     long newTimestamp = System.currentTimeMillis();
                     ArrayList<NetdataMeasurement> measurements = new ArrayList<>();
+                    if ( cores == null ) {
+                        cores = measureCores();
+                    }
+                    if ( cores != null ) {
+                        measurements.add( NetdataMeasurement.newBuilder().setType( INFO_TYPE ).setTimestamp( newTimestamp ).putMeasurements( CORES, cores ).build() );
+                    }
                     for ( String option : options ) {
                         measurements.addAll( measure( option, timestamp ) );
                     }
@@ -120,6 +133,20 @@ private List<NetdataMeasurement> measure( String type, long timestamp ) throws I
     }
 
 
+    /**
+     * @return total number of cores of the monitored host, null if netdata does not report it
+     */
+    private String measureCores() {
+        try {
+            JsonObject info = new JsonParser().parse( getUrl( "http://" + url + ":19999/api/v1/info" ) ).getAsJsonObject();
+            return info.get( "cores_total" ).getAsString();
+        } catch ( IOException | RuntimeException e ) {
+            logger.debug( "Could not get the number of cores of {}", url, e );
+            return null;
+        }
+    }
+
+
     /**
      * Performs a simple get request to the given url, returning the string.
      */
@@ -9,6 +9,7 @@
 import org.polypheny.client.grpc.PolyClientGRPC.NetdataMeasurement;
 import org.polypheny.client.job.PolyphenyJobCdl;
 import org.polypheny.client.rpc.master.WorkerStub;
+import org.polypheny.client.rpc.master.WorkerUnavailableException;
 import org.polypheny.client.storage.StreamWriter;
 
 
@@ -20,11 +21,23 @@ public class NetdataMonitorAdmin {
     public static void launchMonitors( List<WorkerStub> workers, PolyphenyJobCdl job ) {
         //Monitor Worker Hardware
         for ( WorkerStub worker : workers ) {
-            worker.launchWorkerMonitor( job );
+            try {
+                worker.launchWorkerMonitor( job );
+            } catch ( WorkerUnavailableException e ) {
+                logger.error( "Could not launch monitor on worker {}", e.getHost() );
+            }
         }
 
-        //Monitor DB Hardware @ Worker 0
-        workers.get( 0 ).launchDBMonitor( job );
+        //Monitor DB Hardware @ first worker which is still alive
+        WorkerStub dbMonitor = firstAliveWorker( workers );
+        if ( dbMonitor != null ) {
+            dbMonitor.launchDBMonitor( job );
+        }
+    }
+
+
+    private static WorkerStub firstAliveWorker( List<WorkerStub> workers ) {
+        return workers.stream().filter( WorkerStub::isAlive ).findFirst().orElse( null );
     }
 
 
@@ -39,14 +52,31 @@ public static void fetchWorkerMonitorResults( File resultsFolder, List<WorkerStu
             logger.trace( "results-Folder not created" );
         }
         for ( WorkerStub workerStub : workers ) {
+            if ( !workerStub.isAlive() ) {
+                logger.warn( "Skipping monitor results of failed worker {}", workerStub.getHost() );
+                continue;
+            }
             StreamWriter<NetdataMeasurement> writer = new StreamWriter<>( SettableFuture.create(), fileForWorker( resultsFolder, workerStub.getHost() ), NetdataMeasurement.class );
-            workerStub.writeWorkerMonitorResult( writer, start, stop );
+            try {
+                workerStub.writeWorkerMonitorResult( writer, start, stop );
+            } catch ( WorkerUnavailableException e ) {
+                logger.error( "Could not fetch monitor results of worker {}", e.getHost() );
+            }
             writer.onCompleted();
         }
 
+        WorkerStub dbMonitor = firstAliveWorker( workers );
+        if ( dbMonitor == null ) {
+            logger.error( "No worker left to fetch the DB monitor results from" );
+            return;
+        }
         String host = job.getEvaluation().getDbms().getHost();
         StreamWriter<NetdataMeasurement> dbWriter = new StreamWriter<>( SettableFuture.create(), fileForWorker( resultsFolder, host ), NetdataMeasurement.class );
-        workers.get( 0 ).writeWorkerMonitorResult( dbWriter, host, start, stop );
+        try {
+            dbMonitor.writeWorkerMonitorResult( dbWriter, host, start, stop );
+        } catch ( WorkerUnavailableException e ) {
+            logger.error( "Could not fetch DB monitor results from worker {}", e.getHost() );
+        }
         dbWriter.onCompleted();
     }
 }
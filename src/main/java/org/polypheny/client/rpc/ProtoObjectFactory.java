@@ -1,6 +1,7 @@
 package org.polypheny.client.rpc;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -8,8 +9,13 @@
 import org.polypheny.client.grpc.PolyClientGRPC.AccessMethod;
 import org.polypheny.client.grpc.PolyClientGRPC.AckMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.AckMessage.Code;
+import org.polypheny.client.grpc.PolyClientGRPC.CHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.CHWorkerMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.CapacityMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.CapacityRequestMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.DBInfo;
 import org.polypheny.client.grpc.PolyClientGRPC.DBMSSystem;
+import org.polypheny.client.grpc.PolyClientGRPC.FetchCHResultsMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.FetchMUSQLEResultsMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.FetchMonitorWorkerMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.FetchResultsMessage;
@@ -26,6 +32,7 @@
 import org.polypheny.client.grpc.PolyClientGRPC.QueryType;
 import org.polypheny.client.grpc.PolyClientGRPC.Scenario;
 import org.polypheny.client.grpc.PolyClientGRPC.StopWorkerMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCArrivalMode;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCQueryTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
@@ -66,6 +73,16 @@ public static TPCCQueryTuple TPCCQueryTuple( String query, long time, QueryType
     }
 
 
+    /**
+     * @param query querytext
+     * @param time execution time
+     * @param rows rows returned by the query or affected by the statement, 0 if unknown
+     */
+    public static TPCCQueryTuple TPCCQueryTuple( String query, long time, QueryType queryType, long rows ) {
+        return TPCCQueryTuple.newBuilder().setQuery( query ).setExecutionTime( time ).setQueryType( queryType ).setRows( Math.max( 0, rows ) ).build();
+    }
+
+
     /**
      * @param dbHost Where the DB is located
      * @param port port for the DB
@@ -93,6 +110,45 @@ public static LaunchWorkerMessage TPCCWorkerMessage( String dbHost, int port, St
     }
 
 
+    /**
+     * Switches a TPC-C {@link LaunchWorkerMessage} to open-loop arrivals
+     *
+     * @param message message created by {@link #TPCCWorkerMessage(String, int, String, String, String, DBMSSystem, AccessMethod, Pair, int, int, int, int, int, boolean, Optional, Optional)}
+     * @param arrivalMode how inter-arrival times are generated
+     * @param arrivalRate transactions per second for this worker
+     * @param maxPendingArrivals how many transactions may be scheduled but not yet started
+     */
+    public static LaunchWorkerMessage TPCCWorkerMessage( LaunchWorkerMessage message, TPCCArrivalMode arrivalMode, double arrivalRate, int maxPendingArrivals ) {
+        TPCCWorkerMessage workerMessage = message.getTpccWorkerMessage().toBuilder().setArrivalMode( arrivalMode ).setArrivalRate( arrivalRate ).setMaxPendingArrivals( maxPendingArrivals ).build();
+        return message.toBuilder().setTpccWorkerMessage( workerMessage ).build();
+    }
+
+
+    /**
+     * Lets a TPC-C worker start its terminals in staggered waves
+     *
+     * @param message message created by {@link #TPCCWorkerMessage(String, int, String, String, String, DBMSSystem, AccessMethod, Pair, int, int, int, int, int, boolean, Optional, Optional)}
+     * @param rampUpWaves in how many waves the terminals are started
+     * @param rampUpInterval ms between two waves
+     */
+    public static LaunchWorkerMessage TPCCWorkerMessage( LaunchWorkerMessage message, int rampUpWaves, long rampUpInterval ) {
+        TPCCWorkerMessage workerMessage = message.getTpccWorkerMessage().toBuilder().setRampUpWaves( rampUpWaves ).setRampUpInterval( rampUpInterval ).build();
+        return message.toBuilder().setTpccWorkerMessage( workerMessage ).build();
+    }
+
+
+    /**
+     * Lets the closed-loop terminals of a TPC-C worker start their transactions on a fixed schedule instead of thinking
+     *
+     * @param message message created by {@link #TPCCWorkerMessage(String, int, String, String, String, DBMSSystem, AccessMethod, Pair, int, int, int, int, int, boolean, Optional, Optional)}
+     * @param terminalPacing ms between two scheduled starts of a terminal
+     */
+    public static LaunchWorkerMessage TPCCWorkerMessage( LaunchWorkerMessage message, long terminalPacing ) {
+        TPCCWorkerMessage workerMessage = message.getTpccWorkerMessage().toBuilder().setTerminalPacing( terminalPacing ).build();
+        return message.toBuilder().setTpccWorkerMessage( workerMessage ).build();
+    }
+
+
     /**
      * @param startTime timestamp when the query started
      * @param responseTime how long the transaction took to execute
@@ -105,17 +161,38 @@ public static TPCHResultTuple TPCHResultTuple( long startTime, float responseTim
     }
 
 
+    /**
+     * @param batchResponseTimes response time of each batch of a refresh function
+     * @see #TPCHResultTuple(long, float, TPCHTransactionType, int, boolean, String)
+     */
+    public static TPCHResultTuple TPCHResultTuple( long startTime, float responseTime, TPCHTransactionType transactionType, int queryID, boolean aborted, String query, List<Float> batchResponseTimes ) {
+        return TPCHResultTuple( startTime, responseTime, transactionType, queryID, aborted, query ).toBuilder().addAllBatchResponseTimes( batchResponseTimes ).build();
+    }
+
+
     /**
      * @param dbHost Where the DB is located
      * @param port port for the DB
      * @param system Which system is to be benchmarked
      * @param accessMethod accessmethod to be used
-     * @param streams how many streams should be executed
+     * @param streams how many query streams this worker should execute
+     * @param firstStream number of the first query stream of this worker
+     * @param totalStreams query streams of all workers
+     * @param maxConcurrentQueries queries which execute at once on this worker, 0 for no limit
+     * @param executeRefreshFunctions if the refresh stream executes RF1 and RF2
+     * @param refreshBatchSize rows per batch of the refresh functions, 0 for the default
+     * @param queryTimeout seconds a query may take, 0 for no limit
+     * @param streamTimeout seconds a stream may take, 0 for no limit
+     * @param validateResults if the checksums of the query results should be computed
+     * @param profileSampling every n-th execution of a profiled query is profiled, 0 to disable profiling
+     * @param profiledQueries queries which are profiled, all queries if empty
      */
     public static LaunchWorkerMessage TPCHWorkerMessage( String dbHost, int port,
-            String database, String username, String password, DBMSSystem system, AccessMethod accessMethod, boolean executorRefreshStream, double SCALE_FACTOR, int streams ) {
+            String database, String username, String password, DBMSSystem system, AccessMethod accessMethod, boolean executorRefreshStream, double SCALE_FACTOR, int streams, int firstStream, int totalStreams, int maxConcurrentQueries, boolean executeRefreshFunctions, int refreshBatchSize, int queryTimeout, int streamTimeout, boolean validateResults,
+            int profileSampling, Collection<Integer> profiledQueries ) {
         DBInfo dbInfo = DBInfo.newBuilder().setDbHost( dbHost ).setDbPort( port ).setDatabase( database ).setUsername( username ).setPassword( password ).setSystem( system ).setAccessMethod( accessMethod ).build();
-        TPCHWorkerMessage workerMessage = TPCHWorkerMessage.newBuilder().setExecuteRefreshStream( executorRefreshStream ).setSCALEFACTOR( SCALE_FACTOR ).setStreams( streams ).build();
+        TPCHWorkerMessage workerMessage = TPCHWorkerMessage.newBuilder().setExecuteRefreshStream( executorRefreshStream ).setSCALEFACTOR( SCALE_FACTOR ).setStreams( streams ).setFirstStream( firstStream ).setTotalStreams( totalStreams ).setMaxConcurrentQueries( maxConcurrentQueries ).setExecuteRefreshFunctions( executeRefreshFunctions ).setRefreshBatchSize( refreshBatchSize ).setQueryTimeout( queryTimeout ).setStreamTimeout( streamTimeout ).setValidateResults( validateResults )
+                .setProfileSampling( profileSampling ).addAllProfiledQueries( profiledQueries ).build();
         return LaunchWorkerMessage.newBuilder().setDbInfo( dbInfo ).setScenario( Scenario.SCENARIOTPCH ).setTpchWorkerMessage( workerMessage ).build();
     }
 
@@ -138,15 +215,43 @@ public static MUSQLEResultTuple MusqleResultTuple( long startTime, float respons
      * @param system Which system is to be benchmarked
      * @param accessMethod accessmethod to be used
      * @param streams how many streams should be executed
+     * @param firstStream number of the first stream of this worker, streams are numbered from 1 across all workers
+     * @param totalStreams number of streams across all workers
+     * @param queryTimeout seconds a query may take, 0 for no limit
      */
     public static LaunchWorkerMessage MusqleWorkerMessage( String dbHost, int port,
-            String database, String username, String password, DBMSSystem system, AccessMethod accessMethod, double SCALE_FACTOR, int streams ) {
+            String database, String username, String password, DBMSSystem system, AccessMethod accessMethod, double SCALE_FACTOR, int streams, int firstStream, int totalStreams, int queryTimeout ) {
         DBInfo dbInfo = DBInfo.newBuilder().setDbHost( dbHost ).setDbPort( port ).setDatabase( database ).setUsername( username ).setPassword( password ).setSystem( system ).setAccessMethod( accessMethod ).build();
-        MUSQLEWorkerMessage workerMessage = MUSQLEWorkerMessage.newBuilder().setSCALEFACTOR( SCALE_FACTOR ).setStreams( streams ).build();
+        MUSQLEWorkerMessage workerMessage = MUSQLEWorkerMessage.newBuilder().setSCALEFACTOR( SCALE_FACTOR ).setStreams( streams ).setFirstStream( firstStream ).setTotalStreams( totalStreams ).setQueryTimeout( queryTimeout ).build();
         return LaunchWorkerMessage.newBuilder().setDbInfo( dbInfo ).setScenario( Scenario.SCENARIOMUSQLE ).setMusqleWorkerMessage( workerMessage ).build();
     }
 
 
+    /**
+     * @param startTime timestamp when the query started
+     * @param responseTime how long the query took to execute
+     * @param queryID number of the CH-benCHmark query
+     * @param stream analytical stream which executed the query
+     * @param aborted if the query was aborted
+     */
+    public static CHResultTuple CHResultTuple( long startTime, float responseTime, int queryID, int stream, boolean aborted ) {
+        return CHResultTuple.newBuilder().setAborted( aborted ).setQueryID( queryID ).setStream( stream ).setResponseTime( responseTime ).setStartTimestamp( startTime ).build();
+    }
+
+
+    /**
+     * @param streams how many analytical streams the worker executes
+     * @param firstStream number of the first stream of this worker
+     * @param streamPacing ms between the starts of two queries of a stream, 0 to run them back-to-back
+     * @param queryTimeout seconds a query may take, 0 for no limit
+     */
+    public static LaunchWorkerMessage CHWorkerMessage( String dbHost, int port, String database, String username, String password, DBMSSystem system, AccessMethod accessMethod, int streams, int firstStream, long streamPacing, int queryTimeout ) {
+        DBInfo dbInfo = DBInfo.newBuilder().setDbHost( dbHost ).setDbPort( port ).setDatabase( database ).setUsername( username ).setPassword( password ).setSystem( system ).setAccessMethod( accessMethod ).build();
+        CHWorkerMessage workerMessage = CHWorkerMessage.newBuilder().setStreams( streams ).setFirstStream( firstStream ).setStreamPacing( streamPacing ).setQueryTimeout( queryTimeout ).build();
+        return LaunchWorkerMessage.newBuilder().setDbInfo( dbInfo ).setScenario( Scenario.SCENARIOCHBENCHMARK ).setChWorkerMessage( workerMessage ).build();
+    }
+
+
     /**
      * @param url where netdata is running. We expect netdata on the default port.
      * @param options List of things you want Netdata to Measure
@@ -194,6 +299,11 @@ public static FetchResultsMessage createFetchMusqleMessage( long start, long sto
     }
 
 
+    public static FetchResultsMessage createFetchCHMessage( long start, long stop ) {
+        return FetchResultsMessage.newBuilder().setStartTime( start ).setStopTime( stop ).setScenario( Scenario.SCENARIOCHBENCHMARK ).setFetchChMessage( FetchCHResultsMessage.newBuilder().build() ).build();
+    }
+
+
     public static FetchResultsMessage FetchYCSBResultsMessage( long start, long stop ) {
         return FetchResultsMessage.newBuilder().setStartTime( start ).setStopTime( stop ).setScenario( Scenario.SCENARIOYCSB ).setFetchYcsbMessage( FetchYCSBResultsMessage.newBuilder().build() ).build();
     }
@@ -217,4 +327,17 @@ public static AckMessage okACK() {
     public static ProgressMessage ProgressMessage( boolean isFinished, int executedQueries ) {
         return ProgressMessage.newBuilder().setIsFinished( isFinished ).setExecutedQueries( executedQueries ).build();
     }
+
+
+    /**
+     * @param calibrationTime how long the worker should calibrate in ms
+     */
+    public static CapacityRequestMessage CapacityRequestMessage( long calibrationTime, LaunchWorkerMessage worker ) {
+        return CapacityRequestMessage.newBuilder().setCalibrationTime( calibrationTime ).setWorker( worker ).build();
+    }
+
+
+    public static CapacityMessage CapacityMessage( int cores, long maxMemory, double systemLoad, double calibratedThroughput ) {
+        return CapacityMessage.newBuilder().setCores( cores ).setMaxMemory( maxMemory ).setSystemLoad( systemLoad ).setCalibratedThroughput( calibratedThroughput ).build();
+    }
 }
@@ -2,17 +2,28 @@
 
 
 import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.Context;
+import io.grpc.Context.CancellableContext;
 import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.Status.Code;
 import io.grpc.netty.NettyChannelBuilder;
 import io.grpc.stub.StreamObserver;
 import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.polypheny.client.config.Config;
 import org.polypheny.client.grpc.ClientWorkerGrpc;
 import org.polypheny.client.grpc.ClientWorkerGrpc.ClientWorkerStub;
 import org.polypheny.client.grpc.PolyClientGRPC.AckMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.CHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.CapacityMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.CapacityRequestMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.FetchMonitorWorkerMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.FetchResultsMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.LaunchWorkerMessage;
@@ -35,6 +46,8 @@
 /**
  * Abstraction for the master to communicate with a Client-Worker. Imagine this as a GRPC-Wrapper.
  *
+ * Every call but the fetches has a deadline, a fetch instead needs the worker to answer heartbeats while it runs. If a worker can not be reached or does not answer in time, the call throws a {@link WorkerUnavailableException} and the worker is considered dead until the next successful call.
+ *
  * @author Silvan Heller
  */
 public class WorkerStub {
@@ -43,6 +56,7 @@ public class WorkerStub {
     private ManagedChannel channel;
     private Logger logger = LogManager.getLogger();
     private String host;
+    private volatile boolean alive = true;
 
 
     /**
@@ -73,7 +87,7 @@ public WorkerStub( String host ) {
      */
     public synchronized AckMessage launchWorker( LaunchWorkerMessage message ) {
         SettableFuture<AckMessage> future = SettableFuture.create();
-        this.clientStub.launchWorker( message, new LastObserver<>( future ) );
+        withDeadline( Config.RPC_LAUNCH_DEADLINE ).launchWorker( message, new LastObserver<>( future ) );
         return getFuture( future );
     }
 
@@ -83,7 +97,7 @@ public synchronized AckMessage launchWorker( LaunchWorkerMessage message ) {
      */
     public synchronized void stopWorker( StopWorkerMessage stopWorkerMessage ) {
         SettableFuture<AckMessage> future = SettableFuture.create();
-        this.clientStub.stopWorker( stopWorkerMessage, new LastObserver<>( future ) );
+        withDeadline( Config.RPC_DEADLINE ).stopWorker( stopWorkerMessage, new LastObserver<>( future ) );
         getFuture( future );
     }
 
@@ -91,9 +105,9 @@ public synchronized void stopWorker( StopWorkerMessage stopWorkerMessage ) {
     /**
      * @param writer each {@link TPCCResultTuple} will be written to this writer
      */
-    public synchronized void writeTPCCResults( StreamWriter<TPCCResultTuple> writer, FetchResultsMessage fetchMessage ) {
+    public synchronized void writeTPCCResults( StreamObserver<TPCCResultTuple> writer, FetchResultsMessage fetchMessage ) {
         SettableFuture<Boolean> future = SettableFuture.create();
-        this.clientStub.fetchResults( fetchMessage, new StreamObserver<ResultMessage>() {
+        fetch( stub -> stub.fetchResults( fetchMessage, new StreamObserver<ResultMessage>() {
 
             @Override
             public void onNext( ResultMessage resultMessage ) {
@@ -113,8 +127,7 @@ public void onError( Throwable throwable ) {
             public void onCompleted() {
                 future.set( true );
             }
-        } );
-        getFuture( future );
+        } ), future );
     }
 
 
@@ -125,7 +138,7 @@ public void onCompleted() {
      */
     public synchronized void writeTPCHResults( StreamWriter<TPCHResultTuple> writer, FetchResultsMessage fetchMessage ) {
         SettableFuture<Boolean> future = SettableFuture.create();
-        this.clientStub.fetchResults( fetchMessage, new StreamObserver<ResultMessage>() {
+        fetch( stub -> stub.fetchResults( fetchMessage, new StreamObserver<ResultMessage>() {
 
             @Override
             public void onNext( ResultMessage resultMessage ) {
@@ -145,21 +158,14 @@ public void onError( Throwable throwable ) {
             public void onCompleted() {
                 future.set( true );
             }
-        } );
-        getFuture( future );
+        } ), future );
     }
 
 
     public synchronized void writeYCSBResults( File storage, FetchResultsMessage fetchMessage ) throws IOException {
         SettableFuture<Boolean> future = SettableFuture.create();
         StreamWriter<ResultMessage> storer = new StreamWriter<>( future, storage, ResultMessage.class );
-        this.clientStub.fetchResults( fetchMessage, storer );
-        try {
-            future.get(); //Waits until completion
-        } catch ( InterruptedException | ExecutionException e ) {
-            logger.error( "RPC Error while writing YCSB Results" );
-            throw new RuntimeException( e );
-        }
+        fetch( stub -> stub.fetchResults( fetchMessage, storer ), future );
     }
 
 
@@ -170,7 +176,7 @@ public synchronized void writeYCSBResults( File storage, FetchResultsMessage fet
      */
     public synchronized void writeMusqleResults( StreamWriter<MUSQLEResultTuple> writer, FetchResultsMessage fetchMessage ) {
         SettableFuture<Boolean> future = SettableFuture.create();
-        this.clientStub.fetchResults( fetchMessage, new StreamObserver<ResultMessage>() {
+        fetch( stub -> stub.fetchResults( fetchMessage, new StreamObserver<ResultMessage>() {
 
             @Override
             public void onNext( ResultMessage resultMessage ) {
@@ -190,8 +196,38 @@ public void onError( Throwable throwable ) {
             public void onCompleted() {
                 future.set( true );
             }
-        } );
-        getFuture( future );
+        } ), future );
+    }
+
+
+    /**
+     * Write all results to a streamwriter
+     *
+     * @param writer each {@link CHResultTuple} will be written to this writer
+     */
+    public synchronized void writeCHResults( StreamWriter<CHResultTuple> writer, FetchResultsMessage fetchMessage ) {
+        SettableFuture<Boolean> future = SettableFuture.create();
+        fetch( stub -> stub.fetchResults( fetchMessage, new StreamObserver<ResultMessage>() {
+
+            @Override
+            public void onNext( ResultMessage resultMessage ) {
+                for ( CHResultTuple tuple : resultMessage.getChResultMessage().getResultsList() ) {
+                    writer.onNext( tuple );
+                }
+            }
+
+
+            @Override
+            public void onError( Throwable throwable ) {
+                future.setException( throwable );
+            }
+
+
+            @Override
+            public void onCompleted() {
+                future.set( true );
+            }
+        } ), future );
     }
 
 
@@ -201,14 +237,24 @@ public void onCompleted() {
     public synchronized void launchWorkerMonitor( MonitorWorkerMessage workerMessage ) {
         logger.trace( "Launching worker monitor @ {}", workerMessage.getUrl() );
         SettableFuture<AckMessage> future = SettableFuture.create();
-        this.clientStub.monitorWorker( workerMessage, new LastObserver<>( future ) );
+        withDeadline( Config.RPC_DEADLINE ).monitorWorker( workerMessage, new LastObserver<>( future ) );
         getFuture( future );
     }
 
 
     public synchronized ProgressMessage reportProgress( ProgressRequestMessage requestMessage ) {
         SettableFuture<ProgressMessage> future = SettableFuture.create();
-        this.clientStub.progressReport( requestMessage, new LastObserver<>( future ) );
+        withDeadline( Config.RPC_DEADLINE ).progressReport( requestMessage, new LastObserver<>( future ) );
+        return getFuture( future );
+    }
+
+
+    /**
+     * Asks the worker for its cores, memory, load and optionally a calibrated throughput
+     */
+    public synchronized CapacityMessage reportCapacity( CapacityRequestMessage requestMessage ) {
+        SettableFuture<CapacityMessage> future = SettableFuture.create();
+        withDeadline( Config.RPC_DEADLINE + requestMessage.getCalibrationTime() ).capacity( requestMessage, new LastObserver<>( future ) );
         return getFuture( future );
     }
 
@@ -224,7 +270,7 @@ public synchronized void launchWorkerMonitor( PolyphenyJobCdl job ) {
 
     private synchronized void writeWorkerMonitorResult( StreamWriter<NetdataMeasurement> writer, FetchMonitorWorkerMessage fetchMessage ) {
         SettableFuture<Boolean> future = SettableFuture.create();
-        this.clientStub.fetchMonitorResults( fetchMessage, new StreamObserver<WorkerMonitorResult>() {
+        fetch( stub -> stub.fetchMonitorResults( fetchMessage, new StreamObserver<WorkerMonitorResult>() {
 
             @Override
             public void onNext( WorkerMonitorResult workerMonitorResult ) {
@@ -244,8 +290,7 @@ public void onError( Throwable throwable ) {
             public void onCompleted() {
                 future.set( true );
             }
-        } );
-        getFuture( future );
+        } ), future );
     }
 
 
@@ -278,15 +323,93 @@ public void launchDBMonitor( PolyphenyJobCdl job ) {
     }
 
 
+    /**
+     * @param deadline ms until the call is cancelled
+     */
+    private ClientWorkerStub withDeadline( long deadline ) {
+        return this.clientStub.withDeadlineAfter( deadline, TimeUnit.MILLISECONDS );
+    }
+
+
+    /**
+     * Runs a fetch without a deadline, streaming all results can take longer than any deadline. While the fetch runs, the worker has to answer a heartbeat every {@link Config#RPC_DEADLINE} ms, otherwise the fetch is cancelled and the worker is unavailable.
+     *
+     * @param call starts the fetch, completing the future when it is done
+     */
+    private <T> T fetch( Consumer<ClientWorkerStub> call, SettableFuture<T> future ) {
+        CancellableContext context = Context.current().withCancellation();
+        context.run( () -> call.accept( clientStub ) );
+        try {
+            while ( !future.isDone() ) {
+                try {
+                    future.get( Config.RPC_DEADLINE, TimeUnit.MILLISECONDS );
+                } catch ( TimeoutException e ) {
+                    heartbeat();
+                } catch ( ExecutionException e ) {
+                    //Handled by getFuture
+                }
+            }
+        } catch ( InterruptedException e ) {
+            context.cancel( e );
+            throw new RuntimeException( e );
+        } catch ( WorkerUnavailableException e ) {
+            context.cancel( e );
+            throw e;
+        }
+        context.cancel( null );
+        return getFuture( future );
+    }
+
+
+    /**
+     * A capacity request without calibration, any answer shows that the worker is alive
+     */
+    private void heartbeat() {
+        SettableFuture<CapacityMessage> future = SettableFuture.create();
+        withDeadline( Config.RPC_DEADLINE ).capacity( CapacityRequestMessage.getDefaultInstance(), new LastObserver<>( future ) );
+        try {
+            future.get();
+        } catch ( InterruptedException e ) {
+            throw new RuntimeException( e );
+        } catch ( ExecutionException e ) {
+            Code code = Status.fromThrowable( e.getCause() ).getCode();
+            if ( code == Code.UNAVAILABLE || code == Code.DEADLINE_EXCEEDED ) {
+                logger.error( "Worker {} did not answer the heartbeat during a fetch: {}", host, code );
+                alive = false;
+                throw new WorkerUnavailableException( host, e.getCause() );
+            }
+        }
+        logger.debug( "Worker {} is still fetching", host );
+    }
+
+
     private <T> T getFuture( SettableFuture<T> future ) {
         try {
-            return future.get();
-        } catch ( InterruptedException | ExecutionException e ) {
+            T result = future.get();
+            alive = true;
+            return result;
+        } catch ( InterruptedException e ) {
+            throw new RuntimeException( e );
+        } catch ( ExecutionException e ) {
+            Code code = Status.fromThrowable( e.getCause() ).getCode();
+            if ( code == Code.UNAVAILABLE || code == Code.DEADLINE_EXCEEDED ) {
+                logger.error( "Worker {} did not respond: {}", host, code );
+                alive = false;
+                throw new WorkerUnavailableException( host, e.getCause() );
+            }
             throw new RuntimeException( e );
         }
     }
 
 
+    /**
+     * @return false if the last call to this worker failed because it was unreachable or too slow
+     */
+    public boolean isAlive() {
+        return alive;
+    }
+
+
     /**
      * Close connection to worker
      */
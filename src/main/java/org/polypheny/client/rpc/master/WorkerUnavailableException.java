@@ -0,0 +1,21 @@
+package org.polypheny.client.rpc.master;
+
+
+/**
+ * Thrown by the {@link WorkerStub} if a worker could not be reached or did not answer within the deadline of a call. The master should treat the worker as failed.
+ */
+public class WorkerUnavailableException extends RuntimeException {
+
+    private final String host;
+
+
+    WorkerUnavailableException( String host, Throwable cause ) {
+        super( "Worker " + host + " is unavailable", cause );
+        this.host = host;
+    }
+
+
+    public String getHost() {
+        return host;
+    }
+}
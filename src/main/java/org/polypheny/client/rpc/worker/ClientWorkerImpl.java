@@ -13,6 +13,8 @@
 import org.polypheny.client.grpc.ClientWorkerGrpc.ClientWorkerImplBase;
 import org.polypheny.client.grpc.PolyClientGRPC;
 import org.polypheny.client.grpc.PolyClientGRPC.AckMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.CapacityMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.CapacityRequestMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.FetchMonitorWorkerMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.FetchResultsMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.LaunchWorkerMessage;
@@ -25,6 +27,7 @@
 import org.polypheny.client.monitoring.NetdataMonitor;
 import org.polypheny.client.rpc.ProtoObjectFactory;
 import org.polypheny.client.scenarios.Worker;
+import org.polypheny.client.scenarios.chbenchmark.worker.CHWorker;
 import org.polypheny.client.scenarios.musqle.worker.MusqleWorker;
 import org.polypheny.client.scenarios.tpcc.worker.TPCCWorker;
 import org.polypheny.client.scenarios.tpch.worker.TPCHWorker;
@@ -74,6 +77,9 @@ public void launchWorker( LaunchWorkerMessage request, StreamObserver<AckMessage
                 case SCENARIOMUSQLE:
                     worker = new MusqleWorker( request );
                     break;
+                case SCENARIOCHBENCHMARK:
+                    worker = new CHWorker( request );
+                    break;
                 default:
                     logger.debug( "Scenario " + request.getScenario() + " not supported" );
                     responseObserver.onError( new IllegalArgumentException( "Scenario " + request.getScenario() + " not supported" ) );
@@ -108,6 +114,20 @@ public void progressReport( ProgressRequestMessage request, StreamObserver<Progr
     }
 
 
+    @Override
+    public void capacity( CapacityRequestMessage request, StreamObserver<CapacityMessage> responseObserver ) {
+        logger.debug( "Received RPC Request for capacity" );
+        try {
+            responseObserver.onNext( WorkerCalibration.measure( request ) );
+            responseObserver.onCompleted();
+        } catch ( Throwable t ) {
+            logger.error( "Could not measure capacity", t );
+            responseObserver.onError( t );
+        }
+        logger.debug( "Leaving RPC Request for capacity" );
+    }
+
+
     @Override
     public void stopWorker( StopWorkerMessage request, StreamObserver<AckMessage> responseObserver ) {
         logger.debug( "Received RPC Request to stop worker" );
@@ -0,0 +1,125 @@
+package org.polypheny.client.rpc.worker;
+
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.config.TPCCConfig;
+import org.polypheny.client.db.access.ConnectionException;
+import org.polypheny.client.db.tpcc.TPCCBenchmarker;
+import org.polypheny.client.grpc.PolyClientGRPC.CapacityMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.CapacityRequestMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCWorkerMessage;
+import org.polypheny.client.rpc.ProtoObjectFactory;
+import org.polypheny.client.scenarios.tpcc.worker.TPCCWorker;
+
+
+/**
+ * Measures what a worker machine is capable of. Besides static information (cores, memory, load), a short calibration runs TPC-C terminals with the standard transaction mix against the database the worker will benchmark. The throughput includes the latency to the database and the share of the database the worker gets while the other workers calibrate at the same time, it is not the client capacity alone. The calibration transactions change the database like the warm-up of a measurement does.
+ *
+ * The calibration runs one terminal per core, but not more than fit into the memory of the worker, so a worker with many cores and little memory is not overrated.
+ */
+class WorkerCalibration {
+
+    //Heap a terminal needs for its transactions and the results it buffers
+    static final long MEMORY_PER_TERMINAL = 32L << 20;
+
+    private static final Logger logger = LogManager.getLogger();
+
+
+    static CapacityMessage measure( CapacityRequestMessage request ) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        double systemLoad = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+        double throughput = 0;
+        if ( request.getCalibrationTime() > 0 ) {
+            throughput = calibrate( terminals( cores, maxMemory ), request.getCalibrationTime(), request.getWorker().getTpccWorkerMessage(), () -> {
+                try {
+                    return TPCCWorker.createBenchmarker( request.getWorker() );
+                } catch ( ConnectionException e ) {
+                    throw new RuntimeException( e );
+                }
+            } );
+        }
+        logger.info( "Capacity: {} cores, {} bytes of memory, load {}, {} transactions/s", cores, maxMemory, systemLoad, throughput );
+        return ProtoObjectFactory.CapacityMessage( cores, maxMemory, systemLoad, throughput );
+    }
+
+
+    /**
+     * @return one terminal per core, limited by the memory, at least one
+     */
+    static int terminals( int cores, long maxMemory ) {
+        return (int) Math.max( 1, Math.min( cores, maxMemory / MEMORY_PER_TERMINAL ) );
+    }
+
+
+    /**
+     * Runs terminals back-to-back, each on its own thread and benchmarker
+     *
+     * @param terminals how many terminals run at once
+     * @param calibrationTime how long to run in ms
+     * @param workerMessage warehouses and constants of the transactions
+     * @param benchmarkers creates the benchmarker of a terminal
+     * @return transactions per second of all terminals
+     */
+    static double calibrate( int terminals, long calibrationTime, TPCCWorkerMessage workerMessage, Supplier<TPCCBenchmarker> benchmarkers ) {
+        int warehouses = workerMessage.getNUMBEROFCONFIGUREDWAREHOUSES();
+        AtomicLong transactions = new AtomicLong();
+        List<Thread> calibrationThreads = new ArrayList<>();
+        for ( int i = 0; i < terminals; i++ ) {
+            Thread thread = new Thread( () -> {
+                TPCCBenchmarker benchmarker;
+                try {
+                    benchmarker = benchmarkers.get();
+                } catch ( RuntimeException e ) {
+                    logger.error( "Could not connect a calibration terminal", e );
+                    return;
+                }
+                //Setting up the terminal is not part of the measurement
+                long stop = System.currentTimeMillis() + calibrationTime;
+                long count = 0;
+                while ( System.currentTimeMillis() < stop ) {
+                    int warehouse = ThreadLocalRandom.current().nextInt( 1, warehouses + 1 );
+                    int queryID = (int) count;
+                    try {
+                        //Mix of 5.2.3: 45% new-order, 43% payment and 4% each for the others
+                        int transaction = ThreadLocalRandom.current().nextInt( 100 );
+                        if ( transaction < 43 ) {
+                            benchmarker.paymentTransaction( queryID, warehouse, workerMessage.getCCLAST(), workerMessage.getCCID() );
+                        } else if ( transaction < 47 ) {
+                            benchmarker.deliveryTransaction( queryID, warehouse );
+                        } else if ( transaction < 51 ) {
+                            benchmarker.orderStatusTransaction( queryID, workerMessage.getCCLAST(), workerMessage.getCCID(), warehouse );
+                        } else if ( transaction < 55 ) {
+                            benchmarker.stockLevelTransaction( queryID, warehouse, ThreadLocalRandom.current().nextInt( 1, TPCCConfig.DISTRICTS_PER_WAREHOUSE + 1 ) );
+                        } else {
+                            benchmarker.newOrderTransaction( warehouse, queryID, workerMessage.getCOLIID() );
+                        }
+                    } catch ( RuntimeException e ) {
+                        //1% of the new-order transactions roll back on purpose (2.4.1.4), that is part of the work
+                        logger.trace( "Calibration transaction aborted", e );
+                    }
+                    count++;
+                }
+                benchmarker.abort();
+                transactions.addAndGet( count );
+            } );
+            calibrationThreads.add( thread );
+            thread.start();
+        }
+        for ( Thread thread : calibrationThreads ) {
+            try {
+                thread.join();
+            } catch ( InterruptedException e ) {
+                logger.warn( "Calibration interrupted" );
+            }
+        }
+        return transactions.get() * 1_000d / calibrationTime;
+    }
+}
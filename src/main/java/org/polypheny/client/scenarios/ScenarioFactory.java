@@ -8,6 +8,7 @@
 import org.polypheny.client.job.PolyphenyJob;
 import org.polypheny.client.job.PolyphenyJobCdl;
 import org.polypheny.client.job.evaluation.PolyphenyCdlOptions;
+import org.polypheny.client.scenarios.chbenchmark.CHBenchmarkScenario;
 import org.polypheny.client.scenarios.musqle.MusqleScenario;
 import org.polypheny.client.scenarios.tpcc.TPCCScenario;
 import org.polypheny.client.scenarios.tpch.TPCHScenario;
@@ -53,6 +54,8 @@ private static Scenario createScenario( PolyphenyJob polyphenyJob ) {
                 return new YCSBScenario( polyphenyJob.getCdl(), polyphenyJob.getInputDir(), polyphenyJob.getOutputDir() );
             case SCENARIOMUSQLE:
                 return new MusqleScenario( polyphenyJob.getCdl(), polyphenyJob.getInputDir(), polyphenyJob.getOutputDir(), polyphenyJob.getExecutor().getProgressListener() );
+            case SCENARIOCHBENCHMARK:
+                return new CHBenchmarkScenario( polyphenyJob.getCdl(), polyphenyJob.getInputDir(), polyphenyJob.getOutputDir(), polyphenyJob.getExecutor().getProgressListener() );
             default:
                 throw new IllegalArgumentException( "Scenario : " + scenario + " not supported" );
         }
@@ -71,6 +74,8 @@ public static Scenario createScenario( PolyphenyJobCdl polyphenyJobCdl ) {
                 return new TPCHScenario( polyphenyJobCdl );
             case SCENARIOYCSB:
                 return new YCSBScenario( polyphenyJobCdl );
+            case SCENARIOCHBENCHMARK:
+                return new CHBenchmarkScenario( polyphenyJobCdl );
             default:
                 throw new IllegalArgumentException( "Scenario : " + scenario + " not supported" );
         }
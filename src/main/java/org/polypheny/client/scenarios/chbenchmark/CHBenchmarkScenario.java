@@ -0,0 +1,227 @@
+package org.polypheny.client.scenarios.chbenchmark;
+
+
+import static org.polypheny.client.grpc.PolyClientGRPC.Scenario.SCENARIOCHBENCHMARK;
+
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.chbenchmark.HTAPCorrelation;
+import org.polypheny.client.chronos.DummyProgressListener;
+import org.polypheny.client.chronos.ProgressListener;
+import org.polypheny.client.config.Config;
+import org.polypheny.client.grpc.PolyClientGRPC.CHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.job.PolyphenyJobCdl;
+import org.polypheny.client.job.evaluation.PolyphenyCdlOptions;
+import org.polypheny.client.job.evaluation.PolyphenyCdlParams;
+import org.polypheny.client.main.analysis.TPCCAnalysis;
+import org.polypheny.client.rpc.ProtoObjectFactory;
+import org.polypheny.client.rpc.master.WorkerStub;
+import org.polypheny.client.rpc.master.WorkerUnavailableException;
+import org.polypheny.client.scenarios.Scenario;
+import org.polypheny.client.scenarios.tpcc.TPCCScenario;
+import org.polypheny.client.storage.JsonStreamReader;
+import org.polypheny.client.storage.StorageGson;
+import org.polypheny.client.storage.StreamWriter;
+
+
+/**
+ * CH-benCHmark Scenario. Runs the TPC-C terminals of a {@link TPCCScenario} and analytical query streams over the TPC-C schema at the same time. Both sides are rate-controlled independently: the transactional side by the TPC-C options (terminals, pacing, arrival rate), the analytical side by the number of streams and their pacing.
+ *
+ * Either side can start later than the other, so the first intervals of the run measure the other side alone. The TPC-C side measures for the measurement time of the job, the analytical streams stop with it. Afterwards, both sides are correlated by a {@link HTAPCorrelation}.
+ *
+ * @tpccversion 5.11
+ */
+public class CHBenchmarkScenario implements Scenario {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final ProgressListener progressListener;
+    private final TPCCScenario tpcc;
+    private PolyphenyJobCdl job;
+    private File inputDir;
+    private File outputDir;
+    private Vector<WorkerStub> workers = new Vector<>();
+    private volatile boolean aborted = false;
+
+
+    public CHBenchmarkScenario( PolyphenyJobCdl cdl, File inputDir, File outputDir, ProgressListener progressListener ) {
+        this.job = cdl;
+        this.inputDir = inputDir;
+        this.progressListener = progressListener;
+        boolean mkInput = inputDir.mkdirs();
+        boolean mkOutput = outputDir.mkdirs();
+        this.outputDir = outputDir;
+        if ( mkInput || mkOutput ) {
+            logger.debug( "Some I/O directories were not created. Input {}, Output {}", mkInput, mkOutput );
+        }
+        this.tpcc = new TPCCScenario( cdl, inputDir, outputDir, progressListener );
+    }
+
+
+    /**
+     * Uses I/O Folders from the {@link PolyphenyJobCdl}
+     */
+    public CHBenchmarkScenario( PolyphenyJobCdl polyphenyJobCdl ) {
+        this( polyphenyJobCdl, new File( polyphenyJobCdl.getEvaluation().getSetup().getInputFolderPath() ), new File( polyphenyJobCdl.getEvaluation().getSetup().getOutputFolderPath() ), new DummyProgressListener() );
+    }
+
+
+    @Override
+    public Properties execute() {
+        logger.info( "Executing CH-benCHmark Scenario" );
+        PolyphenyCdlOptions options = job.getEvaluation().getOptions();
+        tpcc.setup();
+
+        long now = System.currentTimeMillis();
+        long oltpStart = now + options.getChbenchmarkOltpDelay();
+        long olapStart = now + options.getChbenchmarkOlapDelay();
+        long stop = oltpStart + job.getEvaluation().getParams().getMeasurementTime();
+        //The TPC-C scenario blocks for its measurement and fetches its own results
+        CompletableFuture<Properties> oltp = CompletableFuture.supplyAsync( () -> {
+            sleepUntil( oltpStart );
+            return aborted ? new Properties() : tpcc.measure();
+        } );
+
+        sleepUntil( olapStart );
+        if ( olapStart < stop && !aborted ) {
+            logger.info( "Launching analytical streams" );
+            launchWorkers();
+        } else {
+            logger.warn( "The analytical streams would start after the TPC-C measurement, they are not launched" );
+        }
+        sleepUntil( stop );
+        stopWorkers();
+        logger.info( "Analytical streams stopped, waiting for the TPC-C measurement" );
+        Properties properties = new Properties();
+        Properties tpccProperties = oltp.join();
+        if ( tpccProperties.containsKey( "results" ) ) {
+            properties.put( "tpcc", tpccProperties.get( "results" ) );
+        }
+
+        logger.info( "Fetching results of the analytical streams" );
+        File storage = new File( getMasterStorageFolderPath(), "allresults.json" );
+        fetchResults( Math.min( oltpStart, olapStart ), stop, storage );
+
+        HTAPCorrelation correlation = new HTAPCorrelation( options.getChbenchmarkInterval(), oltpStart, olapStart, stop );
+        for ( File partition : TPCCAnalysis.findResultPartitions( tpcc.getMasterStorageFolderPath() ) ) {
+            read( partition, TPCCResultTuple.class, correlation::addTransaction );
+        }
+        read( storage, CHResultTuple.class, correlation::addQuery );
+        JsonObject results = correlation.getResults();
+        getResultFolderPath().mkdirs();
+        try ( JsonWriter writer = new JsonWriter( new OutputStreamWriter( new BufferedOutputStream( new FileOutputStream( new File( getResultFolderPath(), "htap.json" ) ) ), StandardCharsets.UTF_8 ) ) ) {
+            writer.jsonValue( results.toString() );
+        } catch ( IOException e ) {
+            logger.error( e );
+        }
+        properties.put( "htap", results );
+        return properties;
+    }
+
+
+    /**
+     * Sleeps until the given timestamp or until the scenario is aborted
+     */
+    private void sleepUntil( long timestamp ) {
+        long wait;
+        while ( !aborted && (wait = timestamp - System.currentTimeMillis()) > 0 ) {
+            try {
+                Thread.sleep( Math.min( wait, 1_000 ) );
+            } catch ( InterruptedException e ) {
+                throw new RuntimeException( e );
+            }
+        }
+    }
+
+
+    /**
+     * Launches the analytical streams on the workers, using {@link PolyphenyCdlParams#getWorkerURLs()}. Each worker runs the same number of streams, streams are numbered from 1 across all workers.
+     */
+    private void launchWorkers() {
+        PolyphenyCdlOptions options = job.getEvaluation().getOptions();
+        String[] workerURLs = job.getEvaluation().getParams().getWorkerURLs();
+        int streams = options.getChbenchmarkStreams();
+        for ( int i = 0; i < workerURLs.length; i++ ) {
+            WorkerStub worker = new WorkerStub( workerURLs[i] );
+            workers.add( worker );
+            logger.debug( "Launching streams {} to {} on worker {}", i * streams + 1, (i + 1) * streams, worker.getHost() );
+            worker.launchWorker( ProtoObjectFactory.CHWorkerMessage( job.getEvaluation().getDbms().getHost(), job.getEvaluation().getDbms().getPort(), job.getEvaluation().getDbms().getDatabase(), job.getEvaluation().getDbms().getUsername(),
+                    job.getEvaluation().getDbms().getPassword(), options.getSystem(), options.getAccessMethod(), streams, i * streams + 1, options.getChbenchmarkStreamPacing(), options.getChbenchmarkQueryTimeout() ) );
+        }
+    }
+
+
+    private void stopWorkers() {
+        for ( WorkerStub worker : workers ) {
+            try {
+                worker.stopWorker( ProtoObjectFactory.StopWorkerMessage( SCENARIOCHBENCHMARK ) );
+            } catch ( WorkerUnavailableException e ) {
+                logger.error( "Could not stop the analytical streams of worker {}", worker.getHost() );
+            }
+        }
+    }
+
+
+    /**
+     * @param start lower bound for result-timestamp
+     * @param stop upper bound for result-timestamp
+     * @param storage file the results of all workers are written to
+     */
+    private void fetchResults( long start, long stop, File storage ) {
+        storage.getParentFile().mkdirs();
+        StreamWriter<CHResultTuple> writer = new StreamWriter<>( SettableFuture.create(), storage, CHResultTuple.class );
+        for ( WorkerStub workerStub : workers ) {
+            logger.debug( "Fetching results for worker {}", workerStub.getHost() );
+            try {
+                workerStub.writeCHResults( writer, ProtoObjectFactory.createFetchCHMessage( start, stop ) );
+            } catch ( WorkerUnavailableException e ) {
+                logger.error( "Skipping results of failed worker {}", workerStub.getHost() );
+            }
+        }
+        writer.onCompleted();
+    }
+
+
+    private static <T> void read( File file, Class<T> type, Consumer<T> consumer ) {
+        JsonStreamReader<T> reader = new JsonStreamReader<>( file, type, StorageGson.getGson() );
+        reader.start();
+        while ( reader.hasNext() ) {
+            reader.readFromStream( 1_000 ).forEach( consumer );
+        }
+        reader.cleanup();
+    }
+
+
+    private File getResultFolderPath() {
+        return Paths.get( outputDir.getPath(), "results", "chbenchmark", job.getEvaluation().getOptions().getSystem().toString() ).toFile();
+    }
+
+
+    private File getMasterStorageFolderPath() {
+        return Paths.get( Config.DEFAULT_MASTER_STORAGE_LOCATION, "results", "chbenchmark", job.getEvaluation().getOptions().getSystem().toString() ).toFile();
+    }
+
+
+    @Override
+    public void abort() {
+        logger.warn( "Aborting CH-benCHmark Scenario" );
+        aborted = true;
+        tpcc.abort();
+        stopWorkers();
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Core logic implementation of the CH-benCHmark Scenario, a mixed transactional and analytical workload. Master code is @ {@link org.polypheny.client.scenarios.chbenchmark.CHBenchmarkScenario}. The transactional side runs on the TPC-C workers, the analytical streams in the worker package.
+ *
+ * @tpccversion 5.11
+ */
+
+package org.polypheny.client.scenarios.chbenchmark;
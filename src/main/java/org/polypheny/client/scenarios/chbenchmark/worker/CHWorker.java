@@ -0,0 +1,137 @@
+package org.polypheny.client.scenarios.chbenchmark.worker;
+
+
+import io.grpc.stub.StreamObserver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.db.access.ConnectionException;
+import org.polypheny.client.db.access.DBConnector;
+import org.polypheny.client.db.access.JDBCPostgresConnector;
+import org.polypheny.client.db.access.PolyphenyDbJdbcConnector;
+import org.polypheny.client.db.access.RESTConnector;
+import org.polypheny.client.db.chbenchmark.CHBenchmarker;
+import org.polypheny.client.grpc.PolyClientGRPC.CHWorkerMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.DBInfo;
+import org.polypheny.client.grpc.PolyClientGRPC.FetchResultsMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.LaunchWorkerMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.ProgressMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.ResultMessage;
+import org.polypheny.client.rpc.ProtoObjectFactory;
+import org.polypheny.client.scenarios.Worker;
+
+
+/**
+ * Runs the analytical streams of the CH-benCHmark on a worker. The TPC-C terminals of the same run are launched separately as a TPC-C worker, which is possible since a node keeps one worker per scenario.
+ *
+ * @tpccversion 5.11
+ */
+public class CHWorker implements Worker {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final LaunchWorkerMessage workerMessage;
+    private List<Terminal> terminals = new ArrayList<>();
+    private volatile boolean running = false;
+    private AtomicInteger executedQueries = new AtomicInteger( 0 );
+
+
+    public CHWorker( LaunchWorkerMessage workerMessage ) {
+        this.workerMessage = workerMessage;
+    }
+
+
+    /**
+     * Launches one {@link Terminal} per stream, numbered from {@link CHWorkerMessage#getFirstStream()}
+     */
+    @Override
+    public void start() {
+        running = true;
+        logger.info( "Starting {} analytical streams", getWorkerMessage().getStreams() );
+        for ( int i = 0; i < getWorkerMessage().getStreams(); i++ ) {
+            terminals.add( new Terminal( this, getWorkerMessage().getFirstStream() + i ) );
+        }
+        for ( Terminal terminal : terminals ) {
+            new Thread( terminal ).start();
+        }
+        logger.info( "All analytical streams started" );
+    }
+
+
+    /**
+     * Stops all streams, cancelling the queries which are currently executing
+     */
+    @Override
+    public void abort() {
+        running = false;
+        for ( Terminal terminal : terminals ) {
+            terminal.cancel();
+        }
+    }
+
+
+    @Override
+    public void sendResults( StreamObserver<ResultMessage> responseObserver, FetchResultsMessage request ) {
+        for ( Terminal terminal : terminals ) {
+            terminal.sendResults( responseObserver, request );
+        }
+    }
+
+
+    CHWorkerMessage getWorkerMessage() {
+        return workerMessage.getChWorkerMessage();
+    }
+
+
+    /**
+     * Each stream gets its own benchmarker so each stream gets its own connection to the target DBMS.
+     *
+     * @param terminal the {@link Terminal} which wants to get a benchmarker
+     * @return a {@link CHBenchmarker} for the system of the worker message
+     */
+    CHBenchmarker createBenchmarker( Terminal terminal ) {
+        DBInfo dbInfo = workerMessage.getDbInfo();
+        DBConnector connector;
+        try {
+            switch ( dbInfo.getSystem() ) {
+                case SYSTEMPOSTGRESQL:
+                    connector = new JDBCPostgresConnector( dbInfo.getDbHost(), dbInfo.getDbPort(), dbInfo.getDatabase(), dbInfo.getUsername(), dbInfo.getPassword() );
+                    break;
+                case SYSTEMPOLYPHENY:
+                    connector = new PolyphenyDbJdbcConnector( dbInfo.getDbHost(), dbInfo.getDbPort(), dbInfo.getDatabase(), dbInfo.getUsername(), dbInfo.getPassword(), "false" );
+                    break;
+                case SYSTEMICARUS:
+                    connector = new RESTConnector( dbInfo.getDbHost(), dbInfo.getDbPort() );
+                    break;
+                default:
+                    logger.error( "System {} not supported", dbInfo.getSystem() );
+                    throw new UnsupportedOperationException();
+            }
+        } catch ( ConnectionException e ) {
+            logger.fatal( "could not create a benchmarker for terminal {}", terminal.toString() );
+            throw new RuntimeException( e );
+        }
+        CHBenchmarker benchmarker = new CHBenchmarker( connector );
+        benchmarker.setQueryTimeout( getWorkerMessage().getQueryTimeout() );
+        return benchmarker;
+    }
+
+
+    void queryExecuted() {
+        executedQueries.incrementAndGet();
+    }
+
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+
+    @Override
+    public ProgressMessage progress() {
+        return ProtoObjectFactory.ProgressMessage( !running, executedQueries.get() );
+    }
+}
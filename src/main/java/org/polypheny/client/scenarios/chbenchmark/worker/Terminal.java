@@ -0,0 +1,143 @@
+package org.polypheny.client.scenarios.chbenchmark.worker;
+
+
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.stub.StreamObserver;
+import java.io.File;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.config.Config;
+import org.polypheny.client.db.chbenchmark.CHBenchmarker;
+import org.polypheny.client.db.chbenchmark.CHQueries;
+import org.polypheny.client.grpc.PolyClientGRPC.CHResultMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.CHResultMessage.Builder;
+import org.polypheny.client.grpc.PolyClientGRPC.CHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.FetchResultsMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.ResultMessage;
+import org.polypheny.client.storage.JsonStreamReader;
+import org.polypheny.client.storage.StorageGson;
+import org.polypheny.client.storage.StreamWriter;
+
+
+/**
+ * One analytical stream of the CH-benCHmark. Executes the {@link CHQueries} in a loop until it is stopped. Is controlled by a {@link CHWorker}.
+ *
+ * @tpccversion 5.11
+ */
+public class Terminal implements Runnable {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final CHWorker worker;
+    private final int stream;
+    private volatile boolean running = false;
+    private volatile boolean stopped = false;
+    private CHBenchmarker benchmarker;
+    private StreamWriter<CHResultTuple> resultWriter;
+    private JsonStreamReader<CHResultTuple> resultReader;
+
+
+    /**
+     * @param stream number of the stream, unique across all workers
+     */
+    Terminal( CHWorker worker, int stream ) {
+        this.worker = worker;
+        this.stream = stream;
+        this.benchmarker = worker.createBenchmarker( this );
+        File storageFolder = new File( new File( Config.DEFAULT_WORKER_STORAGE_LOCATION ), "chbenchmark" );
+        if ( !storageFolder.mkdirs() ) {
+            logger.trace( "Storage Folder {} was not created", storageFolder.getPath() );
+        }
+        File storage = new File( storageFolder, stream + ".json" );
+        resultWriter = new StreamWriter<>( SettableFuture.create(), storage, CHResultTuple.class );
+        resultReader = new JsonStreamReader<>( storage, CHResultTuple.class, StorageGson.getGson() );
+    }
+
+
+    /**
+     * Executes the queries of the stream. If the stream is paced, each query waits for its scheduled start and late queries start immediately, like paced TPC-C terminals.
+     */
+    @Override
+    public void run() {
+        running = !stopped;
+        long pacing = worker.getWorkerMessage().getStreamPacing();
+        long nextStart = System.currentTimeMillis();
+        long position = 0;
+        while ( running ) {
+            if ( pacing > 0 ) {
+                long wait = nextStart - System.currentTimeMillis();
+                nextStart += pacing;
+                if ( wait > 0 ) {
+                    try {
+                        Thread.sleep( wait );
+                    } catch ( InterruptedException e ) {
+                        logger.debug( "Stream {} interrupted while waiting for its next query", stream );
+                    }
+                }
+                if ( !running ) {
+                    break;
+                }
+            }
+            CHResultTuple tuple = benchmarker.executeQuery( CHQueries.queryForStream( stream, position++ ), stream );
+            resultWriter.onNext( tuple );
+            worker.queryExecuted();
+            logger.trace( "Stream {}: Q{} took {} ms", stream, tuple.getQueryID(), tuple.getResponseTime() );
+        }
+        benchmarker.abort();
+    }
+
+
+    /**
+     * Stops execution
+     */
+    public void stop() {
+        resultWriter.onCompleted();
+        this.stopped = true;
+        this.running = false;
+    }
+
+
+    /**
+     * Stops execution and cancels the query which is currently executing
+     */
+    public void cancel() {
+        stop();
+        benchmarker.cancel();
+    }
+
+
+    /**
+     * @param responseObserver The stored results will be sent to this StreamObserver
+     * @param request Information about which results you want fetched
+     */
+    public void sendResults( StreamObserver<ResultMessage> responseObserver, FetchResultsMessage request ) {
+        resultReader.reset();
+        Builder builder = CHResultMessage.newBuilder();
+
+        resultReader.start();
+
+        int counter = 0;
+        while ( resultReader.hasNext() ) {
+            //Iterate in batches of 100
+            for ( CHResultTuple tuple : resultReader.readFromStream( 100 ) ) {
+                if ( request.getStartTime() < tuple.getStartTimestamp() && request.getStopTime() > tuple.getStartTimestamp() ) {
+                    counter++;
+                    builder.addResults( tuple );
+                    if ( counter % 100 == 0 ) {
+                        responseObserver.onNext( ResultMessage.newBuilder().setChResultMessage( builder.build() ).build() );
+                        builder.clear();
+                    }
+                }
+            }
+        }
+        responseObserver.onNext( ResultMessage.newBuilder().setChResultMessage( builder.build() ).build() );
+    }
+
+
+    @Override
+    public String toString() {
+        return "Terminal{" +
+                "stream=" + stream +
+                '}';
+    }
+}
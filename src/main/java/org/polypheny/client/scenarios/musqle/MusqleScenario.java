@@ -6,6 +6,7 @@
 import java.nio.file.Paths;
 import java.util.Properties;
 import java.util.Vector;
+import java.util.stream.IntStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.polypheny.client.analysis.musqle.MusqleAnalysis;
@@ -20,15 +21,17 @@
 import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEResultTuple;
 import org.polypheny.client.job.PolyphenyJobCdl;
 import org.polypheny.client.job.evaluation.PolyphenyCdlParams;
+import org.polypheny.client.main.analysis.TPCCAnalysis;
 import org.polypheny.client.monitoring.NetdataMonitorAdmin;
 import org.polypheny.client.rpc.ProtoObjectFactory;
 import org.polypheny.client.rpc.master.WorkerStub;
+import org.polypheny.client.rpc.master.WorkerUnavailableException;
 import org.polypheny.client.scenarios.Scenario;
 import org.polypheny.client.storage.StreamWriter;
 
 
 /**
- * MuSQLE Scenario. You can think of this class as the 'master' in the distributed setup.
+ * MuSQLE Scenario. You can think of this class as the 'master' in the distributed setup. The query streams are sharded across the workers, each worker runs a range of streams and the results of all workers are fetched concurrently, each into its own partition.
  *
  * @author Marco Vogt
  */
@@ -55,8 +58,6 @@ public MusqleScenario( PolyphenyJobCdl cdl, File inputDir, File outputDir, Progr
         }
         getResultFolderPath().mkdirs();
         getStorageFolderPath().mkdirs();
-        File storage = new File( getStorageFolderPath(), "allresults.json" );
-        resultWriter = new StreamWriter<>( SettableFuture.create(), storage, MUSQLEResultTuple.class );
     }
 
 
@@ -69,17 +70,25 @@ public MusqleScenario( PolyphenyJobCdl polyphenyJobCdl ) {
 
 
     private File getResultFolderPath() {
-        return Paths.get( outputDir.getPath(), "results", "tpch", job.getEvaluation().getOptions().getSystem().toString() ).toFile();
+        return Paths.get( outputDir.getPath(), "results", "musqle", job.getEvaluation().getOptions().getSystem().toString() ).toFile();
     }
 
 
     @Override
     public Properties execute() {
         MusqleBenchmarker benchmarker = generateBenchmarker();
+        for ( File partition : TPCCAnalysis.findResultPartitions( getStorageFolderPath() ) ) {
+            if ( !partition.delete() ) {
+                logger.warn( "Could not delete old results {}", partition );
+            }
+        }
+        //Results of the power test, the workers store theirs in allresults_<n>.json
+        resultWriter = new StreamWriter<>( SettableFuture.create(), new File( getStorageFolderPath(), "allresults.json" ), MUSQLEResultTuple.class );
 
         if ( Config.EXECUTE_POWER_TEST ) {
             powerTest( benchmarker );
         }
+        resultWriter.onCompleted();
 
         launchWorkers(); //throughput test
 
@@ -122,9 +131,10 @@ private File getStorageFolderPath() {
     public void powerTest( MusqleBenchmarker benchmarker ) {
         logger.info( "Executing Power test" );
         //QueryStream00
-        for ( int i = 1; i <= 18; i++ ) {
-            logger.info( "Executing query {}", i );
-            MUSQLEResultTuple tupleQ = benchmarker.genericQueryExecutor( i );
+        for ( int i = 0; i < MusqleBenchmarker.QUERIES; i++ ) {
+            int queryID = MusqleBenchmarker.queryForStream( 0, i );
+            logger.info( "Executing query {}", queryID );
+            MUSQLEResultTuple tupleQ = benchmarker.genericQueryExecutor( queryID );
             logTransaction( tupleQ );
         }
         logger.info( "Power test finished" );
@@ -132,6 +142,8 @@ public void powerTest( MusqleBenchmarker benchmarker ) {
 
 
     /**
+     * Fetches the results of all workers concurrently. The results of worker n are stored in allresults_&lt;n&gt;.json, failed workers are skipped so the results of the others are not lost.
+     *
      * @param start lower bound for result-timestamp
      * @param stop upper bound for result-timestamp
      */
@@ -140,20 +152,27 @@ private void fetchResults( long start, long stop ) {
         if ( !resultsFolder.mkdirs() ) {
             logger.trace( "results-Folder not created" );
         }
-        for ( WorkerStub workerStub : workers ) {
+        IntStream.range( 0, workers.size() ).parallel().forEach( i -> {
+            WorkerStub workerStub = workers.get( i );
             logger.debug( "Fetching results for worker {}", workerStub.getHost() );
-            workerStub.writeMusqleResults( this.resultWriter, ProtoObjectFactory.createFetchMusqleMessage( start, stop ) );
-        }
-        this.resultWriter.onCompleted();
+            StreamWriter<MUSQLEResultTuple> writer = new StreamWriter<>( SettableFuture.create(), new File( resultsFolder, "allresults_" + i + ".json" ), MUSQLEResultTuple.class );
+            try {
+                workerStub.writeMusqleResults( writer, ProtoObjectFactory.createFetchMusqleMessage( start, stop ) );
+            } catch ( WorkerUnavailableException e ) {
+                logger.error( "Skipping results of failed worker {}", workerStub.getHost() );
+            }
+            writer.onCompleted();
+        } );
     }
 
 
     /**
-     * Launches the MuSQLE Workers, using {@link PolyphenyCdlParams#getWorkerURLs()}.
+     * Launches the MuSQLE Workers, using {@link PolyphenyCdlParams#getWorkerURLs()}. Each worker runs the same number of streams, streams are numbered from 1 across all workers.
      */
     private void launchWorkers() {
         int noWorkers = job.getEvaluation().getParams().getWorkers();
-        logger.debug( "Launching {} workers", noWorkers );
+        int streams = job.getEvaluation().getOptions().getMusqleStreams();
+        logger.debug( "Launching {} workers with {} query streams each", noWorkers, streams );
         String[] workerURLs = job.getEvaluation().getParams().getWorkerURLs();
 
         if ( noWorkers != workerURLs.length ) {
@@ -161,9 +180,9 @@ private void launchWorkers() {
                     "the number of workers in the job is not equal to the number of URLs specified" );
         }
 
-        for ( String workerURL : workerURLs ) {
+        for ( int i = 0; i < workerURLs.length; i++ ) {
             //Create workerStub
-            WorkerStub worker = new WorkerStub( workerURL );
+            WorkerStub worker = new WorkerStub( workerURLs[i] );
             workers.add( worker );
 
             //Generate WorkerMessage
@@ -176,7 +195,10 @@ private void launchWorkers() {
                     job.getEvaluation().getOptions().getSystem(),
                     job.getEvaluation().getOptions().getAccessMethod(),
                     job.getEvaluation().getOptions().getTpchScalefactor(),
-                    job.getEvaluation().getOptions().getMusqleStreams()
+                    streams,
+                    i * streams + 1,
+                    noWorkers * streams,
+                    job.getEvaluation().getOptions().getMusqleQueryTimeout()
             );
             worker.launchWorker( workerMessage );
         }
@@ -199,7 +221,11 @@ private MusqleBenchmarker generateBenchmarker() {
     public void abort() {
         logger.warn( "Aborting MuSQLE Scenario" );
         for ( WorkerStub worker : workers ) {
-            worker.stopWorker( ProtoObjectFactory.StopWorkerMessage( PolyClientGRPC.Scenario.SCENARIOMUSQLE ) );
+            try {
+                worker.stopWorker( ProtoObjectFactory.StopWorkerMessage( PolyClientGRPC.Scenario.SCENARIOMUSQLE ) );
+            } catch ( WorkerUnavailableException e ) {
+                logger.error( "Could not stop worker {}", worker.getHost() );
+            }
         }
     }
 
@@ -4,6 +4,7 @@
 import io.grpc.stub.StreamObserver;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.polypheny.client.db.musqle.IcarusMusqleBenchmarker;
@@ -11,15 +12,15 @@
 import org.polypheny.client.grpc.PolyClientGRPC.DBMSSystem;
 import org.polypheny.client.grpc.PolyClientGRPC.FetchResultsMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.LaunchWorkerMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEWorkerMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.ProgressMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.ResultMessage;
-import org.polypheny.client.grpc.PolyClientGRPC.TPCHWorkerMessage;
 import org.polypheny.client.rpc.ProtoObjectFactory;
 import org.polypheny.client.scenarios.Worker;
 
 
 /**
- * The thread which each worker of the master-worker architecture executes. A {@link MusqleWorker} gets assigned a series of warehouses and launches {@link Terminal} for each of those.
+ * The thread which each worker of the master-worker architecture executes. A {@link MusqleWorker} gets assigned a range of streams and launches a {@link Terminal} for each of those.
  *
  * @author Marco Vogt
  */
@@ -30,26 +31,25 @@ public class MusqleWorker implements Worker {
     private final LaunchWorkerMessage workerMessage;
     private List<Terminal> terminals;
     private volatile boolean running = false;
-    private boolean runRefreshStream;
+    private AtomicInteger executedQueries = new AtomicInteger( 0 );
 
 
     public MusqleWorker( LaunchWorkerMessage workerMessage ) {
         this.workerMessage = workerMessage;
         this.terminals = new ArrayList<>();
-        runRefreshStream = workerMessage.getTpchWorkerMessage().getExecuteRefreshStream();
     }
 
 
     /**
-     * Starts the MusqleWorker. Launches {@link org.polypheny.client.grpc.PolyClientGRPC.MUSQLEWorkerMessage}@link Terminal}s per District. Launch from lower to upper bound (lower inclusive, upper exclusive)
+     * Starts the MusqleWorker. Launches one {@link Terminal} per stream, numbered from {@link MUSQLEWorkerMessage#getFirstStream()}
      */
     public void start() {
         running = true;
-        logger.info( "Starting MuSQLE Worker with {} terminals", workerMessage.getMusqleWorkerMessage().getStreams() );
+        logger.info( "Starting MuSQLE Worker with streams {} to {} of {}", getWorkerMessage().getFirstStream(), getWorkerMessage().getFirstStream() + getWorkerMessage().getStreams() - 1, getWorkerMessage().getTotalStreams() );
 
-        for ( int terminalIdx = 0; terminalIdx < workerMessage.getMusqleWorkerMessage().getStreams(); terminalIdx++ ) {
-            Terminal terminal = new Terminal( this, terminalIdx );
-            logger.info( "Starting terminal with id {}", terminalIdx );
+        for ( int i = 0; i < getWorkerMessage().getStreams(); i++ ) {
+            Terminal terminal = new Terminal( this, getWorkerMessage().getFirstStream() + i );
+            logger.info( "Starting terminal for stream {}", getWorkerMessage().getFirstStream() + i );
             terminals.add( terminal );
             new Thread( terminal ).start();
         }
@@ -58,17 +58,25 @@ public void start() {
 
 
     /**
-     * Aborts the currently running benchmark
+     * Aborts the currently running benchmark, cancelling the queries which are currently executing
      */
     public void abort() {
         logger.debug( "Aborting benchmark" );
         running = false;
         for ( Terminal terminal : terminals ) {
-            terminal.stop();
+            terminal.cancel();
         }
     }
 
 
+    /**
+     * @return seconds a query may take, 0 for no limit
+     */
+    int getQueryTimeout() {
+        return getWorkerMessage().getQueryTimeout();
+    }
+
+
     /**
      * Stream the Results back in batched fashion. Uses the {@link Terminal} for that.
      *
@@ -81,8 +89,13 @@ public void sendResults( StreamObserver<ResultMessage> responseObserver, FetchRe
     }
 
 
-    public TPCHWorkerMessage getWorkerMessage() {
-        return workerMessage.getTpchWorkerMessage();
+    public MUSQLEWorkerMessage getWorkerMessage() {
+        return workerMessage.getMusqleWorkerMessage();
+    }
+
+
+    void queryExecuted() {
+        executedQueries.incrementAndGet();
     }
 
 
@@ -108,6 +121,6 @@ public boolean isRunning() {
 
     @Override
     public ProgressMessage progress() {
-        return ProtoObjectFactory.ProgressMessage( !running, -1 );
+        return ProtoObjectFactory.ProgressMessage( !running, executedQueries.get() );
     }
 }
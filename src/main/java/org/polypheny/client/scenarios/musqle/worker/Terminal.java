@@ -19,7 +19,7 @@
 
 
 /**
- * Polypheny-Client abstraction for one TPC-CH Executor, is called terminal to mirror TPC-CH Implementation. Is controlled by a {@link MusqleWorker}
+ * Polypheny-Client abstraction for one MuSQLE query stream, is called terminal to mirror the TPC-C Implementation. Is controlled by a {@link MusqleWorker}
  *
  * @author Marco Vogt
  */
@@ -32,35 +32,36 @@ public class Terminal implements Runnable {
     private MusqleBenchmarker benchmarker;
     private StreamWriter<MUSQLEResultTuple> resultWriter;
     private JsonStreamReader<MUSQLEResultTuple> resultReader;
-    private int terminalID;
+    private int stream;
 
 
-    Terminal( MusqleWorker worker, int terminalID ) {
+    /**
+     * @param stream number of the stream, unique across all workers
+     */
+    Terminal( MusqleWorker worker, int stream ) {
         this.worker = worker;
         this.running = false;
         this.benchmarker = worker.createBenchmarker( this );
-        this.terminalID = terminalID;
-        File storageFolder = new File( new File( Config.DEFAULT_WORKER_STORAGE_LOCATION ), "terminals" );
+        this.benchmarker.setQueryTimeout( worker.getQueryTimeout() );
+        this.stream = stream;
+        File storageFolder = new File( new File( Config.DEFAULT_WORKER_STORAGE_LOCATION ), "musqle" );
         storageFolder.mkdirs();
-        File storage = new File( storageFolder, terminalID + ".json" );
+        File storage = new File( storageFolder, stream + ".json" );
         resultWriter = new StreamWriter<>( SettableFuture.create(), storage, MUSQLEResultTuple.class );
         resultReader = new JsonStreamReader<>( storage, MUSQLEResultTuple.class, StorageGson.getGson() );
     }
 
 
     /**
-     * Starts this Terminal
+     * Starts this Terminal. Runs the queries in the order of {@link MusqleBenchmarker#queryForStream(int, long)} until it is stopped.
      */
     @Override
     public void run() {
         running = true;
+        long position = 0;
         while ( running ) {
-            for ( int i = 1; i <= 18; i++ ) {
-                if ( !running ) {
-                    continue;
-                }
-                logTransaction( benchmarker.genericQueryExecutor( i ) );
-            }
+            MUSQLEResultTuple tuple = benchmarker.genericQueryExecutor( MusqleBenchmarker.queryForStream( stream, position++ ) );
+            logTransaction( tuple.toBuilder().setStream( stream ).build() );
         }
         benchmarker.abort();
     }
@@ -75,6 +76,15 @@ public void stop() {
     }
 
 
+    /**
+     * Stops execution and cancels the query which is currently executing
+     */
+    public void cancel() {
+        stop();
+        benchmarker.cancel();
+    }
+
+
     public boolean isRunning() {
         return running;
     }
@@ -91,7 +101,8 @@ private void logTransaction( MUSQLEResultTuple tuple ) {
             return;
         }
         resultWriter.onNext( tuple );
-        logger.info( "Terminal {}: Query {} took {} ms", terminalID, tuple.getQueryID(), tuple.getResponseTime() );
+        worker.queryExecuted();
+        logger.info( "Stream {}: Query {} took {} ms", stream, tuple.getQueryID(), tuple.getResponseTime() );
     }
 
 
@@ -122,4 +133,12 @@ public void sendResults( StreamObserver<ResultMessage> responseObserver, FetchRe
         }
         responseObserver.onNext( ResultMessage.newBuilder().setMusqleResultMessage( builder.build() ).build() );
     }
+
+
+    @Override
+    public String toString() {
+        return "Terminal{" +
+                "stream=" + stream +
+                '}';
+    }
 }
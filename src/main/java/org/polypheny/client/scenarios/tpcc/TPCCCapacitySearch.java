@@ -0,0 +1,231 @@
+package org.polypheny.client.scenarios.tpcc;
+
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.File;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.ResponseTimeHistogram;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+import org.polypheny.client.storage.JsonStreamReader;
+import org.polypheny.client.storage.StorageGson;
+
+
+/**
+ * Searches for the highest load under which the SUT still meets a response-time SLA. The load is expressed as terminals per district, the SLA as a percentile of the New-Order response time (5.2.5.3 requires the 90th percentile to stay below 5 seconds).
+ *
+ * The search assumes that response times grow monotonically with the load and performs a binary search between {@link #minTerminals} and {@link #maxTerminals}. Every measured point is kept so the whole throughput/latency curve can be reported.
+ *
+ * @tpccversion 5.11
+ */
+public class TPCCCapacitySearch {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Probe probe;
+    private final int minTerminals;
+    private final int maxTerminals;
+    private final double slaPercentile;
+    private final double slaResponseTime;
+    private final TreeMap<Integer, CapacityPoint> curve = new TreeMap<>();
+
+
+    /**
+     * @param probe runs a measurement for a given load
+     * @param minTerminals lowest number of terminals per district which is measured
+     * @param maxTerminals highest number of terminals per district which is measured
+     * @param slaPercentile percentile of the New-Order response time which is checked against the SLA, between 0 and 100
+     * @param slaResponseTime upper bound in ms for the New-Order percentile
+     */
+    public TPCCCapacitySearch( Probe probe, int minTerminals, int maxTerminals, double slaPercentile, double slaResponseTime ) {
+        if ( minTerminals < 1 || maxTerminals < minTerminals ) {
+            throw new IllegalArgumentException( "Invalid terminal range [" + minTerminals + ", " + maxTerminals + "]" );
+        }
+        this.probe = probe;
+        this.minTerminals = minTerminals;
+        this.maxTerminals = maxTerminals;
+        this.slaPercentile = slaPercentile;
+        this.slaResponseTime = slaResponseTime;
+    }
+
+
+    /**
+     * Performs the binary search.
+     *
+     * @return the highest measured point which met the SLA or null if already {@link #minTerminals} violates it
+     */
+    public CapacityPoint search() {
+        CapacityPoint lowest = measure( minTerminals );
+        if ( !lowest.meetsSla() ) {
+            logger.warn( "SLA already violated with {} terminals per district", minTerminals );
+            return null;
+        }
+        int lower = minTerminals;
+        int upper = maxTerminals;
+        while ( lower < upper ) {
+            int mid = lower + (upper - lower + 1) / 2;
+            if ( measure( mid ).meetsSla() ) {
+                lower = mid;
+            } else {
+                upper = mid - 1;
+            }
+        }
+        logger.info( "Maximum sustainable load is {} terminals per district", lower );
+        return curve.get( lower );
+    }
+
+
+    private CapacityPoint measure( int terminalsPerDistrict ) {
+        if ( curve.containsKey( terminalsPerDistrict ) ) {
+            return curve.get( terminalsPerDistrict );
+        }
+        logger.info( "Measuring with {} terminals per district", terminalsPerDistrict );
+        CapacityPoint point = probe.measure( terminalsPerDistrict );
+        logger.info( "{} terminals per district: {} tpmC, New-Order p{} = {} ms, meets SLA: {}", terminalsPerDistrict, point.getTpmC(), slaPercentile, point.getNewOrderPercentile(), point.meetsSla() );
+        curve.put( terminalsPerDistrict, point );
+        return point;
+    }
+
+
+    /**
+     * Reads the result partitions of a probe and condenses them into a single {@link CapacityPoint}
+     *
+     * @param results files written by the master when fetching results
+     * @param terminalsPerDistrict load under which the results were measured
+     * @param elapsedTime duration of the measurement in ms
+     * @param slaPercentile percentile of the New-Order response time which is checked against the SLA, between 0 and 100
+     * @param slaResponseTime upper bound in ms for the New-Order percentile
+     */
+    public static CapacityPoint evaluate( List<File> results, int terminalsPerDistrict, long elapsedTime, double slaPercentile, double slaResponseTime ) {
+        ResponseTimeHistogram newOrderResponseTimes = new ResponseTimeHistogram();
+        int total = 0;
+        int aborted = 0;
+        for ( File partition : results ) {
+            JsonStreamReader<TPCCResultTuple> reader = new JsonStreamReader<>( partition, TPCCResultTuple.class, StorageGson.getGson() );
+            reader.start();
+            while ( reader.hasNext() ) {
+                for ( TPCCResultTuple tuple : reader.readFromStream( 100 ) ) {
+                    total++;
+                    if ( tuple.getAborted() ) {
+                        aborted++;
+                        continue;
+                    }
+                    if ( tuple.getTransactionType() == TPCCTransactionType.TPCCTRANSACTIONNEWORDER ) {
+                        newOrderResponseTimes.record( tuple.getResponseTime() );
+                    }
+                }
+            }
+        }
+        double percentile = percentile( newOrderResponseTimes, slaPercentile );
+        double tpmC = elapsedTime > 0 ? newOrderResponseTimes.getCount() * 60_000d / elapsedTime : 0;
+        return new CapacityPoint( terminalsPerDistrict, tpmC, percentile, total == 0 ? 0 : (double) aborted / total, newOrderResponseTimes.getCount() > 0 && percentile < slaResponseTime );
+    }
+
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the percentile of the recorded response times in ms or {@link Double#NaN} if none were recorded
+     */
+    static double percentile( ResponseTimeHistogram responseTimes, double percentile ) {
+        if ( responseTimes.getCount() == 0 ) {
+            return Double.NaN;
+        }
+        return responseTimes.getPercentile( percentile );
+    }
+
+
+    /**
+     * @return every measured point, ordered by load
+     */
+    public JsonObject getResults() {
+        JsonObject results = new JsonObject();
+        results.addProperty( "slaPercentile", slaPercentile );
+        results.addProperty( "slaResponseTime", slaResponseTime );
+        JsonArray points = new JsonArray();
+        CapacityPoint best = null;
+        for ( Entry<Integer, CapacityPoint> entry : curve.entrySet() ) {
+            points.add( entry.getValue().toJson() );
+            if ( entry.getValue().meetsSla() ) {
+                best = entry.getValue();
+            }
+        }
+        results.add( "curve", points );
+        if ( best != null ) {
+            results.addProperty( "maxTerminalsPerDistrict", best.getTerminalsPerDistrict() );
+            results.addProperty( "maxTpmC", best.getTpmC() );
+        }
+        return results;
+    }
+
+
+    /**
+     * Runs the benchmark under a given load and reports what was measured.
+     */
+    public interface Probe {
+
+        CapacityPoint measure( int terminalsPerDistrict );
+    }
+
+
+    /**
+     * One point of the throughput/latency curve
+     */
+    public static class CapacityPoint {
+
+        private final int terminalsPerDistrict;
+        private final double tpmC;
+        private final double newOrderPercentile;
+        private final double abortRate;
+        private final boolean meetsSla;
+
+
+        public CapacityPoint( int terminalsPerDistrict, double tpmC, double newOrderPercentile, double abortRate, boolean meetsSla ) {
+            this.terminalsPerDistrict = terminalsPerDistrict;
+            this.tpmC = tpmC;
+            this.newOrderPercentile = newOrderPercentile;
+            this.abortRate = abortRate;
+            this.meetsSla = meetsSla;
+        }
+
+
+        public int getTerminalsPerDistrict() {
+            return terminalsPerDistrict;
+        }
+
+
+        public double getTpmC() {
+            return tpmC;
+        }
+
+
+        public double getNewOrderPercentile() {
+            return newOrderPercentile;
+        }
+
+
+        public double getAbortRate() {
+            return abortRate;
+        }
+
+
+        public boolean meetsSla() {
+            return meetsSla;
+        }
+
+
+        JsonObject toJson() {
+            JsonObject point = new JsonObject();
+            point.addProperty( "terminalsPerDistrict", terminalsPerDistrict );
+            point.addProperty( "tpmC", tpmC );
+            point.addProperty( "newOrderPercentile", newOrderPercentile );
+            point.addProperty( "abortRate", abortRate );
+            point.addProperty( "meetsSla", meetsSla );
+            return point;
+        }
+    }
+}
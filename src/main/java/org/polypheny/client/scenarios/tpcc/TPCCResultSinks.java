@@ -0,0 +1,82 @@
+package org.polypheny.client.scenarios.tpcc;
+
+
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.stub.StreamObserver;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.main.analysis.TPCCAnalysis;
+import org.polypheny.client.storage.StreamWriter;
+import org.polypheny.client.storage.columnar.TPCCColumnWriter;
+
+
+/**
+ * Where the master stores fetched TPC-C results: one JSON partition allresults_&lt;n&gt;.json per worker for {@link TPCCAnalysis} and one set of columns for all workers in {@link #COLUMNS} for ad-hoc scans.
+ *
+ * @tpccversion 5.11
+ */
+class TPCCResultSinks {
+
+    static final String COLUMNS = "columns";
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final List<StreamWriter<TPCCResultTuple>> partitions = new ArrayList<>();
+    private final TPCCColumnWriter columns;
+
+
+    /**
+     * Partitions of a previous run in the folder are deleted
+     *
+     * @param workers number of workers
+     */
+    TPCCResultSinks( File resultsFolder, int workers ) {
+        if ( !resultsFolder.mkdirs() ) {
+            logger.trace( "results-Folder not created" );
+        }
+        for ( File partition : TPCCAnalysis.findResultPartitions( resultsFolder ) ) {
+            if ( !partition.delete() ) {
+                logger.warn( "Could not delete old results {}", partition );
+            }
+        }
+        for ( int i = 0; i < workers; i++ ) {
+            partitions.add( new StreamWriter<>( SettableFuture.create(), new File( resultsFolder, "allresults_" + i + ".json" ), TPCCResultTuple.class ) );
+        }
+        columns = new TPCCColumnWriter( new File( resultsFolder, COLUMNS ) );
+    }
+
+
+    /**
+     * @return an observer which stores the results of the worker with the given index. Completing it has no effect, use {@link #close()}.
+     */
+    StreamObserver<TPCCResultTuple> forWorker( int worker ) {
+        return new StreamObserver<TPCCResultTuple>() {
+            @Override
+            public void onNext( TPCCResultTuple tuple ) {
+                partitions.get( worker ).onNext( tuple );
+                columns.append( tuple, worker );
+            }
+
+
+            @Override
+            public void onError( Throwable throwable ) {
+                logger.error( "Error while storing results of worker {}", worker, throwable );
+            }
+
+
+            @Override
+            public void onCompleted() {
+            }
+        };
+    }
+
+
+    void close() {
+        partitions.forEach( StreamWriter::onCompleted );
+        columns.close();
+    }
+}
@@ -3,14 +3,30 @@
 
 import static org.polypheny.client.grpc.PolyClientGRPC.Scenario.SCENARIOTPCC;
 
-import com.google.common.util.concurrent.SettableFuture;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.polypheny.client.analysis.tpcc.ResponseTimePercentiles;
 import org.polypheny.client.chronos.DummyProgressListener;
 import org.polypheny.client.chronos.ProgressListener;
 import org.polypheny.client.config.Config;
@@ -21,19 +37,22 @@
 import org.polypheny.client.db.tpcc.PostgresTpccBenchmarker;
 import org.polypheny.client.db.tpcc.TPCCBenchmarker;
 import org.polypheny.client.generator.tpcc.TPCCGenerator;
+import org.polypheny.client.grpc.PolyClientGRPC.CapacityMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.DBMSSystem;
 import org.polypheny.client.grpc.PolyClientGRPC.LaunchWorkerMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.Pair;
+import org.polypheny.client.grpc.PolyClientGRPC.ProgressMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.ProgressRequestMessage;
-import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCArrivalMode;
 import org.polypheny.client.job.PolyphenyJobCdl;
+import org.polypheny.client.job.evaluation.PolyphenyCdlOptions;
 import org.polypheny.client.job.evaluation.PolyphenyCdlParams;
 import org.polypheny.client.main.analysis.TPCCAnalysis;
 import org.polypheny.client.monitoring.NetdataMonitorAdmin;
 import org.polypheny.client.rpc.ProtoObjectFactory;
 import org.polypheny.client.rpc.master.WorkerStub;
+import org.polypheny.client.rpc.master.WorkerUnavailableException;
 import org.polypheny.client.scenarios.Scenario;
-import org.polypheny.client.storage.StreamWriter;
 
 
 /**
@@ -49,11 +68,25 @@ public class TPCCScenario implements Scenario {
     private static final int CC_LAST_MEASUREMENT = TPCCGenerator.getCLast( TPCCGenerator.getcRun() );
     private static final int COL_I_ID_MEASUREMENT = TPCCGenerator.getCOLIID( TPCCGenerator.getcRun() );
     private static final int CC_ID_MEASUREMENT = TPCCGenerator.getCID( TPCCGenerator.getcRun() );
+    //Constant think time of the terminals in ms
+    private static final long THINK_TIME = 1_000L;
     private final ProgressListener progressListener;
     private PolyphenyJobCdl job;
     private File inputDir;
     private File outputDir;
     private Vector<WorkerStub> workers = new Vector<>();
+    //Warehouse range of each worker, same order as workers
+    private List<Pair> partitions = new ArrayList<>();
+    //Weights from the capacity of each worker, only queried once per scenario
+    private double[] capacityWeights;
+    private int terminalsPerDistrict;
+    //Results before this timestamp have already been fetched
+    private long segmentStart;
+    private int rebalances = 0;
+    private int reassignments = 0;
+    //Workers which did not respond. Their warehouses are reassigned to the others. Thread-safe since abort() can run concurrently to the measurement
+    private Set<WorkerStub> failedWorkers = ConcurrentHashMap.newKeySet();
+    private Set<String> failedHosts = Collections.synchronizedSet( new LinkedHashSet<>() );
 
 
     public TPCCScenario( PolyphenyJobCdl cdl, File inputDir, File outputDir, ProgressListener progressListener ) {
@@ -80,27 +113,172 @@ public TPCCScenario( PolyphenyJobCdl polyphenyJobCdl ) {
     @Override
     public Properties execute() {
         logger.info( "Executing TPCC Scenario" );
+        setup();
+        return measure();
+    }
+
+
+    /**
+     * Creates and populates the schema if the job asks for it. Has to be called before {@link #measure()}.
+     */
+    public void setup() {
         TPCCBenchmarker benchmarker = generateBenchmarker();
 
         logger.info( "Generated benchmarker {}", benchmarker.getClass().getSimpleName() );
         safeSetup( benchmarker );
+    }
+
+
+    /**
+     * Launches the workers, waits for the measurement time, fetches and analyzes the results. Runs a {@link TPCCCapacitySearch} instead if the job asks for it.
+     *
+     * @return the results of the analysis
+     */
+    public Properties measure() {
+        if ( job.getEvaluation().getOptions().getTpccCapacitySearch() ) {
+            return executeCapacitySearch();
+        }
 
         logger.info( "Launching worker" );
-        launchWorkers();
+        launchWorkers( TPCCConfig.TERMINALS_PER_DISTRICT );
         logger.info( "Workers launched" );
 
         NetdataMonitorAdmin.launchMonitors( workers, job );
         logger.info( "Monitors launched" );
 
+        TPCCResultSinks resultSinks = new TPCCResultSinks( getMasterStorageFolderPath(), workers.size() );
         long start = java.lang.System.currentTimeMillis();
+        segmentStart = start;
+        awaitMeasurementTime( resultSinks );
+        logger.info( "Aborting becnhmark" );
+        abort();
+        long stop = java.lang.System.currentTimeMillis();
+
+        logger.info( "Fetching results " );
+        fetchResults( segmentStart, stop, resultSinks );
+        resultSinks.close();
+        //The analysis correlates the monitor results with the throughput
+        logger.info( "Fetching HW Monitor results" );
+        NetdataMonitorAdmin.fetchWorkerMonitorResults( getResultFolderPath(), workers, job, start, stop );
+        Properties properties = processResults( start, stop );
+        if ( !failedHosts.isEmpty() ) {
+            logger.warn( "Results are partial, workers {} failed during the run", failedHosts );
+            synchronized ( failedHosts ) {
+                properties.put( "failedWorkers", String.join( ",", failedHosts ) );
+            }
+        }
+        return properties;
+    }
+
+
+    /**
+     * Runs one measurement per probed load using {@link TPCCCapacitySearch} and writes the resulting throughput/latency curve to capacity.json
+     */
+    private Properties executeCapacitySearch() {
+        PolyphenyCdlOptions options = job.getEvaluation().getOptions();
+        long start = java.lang.System.currentTimeMillis();
+        //The monitors run on the worker machines, they keep running when the workers are relaunched for the next probe
+        AtomicBoolean monitorsLaunched = new AtomicBoolean();
+        TPCCCapacitySearch search = new TPCCCapacitySearch( terminalsPerDistrict -> {
+            logger.info( "Launching workers with {} terminals per district", terminalsPerDistrict );
+            launchWorkers( terminalsPerDistrict );
+            if ( monitorsLaunched.compareAndSet( false, true ) ) {
+                NetdataMonitorAdmin.launchMonitors( workers, job );
+            }
+            //Warm-up is not fetched at all for a probe
+            long probeStart = java.lang.System.currentTimeMillis() + options.getTpccWarmupTime();
+            awaitMeasurementTime( null );
+            abort();
+            long probeStop = java.lang.System.currentTimeMillis();
+            File probeFolder = new File( getMasterStorageFolderPath(), "capacity_" + terminalsPerDistrict );
+            fetchResults( probeStart, probeStop, probeFolder );
+            return TPCCCapacitySearch.evaluate( TPCCAnalysis.findResultPartitions( probeFolder ), terminalsPerDistrict, probeStop - probeStart, options.getTpccSlaPercentile(), options.getTpccSlaResponseTime() );
+        }, options.getTpccCapacityMinTerminals(), options.getTpccCapacityMaxTerminals(), options.getTpccSlaPercentile(), options.getTpccSlaResponseTime() );
+        search.search();
+        long stop = java.lang.System.currentTimeMillis();
+
+        JsonObject results = search.getResults();
+        getResultFolderPath().mkdirs();
+        try ( JsonWriter writer = new JsonWriter( new OutputStreamWriter( new BufferedOutputStream( new FileOutputStream( new File( getResultFolderPath(), "capacity.json" ) ) ), StandardCharsets.UTF_8 ) ) ) {
+            writer.jsonValue( results.toString() );
+        } catch ( IOException e ) {
+            logger.error( e );
+        }
+        logger.info( "Fetching HW Monitor results" );
+        NetdataMonitorAdmin.fetchWorkerMonitorResults( getResultFolderPath(), workers, job, start, stop );
+        Properties properties = new Properties();
+        properties.put( "capacity", results );
+        return properties;
+    }
+
+
+    /**
+     * Sleeps for the measurement time of the job while reporting progress of the workers. If rebalancing is enabled, the progress of the workers is compared after every interval of the warm-up, the relaunch of a rebalance would otherwise disturb the measured transactions. The warehouses of failed workers are reassigned at any time, at most {@link Config#TPCC_MAX_REASSIGNMENTS} times.
+     *
+     * @param resultSinks where results are fetched to before workers are relaunched. null disables rebalancing
+     */
+    private void awaitMeasurementTime( TPCCResultSinks resultSinks ) {
         long elapsedTime = 0;
         long SLEEP_TIME = 10_000;
+        double rebalanceThreshold = job.getEvaluation().getOptions().getTpccRebalanceThreshold();
+        long warmupTime = job.getEvaluation().getOptions().getTpccWarmupTime();
+        long[] lastExecuted = null;
         //Sleep for benchmark duration
         while ( elapsedTime < job.getEvaluation().getParams().getMeasurementTime() ) {
             try {
                 double progress = (float) elapsedTime / job.getEvaluation().getParams().getMeasurementTime();
                 progressListener.setBenchmarkProgress( progress );
-                workers.forEach( w -> logger.info( "Progress for worker {} was {}", w.getHost(), w.reportProgress( ProgressRequestMessage.newBuilder().setScenario( SCENARIOTPCC ).build() ) ) );
+                long[] executed = new long[workers.size()];
+                boolean workerFailed = false;
+                //The progress report doubles as heartbeat
+                for ( int i = 0; i < workers.size(); i++ ) {
+                    if ( failedWorkers.contains( workers.get( i ) ) ) {
+                        continue;
+                    }
+                    try {
+                        ProgressMessage progressMessage = workers.get( i ).reportProgress( ProgressRequestMessage.newBuilder().setScenario( SCENARIOTPCC ).build() );
+                        logger.info( "Progress for worker {} was {}", workers.get( i ).getHost(), progressMessage );
+                        executed[i] = progressMessage.getExecutedQueries();
+                    } catch ( WorkerUnavailableException e ) {
+                        markFailed( workers.get( i ) );
+                        workerFailed = true;
+                    }
+                }
+                if ( failedWorkers.size() == workers.size() ) {
+                    logger.error( "All workers failed, stopping the measurement" );
+                    return;
+                }
+                if ( workerFailed ) {
+                    if ( resultSinks != null && reassignments < Config.TPCC_MAX_REASSIGNMENTS ) {
+                        reassignWarehouses( resultSinks );
+                    } else if ( resultSinks != null ) {
+                        logger.error( "Warehouses were reassigned {} times already, the warehouses of the failed workers are not measured anymore", reassignments );
+                    }
+                    //The progress of the failed workers is missing, the next interval starts the comparison again
+                    executed = null;
+                }
+                //The relaunched workers need time to settle before the measured transactions start
+                boolean warmupLeft = warmupTime - elapsedTime > 2 * SLEEP_TIME;
+                if ( !workerFailed && resultSinks != null && rebalanceThreshold > 0 && lastExecuted != null && warmupLeft && rebalances < Config.TPCC_MAX_REBALANCES ) {
+                    long[] delta = new long[executed.length];
+                    for ( int i = 0; i < executed.length; i++ ) {
+                        delta[i] = executed[i] - lastExecuted[i];
+                    }
+                    double[] weights = WarehousePartitioner.rebalanceWeights( delta, partitions, rebalanceThreshold );
+                    if ( weights != null ) {
+                        for ( int i = 0; i < weights.length; i++ ) {
+                            if ( failedWorkers.contains( workers.get( i ) ) ) {
+                                weights[i] = 0;
+                            }
+                        }
+                        logger.warn( "Rebalancing warehouses across workers" );
+                        relaunch( weights, resultSinks );
+                        rebalances++;
+                        //Query counters start again after the relaunch
+                        executed = null;
+                    }
+                }
+                lastExecuted = executed;
                 logger.debug( "Sleeping for {} ms", SLEEP_TIME );
                 Thread.sleep( SLEEP_TIME );
             } catch ( InterruptedException e ) {
@@ -108,16 +286,41 @@ public Properties execute() {
             }
             elapsedTime += SLEEP_TIME;
         }
-        logger.info( "Aborting becnhmark" );
-        abort();
-        long stop = java.lang.System.currentTimeMillis();
+    }
 
-        logger.info( "Fetching results " );
-        fetchResults( start, stop );
-        Properties properties = processResults();
-        logger.info( "Fetching HW Monitor results" );
-        NetdataMonitorAdmin.fetchWorkerMonitorResults( getResultFolderPath(), workers, job, start, stop );
-        return properties;
+
+    private void markFailed( WorkerStub worker ) {
+        logger.error( "Worker {} failed, its warehouses will be reassigned", worker.getHost() );
+        failedWorkers.add( worker );
+        failedHosts.add( worker.getHost() );
+    }
+
+
+    /**
+     * Moves the warehouses of failed workers to the surviving ones. The survivors keep their relative share.
+     */
+    private void reassignWarehouses( TPCCResultSinks resultSinks ) {
+        double[] weights = new double[workers.size()];
+        for ( int i = 0; i < workers.size(); i++ ) {
+            if ( !failedWorkers.contains( workers.get( i ) ) ) {
+                weights[i] = Math.max( 1, partitions.get( i ).getUpper() - partitions.get( i ).getLower() );
+            }
+        }
+        logger.warn( "Reassigning the warehouses of failed workers {}", failedHosts );
+        relaunch( weights, resultSinks );
+        reassignments++;
+    }
+
+
+    /**
+     * Stops all workers, fetches what they measured so far and relaunches them with warehouse ranges according to the new weights. Failed workers need a weight of 0.
+     */
+    private void relaunch( double[] weights, TPCCResultSinks resultSinks ) {
+        abort();
+        long now = java.lang.System.currentTimeMillis();
+        fetchResults( segmentStart, now, resultSinks );
+        segmentStart = now;
+        launchWorkers( terminalsPerDistrict, weights );
     }
 
 
@@ -163,13 +366,30 @@ private void safeSetup( TPCCBenchmarker benchmarker ) {
     }
 
 
-    private Properties processResults() {
+    /**
+     * Analyzes the results of the measurement between start and stop, excluding the warm-up and optionally everything before the steady state
+     */
+    private Properties processResults( long start, long stop ) {
         TPCCAnalysis analysis = new TPCCAnalysis( getMasterStorageFolderPath(), getResultFolderPath(), job.getEvaluation().getParams().getMeasurementTime() );
+        analysis.setMeasurementWindow( start, stop, job.getEvaluation().getOptions().getTpccWarmupTime(), job.getEvaluation().getOptions().getTpccSteadyStateDetection() );
+        analysis.setExpectedInterval( getExpectedInterval() );
         analysis.analyze();
         return analysis.getProperties();
     }
 
 
+    /**
+     * @return ms a closed-loop terminal is expected to take between two transactions, used to correct for coordinated omission. Terminals which run back-to-back have no configured interval, it is derived from their service times.
+     */
+    private long getExpectedInterval() {
+        PolyphenyCdlOptions options = job.getEvaluation().getOptions();
+        if ( options.getTpccTerminalPacing() > 0 ) {
+            return options.getTpccTerminalPacing();
+        }
+        return options.getTpccTerminalThink() ? THINK_TIME : ResponseTimePercentiles.DERIVED_INTERVAL;
+    }
+
+
     private File getResultFolderPath() {
         return Paths.get( outputDir.getPath(), "results", "tpcc", job.getEvaluation().getOptions().getSystem().toString() ).toFile();
     }
@@ -180,7 +400,10 @@ private File getWorkerStorageFolderPath() {
     }
 
 
-    private File getMasterStorageFolderPath() {
+    /**
+     * @return folder on the master which the results of the workers are fetched to
+     */
+    public File getMasterStorageFolderPath() {
         return Paths.get( Config.DEFAULT_MASTER_STORAGE_LOCATION, "results", "tpcc", job.getEvaluation().getOptions().getSystem().toString() ).toFile();
     }
 
@@ -188,25 +411,43 @@ private File getMasterStorageFolderPath() {
     /**
      * @param start lower bound for result-timestamp
      * @param stop upper bound for result-timestamp
+     * @param resultsFolder folder in which the {@link TPCCResultSinks} are written
      */
-    private void fetchResults( long start, long stop ) {
-        File resultsFolder = getMasterStorageFolderPath();
-        if ( !resultsFolder.mkdirs() ) {
-            logger.trace( "results-Folder not created" );
-        }
-        StreamWriter<TPCCResultTuple> writer = new StreamWriter<>( SettableFuture.create(), new File( getMasterStorageFolderPath(), "allresults.json" ), TPCCResultTuple.class );
-        for ( WorkerStub workerStub : workers ) {
+    private void fetchResults( long start, long stop, File resultsFolder ) {
+        TPCCResultSinks sinks = new TPCCResultSinks( resultsFolder, workers.size() );
+        fetchResults( start, stop, sinks );
+        sinks.close();
+    }
+
+
+    /**
+     * Appends the results of each worker between start and stop to the sinks. Failed workers are skipped so the results of the others are not lost.
+     */
+    private void fetchResults( long start, long stop, TPCCResultSinks sinks ) {
+        for ( int i = 0; i < workers.size(); i++ ) {
+            WorkerStub workerStub = workers.get( i );
+            if ( failedWorkers.contains( workerStub ) ) {
+                logger.warn( "Skipping results of failed worker {}", workerStub.getHost() );
+                continue;
+            }
             logger.debug( "Fetching results for worker {}", workerStub.getHost() );
-            workerStub.writeTPCCResults( writer, ProtoObjectFactory.createFetchTPCCMessage( start, stop ) );
+            try {
+                workerStub.writeTPCCResults( sinks.forWorker( i ), ProtoObjectFactory.createFetchTPCCMessage( start, stop ) );
+            } catch ( WorkerUnavailableException e ) {
+                markFailed( workerStub );
+            }
         }
-        writer.onCompleted();
     }
 
 
     /**
-     * Launches the TPC-C Workers, using {@link PolyphenyCdlParams#getWorkerURLs()}. The last worker will get handled separately since the warehouses he gets need to be the remaining ones.
+     * Launches the TPC-C Workers, using {@link PolyphenyCdlParams#getWorkerURLs()}. Connections to workers of a previous launch are closed. If load balancing is enabled, warehouses are assigned according to the capacity each worker reports, otherwise they are split evenly.
+     *
+     * @param terminalsPerDistrict number of terminals each worker launches per district
      */
-    private void launchWorkers() {
+    private void launchWorkers( int terminalsPerDistrict ) {
+        workers.forEach( WorkerStub::close );
+        workers.clear();
         int noWorkers = job.getEvaluation().getParams().getWorkers();
         logger.debug( "Launching {} workers", noWorkers );
 
@@ -216,51 +457,109 @@ private void launchWorkers() {
             throw new IllegalArgumentException(
                     "the number of workers in the job is not equal to the number of URLs specified" );
         }
+        failedWorkers.clear();
+        failedHosts.clear();
+        for ( String workerURL : workerURLs ) {
+            workers.add( new WorkerStub( workerURL ) );
+        }
 
-        int noWarehouses = job.getEvaluation().getOptions().getTpccWarehouses();
-        logger.trace( "Benchmarking for {} warehouses", noWarehouses );
-        int warehousePerWorker = noWarehouses / noWorkers;
-        logger.trace( "Assigning {} warehouses per worker", warehousePerWorker );
-
-        //The last one needs to take the rest, so we only go to length - 1
-        for ( int i = 0; i < workerURLs.length - 1; i++ ) {
-            String workerURL = workerURLs[i];
-            //Create workerStub
-            WorkerStub worker = new WorkerStub( workerURL );
-            workers.add( worker );
+        if ( capacityWeights == null ) {
+            capacityWeights = new double[workers.size()];
+            if ( job.getEvaluation().getOptions().getTpccLoadBalancing() ) {
+                long calibrationTime = job.getEvaluation().getOptions().getTpccCalibrationTime();
+                int noWarehouses = job.getEvaluation().getOptions().getTpccWarehouses();
+                //The calibration runs transactions on all warehouses of the database
+                LaunchWorkerMessage calibrationMessage = createWorkerMessage( noWarehouses, ProtoObjectFactory.Pair( 1, noWarehouses + 1 ), terminalsPerDistrict );
+                //Calibrate all workers at the same time. Each thread only writes its own index, failures are marked afterwards in the order of the workers
+                boolean[] unavailable = new boolean[workers.size()];
+                IntStream.range( 0, workers.size() ).parallel().forEach( i -> {
+                    try {
+                        CapacityMessage capacity = workers.get( i ).reportCapacity( ProtoObjectFactory.CapacityRequestMessage( calibrationTime, calibrationMessage ) );
+                        logger.info( "Worker {} reported capacity {}", workers.get( i ).getHost(), capacity );
+                        capacityWeights[i] = WarehousePartitioner.weight( capacity );
+                    } catch ( WorkerUnavailableException e ) {
+                        unavailable[i] = true;
+                    }
+                } );
+                for ( int i = 0; i < workers.size(); i++ ) {
+                    if ( unavailable[i] ) {
+                        markFailed( workers.get( i ) );
+                    }
+                }
+            }
+        }
+        launchWorkers( terminalsPerDistrict, capacityWeights );
+    }
 
-            Pair pair = ProtoObjectFactory.Pair( (i * warehousePerWorker) + 1, ((i + 1) * warehousePerWorker) + 1 );
-            logger.trace( "Worker @ URL {} with index {} gets {}", workerURL, i, pair );
 
-            generateWorkerMessage( noWarehouses, worker, pair );
+    /**
+     * Launches the already connected workers with warehouse ranges proportional to the weights. Failed workers get no warehouses. If a worker fails during the launch, the others are relaunched without it.
+     */
+    private void launchWorkers( int terminalsPerDistrict, double[] weights ) {
+        this.terminalsPerDistrict = terminalsPerDistrict;
+        int noWarehouses = job.getEvaluation().getOptions().getTpccWarehouses();
+        logger.trace( "Benchmarking for {} warehouses", noWarehouses );
+        double[] aliveWeights = weights.clone();
+        boolean anyAlive = false;
+        for ( int i = 0; i < workers.size(); i++ ) {
+            if ( failedWorkers.contains( workers.get( i ) ) ) {
+                aliveWeights[i] = 0;
+            } else {
+                anyAlive = true;
+                //An even split (all weights 0) still has to exclude the failed workers
+                aliveWeights[i] = Arrays.stream( weights ).sum() > 0 ? weights[i] : 1;
+            }
+        }
+        if ( !anyAlive ) {
+            throw new RuntimeException( "All workers failed, there is no one left to run TPC-C" );
+        }
+        partitions = WarehousePartitioner.partition( noWarehouses, aliveWeights );
+        boolean launchFailed = false;
+        for ( int i = 0; i < workers.size(); i++ ) {
+            if ( failedWorkers.contains( workers.get( i ) ) ) {
+                continue;
+            }
+            Pair pair = partitions.get( i );
+            logger.trace( "Worker @ URL {} with index {} gets {}", workers.get( i ).getHost(), i, pair );
+            try {
+                generateWorkerMessage( noWarehouses, workers.get( i ), pair, terminalsPerDistrict );
+            } catch ( WorkerUnavailableException e ) {
+                markFailed( workers.get( i ) );
+                launchFailed = true;
+            }
             //TODO Sleep parameters
         }
-        launchLastWorker( workerURLs, warehousePerWorker );
+        if ( launchFailed ) {
+            abort();
+            launchWorkers( terminalsPerDistrict, aliveWeights );
+        }
     }
 
 
-    private void generateWorkerMessage( int noWarehouses, WorkerStub worker, Pair pair ) {
-        LaunchWorkerMessage workerMessage = ProtoObjectFactory.TPCCWorkerMessage( job.getEvaluation().getDbms().getHost(), job.getEvaluation().getDbms().getPort(), job.getEvaluation().getDbms().getDatabase(), job.getEvaluation().getDbms().getUsername(), job.getEvaluation().getDbms().getPassword(),
-                job.getEvaluation().getOptions().getSystem(), job.getEvaluation().getOptions().getAccessMethod(), pair, TPCCConfig.TERMINALS_PER_DISTRICT, COL_I_ID_MEASUREMENT, CC_LAST_MEASUREMENT, CC_ID_MEASUREMENT, noWarehouses,
-                job.getEvaluation().getOptions().getTpccTerminalThink(), Optional.of( 1_000L ), Optional.empty() );  //1= terminals per district
-        worker.launchWorker( workerMessage );
+    private void generateWorkerMessage( int noWarehouses, WorkerStub worker, Pair pair, int terminalsPerDistrict ) {
+        worker.launchWorker( createWorkerMessage( noWarehouses, pair, terminalsPerDistrict ) );
     }
 
 
     /**
-     * Since the number of warehouses is not guaranteed to be a multiple of the number of workers, the last worker needs to be generated independently
+     * In open-loop mode, each worker gets a share of the arrival rate proportional to the number of warehouses it is responsible for
      */
-    private void launchLastWorker( String[] workerURLs, int warehousePerWorker ) {
-        int noWarehouses = job.getEvaluation().getOptions().getTpccWarehouses();
-        String workerURL = workerURLs[workerURLs.length - 1];
-        WorkerStub worker = new WorkerStub( workerURL.split( ":" )[0], Integer.parseInt( workerURL.split( ":" )[1] ) );
-        workers.add( worker );
-
-        Pair pair = ProtoObjectFactory.Pair( (workerURLs.length - 1) * warehousePerWorker + 1, noWarehouses + 1 );
-        logger.trace( "Worker @ URL {} with index {} gets {}", workerURL, workerURLs.length - 1, pair );
-
-        //Generate WorkerMessage
-        generateWorkerMessage( noWarehouses, worker, pair );
+    private LaunchWorkerMessage createWorkerMessage( int noWarehouses, Pair pair, int terminalsPerDistrict ) {
+        LaunchWorkerMessage workerMessage = ProtoObjectFactory.TPCCWorkerMessage( job.getEvaluation().getDbms().getHost(), job.getEvaluation().getDbms().getPort(), job.getEvaluation().getDbms().getDatabase(), job.getEvaluation().getDbms().getUsername(), job.getEvaluation().getDbms().getPassword(),
+                job.getEvaluation().getOptions().getSystem(), job.getEvaluation().getOptions().getAccessMethod(), pair, terminalsPerDistrict, COL_I_ID_MEASUREMENT, CC_LAST_MEASUREMENT, CC_ID_MEASUREMENT, noWarehouses,
+                job.getEvaluation().getOptions().getTpccTerminalThink(), Optional.of( THINK_TIME ), Optional.empty() );  //1= terminals per district
+        PolyphenyCdlOptions options = job.getEvaluation().getOptions();
+        if ( options.getTpccRampUpWaves() > 1 ) {
+            workerMessage = ProtoObjectFactory.TPCCWorkerMessage( workerMessage, options.getTpccRampUpWaves(), options.getTpccRampUpInterval() );
+        }
+        if ( options.getTpccArrivalMode() != TPCCArrivalMode.TPCCARRIVALCLOSED ) {
+            double arrivalRate = options.getTpccArrivalRate() * (pair.getUpper() - pair.getLower()) / noWarehouses;
+            logger.trace( "Warehouses {} get an arrival rate of {} transactions per second", pair, arrivalRate );
+            workerMessage = ProtoObjectFactory.TPCCWorkerMessage( workerMessage, options.getTpccArrivalMode(), arrivalRate, options.getTpccMaxPendingArrivals() );
+        } else if ( options.getTpccTerminalPacing() > 0 ) {
+            workerMessage = ProtoObjectFactory.TPCCWorkerMessage( workerMessage, options.getTpccTerminalPacing() );
+        }
+        return workerMessage;
     }
 
 
@@ -296,7 +595,14 @@ private TPCCBenchmarker generateBenchmarker() {
     public void abort() {
         logger.warn( "Aborting TPCC Scenario" );
         for ( WorkerStub worker : workers ) {
-            worker.stopWorker( ProtoObjectFactory.StopWorkerMessage( SCENARIOTPCC ) );
+            if ( failedWorkers.contains( worker ) ) {
+                continue;
+            }
+            try {
+                worker.stopWorker( ProtoObjectFactory.StopWorkerMessage( SCENARIOTPCC ) );
+            } catch ( WorkerUnavailableException e ) {
+                markFailed( worker );
+            }
         }
     }
 }
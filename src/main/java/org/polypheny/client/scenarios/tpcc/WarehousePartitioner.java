@@ -0,0 +1,122 @@
+package org.polypheny.client.scenarios.tpcc;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.grpc.PolyClientGRPC.CapacityMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.Pair;
+import org.polypheny.client.rpc.ProtoObjectFactory;
+
+
+/**
+ * Splits the warehouses into contiguous ranges, one per worker, proportionally to a weight per worker. Weights are derived either from a {@link CapacityMessage} before the run or from the observed throughput during the run.
+ *
+ * @tpccversion 5.11
+ */
+public class WarehousePartitioner {
+
+    private static final Logger logger = LogManager.getLogger();
+
+
+    /**
+     * Largest-remainder partitioning. Warehouse IDs start at 1, upper bounds are exclusive.
+     *
+     * @param noWarehouses total number of warehouses
+     * @param weights one non-negative weight per worker. If all weights are zero, warehouses are split evenly
+     * @return one {@link Pair} per worker, in the same order as the weights
+     */
+    public static List<Pair> partition( int noWarehouses, double[] weights ) {
+        double total = Arrays.stream( weights ).sum();
+        double[] normalized = new double[weights.length];
+        for ( int i = 0; i < weights.length; i++ ) {
+            normalized[i] = total > 0 ? weights[i] / total : 1d / weights.length;
+        }
+        int[] shares = new int[weights.length];
+        int assigned = 0;
+        for ( int i = 0; i < weights.length; i++ ) {
+            shares[i] = (int) Math.floor( normalized[i] * noWarehouses );
+            assigned += shares[i];
+        }
+        //Hand out the remaining warehouses to the largest remainders, ties go to the first worker
+        final int[] floors = shares.clone();
+        Integer[] byRemainder = IntStream.range( 0, weights.length ).boxed().sorted( Comparator.comparingDouble( i -> -(normalized[i] * noWarehouses - floors[i]) ) ).toArray( Integer[]::new );
+        for ( int i = 0; assigned < noWarehouses; i = (i + 1) % weights.length ) {
+            shares[byRemainder[i]]++;
+            assigned++;
+        }
+
+        List<Pair> partitions = new ArrayList<>( weights.length );
+        int lower = 1;
+        for ( int share : shares ) {
+            partitions.add( ProtoObjectFactory.Pair( lower, lower + share ) );
+            lower += share;
+        }
+        logger.debug( "Partitioned {} warehouses with weights {} into {}", noWarehouses, Arrays.toString( weights ), Arrays.toString( shares ) );
+        return partitions;
+    }
+
+
+    /**
+     * @return calibrated throughput (or cores if the worker was not calibrated), reduced by the load which is already on the machine
+     */
+    public static double weight( CapacityMessage capacity ) {
+        double weight = capacity.getCalibratedThroughput() > 0 ? capacity.getCalibratedThroughput() : capacity.getCores();
+        if ( capacity.getSystemLoad() >= 0 && capacity.getCores() > 0 ) {
+            weight *= Math.max( 0.1, 1 - capacity.getSystemLoad() / capacity.getCores() );
+        }
+        return weight;
+    }
+
+
+    /**
+     * Checks whether a worker falls behind the others. Throughput is compared per assigned warehouse since workers with more warehouses run more terminals.
+     *
+     * @param executed transactions each worker executed since the last check
+     * @param partitions current warehouse ranges
+     * @param threshold a worker falls behind if its throughput per warehouse is below threshold times the mean
+     * @return new weights if rebalancing is needed, otherwise null
+     */
+    public static double[] rebalanceWeights( long[] executed, List<Pair> partitions, double threshold ) {
+        double totalRate = 0;
+        long totalExecuted = 0;
+        int activeWorkers = 0;
+        double[] rates = new double[executed.length];
+        for ( int i = 0; i < executed.length; i++ ) {
+            int warehouses = partitions.get( i ).getUpper() - partitions.get( i ).getLower();
+            if ( warehouses <= 0 ) {
+                continue;
+            }
+            rates[i] = (double) executed[i] / warehouses;
+            totalRate += rates[i];
+            totalExecuted += executed[i];
+            activeWorkers++;
+        }
+        if ( activeWorkers < 2 || totalRate == 0 ) {
+            return null;
+        }
+        double meanRate = totalRate / activeWorkers;
+        boolean behind = false;
+        for ( int i = 0; i < executed.length; i++ ) {
+            int warehouses = partitions.get( i ).getUpper() - partitions.get( i ).getLower();
+            if ( warehouses > 0 && rates[i] < threshold * meanRate ) {
+                logger.warn( "Worker {} executes {} transactions per warehouse, the mean is {}", i, rates[i], meanRate );
+                behind = true;
+            }
+        }
+        if ( !behind ) {
+            return null;
+        }
+        double meanExecuted = (double) totalExecuted / activeWorkers;
+        double[] weights = new double[executed.length];
+        for ( int i = 0; i < executed.length; i++ ) {
+            //Workers without warehouses have not shown what they can do, assume they are average
+            weights[i] = partitions.get( i ).getUpper() > partitions.get( i ).getLower() ? executed[i] : meanExecuted;
+        }
+        return weights;
+    }
+}
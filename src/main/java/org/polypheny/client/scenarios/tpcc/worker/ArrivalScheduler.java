@@ -0,0 +1,103 @@
+package org.polypheny.client.scenarios.tpcc.worker;
+
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCArrivalMode;
+
+
+/**
+ * Generates the intended start times for open-loop operation of a {@link TPCCWorker}. Start times are derived from the schedule alone and never from the completion of previous transactions, so a slow SUT does not lower the offered load. The {@link Terminal}s of the worker take the start times from a bounded queue and therefore act as a bounded executor.
+ *
+ * When the queue is full the scheduler blocks. The start times it hands out afterwards are still the ones from the schedule, so the delay shows up as intended response time instead of being omitted.
+ *
+ * @tpccversion 5.11
+ */
+public class ArrivalScheduler implements Runnable {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final TPCCArrivalMode arrivalMode;
+    private final double meanInterArrivalTime;
+    private final BlockingQueue<Long> arrivals;
+    //Set before the thread starts, so a stop() before the first run() is not overwritten
+    private volatile boolean running = true;
+
+
+    /**
+     * @param arrivalMode either {@link TPCCArrivalMode#TPCCARRIVALCONSTANT} or {@link TPCCArrivalMode#TPCCARRIVALPOISSON}
+     * @param arrivalRate transactions per second
+     * @param maxPendingArrivals capacity of the queue of scheduled transactions
+     */
+    public ArrivalScheduler( TPCCArrivalMode arrivalMode, double arrivalRate, int maxPendingArrivals ) {
+        if ( arrivalMode == TPCCArrivalMode.TPCCARRIVALCLOSED ) {
+            throw new IllegalArgumentException( "A closed system does not need an arrival scheduler" );
+        }
+        if ( arrivalRate <= 0 ) {
+            throw new IllegalArgumentException( "The arrival rate has to be positive, was " + arrivalRate );
+        }
+        this.arrivalMode = arrivalMode;
+        this.meanInterArrivalTime = 1_000d / arrivalRate;
+        this.arrivals = new ArrayBlockingQueue<>( Math.max( 1, maxPendingArrivals ) );
+    }
+
+
+    @Override
+    public void run() {
+        double next = System.currentTimeMillis();
+        while ( running ) {
+            next += nextInterArrivalTime();
+            long intendedStart = (long) next;
+            try {
+                long sleep = intendedStart - System.currentTimeMillis();
+                if ( sleep > 0 ) {
+                    Thread.sleep( sleep );
+                }
+                while ( running && !arrivals.offer( intendedStart, 100, TimeUnit.MILLISECONDS ) ) {
+                    logger.trace( "Arrival queue is full, terminals are falling behind the schedule" );
+                }
+            } catch ( InterruptedException e ) {
+                logger.debug( "Arrival scheduler interrupted" );
+                running = false;
+            }
+        }
+    }
+
+
+    /**
+     * @return time in ms until the next transaction should start
+     */
+    double nextInterArrivalTime() {
+        if ( arrivalMode == TPCCArrivalMode.TPCCARRIVALPOISSON ) {
+            return -Math.log( 1 - ThreadLocalRandom.current().nextDouble() ) * meanInterArrivalTime;
+        }
+        return meanInterArrivalTime;
+    }
+
+
+    /**
+     * Waits for the next scheduled transaction
+     *
+     * @return intended start timestamp or null if nothing was scheduled within the timeout
+     */
+    Long nextArrival( long timeout, TimeUnit unit ) throws InterruptedException {
+        return arrivals.poll( timeout, unit );
+    }
+
+
+    /**
+     * @return how many transactions are scheduled but not yet picked up by a terminal
+     */
+    public int getPendingArrivals() {
+        return arrivals.size();
+    }
+
+
+    public void stop() {
+        running = false;
+    }
+}
@@ -5,6 +5,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -13,11 +14,11 @@
 import org.polypheny.client.db.tpcc.PolyphenyDbTpccBenchmarker;
 import org.polypheny.client.db.tpcc.PostgresTpccBenchmarker;
 import org.polypheny.client.db.tpcc.TPCCBenchmarker;
-import org.polypheny.client.grpc.PolyClientGRPC.DBInfo;
 import org.polypheny.client.grpc.PolyClientGRPC.FetchResultsMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.LaunchWorkerMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.ProgressMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.ResultMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCArrivalMode;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCWorkerMessage;
 import org.polypheny.client.rpc.ProtoObjectFactory;
@@ -46,6 +47,8 @@ public class TPCCWorker implements Worker {
     //Maps TerminalID to terminal
     private List<Terminal> terminals;
     private boolean running = false;
+    //Only used in open-loop mode
+    private ArrivalScheduler arrivalScheduler;
 
 
     public TPCCWorker( LaunchWorkerMessage workerMessage ) {
@@ -56,11 +59,18 @@ public TPCCWorker( LaunchWorkerMessage workerMessage ) {
 
 
     /**
-     * Starts the TPC-C Worker. Launches {@link TPCCWorkerMessage#getTerminalPerDistrict()} {@link Terminal}s per District. Launch from lower to upper bound (lower inclusive, upper exclusive)
+     * Starts the TPC-C Worker. Launches {@link TPCCWorkerMessage#getTerminalPerDistrict()} {@link Terminal}s per District. Launch from lower to upper bound (lower inclusive, upper exclusive). In open-loop mode, an {@link ArrivalScheduler} is started first which dictates when the terminals start their transactions.
+     *
+     * All terminals and their connections are created immediately. If {@link TPCCWorkerMessage#getRampUpWaves()} is larger than one, the terminals are started in waves which are {@link TPCCWorkerMessage#getRampUpInterval()} ms apart.
      */
     @Override
     public void start() {
         running = true;
+        if ( isOpenLoop() ) {
+            logger.info( "Starting {} arrivals with {} transactions per second", getWorkerMessage().getArrivalMode(), getWorkerMessage().getArrivalRate() );
+            arrivalScheduler = new ArrivalScheduler( getWorkerMessage().getArrivalMode(), getWorkerMessage().getArrivalRate(), getWorkerMessage().getMaxPendingArrivals() );
+            new Thread( arrivalScheduler ).start();
+        }
         logger.info( "Starting TPC-C Terminals" );
         for ( int warehouseID = getWorkerMessage().getWarehouses().getLower(); warehouseID < getWorkerMessage().getWarehouses().getUpper(); warehouseID++ ) {
             for ( int districtID = 1; districtID <= 10;
@@ -68,15 +78,33 @@ public void start() {
                 logger.trace( "Starting terminals for district {} and warehouse {}", districtID, warehouseID );
                 //Create Terminals and start them
                 for ( int terminalIdx = 0; terminalIdx < getWorkerMessage().getTerminalPerDistrict(); terminalIdx++ ) {
-                    Terminal terminal = new Terminal( this, districtID, warehouseID );
-                    logger.trace( "Starting terminal for warehouse {} and district {}", warehouseID, districtID );
+                    Terminal terminal = new Terminal( this, districtID, warehouseID, terminalIdx );
+                    logger.trace( "Creating terminal for warehouse {} and district {}", warehouseID, districtID );
                     terminals.add( terminal );
-                    new Thread( terminal ).start();
                 }
             }
-            logger.debug( "Started terminals for warehouse {}", warehouseID );
+            logger.debug( "Created terminals for warehouse {}", warehouseID );
+        }
+        int waves = Math.max( 1, getWorkerMessage().getRampUpWaves() );
+        startWave( 0, waves );
+        if ( waves > 1 ) {
+            new Thread( () -> {
+                for ( int wave = 1; wave < waves && running; wave++ ) {
+                    try {
+                        Thread.sleep( getWorkerMessage().getRampUpInterval() );
+                    } catch ( InterruptedException e ) {
+                        logger.warn( "Ramp-up interrupted" );
+                        return;
+                    }
+                    if ( running ) {
+                        startWave( wave, waves );
+                    }
+                }
+                logger.info( "All Terminals started" );
+            } ).start();
+        } else {
+            logger.info( "All Terminals started" );
         }
-        logger.info( "All Terminals started" );
         new Thread( () -> {
             int total = 0;
             while ( running ) {
@@ -92,9 +120,23 @@ public void start() {
     }
 
 
+    /**
+     * Starts every terminal whose index modulo waves equals wave. This spreads each wave over all warehouses.
+     */
+    private void startWave( int wave, int waves ) {
+        logger.debug( "Starting ramp-up wave {} of {}", wave + 1, waves );
+        for ( int i = wave; i < terminals.size(); i += waves ) {
+            new Thread( terminals.get( i ) ).start();
+        }
+    }
+
+
     @Override
     public void abort() {
         running = false;
+        if ( arrivalScheduler != null ) {
+            arrivalScheduler.stop();
+        }
         for ( Terminal terminal : terminals ) {
             terminal.stop();
         }
@@ -114,11 +156,6 @@ public TPCCWorkerMessage getWorkerMessage() {
     }
 
 
-    private DBInfo getDBInfo() {
-        return workerMessage.getDbInfo();
-    }
-
-
     /**
      * Parses the {@link TPCCWorkerMessage} to determine the kind of benchmarker which should be used. Each Terminal gets its own benchmarker so each terminal gets its own connection to the target DBMS.
      *
@@ -126,25 +163,28 @@ private DBInfo getDBInfo() {
      * @return a {@link TPCCBenchmarker} which can be used to run queries against the System
      */
     TPCCBenchmarker createBenchmarker( Terminal terminal ) {
-        switch ( getDBInfo().getSystem() ) {
+        try {
+            return createBenchmarker( this.workerMessage );
+        } catch ( ConnectionException e ) {
+            logger.fatal( "could not create a benchmarker for terminal {}", terminal.toString() );
+            throw new RuntimeException( e );
+        }
+    }
+
+
+    /**
+     * @return a {@link TPCCBenchmarker} with its own connection to the system of the {@link LaunchWorkerMessage}
+     */
+    public static TPCCBenchmarker createBenchmarker( LaunchWorkerMessage workerMessage ) throws ConnectionException {
+        switch ( workerMessage.getDbInfo().getSystem() ) {
             case SYSTEMPOSTGRESQL:
-                try {
-                    return new PostgresTpccBenchmarker( this.workerMessage );
-                } catch ( ConnectionException e ) {
-                    logger.fatal( "could not create a benchmarker for terminal {}", terminal.toString() );
-                    throw new RuntimeException( e );
-                }
+                return new PostgresTpccBenchmarker( workerMessage );
             case SYSTEMICARUS:
-                return new IcarusTpccBenchmarker( this.workerMessage );
+                return new IcarusTpccBenchmarker( workerMessage );
             case SYSTEMPOLYPHENY:
-                try {
-                    return new PolyphenyDbTpccBenchmarker( this.workerMessage );
-                } catch ( ConnectionException e ) {
-                    logger.fatal( "could not create a benchmarker for terminal {}", terminal.toString() );
-                    throw new RuntimeException( e );
-                }
+                return new PolyphenyDbTpccBenchmarker( workerMessage );
             default:
-                logger.error( "System {} not supported", getDBInfo().getSystem() );
+                logger.error( "System {} not supported", workerMessage.getDbInfo().getSystem() );
                 throw new UnsupportedOperationException();
         }
     }
@@ -202,6 +242,29 @@ TPCCTransactionType selectTransactionType() {
     }
 
 
+    /**
+     * @return true if transactions are started according to an {@link ArrivalScheduler} instead of back-to-back
+     */
+    boolean isOpenLoop() {
+        return getWorkerMessage().getArrivalMode() != TPCCArrivalMode.TPCCARRIVALCLOSED;
+    }
+
+
+    /**
+     * Blocks until the {@link ArrivalScheduler} schedules the next transaction. Only valid in open-loop mode.
+     *
+     * @return intended start timestamp of the next transaction or null if none was scheduled within 100 ms
+     */
+    Long nextArrival() {
+        try {
+            return arrivalScheduler.nextArrival( 100, TimeUnit.MILLISECONDS );
+        } catch ( InterruptedException e ) {
+            logger.debug( "Interrupted while waiting for the next arrival" );
+            return null;
+        }
+    }
+
+
     /**
      * 'Generates' a query ID in the sense that it gets and increments the atomic integer
      *
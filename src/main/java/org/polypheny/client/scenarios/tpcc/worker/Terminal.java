@@ -33,23 +33,30 @@ public class Terminal implements Runnable {
     private TPCCWorker worker;
     private int districtID;
     private int warehouseID;
+    private int terminalIdx;
     private volatile boolean running;
+    //Terminals of later ramp-up waves may be stopped before they ever ran
+    private volatile boolean stopped = false;
     private TPCCBenchmarker benchmarker;
     private StreamWriter<TPCCResultTuple> resultWriter;
     private JsonStreamReader<TPCCResultTuple> resultReader;
 
 
-    public Terminal( TPCCWorker worker, int districtID, int warehouseID ) {
+    /**
+     * @param terminalIdx index of this terminal within its district. Used to keep the result files of terminals in the same district apart
+     */
+    public Terminal( TPCCWorker worker, int districtID, int warehouseID, int terminalIdx ) {
         this.worker = worker;
         this.districtID = districtID;
         this.warehouseID = warehouseID;
+        this.terminalIdx = terminalIdx;
         this.running = false;
         this.benchmarker = worker.createBenchmarker( this );
         File storageFolder = new File( new File( Config.DEFAULT_WORKER_STORAGE_LOCATION ), warehouseID + "" );
         if ( !storageFolder.mkdirs() ) {
             logger.trace( "Storage Folder {} was not created", storageFolder.getPath() );
         }
-        File storage = new File( storageFolder, districtID + ".json" );
+        File storage = new File( storageFolder, districtID + "_" + terminalIdx + ".json" );
         resultWriter = new StreamWriter<>( SettableFuture.create(), storage, TPCCResultTuple.class );
         resultReader = new JsonStreamReader<>( storage, TPCCResultTuple.class,
                 StorageGson.getGson() );
@@ -57,18 +64,41 @@ public Terminal( TPCCWorker worker, int districtID, int warehouseID ) {
 
 
     /**
-     * Starts this Terminal according to TPC-C Specifications
+     * Starts this Terminal according to TPC-C Specifications. In open-loop mode, the terminal waits for the next scheduled arrival instead of thinking. If the terminal is paced, it waits for its next scheduled start instead of thinking and starts late transactions immediately, so a stall of the DBMS does not hide the transactions which should have run in the meantime. In both cases, the intended start of each transaction is recorded.
      */
     @Override
     public void run() {
-        running = true;
+        running = !stopped;
+        boolean openLoop = worker.isOpenLoop();
+        long pacing = openLoop ? 0 : worker.getWorkerMessage().getTerminalPacing();
+        //Random phase so paced terminals do not all start at the same instant
+        long nextStart = System.currentTimeMillis() + (pacing > 0 ? RandomUtils.nextLong( 0, pacing ) : 0);
         while ( running ) {
+            long intendedStart = 0;
+            if ( openLoop ) {
+                Long arrival = worker.nextArrival();
+                if ( arrival == null ) {
+                    continue;
+                }
+                intendedStart = arrival;
+            } else if ( pacing > 0 ) {
+                intendedStart = nextStart;
+                nextStart += pacing;
+                if ( !waitUntil( intendedStart ) ) {
+                    continue;
+                }
+            }
             //This is in line with TPC-C Terminal behavior
             TPCCTransactionType transactionType = worker.selectTransactionType();
             int queryID = worker.generateQueryID();
             TPCCResultTuple tuple = performTransaction( transactionType, queryID );
+            TPCCResultTuple.Builder builder = tuple.toBuilder().setWarehouseID( warehouseID ).setDistrictID( districtID ).setTerminalIdx( terminalIdx );
+            if ( intendedStart > 0 ) {
+                builder.setIntendedStartTimestamp( intendedStart ).setIntendedResponseTime( System.currentTimeMillis() - intendedStart );
+            }
+            tuple = builder.build();
             logTransaction( tuple );
-            if ( worker.getWorkerMessage().getTPCCTERMINALTHINK() ) {
+            if ( !openLoop && pacing <= 0 && worker.getWorkerMessage().getTPCCTERMINALTHINK() ) {
                 think();
             }
         }
@@ -76,11 +106,30 @@ public void run() {
     }
 
 
+    /**
+     * Sleeps until the given timestamp if it lies in the future
+     *
+     * @return false if the terminal was stopped in the meantime
+     */
+    private boolean waitUntil( long timestamp ) {
+        long wait = timestamp - System.currentTimeMillis();
+        if ( wait > 0 ) {
+            try {
+                Thread.sleep( wait );
+            } catch ( InterruptedException e ) {
+                logger.debug( "Terminal at district {} and warehouse {} interrupted while waiting for its next start", districtID, warehouseID );
+            }
+        }
+        return running;
+    }
+
+
     /**
      * Stops execution
      */
     public void stop() {
         resultWriter.onCompleted();
+        this.stopped = true;
         this.running = false;
     }
 
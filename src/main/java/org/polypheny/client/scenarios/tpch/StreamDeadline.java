@@ -0,0 +1,56 @@
+package org.polypheny.client.scenarios.tpch;
+
+
+import java.util.function.LongSupplier;
+
+
+/**
+ * Timeouts of a query stream. Every query may run for the query timeout, but not past the end of the stream timeout, which starts with the deadline. Once the stream timeout has passed, the stream stops and its remaining queries are not executed.
+ *
+ * @tpchversion 2.17.1
+ */
+public class StreamDeadline {
+
+    private final int queryTimeout;
+    private final long end;
+    private final LongSupplier clock;
+
+
+    /**
+     * @param queryTimeout seconds a query may take, 0 for no limit
+     * @param streamTimeout seconds the stream may take, 0 for no limit
+     */
+    public StreamDeadline( int queryTimeout, int streamTimeout ) {
+        this( queryTimeout, streamTimeout, System::currentTimeMillis );
+    }
+
+
+    StreamDeadline( int queryTimeout, int streamTimeout, LongSupplier clock ) {
+        this.queryTimeout = Math.max( 0, queryTimeout );
+        this.clock = clock;
+        this.end = streamTimeout > 0 ? clock.getAsLong() + streamTimeout * 1_000L : Long.MAX_VALUE;
+    }
+
+
+    /**
+     * @return true if the stream timeout has passed
+     */
+    public boolean isExpired() {
+        return clock.getAsLong() >= end;
+    }
+
+
+    /**
+     * @return the timeout of the next query in seconds, 0 for no limit. At least 1 second while the stream has not expired.
+     */
+    public int nextQueryTimeout() {
+        if ( end == Long.MAX_VALUE ) {
+            return queryTimeout;
+        }
+        long remainingSeconds = Math.max( 1, (end - clock.getAsLong() + 999) / 1_000 );
+        if ( queryTimeout == 0 ) {
+            return (int) Math.min( Integer.MAX_VALUE, remainingSeconds );
+        }
+        return (int) Math.min( queryTimeout, remainingSeconds );
+    }
+}
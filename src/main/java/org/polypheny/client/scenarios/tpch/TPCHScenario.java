@@ -20,12 +20,16 @@
 import org.polypheny.client.grpc.PolyClientGRPC;
 import org.polypheny.client.grpc.PolyClientGRPC.DBMSSystem;
 import org.polypheny.client.grpc.PolyClientGRPC.LaunchWorkerMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.ProgressMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.ProgressRequestMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHTest;
 import org.polypheny.client.job.PolyphenyJobCdl;
 import org.polypheny.client.job.evaluation.PolyphenyCdlParams;
 import org.polypheny.client.monitoring.NetdataMonitorAdmin;
 import org.polypheny.client.rpc.ProtoObjectFactory;
 import org.polypheny.client.rpc.master.WorkerStub;
+import org.polypheny.client.rpc.master.WorkerUnavailableException;
 import org.polypheny.client.scenarios.Scenario;
 import org.polypheny.client.storage.StreamWriter;
 
@@ -80,6 +84,8 @@ private File getResultFolderPath() {
     @Override
     public Properties execute() {
         TPCHBenchmarker benchmarker = generateBenchmarker();
+        benchmarker.setValidateResults( job.getEvaluation().getOptions().getTpchValidateResults() );
+        benchmarker.setProfiling( job.getEvaluation().getOptions().getTpchProfileSampling(), job.getEvaluation().getOptions().getTpchProfiledQueries() );
 
         safeSetup( benchmarker );
 
@@ -87,62 +93,100 @@ public Properties execute() {
             powerTest( benchmarker );
         }
 
+        //Taken before the launch, the workers only send the results of queries which started after it
+        long start = java.lang.System.currentTimeMillis();
         launchWorkers(); //throughput test
 
         NetdataMonitorAdmin.launchMonitors( workers, job );
 
-        long start = java.lang.System.currentTimeMillis();
-        long elapsedTime = 0;
-        long SLEEP_TIME = 10_000;
-        //Sleep for benchmark duration
-        while ( elapsedTime < job.getEvaluation().getParams().getMeasurementTime() ) {
-            try {
-                double progress = (float) elapsedTime / job.getEvaluation().getParams().getMeasurementTime();
-                progressListener.setBenchmarkProgress( progress );
-                logger.debug( "Sleeping for {} ms", SLEEP_TIME );
-                Thread.sleep( SLEEP_TIME );
-            } catch ( InterruptedException e ) {
-                logger.error( e );
-            }
-            elapsedTime += SLEEP_TIME;
-        }
-        //Abort benchmark
+        awaitStreams();
+        //Abort streams which did not finish in time
         abort();
         long stop = java.lang.System.currentTimeMillis();
 
         logger.debug( "Fetching Results" );
 
         fetchResults( start, stop );
-        TPCHAnalysis analysis = new TPCHAnalysis( getStorageFolderPath(), getResultFolderPath() );
+        String referenceAnswers = job.getEvaluation().getOptions().getTpchReferenceAnswers();
+        TPCHAnalysis analysis = new TPCHAnalysis( getStorageFolderPath(), getResultFolderPath(), job.getEvaluation().getOptions().getTpchScalefactor(), referenceAnswers.isEmpty() ? null : new File( referenceAnswers ),
+                job.getEvaluation().getOptions().getTpchExecuteRefreshFunctions() );
         analysis.analyze();
         NetdataMonitorAdmin.fetchWorkerMonitorResults( getResultFolderPath(), workers, job, start, stop );
         return analysis.getProperties();
     }
 
 
+    /**
+     * Waits until all workers have executed their streams. The measurement time of the job is the timeout, streams which are still running after it are incomplete and the throughput test is invalid.
+     */
+    private void awaitStreams() {
+        long elapsedTime = 0;
+        long SLEEP_TIME = 1_000;
+        long measurementTime = job.getEvaluation().getParams().getMeasurementTime();
+        while ( elapsedTime < measurementTime ) {
+            boolean finished = true;
+            for ( WorkerStub worker : workers ) {
+                try {
+                    ProgressMessage progressMessage = worker.reportProgress( ProgressRequestMessage.newBuilder().setScenario( PolyClientGRPC.Scenario.SCENARIOTPCH ).build() );
+                    logger.trace( "Progress for worker {} was {}", worker.getHost(), progressMessage );
+                    finished &= progressMessage.getIsFinished();
+                } catch ( WorkerUnavailableException e ) {
+                    //Its streams will not finish, there is no point in waiting for them
+                    logger.error( "Worker {} is unavailable, its streams are incomplete", worker.getHost() );
+                }
+            }
+            if ( finished ) {
+                logger.info( "All streams finished after {} ms", elapsedTime );
+                return;
+            }
+            try {
+                double progress = (double) elapsedTime / measurementTime;
+                progressListener.setBenchmarkProgress( progress );
+                Thread.sleep( SLEEP_TIME );
+            } catch ( InterruptedException e ) {
+                logger.error( e );
+            }
+            elapsedTime += SLEEP_TIME;
+        }
+        logger.warn( "Not all streams finished within {} ms, the throughput test is incomplete", measurementTime );
+    }
+
+
     private File getStorageFolderPath() {
         return Paths.get( Config.DEFAULT_WORKER_STORAGE_LOCATION, "results", "tpch", job.getEvaluation().getOptions().getSystem().toString() ).toFile();
     }
 
 
+    /**
+     * Executes the power test on the master. Its results are stored as stream 0 of {@link TPCHTest#TPCHTESTPOWER}.
+     */
     public void powerTest( TPCHBenchmarker benchmarker ) {
         logger.info( "Executing Power test" );
+        StreamDeadline deadline = new StreamDeadline( job.getEvaluation().getOptions().getTpchQueryTimeout(), job.getEvaluation().getOptions().getTpchStreamTimeout() );
         //power test (5.3.3, page 95) with RF1 - QueryStream00 - RF2
         //RF1
-        if ( Config.EXECUTE_REFRESH_FUNCTIONS ) {
+        boolean refreshFunctions = job.getEvaluation().getOptions().getTpchExecuteRefreshFunctions();
+        if ( refreshFunctions ) {
             logger.info( "Executing RF1" );
+            benchmarker.setQueryTimeout( deadline.nextQueryTimeout() );
             TPCHResultTuple tupleRF1 = benchmarker.genericRefreshFunctionExecutor( 23 );
             logTransaction( tupleRF1 );
         }
-        //QueryStream00
-        for ( int i = 1; i <= 22; i++ ) {
+        //QueryStream00 in the order of Appendix A
+        for ( int i : TPCHQueryPermutation.forStream( 0 ) ) {
+            if ( deadline.isExpired() ) {
+                logger.warn( "The power test exceeded the stream timeout, the remaining queries are not executed" );
+                break;
+            }
             logger.info( "Executing query {}", i );
+            benchmarker.setQueryTimeout( deadline.nextQueryTimeout() );
             TPCHResultTuple tupleQ = benchmarker.genericQueryExecutor( i );
             logTransaction( tupleQ );
         }
-        if ( Config.EXECUTE_REFRESH_FUNCTIONS ) {
+        if ( refreshFunctions ) {
             logger.info( "Executing RF2" );
             //RF2
+            benchmarker.setQueryTimeout( deadline.nextQueryTimeout() );
             TPCHResultTuple tupleRF2 = benchmarker.genericRefreshFunctionExecutor( 24 );
             logTransaction( tupleRF2 );
         }
@@ -182,12 +226,22 @@ public void safeSetup( TPCHBenchmarker benchmarker ) {
             }
 
             //load test (5.1.1.2, page 92)
+            if ( job.getEvaluation().getOptions().getTpchIncrementalPopulation() ) {
+                // the schema script drops the tables, growing keeps them
+                logger.debug( "Not creating schema, growing database..." );
+                benchmarker.setLoaderThreads( job.getEvaluation().getOptions().getTpchLoaderThreads() );
+                benchmarker.growDatabase();
+                return;
+            }
             if ( job.getEvaluation().getSetup().getCreateSchema() ) {
                 logger.debug( "Creating schema..." );
                 benchmarker.createTables(); //Create Tables
             } else {
                 logger.debug( "Not creating schema... " );
             }
+            if ( job.getEvaluation().getOptions().getTpchDataCache() ) {
+                benchmarker.useDataCache( job.getEvaluation().getOptions().getTpchDataCacheChunks(), job.getEvaluation().getOptions().getTpchLoaderThreads() );
+            }
             benchmarker.populateDatabase(); //Populate DB
         }
     }
@@ -215,7 +269,8 @@ private void fetchResults( long start, long stop ) {
      */
     private void launchWorkers() {
         int noWorkers = job.getEvaluation().getParams().getWorkers();
-        logger.debug( "Launching {} workers", noWorkers );
+        int streams = job.getEvaluation().getOptions().getTpchStreams();
+        logger.debug( "Launching {} workers with {} query streams each", noWorkers, streams );
         String[] workerURLs = job.getEvaluation().getParams().getWorkerURLs();
 
         if ( noWorkers != workerURLs.length ) {
@@ -231,7 +286,9 @@ private void launchWorkers() {
 
             //Generate WorkerMessage
             LaunchWorkerMessage workerMessage = ProtoObjectFactory.TPCHWorkerMessage( job.getEvaluation().getDbms().getHost(), job.getEvaluation().getDbms().getPort(), job.getEvaluation().getDbms().getDatabase(), job.getEvaluation().getDbms().getUsername(), job.getEvaluation().getDbms().getPassword(),
-                    job.getEvaluation().getOptions().getSystem(), job.getEvaluation().getOptions().getAccessMethod(), i == 0, job.getEvaluation().getOptions().getTpchScalefactor(), job.getEvaluation().getOptions().getTpchStreams() );
+                    job.getEvaluation().getOptions().getSystem(), job.getEvaluation().getOptions().getAccessMethod(), i == 0, job.getEvaluation().getOptions().getTpchScalefactor(), streams, i * streams + 1, noWorkers * streams, job.getEvaluation().getOptions().getTpchMaxConcurrentQueries(),
+                    job.getEvaluation().getOptions().getTpchExecuteRefreshFunctions(), job.getEvaluation().getOptions().getTpchRefreshBatchSize(), job.getEvaluation().getOptions().getTpchQueryTimeout(), job.getEvaluation().getOptions().getTpchStreamTimeout(),
+                    job.getEvaluation().getOptions().getTpchValidateResults(), job.getEvaluation().getOptions().getTpchProfileSampling(), job.getEvaluation().getOptions().getTpchProfiledQueries() );
             worker.launchWorker( workerMessage );
         }
     }
@@ -245,8 +302,10 @@ private TPCHBenchmarker generateBenchmarker() {
         switch ( dbms ) {
             case SYSTEMPOSTGRESQL:
                 try {
-                    return new PostgresTpchBenchmarker( job.getEvaluation().getOptions().getAccessMethod(), job.getEvaluation().getDbms().getHost(), job.getEvaluation().getDbms().getPort(), job.getEvaluation().getDbms().getDatabase(), job.getEvaluation().getDbms().getUsername(),
+                    PostgresTpchBenchmarker benchmarker = new PostgresTpchBenchmarker( job.getEvaluation().getOptions().getAccessMethod(), job.getEvaluation().getDbms().getHost(), job.getEvaluation().getDbms().getPort(), job.getEvaluation().getDbms().getDatabase(), job.getEvaluation().getDbms().getUsername(),
                             job.getEvaluation().getDbms().getPassword(), job.getEvaluation().getOptions().getTpchScalefactor() );
+                    benchmarker.setRefreshBatchSize( job.getEvaluation().getOptions().getTpchRefreshBatchSize() );
+                    return benchmarker;
                 } catch ( ConnectionException e ) {
                     logger.fatal( "Could not create Postgres-benchmarker @ master" );
                     throw new RuntimeException( e );
@@ -279,7 +338,7 @@ private void logTransaction( TPCHResultTuple tuple ) {
             logger.info( "Ignoring unsupported query" );
             return;
         }
-        resultWriter.onNext( tuple );
+        resultWriter.onNext( tuple.toBuilder().setStream( 0 ).setTest( TPCHTest.TPCHTESTPOWER ).build() );
         logger.info( "Query {} with transaction {} took {} ms", tuple.getQueryID(), tuple.getTransactionType(), tuple.getResponseTime() );
     }
 }
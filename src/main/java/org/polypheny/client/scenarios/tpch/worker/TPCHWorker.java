@@ -2,9 +2,13 @@
 
 
 import io.grpc.stub.StreamObserver;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.polypheny.client.db.access.ConnectionException;
@@ -16,13 +20,16 @@
 import org.polypheny.client.grpc.PolyClientGRPC.LaunchWorkerMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.ProgressMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.ResultMessage;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHWorkerMessage;
 import org.polypheny.client.rpc.ProtoObjectFactory;
 import org.polypheny.client.scenarios.Worker;
 
 
 /**
- * The thread which each worker of the master-worker architecture executes. A {@link TPCHWorker} gets assigned a series of warehouses and launches {@link Terminal} for each of those.
+ * The thread which each worker of the master-worker architecture executes. A {@link TPCHWorker} runs its share of the query streams of the throughput test (5.3.4), one {@link Terminal} per stream. The first worker also runs the refresh stream. The worker is finished once all its streams are.
+ *
+ * The streams run on an executor of the worker. If {@link TPCHWorkerMessage#getMaxConcurrentQueries()} is set, at most that many queries and refresh functions execute at once, the other streams wait for a free slot.
  *
  * @author manuelhuerbin on 11.04.17.
  */
@@ -34,51 +41,108 @@ public class TPCHWorker implements Worker {
     private List<Terminal> terminals;
     private volatile boolean running = false;
     private boolean runRefreshStream;
+    private ExecutorService executor;
+    //null if the number of concurrent queries is not limited
+    private Semaphore querySlots;
     AtomicInteger queryCounter = new AtomicInteger( 0 );
+    //queries of the query streams, without refresh functions
+    AtomicInteger streamQueryCounter = new AtomicInteger( 0 );
 
 
     public TPCHWorker( LaunchWorkerMessage workerMessage ) {
         this.workerMessage = workerMessage;
-        this.terminals = new ArrayList<>();
+        this.terminals = new CopyOnWriteArrayList<>();
         runRefreshStream = workerMessage.getTpchWorkerMessage().getExecuteRefreshStream();
     }
 
 
     /**
-     * Starts the TPC-H Worker. Launches {@link PolyClientGRPC.TPCHWorkerMessage} {@link Terminal}s per District. Launch from lower to upper bound (lower inclusive, upper exclusive)
+     * Starts the TPC-H Worker. Launches {@link PolyClientGRPC.TPCHWorkerMessage#getStreams()} {@link Terminal}s, numbered from {@link PolyClientGRPC.TPCHWorkerMessage#getFirstStream()} on. The refresh stream is number 0.
      */
     public void start() {
         running = true;
         logger.info( "Starting TPC-H Worker with {} terminals", workerMessage.getTpchWorkerMessage().getStreams() );
+        int maxConcurrentQueries = workerMessage.getTpchWorkerMessage().getMaxConcurrentQueries();
+        if ( maxConcurrentQueries > 0 ) {
+            logger.info( "At most {} queries execute at once", maxConcurrentQueries );
+            querySlots = new Semaphore( maxConcurrentQueries, true );
+        }
+        executor = Executors.newFixedThreadPool( Math.max( 1, workerMessage.getTpchWorkerMessage().getStreams() + (runRefreshStream ? 1 : 0) ) );
 
-        //Create Terminal for RFs (worker 0) and start them
-        int terminalID = 0;
-        Terminal terminalRF = new Terminal( this, runRefreshStream, terminalID );
-        terminals.add( terminalRF );
-
-        new Thread( terminalRF ).start();
+        int firstStream = Math.max( 1, workerMessage.getTpchWorkerMessage().getFirstStream() );
         for ( int terminalIdx = 0; terminalIdx < workerMessage.getTpchWorkerMessage().getStreams(); terminalIdx++ ) {
-            Terminal terminal = new Terminal( this, false, terminalIdx + 1 );
-            logger.info( "Starting terminal with id {}", terminalIdx + 1 );
+            Terminal terminal = new Terminal( this, false, firstStream + terminalIdx );
+            logger.info( "Starting terminal with id {}", firstStream + terminalIdx );
             terminals.add( terminal );
-            new Thread( terminal ).start();
+            executor.execute( terminal );
+        }
+        //Create Terminal for RFs (worker 0) after the query streams, it follows their progress
+        if ( runRefreshStream ) {
+            Terminal terminalRF = new Terminal( this, true, 0 );
+            terminals.add( terminalRF );
+            executor.execute( terminalRF );
         }
+        //Every terminal executes its stream once, the threads end with the streams
+        executor.shutdown();
         logger.info( "All Terminals started" );
     }
 
 
     /**
-     * Aborts the currently running benchmark
+     * Aborts the currently running benchmark. Running queries are cancelled and streams waiting for a query slot are interrupted, so the load stops immediately.
      */
     public void abort() {
         logger.debug( "Aborting benchmark" );
         running = false;
         for ( Terminal terminal : terminals ) {
-            terminal.stop();
+            if ( !terminal.isFinished() ) {
+                terminal.cancel();
+            }
+        }
+        if ( executor != null ) {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Executes a query or refresh function of a stream. Waits for a free slot if the number of concurrent queries is limited.
+     *
+     * @return the result of the query, {@link TPCHResultTuple#getDefaultInstance()} if the stream was interrupted while waiting
+     */
+    TPCHResultTuple execute( Supplier<TPCHResultTuple> query ) {
+        if ( querySlots == null ) {
+            return query.get();
+        }
+        try {
+            querySlots.acquire();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            return TPCHResultTuple.getDefaultInstance();
+        }
+        try {
+            return query.get();
+        } finally {
+            querySlots.release();
         }
     }
 
 
+    /**
+     * Used to spread the refresh stream over the throughput test
+     *
+     * @return fraction of the queries of the query streams of this worker which have been executed, 1 once the query streams are finished
+     */
+    double getQueryStreamProgress() {
+        boolean queryStreamsFinished = terminals.stream().filter( terminal -> !terminal.isRefreshStream() ).allMatch( Terminal::isFinished );
+        int queries = Terminal.QUERIES * workerMessage.getTpchWorkerMessage().getStreams();
+        if ( queryStreamsFinished || queries == 0 ) {
+            return 1;
+        }
+        return Math.min( 1, (double) streamQueryCounter.get() / queries );
+    }
+
+
     /**
      * Stream the Results back in batched fashion. Uses the {@link Terminal} for that.
      *
@@ -125,8 +189,16 @@ public boolean isRunning() {
     }
 
 
+    /**
+     * @return true if all streams have executed their queries or refresh functions
+     */
+    public boolean isFinished() {
+        return terminals.stream().allMatch( Terminal::isFinished );
+    }
+
+
     @Override
     public ProgressMessage progress() {
-        return ProtoObjectFactory.ProgressMessage( !running, queryCounter.get() );
+        return ProtoObjectFactory.ProgressMessage( !running || isFinished(), queryCounter.get() );
     }
 }
@@ -13,22 +13,32 @@
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultMessage.Builder;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHTest;
+import org.polypheny.client.scenarios.tpch.StreamDeadline;
+import org.polypheny.client.scenarios.tpch.TPCHQueryPermutation;
 import org.polypheny.client.storage.JsonStreamReader;
 import org.polypheny.client.storage.StorageGson;
 import org.polypheny.client.storage.StreamWriter;
 
 
 /**
- * Polypheny-Client abstraction for one TPC-H Executor, is called terminal to mirror TPC-H Implementation. Is controlled by a {@link TPCHWorker}
+ * Polypheny-Client abstraction for one TPC-H Executor, is called terminal to mirror TPC-H Implementation. Is controlled by a {@link TPCHWorker}. A terminal executes one stream of the throughput test (5.3.4) once: a query stream executes the 22 queries in the order of its ordered set of Appendix A, the refresh stream executes one RF1/RF2 pair per query stream.
+ *
+ * Queries which exceed {@link org.polypheny.client.grpc.PolyClientGRPC.TPCHWorkerMessage#getQueryTimeout()} are cancelled, a stream which exceeds {@link org.polypheny.client.grpc.PolyClientGRPC.TPCHWorkerMessage#getStreamTimeout()} stops.
+ *
+ * The refresh stream runs in parallel to the query streams (5.3.7). Instead of executing all pairs at the start of the test, pair i starts once the query streams of the worker have executed i / pairs of their queries, so the updates are spread over the throughput test.
  *
  * @author manuelhuerbin on 11.04.17.
  */
 public class Terminal implements Runnable {
 
+    static final int QUERIES = 22;
     private static final Logger logger = LogManager.getLogger();
+    private static final long REFRESH_POLL_INTERVAL = 100;
 
     private TPCHWorker worker;
     private volatile boolean running;
+    private volatile boolean finished = false;
     private TPCHBenchmarker benchmarker;
     private boolean refreshStream;
     private StreamWriter<TPCHResultTuple> resultWriter;
@@ -42,6 +52,9 @@ public class Terminal implements Runnable {
         this.benchmarker = worker.createBenchmarker( this );
         this.refreshStream = refreshStream;
         this.terminalID = terminalID;
+        this.benchmarker.setQueryStream( terminalID );
+        this.benchmarker.setValidateResults( worker.getWorkerMessage().getValidateResults() );
+        this.benchmarker.setProfiling( worker.getWorkerMessage().getProfileSampling(), worker.getWorkerMessage().getProfiledQueriesList() );
         File storageFolder = new File( new File( Config.DEFAULT_WORKER_STORAGE_LOCATION ), "terminals" );
         storageFolder.mkdirs();
         File storage = new File( storageFolder, terminalID + ".json" );
@@ -56,42 +69,77 @@ public class Terminal implements Runnable {
     @Override
     public void run() {
         running = true;
-        while ( running ) {
-            // througput test (5.3.4, page 95) run queryStream (TPCHConfig.STREAM times)
-            if ( refreshStream ) {
-                //run refreshStream (once with TPCHConfig.STREAM RF pairs)
-                for ( int i = 0; i < worker.getWorkerMessage().getStreams(); i++ ) {
-                    if ( !running ) {
-                        continue;
-                    }
-
-                    if ( !Config.EXECUTE_REFRESH_FUNCTIONS ) {
-                        logger.info( "Stopping execution on refresh-stream" );
-                        this.stop();
-                        return;
-                    }
-                    //RF1
-                    TPCHResultTuple tupleRF1 = benchmarker.genericRefreshFunctionExecutor( 23 );
-                    logTransaction( tupleRF1 );
-                    worker.queryCounter.incrementAndGet();
-                    if ( !running ) {
-                        continue;
-                    }
-                    TPCHResultTuple tupleRF2 = benchmarker.genericRefreshFunctionExecutor( 24 );
-                    logTransaction( tupleRF2 );
-                    worker.queryCounter.incrementAndGet();
-
+        StreamDeadline deadline = new StreamDeadline( worker.getWorkerMessage().getQueryTimeout(), worker.getWorkerMessage().getStreamTimeout() );
+        // througput test (5.3.4, page 95)
+        if ( refreshStream ) {
+            if ( !worker.getWorkerMessage().getExecuteRefreshFunctions() ) {
+                logger.info( "Stopping execution on refresh-stream" );
+                finish();
+                return;
+            }
+            //run refreshStream (once with one RF pair per query stream)
+            int pairs = Math.max( worker.getWorkerMessage().getTotalStreams(), worker.getWorkerMessage().getStreams() );
+            for ( int i = 0; i < pairs && running; i++ ) {
+                awaitQueryStreams( (double) i / pairs );
+                if ( !running || isExpired( deadline ) ) {
+                    break;
                 }
-            } else {
-                for ( int i = 1; i <= 22; i++ ) {
-                    if ( !running ) {
-                        continue;
-                    }
-                    logTransaction( benchmarker.genericQueryExecutor( i ) );
-                    worker.queryCounter.incrementAndGet();
+                //RF1
+                benchmarker.setQueryTimeout( deadline.nextQueryTimeout() );
+                TPCHResultTuple tupleRF1 = worker.execute( () -> benchmarker.genericRefreshFunctionExecutor( 23 ) );
+                logTransaction( tupleRF1 );
+                worker.queryCounter.incrementAndGet();
+                if ( !running || isExpired( deadline ) ) {
+                    break;
                 }
+                benchmarker.setQueryTimeout( deadline.nextQueryTimeout() );
+                TPCHResultTuple tupleRF2 = worker.execute( () -> benchmarker.genericRefreshFunctionExecutor( 24 ) );
+                logTransaction( tupleRF2 );
+                worker.queryCounter.incrementAndGet();
             }
+        } else {
+            for ( int queryID : TPCHQueryPermutation.forStream( terminalID ) ) {
+                if ( !running || isExpired( deadline ) ) {
+                    break;
+                }
+                benchmarker.setQueryTimeout( deadline.nextQueryTimeout() );
+                logTransaction( worker.execute( () -> benchmarker.genericQueryExecutor( queryID ) ) );
+                worker.queryCounter.incrementAndGet();
+                worker.streamQueryCounter.incrementAndGet();
+            }
+        }
+        finish();
+    }
+
+
+    /**
+     * Waits until the query streams of the worker have executed the given fraction of their queries
+     */
+    private void awaitQueryStreams( double progress ) {
+        while ( running && worker.getQueryStreamProgress() < progress ) {
+            try {
+                Thread.sleep( REFRESH_POLL_INTERVAL );
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+
+    private boolean isExpired( StreamDeadline deadline ) {
+        if ( deadline.isExpired() ) {
+            logger.warn( "Terminal {} exceeded the stream timeout, the remaining queries are not executed", terminalID );
+            return true;
         }
+        return false;
+    }
+
+
+    private void finish() {
+        logger.info( "Terminal {} finished its stream", terminalID );
+        stop();
+        finished = true;
         benchmarker.abort();
     }
 
@@ -105,11 +153,33 @@ public void stop() {
     }
 
 
+    /**
+     * Stops execution and cancels the query or refresh function which is currently executing
+     */
+    public void cancel() {
+        stop();
+        benchmarker.cancel();
+    }
+
+
     public boolean isRunning() {
         return running;
     }
 
 
+    public boolean isRefreshStream() {
+        return refreshStream;
+    }
+
+
+    /**
+     * @return true once the stream has been executed or aborted
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+
     /**
      * Stores the transaction
      *
@@ -120,7 +190,7 @@ private void logTransaction( TPCHResultTuple tuple ) {
             logger.trace( "Ignoring unsupported query" );
             return;
         }
-        resultWriter.onNext( tuple );
+        resultWriter.onNext( tuple.toBuilder().setStream( terminalID ).setTest( TPCHTest.TPCHTESTTHROUGHPUT ).build() );
         logger.info( "Terminal {}: Query {} took {} ms", terminalID, tuple.getQueryID(), tuple.getResponseTime() );
     }
 
@@ -140,7 +210,7 @@ public void sendResults( StreamObserver<ResultMessage> responseObserver, FetchRe
         while ( resultReader.hasNext() ) {
             //Iterate in batches of 100
             for ( TPCHResultTuple tuple : resultReader.readFromStream( 100 ) ) {
-                if ( request.getStartTime() < tuple.getStartTimestamp() && request.getStopTime() > tuple.getStartTimestamp() ) {
+                if ( request.getStartTime() <= tuple.getStartTimestamp() && request.getStopTime() > tuple.getStartTimestamp() ) {
                     counter++;
                     builder.addResults( tuple );
                     if ( counter % 100 == 0 ) {
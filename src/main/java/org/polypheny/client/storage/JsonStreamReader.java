@@ -55,8 +55,11 @@ public JsonStreamReader( File storage, Class<T> typeParameterClass, Gson gson )
     public void cleanup() {
         try {
             if ( reader != null ) {
-                reader.endArray();
-                reader.close();
+                //Close the reader even if the array is incomplete
+                try ( JsonReader closed = reader ) {
+                    reader = null;
+                    closed.endArray();
+                }
             }
         } catch ( Exception e ) {
             logger.error( "Exception during cleanup {}", e.getMessage() );
@@ -69,6 +72,9 @@ public void cleanup() {
      * @return true if there is a next object in the underlying {@link JsonReader}
      */
     public boolean hasNext() {
+        if ( reader == null ) {
+            return false;
+        }
         try {
             return reader.hasNext();
         } catch ( IOException e ) {
@@ -103,6 +109,28 @@ public synchronized List<T> readFromStream( int n ) {
     }
 
 
+    /**
+     * Skips the next n elements without deserializing them
+     *
+     * @return how many elements were skipped, less than n if the array ends before
+     */
+    public synchronized long skip( long n ) {
+        start();
+        long skipped = 0;
+        try {
+            while ( skipped < n && reader.hasNext() ) {
+                reader.skipValue();
+                skipped++;
+            }
+        } catch ( IOException e ) {
+            logger.error( "Error during skip {}", e.getMessage() );
+            cleanup();
+            throw new RuntimeException( e );
+        }
+        return skipped;
+    }
+
+
     public void start() {
         if ( !started ) {
             try {
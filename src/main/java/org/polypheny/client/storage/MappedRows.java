@@ -0,0 +1,83 @@
+package org.polypheny.client.storage;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Read-only memory-mapped text file, iterated line by line. Since a single mapping is limited to 2 GB, the file is mapped in segments and a line may span two of them. Pages are loaded by the OS on access, so a file which was read before is served from the page cache.
+ */
+public class MappedRows implements Iterable<String> {
+
+    private static final long SEGMENT_BYTES = 1L << 30;
+
+    private final MappedByteBuffer[] segments;
+
+
+    public MappedRows( File file ) throws IOException {
+        try ( RandomAccessFile randomAccessFile = new RandomAccessFile( file, "r" ); FileChannel channel = randomAccessFile.getChannel() ) {
+            long size = channel.size();
+            int segmentCount = (int) ((size + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+            segments = new MappedByteBuffer[segmentCount];
+            for ( int i = 0; i < segmentCount; i++ ) {
+                long position = i * SEGMENT_BYTES;
+                segments[i] = channel.map( MapMode.READ_ONLY, position, Math.min( SEGMENT_BYTES, size - position ) );
+            }
+        }
+    }
+
+
+    /**
+     * Lines are separated by \n, a \r before it is dropped. A missing separator after the last line is allowed.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int segment = 0;
+            private int position = 0;
+            private byte[] line = new byte[256];
+
+
+            @Override
+            public boolean hasNext() {
+                while ( segment < segments.length && position >= segments[segment].limit() ) {
+                    segment++;
+                    position = 0;
+                }
+                return segment < segments.length;
+            }
+
+
+            @Override
+            public String next() {
+                if ( !hasNext() ) {
+                    throw new NoSuchElementException();
+                }
+                int length = 0;
+                while ( hasNext() ) {
+                    byte next = segments[segment].get( position++ );
+                    if ( next == '\n' ) {
+                        break;
+                    }
+                    if ( length == line.length ) {
+                        line = Arrays.copyOf( line, line.length * 2 );
+                    }
+                    line[length++] = next;
+                }
+                if ( length > 0 && line[length - 1] == '\r' ) {
+                    length--;
+                }
+                return new String( line, 0, length, StandardCharsets.UTF_8 );
+            }
+        };
+    }
+}
@@ -3,6 +3,7 @@
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import org.polypheny.client.grpc.PolyClientGRPC.NetdataMeasurement;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
 import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultMessage;
@@ -10,6 +11,7 @@
 import org.polypheny.client.grpc.PolyClientGRPC.WorkerMonitorResult;
 import org.polypheny.client.grpc.PolyClientGRPC.YCSBResultMessage;
 import org.polypheny.client.grpc.PolyClientGRPC.YCSBResultTuple;
+import org.polypheny.client.storage.rpc.NetdataMeasurementDeserializer;
 import org.polypheny.client.storage.rpc.TPCCResultMessageDeserializer;
 import org.polypheny.client.storage.rpc.TPCCResultTupleDeserializer;
 import org.polypheny.client.storage.rpc.TPCHResultMessageDeserializer;
@@ -38,6 +40,7 @@ public class StorageGson {
         gsonBuilder.registerTypeAdapter( YCSBResultMessage.class, new YCSBResultMessageDeserializer() );
         gsonBuilder.registerTypeAdapter( YCSBResultTuple.class, new YCSBResultTupleDeserializer() );
         gsonBuilder.registerTypeAdapter( WorkerMonitorResult.class, new WorkerMonitorResultDeserializer() );
+        gsonBuilder.registerTypeAdapter( NetdataMeasurement.class, new NetdataMeasurementDeserializer() );
         gson = gsonBuilder.create();
     }
 
@@ -0,0 +1,83 @@
+package org.polypheny.client.storage.columnar;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+
+/**
+ * Read-only memory-mapped column of fixed-width values. Since a single mapping is limited to 2 GB, the file is mapped in segments.
+ */
+class MappedColumn {
+
+    private static final long SEGMENT_BYTES = 1L << 30;
+
+    private final int width;
+    private final long rowsPerSegment;
+    private final long rows;
+    private final MappedByteBuffer[] segments;
+
+
+    /**
+     * @param file column file
+     * @param width size of a value in bytes
+     */
+    MappedColumn( File file, int width ) throws IOException {
+        this.width = width;
+        this.rowsPerSegment = SEGMENT_BYTES / width;
+        try ( RandomAccessFile randomAccessFile = new RandomAccessFile( file, "r" ); FileChannel channel = randomAccessFile.getChannel() ) {
+            long size = channel.size();
+            this.rows = size / width;
+            int segmentCount = (int) ((rows + rowsPerSegment - 1) / rowsPerSegment);
+            segments = new MappedByteBuffer[segmentCount];
+            for ( int i = 0; i < segmentCount; i++ ) {
+                long position = i * rowsPerSegment * width;
+                segments[i] = channel.map( MapMode.READ_ONLY, position, Math.min( rowsPerSegment * width, size - position ) );
+            }
+        }
+    }
+
+
+    long getRows() {
+        return rows;
+    }
+
+
+    private MappedByteBuffer segment( long row ) {
+        return segments[(int) (row / rowsPerSegment)];
+    }
+
+
+    private int offset( long row ) {
+        return (int) (row % rowsPerSegment) * width;
+    }
+
+
+    long getLong( long row ) {
+        return segment( row ).getLong( offset( row ) );
+    }
+
+
+    float getFloat( long row ) {
+        return segment( row ).getFloat( offset( row ) );
+    }
+
+
+    int getInt( long row ) {
+        return segment( row ).getInt( offset( row ) );
+    }
+
+
+    short getShort( long row ) {
+        return segment( row ).getShort( offset( row ) );
+    }
+
+
+    byte getByte( long row ) {
+        return segment( row ).get( offset( row ) );
+    }
+}
@@ -0,0 +1,236 @@
+package org.polypheny.client.storage.columnar;
+
+
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.ABORTED;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.DISTRICT;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.INTENDED_RESPONSE_TIME;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.META;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.QUERY_OFFSET;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.QUERY_TIME;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.QUERY_TYPE;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.RESPONSE_TIME;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.START;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.TERMINAL;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.TYPE;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.WAREHOUSE;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.WORKER;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.ZONE_MAX;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.ZONE_MIN;
+import static org.polypheny.client.storage.columnar.TPCCColumnWriter.ZONE_TYPES;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.grpc.PolyClientGRPC.QueryType;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+/**
+ * Scans columns written by a {@link TPCCColumnWriter}. All columns are memory-mapped. Blocks whose zone map does not match the time range or transaction types of a scan are skipped entirely.
+ *
+ * @tpccversion 5.11
+ */
+public class TPCCColumnReader {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final long rows;
+    private final long queries;
+    private final int blockSize;
+    private final MappedColumn start;
+    private final MappedColumn type;
+    private final MappedColumn responseTime;
+    private final MappedColumn intendedResponseTime;
+    private final MappedColumn aborted;
+    private final MappedColumn worker;
+    private final MappedColumn warehouse;
+    private final MappedColumn district;
+    private final MappedColumn terminal;
+    private final MappedColumn queryOffset;
+    private final MappedColumn queryType;
+    private final MappedColumn queryTime;
+    private final MappedColumn zoneMin;
+    private final MappedColumn zoneMax;
+    private final MappedColumn zoneTypes;
+
+
+    /**
+     * @param folder containing the columns
+     * @throws IOException if the columns are missing or incomplete
+     */
+    public TPCCColumnReader( File folder ) throws IOException {
+        JsonObject meta = new JsonParser().parse( new String( Files.readAllBytes( new File( folder, META ).toPath() ), StandardCharsets.UTF_8 ) ).getAsJsonObject();
+        if ( meta.get( "version" ).getAsInt() != TPCCColumnWriter.VERSION ) {
+            throw new IOException( "Unsupported column version " + meta.get( "version" ) );
+        }
+        rows = meta.get( "rows" ).getAsLong();
+        queries = meta.get( "queries" ).getAsLong();
+        blockSize = meta.get( "blockSize" ).getAsInt();
+        start = new MappedColumn( new File( folder, START ), Long.BYTES );
+        type = new MappedColumn( new File( folder, TYPE ), Byte.BYTES );
+        responseTime = new MappedColumn( new File( folder, RESPONSE_TIME ), Float.BYTES );
+        intendedResponseTime = new MappedColumn( new File( folder, INTENDED_RESPONSE_TIME ), Float.BYTES );
+        aborted = new MappedColumn( new File( folder, ABORTED ), Byte.BYTES );
+        worker = new MappedColumn( new File( folder, WORKER ), Short.BYTES );
+        warehouse = new MappedColumn( new File( folder, WAREHOUSE ), Integer.BYTES );
+        district = new MappedColumn( new File( folder, DISTRICT ), Byte.BYTES );
+        terminal = new MappedColumn( new File( folder, TERMINAL ), Short.BYTES );
+        queryOffset = new MappedColumn( new File( folder, QUERY_OFFSET ), Long.BYTES );
+        queryType = new MappedColumn( new File( folder, QUERY_TYPE ), Byte.BYTES );
+        queryTime = new MappedColumn( new File( folder, QUERY_TIME ), Long.BYTES );
+        zoneMin = new MappedColumn( new File( folder, ZONE_MIN ), Long.BYTES );
+        zoneMax = new MappedColumn( new File( folder, ZONE_MAX ), Long.BYTES );
+        zoneTypes = new MappedColumn( new File( folder, ZONE_TYPES ), Integer.BYTES );
+        if ( start.getRows() != rows || queryTime.getRows() != queries ) {
+            throw new IOException( "Columns in " + folder + " are incomplete" );
+        }
+    }
+
+
+    /**
+     * @return true if the folder contains columns which were closed properly
+     */
+    public static boolean exists( File folder ) {
+        return new File( folder, META ).isFile();
+    }
+
+
+    public long getRows() {
+        return rows;
+    }
+
+
+    /**
+     * Visits all transactions which started within [from, to) and have one of the given types. The {@link TransactionRow} passed to the consumer is reused, do not keep a reference to it.
+     *
+     * @param types null or empty for all types
+     * @return how many blocks the zone maps allowed to skip
+     */
+    public long scan( long from, long to, Set<TPCCTransactionType> types, Consumer<TransactionRow> consumer ) {
+        int typeMask = 0;
+        if ( types == null || types.isEmpty() ) {
+            typeMask = ~0;
+        } else {
+            for ( TPCCTransactionType transactionType : types ) {
+                typeMask |= 1 << transactionType.getNumber();
+            }
+        }
+        TransactionRow row = new TransactionRow();
+        long skippedBlocks = 0;
+        long blocks = (rows + blockSize - 1) / blockSize;
+        for ( long block = 0; block < blocks; block++ ) {
+            if ( zoneMax.getLong( block ) < from || zoneMin.getLong( block ) >= to || (zoneTypes.getInt( block ) & typeMask) == 0 ) {
+                skippedBlocks++;
+                continue;
+            }
+            long last = Math.min( rows, (block + 1) * blockSize );
+            for ( long index = block * blockSize; index < last; index++ ) {
+                long startTimestamp = start.getLong( index );
+                if ( startTimestamp < from || startTimestamp >= to || (typeMask & (1 << type.getByte( index ))) == 0 ) {
+                    continue;
+                }
+                row.index = index;
+                consumer.accept( row );
+            }
+        }
+        logger.debug( "Scan of [{}, {}) skipped {} of {} blocks", from, to, skippedBlocks, blocks );
+        return skippedBlocks;
+    }
+
+
+    /**
+     * View on the current row of a scan. Values are read from the mapped columns when they are accessed.
+     */
+    public class TransactionRow {
+
+        private long index;
+
+
+        /**
+         * @return position of the transaction in the columns
+         */
+        public long getIndex() {
+            return index;
+        }
+
+
+        public long getStartTimestamp() {
+            return start.getLong( index );
+        }
+
+
+        public TPCCTransactionType getTransactionType() {
+            return TPCCTransactionType.forNumber( type.getByte( index ) );
+        }
+
+
+        public float getResponseTime() {
+            return responseTime.getFloat( index );
+        }
+
+
+        /**
+         * @return response time from the intended start, 0 if the transaction was not scheduled
+         */
+        public float getIntendedResponseTime() {
+            return intendedResponseTime.getFloat( index );
+        }
+
+
+        public boolean isAborted() {
+            return aborted.getByte( index ) != 0;
+        }
+
+
+        /**
+         * @return index of the worker which executed the transaction
+         */
+        public int getWorker() {
+            return worker.getShort( index );
+        }
+
+
+        public int getWarehouseID() {
+            return warehouse.getInt( index );
+        }
+
+
+        public int getDistrictID() {
+            return district.getByte( index );
+        }
+
+
+        public int getTerminalIdx() {
+            return terminal.getShort( index );
+        }
+
+
+        public int getQueryCount() {
+            long next = index + 1 < rows ? queryOffset.getLong( index + 1 ) : queries;
+            return (int) (next - queryOffset.getLong( index ));
+        }
+
+
+        /**
+         * @param query position of the query within the transaction
+         */
+        public QueryType getQueryType( int query ) {
+            return QueryType.forNumber( queryType.getByte( queryOffset.getLong( index ) + query ) );
+        }
+
+
+        /**
+         * @param query position of the query within the transaction
+         */
+        public long getQueryExecutionTime( int query ) {
+            return queryTime.getLong( queryOffset.getLong( index ) + query );
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.polypheny.client.storage.columnar;
+
+
+import com.google.gson.JsonObject;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCQueryTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+
+
+/**
+ * Writes {@link TPCCResultTuple}s into a folder of column files. There is one row per transaction and a separate table with one row per query. Query strings are not stored, they remain in the JSON results.
+ *
+ * Every {@link #BLOCK_SIZE} transactions, a zone map entry with the minimum and maximum start timestamp and a bitmask of the transaction types in the block is written to {@link #ZONE_MIN}, {@link #ZONE_MAX} and {@link #ZONE_TYPES}.
+ *
+ * @tpccversion 5.11
+ */
+public class TPCCColumnWriter {
+
+    static final int BLOCK_SIZE = 65_536;
+    static final int VERSION = 1;
+
+    static final String META = "columns.json";
+    static final String START = "start.col";
+    static final String TYPE = "type.col";
+    static final String RESPONSE_TIME = "responseTime.col";
+    static final String INTENDED_RESPONSE_TIME = "intendedResponseTime.col";
+    static final String ABORTED = "aborted.col";
+    static final String WORKER = "worker.col";
+    static final String WAREHOUSE = "warehouse.col";
+    static final String DISTRICT = "district.col";
+    static final String TERMINAL = "terminal.col";
+    static final String QUERY_OFFSET = "queryOffset.col";
+    static final String QUERY_TYPE = "queryType.col";
+    static final String QUERY_TIME = "queryTime.col";
+    static final String ZONE_MIN = "zoneMin.col";
+    static final String ZONE_MAX = "zoneMax.col";
+    static final String ZONE_TYPES = "zoneTypes.col";
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final File folder;
+    private final DataOutputStream start;
+    private final DataOutputStream type;
+    private final DataOutputStream responseTime;
+    private final DataOutputStream intendedResponseTime;
+    private final DataOutputStream aborted;
+    private final DataOutputStream worker;
+    private final DataOutputStream warehouse;
+    private final DataOutputStream district;
+    private final DataOutputStream terminal;
+    private final DataOutputStream queryOffset;
+    private final DataOutputStream queryType;
+    private final DataOutputStream queryTime;
+    private final DataOutputStream zoneMin;
+    private final DataOutputStream zoneMax;
+    private final DataOutputStream zoneTypes;
+    private long rows = 0;
+    private long queries = 0;
+    private long blockMin = Long.MAX_VALUE;
+    private long blockMax = Long.MIN_VALUE;
+    private int blockTypes = 0;
+    private boolean closed = false;
+
+
+    /**
+     * @param folder where the column files are written to. Existing columns are overwritten.
+     */
+    public TPCCColumnWriter( File folder ) {
+        this.folder = folder;
+        if ( !folder.mkdirs() ) {
+            logger.trace( "column-Folder not created" );
+        }
+        //Columns of a previous run are invalid until this writer is closed
+        File meta = new File( folder, META );
+        if ( meta.exists() && !meta.delete() ) {
+            throw new RuntimeException( "Could not delete " + meta );
+        }
+        start = open( START );
+        type = open( TYPE );
+        responseTime = open( RESPONSE_TIME );
+        intendedResponseTime = open( INTENDED_RESPONSE_TIME );
+        aborted = open( ABORTED );
+        worker = open( WORKER );
+        warehouse = open( WAREHOUSE );
+        district = open( DISTRICT );
+        terminal = open( TERMINAL );
+        queryOffset = open( QUERY_OFFSET );
+        queryType = open( QUERY_TYPE );
+        queryTime = open( QUERY_TIME );
+        zoneMin = open( ZONE_MIN );
+        zoneMax = open( ZONE_MAX );
+        zoneTypes = open( ZONE_TYPES );
+    }
+
+
+    private DataOutputStream open( String column ) {
+        try {
+            return new DataOutputStream( new BufferedOutputStream( new FileOutputStream( new File( folder, column ) ) ) );
+        } catch ( IOException e ) {
+            throw new RuntimeException( e );
+        }
+    }
+
+
+    /**
+     * @param tuple transaction to append
+     * @param workerIdx index of the worker which executed the transaction
+     */
+    public synchronized void append( TPCCResultTuple tuple, int workerIdx ) {
+        if ( closed ) {
+            logger.warn( "Trying to append to closed columns in {}", folder );
+            return;
+        }
+        try {
+            start.writeLong( tuple.getStartTimestamp() );
+            type.writeByte( tuple.getTransactionTypeValue() );
+            responseTime.writeFloat( tuple.getResponseTime() );
+            intendedResponseTime.writeFloat( tuple.getIntendedResponseTime() );
+            aborted.writeBoolean( tuple.getAborted() );
+            worker.writeShort( workerIdx );
+            warehouse.writeInt( tuple.getWarehouseID() );
+            district.writeByte( tuple.getDistrictID() );
+            terminal.writeShort( tuple.getTerminalIdx() );
+            queryOffset.writeLong( queries );
+            for ( TPCCQueryTuple query : tuple.getQueriesList() ) {
+                queryType.writeByte( query.getQueryTypeValue() );
+                queryTime.writeLong( query.getExecutionTime() );
+                queries++;
+            }
+        } catch ( IOException e ) {
+            throw new RuntimeException( e );
+        }
+        blockMin = Math.min( blockMin, tuple.getStartTimestamp() );
+        blockMax = Math.max( blockMax, tuple.getStartTimestamp() );
+        blockTypes |= 1 << tuple.getTransactionTypeValue();
+        rows++;
+        if ( rows % BLOCK_SIZE == 0 ) {
+            writeZone();
+        }
+    }
+
+
+    private void writeZone() {
+        try {
+            zoneMin.writeLong( blockMin );
+            zoneMax.writeLong( blockMax );
+            zoneTypes.writeInt( blockTypes );
+        } catch ( IOException e ) {
+            throw new RuntimeException( e );
+        }
+        blockMin = Long.MAX_VALUE;
+        blockMax = Long.MIN_VALUE;
+        blockTypes = 0;
+    }
+
+
+    /**
+     * Flushes all columns and writes {@link #META}. Readers can only open the columns afterwards.
+     */
+    public synchronized void close() {
+        if ( closed ) {
+            return;
+        }
+        closed = true;
+        if ( rows % BLOCK_SIZE != 0 ) {
+            writeZone();
+        }
+        for ( DataOutputStream column : new DataOutputStream[]{ start, type, responseTime, intendedResponseTime, aborted, worker, warehouse, district, terminal, queryOffset, queryType, queryTime, zoneMin, zoneMax, zoneTypes } ) {
+            try {
+                column.close();
+            } catch ( IOException e ) {
+                logger.error( e );
+            }
+        }
+        JsonObject meta = new JsonObject();
+        meta.addProperty( "version", VERSION );
+        meta.addProperty( "rows", rows );
+        meta.addProperty( "queries", queries );
+        meta.addProperty( "blockSize", BLOCK_SIZE );
+        try ( Writer writer = new OutputStreamWriter( new FileOutputStream( new File( folder, META ) ), StandardCharsets.UTF_8 ) ) {
+            writer.write( meta.toString() );
+        } catch ( IOException e ) {
+            throw new RuntimeException( e );
+        }
+        logger.debug( "Wrote {} transactions and {} queries to {}", rows, queries, folder );
+    }
+}
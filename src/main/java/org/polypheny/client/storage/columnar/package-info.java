@@ -0,0 +1,5 @@
+/**
+ * This package contains a columnar on-disk format for results. Each column is a file of fixed-width big-endian values which is memory-mapped for scans. Zone maps per block of rows allow skipping blocks by time range and transaction type without touching their pages.
+ */
+
+package org.polypheny.client.storage.columnar;
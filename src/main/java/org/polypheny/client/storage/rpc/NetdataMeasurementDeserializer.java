@@ -0,0 +1,31 @@
+package org.polypheny.client.storage.rpc;
+
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.util.JsonFormat;
+import org.polypheny.client.grpc.PolyClientGRPC.NetdataMeasurement;
+
+
+/**
+ * Measurements are a protobuf map, which the default gson deserializer cannot handle.
+ */
+public class NetdataMeasurementDeserializer implements JsonDeserializer<NetdataMeasurement> {
+
+    @Override
+    public NetdataMeasurement deserialize( JsonElement json,
+            java.lang.reflect.Type typeOfT,
+            JsonDeserializationContext context ) throws JsonParseException {
+        NetdataMeasurement.Builder builder = NetdataMeasurement.newBuilder();
+
+        try {
+            JsonFormat.parser().merge( json.toString(), builder );
+        } catch ( InvalidProtocolBufferException e ) {
+            throw new RuntimeException( e );
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,117 @@
+package org.polypheny.client.analysis;
+
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.Test;
+
+
+/**
+ * Tests the bounded-memory building blocks of the analyzers
+ */
+public class ResponseTimeHistogramTest {
+
+    @Test
+    public void testPercentiles() {
+        ResponseTimeHistogram histogram = new ResponseTimeHistogram();
+        for ( int i = 1; i <= 1_000; i++ ) {
+            histogram.record( i );
+        }
+        assertEquals( 1_000, histogram.getCount() );
+        assertEquals( 500, histogram.getPercentile( 50 ), 1 );
+        assertEquals( 990, histogram.getPercentile( 99 ), 1 );
+        assertEquals( 999, histogram.getPercentile( 99.9 ), 1 );
+        JsonObject json = histogram.toJson();
+        assertEquals( 900, json.get( "p90" ).getAsDouble(), 1 );
+        assertEquals( 999, json.get( "p99.9" ).getAsDouble(), 1 );
+    }
+
+
+    @Test
+    public void testMerge() {
+        ResponseTimeHistogram first = new ResponseTimeHistogram();
+        ResponseTimeHistogram second = new ResponseTimeHistogram();
+        for ( int i = 1; i <= 500; i++ ) {
+            first.record( i );
+            second.record( i + 500 );
+        }
+        first.merge( second );
+        assertEquals( 1_000, first.getCount() );
+        assertEquals( 500, first.getPercentile( 50 ), 1 );
+        assertEquals( 1_000, first.getMax(), 1 );
+    }
+
+
+    @Test
+    public void testExpectedIntervalCorrection() {
+        ResponseTimeHistogram histogram = new ResponseTimeHistogram();
+        for ( int i = 0; i < 99; i++ ) {
+            histogram.recordWithExpectedInterval( 10, 100 );
+        }
+        //A stall of 1 s hides the nine transactions which should have started while the terminal waited
+        histogram.recordWithExpectedInterval( 1_000, 100 );
+        assertEquals( 109, histogram.getCount() );
+        assertEquals( 500, histogram.getPercentile( 95 ), 1 );
+        assertEquals( 1_000, histogram.getMax(), 1 );
+
+        ResponseTimeHistogram uncorrected = new ResponseTimeHistogram();
+        uncorrected.recordWithExpectedInterval( 1_000, 0 );
+        assertEquals( 1, uncorrected.getCount() );
+    }
+
+
+    @Test
+    public void testTimeBucketSeriesUnsorted() {
+        TimeBucketSeries series = new TimeBucketSeries( 1_000 );
+        series.add( 5_500, 10 );
+        series.add( 2_100, 20 );
+        series.add( 5_900, 30 );
+        series.add( 9_000, 40 );
+        assertEquals( 2, series.getCount( 5_000 ) );
+        assertEquals( 0, series.getCount( 3_000 ) );
+
+        JsonArray json = series.toJson();
+        assertEquals( 3, json.size() );
+        assertEquals( 2_000, json.get( 0 ).getAsJsonObject().get( "start" ).getAsLong() );
+        assertEquals( 20, json.get( 1 ).getAsJsonObject().get( "executionTime" ).getAsDouble(), 0 );
+
+        TimeBucketSeries other = new TimeBucketSeries( 1_000 );
+        other.add( 100, 1 );
+        series.merge( other );
+        assertEquals( 1, series.getCount( 0 ) );
+        assertEquals( 4, series.toJson().size() );
+    }
+
+
+    private static ResponseTimeHistogram serialize( ResponseTimeHistogram histogram ) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( ObjectOutputStream out = new ObjectOutputStream( bytes ) ) {
+            out.writeObject( histogram );
+        }
+        try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) ) {
+            return (ResponseTimeHistogram) in.readObject();
+        }
+    }
+
+
+    @Test
+    public void testGrowsAfterCheckpoint() throws IOException, ClassNotFoundException {
+        for ( ResponseTimeHistogram histogram : new ResponseTimeHistogram[]{ new ResponseTimeHistogram(), ResponseTimeHistogram.compact() } ) {
+            histogram.record( 10 );
+            ResponseTimeHistogram restored = serialize( histogram );
+            restored.encode();
+            restored.record( 100_000 );
+            restored = serialize( restored );
+            assertEquals( 2, restored.getCount() );
+            assertEquals( 100_000, restored.getMax(), 1_000 );
+            restored.encode();
+        }
+    }
+}
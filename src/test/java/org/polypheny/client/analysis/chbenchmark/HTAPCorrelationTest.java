@@ -0,0 +1,71 @@
+package org.polypheny.client.analysis.chbenchmark;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonObject;
+import org.junit.Test;
+import org.polypheny.client.analysis.chbenchmark.HTAPCorrelation.Phase;
+import org.polypheny.client.grpc.PolyClientGRPC.CHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+public class HTAPCorrelationTest {
+
+    private static TPCCResultTuple transaction( long start, TPCCTransactionType type, boolean aborted ) {
+        return TPCCResultTuple.newBuilder().setTransactionType( type ).setStartTimestamp( start ).setAborted( aborted ).build();
+    }
+
+
+    private static CHResultTuple query( long start, float responseTime ) {
+        return CHResultTuple.newBuilder().setQueryID( 1 ).setStream( 1 ).setStartTimestamp( start ).setResponseTime( responseTime ).build();
+    }
+
+
+    @Test
+    public void testAnalyticalLoadDegradesTpmC() {
+        //TPC-C runs alone for two intervals, then both sides run for two intervals
+        HTAPCorrelation correlation = new HTAPCorrelation( 10_000, 1_000, 21_000, 41_000 );
+        for ( int i = 0; i < 10; i++ ) {
+            correlation.addTransaction( transaction( 1_000 + i * 1_000, TPCCTransactionType.TPCCTRANSACTIONNEWORDER, false ) );
+            correlation.addTransaction( transaction( 11_000 + i * 1_000, TPCCTransactionType.TPCCTRANSACTIONNEWORDER, false ) );
+        }
+        for ( int i = 0; i < 5; i++ ) {
+            correlation.addTransaction( transaction( 21_000 + i * 2_000, TPCCTransactionType.TPCCTRANSACTIONNEWORDER, false ) );
+            correlation.addTransaction( transaction( 31_000 + i * 2_000, TPCCTransactionType.TPCCTRANSACTIONNEWORDER, false ) );
+        }
+        correlation.addTransaction( transaction( 22_000, TPCCTransactionType.TPCCTRANSACTIONNEWORDER, true ) );
+        correlation.addTransaction( transaction( 23_000, TPCCTransactionType.TPCCTRANSACTIONPAYMENT, false ) );
+        correlation.addQuery( query( 21_000, 15_000 ) );
+
+        assertEquals( Phase.OLTP, correlation.phase( 1 ) );
+        assertEquals( Phase.MIXED, correlation.phase( 2 ) );
+        assertEquals( 60, correlation.tpmC( 0 ), 1e-9 );
+        assertEquals( 30, correlation.tpmC( 2 ), 1e-9 );
+        assertEquals( 1, correlation.activeQueries( 2 ), 1e-9 );
+        assertEquals( 0.5, correlation.activeQueries( 3 ), 1e-9 );
+        assertEquals( 360, correlation.queriesPerHour( 3 ), 1e-9 );
+
+        JsonObject results = correlation.getResults();
+        assertEquals( 0.5, results.get( "tpmCDegradation" ).getAsDouble(), 1e-9 );
+        assertEquals( 2, results.getAsJsonObject( "phases" ).getAsJsonObject( "MIXED" ).get( "intervals" ).getAsInt() );
+        assertFalse( results.has( "queriesPerHourDegradation" ) );
+        //Two mixed intervals are too few for a correlation
+        assertFalse( results.has( "tpmCActiveQueriesCorrelation" ) );
+    }
+
+
+    @Test
+    public void testTransitionIntervalsAndPearson() {
+        //The analytical streams start in the middle of the second interval
+        HTAPCorrelation correlation = new HTAPCorrelation( 10_000, 0, 15_000, 40_000 );
+        assertEquals( Phase.TRANSITION, correlation.phase( 1 ) );
+        assertEquals( Phase.MIXED, correlation.phase( 2 ) );
+
+        assertEquals( -1, HTAPCorrelation.pearson( new double[]{ 1, 2, 3 }, new double[]{ 6, 4, 2 } ), 1e-9 );
+        assertTrue( Double.isNaN( HTAPCorrelation.pearson( new double[]{ 1, 2, 3 }, new double[]{ 5, 5, 5 } ) ) );
+    }
+}
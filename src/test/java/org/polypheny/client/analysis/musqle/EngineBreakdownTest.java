@@ -0,0 +1,34 @@
+package org.polypheny.client.analysis.musqle;
+
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.gson.JsonObject;
+import org.junit.Test;
+import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEEngineTime;
+import org.polypheny.client.grpc.PolyClientGRPC.MUSQLEResultTuple;
+
+
+public class EngineBreakdownTest {
+
+    private static MUSQLEEngineTime engine( String name, float responseTime ) {
+        return MUSQLEEngineTime.newBuilder().setEngine( name ).setResponseTime( responseTime ).build();
+    }
+
+
+    @Test
+    public void testSharesPerEngine() {
+        EngineBreakdown breakdown = new EngineBreakdown();
+        breakdown.process( MUSQLEResultTuple.newBuilder().setQueryID( 1 ).addEngineTimes( engine( "postgres", 30 ) ).addEngineTimes( engine( "monetdb", 20 ) ).build() );
+        breakdown.process( MUSQLEResultTuple.newBuilder().setQueryID( 2 ).addEngineTimes( engine( "postgres", 50 ) ).build() );
+        breakdown.process( MUSQLEResultTuple.newBuilder().setQueryID( 3 ).build() );
+
+        JsonObject results = breakdown.getResults();
+        JsonObject postgres = results.getAsJsonObject( "postgres" );
+        assertEquals( 2, postgres.get( "queries" ).getAsInt() );
+        assertEquals( 40, postgres.get( "avgResponseTime" ).getAsDouble(), 1e-9 );
+        assertEquals( 0.8, postgres.get( "share" ).getAsDouble(), 1e-9 );
+        assertEquals( 0.2, results.getAsJsonObject( "monetdb" ).get( "share" ).getAsDouble(), 1e-9 );
+        assertEquals( 1, results.get( "queriesWithoutBreakdown" ).getAsInt() );
+    }
+}
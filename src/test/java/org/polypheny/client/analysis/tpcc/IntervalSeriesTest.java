@@ -0,0 +1,44 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+public class IntervalSeriesTest {
+
+    private static TPCCResultTuple tuple( long start, float responseTime, boolean aborted ) {
+        return TPCCResultTuple.newBuilder().setTransactionType( TPCCTransactionType.TPCCTRANSACTIONNEWORDER ).setStartTimestamp( start ).setResponseTime( responseTime ).setAborted( aborted ).build();
+    }
+
+
+    @Test
+    public void testCoversWindowIncludingEmptyIntervals() {
+        IntervalSeries series = new IntervalSeries( 10_000, 1_000, 26_000 );
+        IntervalSeries other = new IntervalSeries( 10_000, 1_000, 26_000 );
+        series.process( tuple( 1_500, 10, false ) );
+        series.process( tuple( 5_000, 20, true ) );
+        other.process( tuple( 25_000, 30, false ) );
+        series.merge( other );
+
+        JsonObject results = series.getResults();
+        JsonArray starts = results.getAsJsonArray( "intervalStart" );
+        assertEquals( 3, starts.size() );
+        assertEquals( 21_000, starts.get( 2 ).getAsLong() );
+
+        JsonObject all = results.getAsJsonObject( "ALL" );
+        assertEquals( 1, all.getAsJsonArray( "committed" ).get( 0 ).getAsLong() );
+        assertEquals( 0, all.getAsJsonArray( "committed" ).get( 1 ).getAsLong() );
+        assertEquals( 0.5, all.getAsJsonArray( "abortRate" ).get( 0 ).getAsDouble(), 0 );
+        assertEquals( 0.1, all.getAsJsonArray( "throughput" ).get( 0 ).getAsDouble(), 1e-9 );
+        //The last interval is cut off by the end of the window after 5 seconds
+        assertEquals( 0.2, all.getAsJsonArray( "throughput" ).get( 2 ).getAsDouble(), 1e-9 );
+        assertEquals( 30, all.getAsJsonArray( "p99" ).get( 2 ).getAsDouble(), 1 );
+        assertEquals( 3, results.getAsJsonObject( "TPCCTRANSACTIONNEWORDER" ).getAsJsonArray( "max" ).size() );
+    }
+}
@@ -0,0 +1,71 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+import org.polypheny.client.grpc.PolyClientGRPC.NetdataMeasurement;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+import org.polypheny.client.monitoring.NetdataMonitor;
+
+
+public class ResourceCorrelationTest {
+
+    private static final long START = 1_600_000_000_000L;
+
+
+    /**
+     * Four intervals of 10 s with 100 New-Orders each. The third interval is slow.
+     */
+    private static JsonObject series() {
+        IntervalSeries series = new IntervalSeries( 10_000, START, START + 40_000 );
+        for ( int interval = 0; interval < 4; interval++ ) {
+            for ( int i = 0; i < 100; i++ ) {
+                series.process( TPCCResultTuple.newBuilder().setTransactionType( TPCCTransactionType.TPCCTRANSACTIONNEWORDER ).setStartTimestamp( START + interval * 10_000 + i * 100 ).setResponseTime( interval == 2 ? 100 : 10 ).build() );
+            }
+        }
+        return series.getResults();
+    }
+
+
+    private static NetdataMeasurement cpu( long timestamp, double user, double iowait ) {
+        return NetdataMeasurement.newBuilder().setType( ResourceCorrelation.CPU_CHART ).setTimestamp( timestamp ).putMeasurements( "time", timestamp + "" ).putMeasurements( "user", user + "" ).putMeasurements( "iowait", iowait + "" ).build();
+    }
+
+
+    @Test
+    public void testResourcesPerTransactionAndFlaggedSpikes() {
+        ResourceCorrelation correlation = new ResourceCorrelation();
+        correlation.add( "db", NetdataMeasurement.newBuilder().setType( NetdataMonitor.INFO_TYPE ).setTimestamp( START ).putMeasurements( NetdataMonitor.CORES, "4" ).build() );
+        for ( long second = 0; second < 40; second++ ) {
+            long timestamp = START + second * 1_000;
+            //Overlapping polls deliver every sample twice
+            for ( int poll = 0; poll < 2; poll++ ) {
+                correlation.add( "db", second >= 20 && second < 30 ? cpu( timestamp, 80, 15 ) : cpu( timestamp, 20, 5 ) );
+                correlation.add( "db", NetdataMeasurement.newBuilder().setType( ResourceCorrelation.IO_CHART ).setTimestamp( timestamp / 1_000 ).putMeasurements( "in", "10" ).putMeasurements( "out", "-30" ).build() );
+            }
+            correlation.add( "worker", cpu( timestamp, 10, 0 ) );
+        }
+        assertFalse( correlation.isEmpty() );
+
+        JsonObject results = correlation.correlate( series() );
+        JsonObject db = results.getAsJsonObject( "hosts" ).getAsJsonObject( "db" );
+        //Busy time includes iowait: 25 % of 4 cores for 30 s and 95 % for 10 s make 68 s of CPU time for 400 New-Orders
+        assertEquals( 42.5, db.get( "cpuUtilization" ).getAsDouble(), 1e-9 );
+        assertEquals( 170, db.get( "cpuMsPerNewOrder" ).getAsDouble(), 1e-9 );
+        assertEquals( 400 / 160d, db.get( "transactionsPerCoreSecond" ).getAsDouble(), 1e-9 );
+        //40 KiB per second, in seconds resolution, for 10 transactions per second
+        assertEquals( 40 * 1_024 / 10d, db.get( "ioBytesPerTransaction" ).getAsDouble(), 1e-9 );
+        assertFalse( results.getAsJsonObject( "hosts" ).getAsJsonObject( "worker" ).has( "cpuMsPerNewOrder" ) );
+
+        assertEquals( 1, results.get( "latencySpikes" ).getAsInt() );
+        JsonArray flagged = results.getAsJsonArray( "flaggedIntervals" );
+        assertEquals( 1, flagged.size() );
+        assertEquals( START + 20_000, flagged.get( 0 ).getAsJsonObject().get( "intervalStart" ).getAsLong() );
+        assertEquals( "db", flagged.get( 0 ).getAsJsonObject().getAsJsonArray( "saturatedHosts" ).get( 0 ).getAsString() );
+    }
+}
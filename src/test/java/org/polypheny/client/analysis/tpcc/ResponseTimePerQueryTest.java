@@ -0,0 +1,62 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+import org.polypheny.client.grpc.PolyClientGRPC.QueryType;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCQueryTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+public class ResponseTimePerQueryTest {
+
+    @Test
+    public void testTemplates() {
+        assertEquals( "SELECT s_data, s_dist_01 from tpcc_stock WHERE s_i_id=? and s_w_id=?", StatementTemplate.of( "SELECT s_data, s_dist_01  from tpcc_stock WHERE s_i_id=4711 and s_w_id=3;" ) );
+        assertEquals( "update c set c_data=? where c_balance=?", StatementTemplate.of( "update c set c_data='it''s 5' where c_balance=-10.5" ) );
+        assertEquals( "update s set s_quantity = s_quantity - ?", StatementTemplate.of( "update s set s_quantity = s_quantity - 5" ) );
+        assertEquals( "select * from t where id in (?)", StatementTemplate.of( "select * from t where id in (1, 2,3)" ) );
+        assertEquals( "insert into t values (?)", StatementTemplate.of( "insert into t values (1,'a'), (2,'b'),(3,'c')" ) );
+    }
+
+
+    private static TPCCResultTuple newOrder( int orderLines ) {
+        TPCCResultTuple.Builder builder = TPCCResultTuple.newBuilder().setTransactionType( TPCCTransactionType.TPCCTRANSACTIONNEWORDER ).setResponseTime( 10 + 2 * orderLines );
+        builder.addQueries( TPCCQueryTuple.newBuilder().setQuery( "select w_tax from tpcc_warehouse where w_id=1" ).setExecutionTime( 2 ).setQueryType( QueryType.QUERYTYPESELECT ).setRows( 1 ) );
+        for ( int i = 0; i < orderLines; i++ ) {
+            builder.addQueries( TPCCQueryTuple.newBuilder().setQuery( "update tpcc_stock set s_quantity=" + i + " where s_i_id=" + (100 + i) ).setExecutionTime( 1 ).setQueryType( QueryType.QUERYTYPEUPDATE ) );
+        }
+        return builder.build();
+    }
+
+
+    @Test
+    public void testVariableStatementCounts() {
+        ResponseTimePerQuery analyzer = new ResponseTimePerQuery();
+        ResponseTimePerQuery other = new ResponseTimePerQuery();
+        analyzer.process( newOrder( 5 ) );
+        other.process( newOrder( 15 ) );
+        analyzer.merge( other );
+
+        JsonObject neworder = analyzer.getResults().getAsJsonObject( TPCCTransactionType.TPCCTRANSACTIONNEWORDER.toString() );
+        JsonArray statements = neworder.getAsJsonArray( "statements" );
+        assertEquals( 2, statements.size() );
+        //Sorted by total time: 20 updates take 20 ms, 2 selects take 4 ms
+        JsonObject update = statements.get( 0 ).getAsJsonObject();
+        assertEquals( "update tpcc_stock set s_quantity=? where s_i_id=?", update.get( "template" ).getAsString() );
+        assertEquals( 20, update.get( "count" ).getAsLong() );
+        assertEquals( 10, update.get( "perTransaction" ).getAsDouble(), 0 );
+        assertEquals( 20d / 60, update.get( "timeFraction" ).getAsDouble(), 1e-9 );
+        JsonObject select = statements.get( 1 ).getAsJsonObject();
+        assertEquals( 1, select.get( "rowsTouched" ).getAsDouble(), 0 );
+
+        JsonObject criticalPath = neworder.getAsJsonObject( "criticalPath" );
+        assertEquals( 24d / 60, criticalPath.get( "statementFraction" ).getAsDouble(), 1e-9 );
+        assertEquals( 1, criticalPath.getAsJsonArray( "templates" ).size() );
+        assertEquals( update.get( "templateID" ), criticalPath.getAsJsonArray( "templates" ).get( 0 ) );
+    }
+}
@@ -0,0 +1,58 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonObject;
+import org.junit.Test;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+public class ResponseTimePercentilesTest {
+
+    //A terminal running back-to-back: 995 transactions of 10 ms and 5 stalls of 1 s
+    private static void backToBack( ResponseTimePercentiles analyzer ) {
+        for ( int i = 0; i < 1_000; i++ ) {
+            analyzer.process( TPCCResultTuple.newBuilder().setTransactionType( TPCCTransactionType.TPCCTRANSACTIONPAYMENT ).setResponseTime( i % 200 == 0 ? 1_000 : 10 ).build() );
+        }
+    }
+
+
+    private static double p99( JsonObject results, String key ) {
+        return results.getAsJsonObject( key ).getAsJsonObject( TPCCTransactionType.TPCCTRANSACTIONPAYMENT.toString() ).get( "p99" ).getAsDouble();
+    }
+
+
+    @Test
+    public void testDerivedInterval() {
+        ResponseTimePercentiles analyzer = new ResponseTimePercentiles( ResponseTimePercentiles.DERIVED_INTERVAL );
+        ResponseTimePercentiles other = new ResponseTimePercentiles( ResponseTimePercentiles.DERIVED_INTERVAL );
+        backToBack( analyzer );
+        backToBack( other );
+        analyzer.merge( other );
+
+        JsonObject results = analyzer.getResults();
+        JsonObject correction = results.getAsJsonObject( "responseTimeCorrection" );
+        assertTrue( correction.get( "derivedInterval" ).getAsBoolean() );
+        assertEquals( 10, correction.get( "expectedInterval" ).getAsDouble(), 0.1 );
+        assertEquals( 2_000, correction.get( "corrected" ).getAsLong() );
+        assertEquals( 10, p99( results, "transactions" ), 0.1 );
+        assertTrue( p99( results, "responseTimes" ) > 100 );
+    }
+
+
+    @Test
+    public void testUncorrected() {
+        ResponseTimePercentiles analyzer = new ResponseTimePercentiles();
+        backToBack( analyzer );
+
+        JsonObject results = analyzer.getResults();
+        JsonObject correction = results.getAsJsonObject( "responseTimeCorrection" );
+        assertFalse( correction.get( "derivedInterval" ).getAsBoolean() );
+        assertEquals( 1_000, correction.get( "uncorrected" ).getAsLong() );
+        assertFalse( results.has( "responseTimes" ) );
+    }
+}
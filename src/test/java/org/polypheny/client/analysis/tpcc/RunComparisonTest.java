@@ -0,0 +1,85 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonObject;
+import java.util.Random;
+import org.junit.Test;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+public class RunComparisonTest {
+
+    /**
+     * @param slowdown factor applied to all response times
+     * @param transactionsPerSecond committed transactions per second
+     * @return analysis of a run of 60 seconds with exponentially distributed response times
+     */
+    private static JsonObject analysis( double slowdown, int transactionsPerSecond, long seed ) {
+        Random random = new Random( seed );
+        IntervalSeries series = new IntervalSeries( 1_000, 1, 60_001 );
+        ResponseTimePercentiles percentiles = new ResponseTimePercentiles();
+        for ( int second = 0; second < 60; second++ ) {
+            for ( int i = 0; i < transactionsPerSecond; i++ ) {
+                TPCCResultTuple tuple = TPCCResultTuple.newBuilder().setTransactionType( TPCCTransactionType.TPCCTRANSACTIONNEWORDER ).setStartTimestamp( 1 + second * 1_000 + i )
+                        .setResponseTime( (float) (-Math.log( 1 - random.nextDouble() ) * 20 * slowdown) ).build();
+                series.process( tuple );
+                percentiles.process( tuple );
+            }
+        }
+        JsonObject analysis = new JsonObject();
+        analysis.add( IntervalSeries.class.getSimpleName(), series.getResults() );
+        analysis.add( ResponseTimePercentiles.class.getSimpleName(), percentiles.getResults() );
+        return analysis;
+    }
+
+
+    @Test
+    public void testNoRegressionBetweenSimilarRuns() {
+        RunComparison comparison = new RunComparison( 0.05, 0.95, 500, 1 );
+        JsonObject result = comparison.compare( analysis( 1, 100, 1 ), analysis( 1, 100, 2 ) );
+        assertEquals( 0, comparison.getRegressions() );
+        JsonObject p90 = result.getAsJsonObject( "transactions" ).getAsJsonObject( "TPCCTRANSACTIONNEWORDER" ).getAsJsonObject( "p90" );
+        assertTrue( p90.get( "ciLower" ).getAsDouble() < 0 );
+        assertTrue( p90.get( "ciUpper" ).getAsDouble() > 0 );
+    }
+
+
+    @Test
+    public void testDetectsSlowerAndLessThroughput() {
+        RunComparison comparison = new RunComparison( 0.05, 0.95, 500, 1 );
+        JsonObject result = comparison.compare( analysis( 1, 100, 1 ), analysis( 1.5, 80, 2 ) );
+        JsonObject neworder = result.getAsJsonObject( "transactions" ).getAsJsonObject( "TPCCTRANSACTIONNEWORDER" );
+        assertTrue( neworder.getAsJsonObject( "p50" ).get( "regression" ).getAsBoolean() );
+        assertTrue( neworder.getAsJsonObject( "p90" ).get( "regression" ).getAsBoolean() );
+        JsonObject throughput = result.getAsJsonObject( "throughput" ).getAsJsonObject( "ALL" );
+        assertTrue( throughput.get( "regression" ).getAsBoolean() );
+        assertEquals( -0.2, throughput.get( "relativeDelta" ).getAsDouble(), 1e-9 );
+        assertTrue( comparison.getRegressions() >= 3 );
+
+        //Improvements are never regressions
+        RunComparison reverse = new RunComparison( 0.05, 0.95, 500, 1 );
+        reverse.compare( analysis( 1.5, 80, 2 ), analysis( 1, 100, 1 ) );
+        assertEquals( 0, reverse.getRegressions() );
+    }
+
+
+    @Test
+    public void testHolmCorrection() {
+        RunComparison comparison = new RunComparison( 0.05, 0.95, 500, 1 );
+        JsonObject result = comparison.compare( analysis( 1, 100, 1 ), analysis( 1.5, 80, 2 ) );
+        JsonObject correction = result.getAsJsonObject( "correction" );
+        assertEquals( "holm", correction.get( "method" ).getAsString() );
+        int metrics = correction.get( "metrics" ).getAsInt();
+        JsonObject p50 = result.getAsJsonObject( "transactions" ).getAsJsonObject( "TPCCTRANSACTIONNEWORDER" ).getAsJsonObject( "p50" );
+        assertTrue( p50.get( "adjustedPValue" ).getAsDouble() >= p50.get( "pValue" ).getAsDouble() );
+        assertTrue( p50.get( "adjustedPValue" ).getAsDouble() <= metrics * p50.get( "pValue" ).getAsDouble() + 1e-12 );
+
+        //Every difference is far from 0, the smallest p-value a bootstrap can give
+        assertEquals( 2.0 / 11, RunComparison.pValue( new double[]{ 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 } ), 1e-12 );
+        assertEquals( 1, RunComparison.pValue( new double[]{ -2, -1, 1, 2 } ), 1e-12 );
+    }
+}
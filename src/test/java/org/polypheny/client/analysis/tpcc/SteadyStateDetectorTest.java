@@ -0,0 +1,48 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+
+
+/**
+ * Tests the steady-state detection on synthetic throughput curves
+ */
+public class SteadyStateDetectorTest {
+
+    private static void addTransactions( SteadyStateDetector detector, long second, int count ) {
+        for ( int i = 0; i < count; i++ ) {
+            detector.process( TPCCResultTuple.newBuilder().setStartTimestamp( second * 1_000 + i % 1_000 ).build() );
+        }
+    }
+
+
+    @Test
+    public void testDetectsEndOfRampUp() {
+        SteadyStateDetector detector = new SteadyStateDetector();
+        //Throughput doubles every second during the first 5 seconds, then stays at 100 tx/s
+        for ( int second = 0; second < 5; second++ ) {
+            addTransactions( detector, second, 1 << second );
+        }
+        for ( int second = 5; second < 60; second++ ) {
+            addTransactions( detector, second, 100 );
+        }
+        assertEquals( 5_000, detector.detect( 0, 60_000 ) );
+        assertTrue( detector.isSteadyStateDetected() );
+    }
+
+
+    @Test
+    public void testNoSteadyState() {
+        SteadyStateDetector detector = new SteadyStateDetector();
+        for ( int second = 0; second < 60; second++ ) {
+            addTransactions( detector, second, second % 2 == 0 ? 10 : 100 );
+        }
+        assertEquals( 2_000, detector.detect( 2_000, 60_000 ) );
+        assertFalse( detector.isSteadyStateDetected() );
+    }
+}
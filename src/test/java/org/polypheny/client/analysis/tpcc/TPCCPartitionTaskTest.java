@@ -0,0 +1,107 @@
+package org.polypheny.client.analysis.tpcc;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.gson.JsonElement;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+import org.polypheny.client.storage.StreamWriter;
+
+
+/**
+ * Checks that analyzing partitions in parallel gives the same results as analyzing everything at once
+ */
+public class TPCCPartitionTaskTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    private File writePartition( String name, int offset, int count ) {
+        File file = new File( folder.getRoot(), name );
+        StreamWriter<TPCCResultTuple> writer = new StreamWriter<>( SettableFuture.create(), file, TPCCResultTuple.class );
+        for ( int i = 0; i < count; i++ ) {
+            writer.onNext( TPCCResultTuple.newBuilder()
+                    .setTransactionType( i % 2 == 0 ? TPCCTransactionType.TPCCTRANSACTIONNEWORDER : TPCCTransactionType.TPCCTRANSACTIONPAYMENT )
+                    .setStartTimestamp( 1_000L * (offset + i) )
+                    .setResponseTime( offset + i )
+                    .setAborted( i % 10 == 9 )
+                    .build() );
+        }
+        writer.onCompleted();
+        return file;
+    }
+
+
+    @Test
+    public void testPartitionsAreMerged() {
+        List<File> partitions = new ArrayList<>();
+        partitions.add( writePartition( "allresults_0.json", 0, 100 ) );
+        partitions.add( writePartition( "allresults_1.json", 100, 50 ) );
+        partitions.add( writePartition( "allresults_2.json", 150, 30 ) );
+
+        List<TPCCAnalyzer> analyzers = TPCCPartitionTask.analyze( partitions, Arrays.asList( TransactionCount::new, ResponseTimePercentiles::new ), tuple -> !tuple.getAborted() );
+        TransactionCount count = (TransactionCount) analyzers.get( 0 );
+        //Every tenth tuple of a partition is aborted
+        assertEquals( 90 + 45 + 27, count.getCount( TPCCTransactionType.TPCCTRANSACTIONNEWORDER ) + count.getCount( TPCCTransactionType.TPCCTRANSACTIONPAYMENT ) );
+        assertEquals( 0, count.getFirstStart() );
+        assertEquals( 178_000, count.getLastStart() );
+
+        List<TPCCAnalyzer> single = TPCCPartitionTask.analyze( partitions.subList( 0, 1 ), Arrays.asList( TransactionCount::new ), tuple -> !tuple.getAborted() );
+        assertEquals( 90, ((TransactionCount) single.get( 0 )).getCount( TPCCTransactionType.TPCCTRANSACTIONNEWORDER ) + ((TransactionCount) single.get( 0 )).getCount( TPCCTransactionType.TPCCTRANSACTIONPAYMENT ) );
+
+        assertEquals( 90 + 45 + 27, analyzers.get( 1 ).getResults().getAsJsonObject( "transactions" ).getAsJsonObject( "TPCCTRANSACTIONNEWORDER" ).get( "count" ).getAsLong()
+                + analyzers.get( 1 ).getResults().getAsJsonObject( "transactions" ).getAsJsonObject( "TPCCTRANSACTIONPAYMENT" ).get( "count" ).getAsLong() );
+    }
+
+
+    private static long committed( TPCCAnalyzer count ) {
+        return ((TransactionCount) count).getCount( TPCCTransactionType.TPCCTRANSACTIONNEWORDER ) + ((TransactionCount) count).getCount( TPCCTransactionType.TPCCTRANSACTIONPAYMENT );
+    }
+
+
+    @Test
+    public void testCheckpointsOnlyProcessNewTuples() {
+        AnalysisCheckpoints checkpoints = new AnalysisCheckpoints( new File( folder.getRoot(), "checkpoints" ) );
+        List<File> partitions = new ArrayList<>();
+        partitions.add( writePartition( "allresults_0.json", 0, 100 ) );
+        assertEquals( 90, committed( TPCCPartitionTask.analyze( partitions, Arrays.asList( TransactionCount::new ), tuple -> true, checkpoints, "all" ).get( 0 ) ) );
+
+        //Appending 50 tuples only processes those for the checkpointed analyzer, a new analyzer processes everything
+        writePartition( "allresults_0.json", 0, 150 );
+        List<TPCCAnalyzer> analyzers = TPCCPartitionTask.analyze( partitions, Arrays.asList( TransactionCount::new, () -> new IntervalSeries( 10_000, 0, Long.MAX_VALUE ) ), tuple -> true, checkpoints, "all" );
+        assertEquals( 135, committed( analyzers.get( 0 ) ) );
+        long seriesCommitted = 0;
+        for ( JsonElement committed : analyzers.get( 1 ).getResults().getAsJsonObject( IntervalSeries.TOTAL ).getAsJsonArray( "committed" ) ) {
+            seriesCommitted += committed.getAsLong();
+        }
+        assertEquals( 135, seriesCommitted );
+
+        //Nothing new, the checkpoint is complete
+        assertEquals( 135, committed( TPCCPartitionTask.analyze( partitions, Arrays.asList( TransactionCount::new ), tuple -> true, checkpoints, "all" ).get( 0 ) ) );
+        //Another filter does not use the checkpoint
+        assertEquals( 0, committed( TPCCPartitionTask.analyze( partitions, Arrays.asList( TransactionCount::new ), tuple -> tuple.getStartTimestamp() > 200_000, checkpoints, "late" ).get( 0 ) ) );
+
+        //A rewritten partition is analyzed from the start
+        writePartition( "allresults_0.json", 1, 20 );
+        assertEquals( 18, committed( TPCCPartitionTask.analyze( partitions, Arrays.asList( TransactionCount::new ), tuple -> true, checkpoints, "all" ).get( 0 ) ) );
+    }
+
+
+    @Test
+    public void testNoPartitions() {
+        List<TPCCAnalyzer> analyzers = TPCCPartitionTask.analyze( new ArrayList<>(), Arrays.asList( TransactionCount::new ), tuple -> true );
+        assertEquals( 1, analyzers.size() );
+        assertTrue( ((TransactionCount) analyzers.get( 0 )).isEmpty() );
+    }
+}
@@ -0,0 +1,62 @@
+package org.polypheny.client.analysis.tpch;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+import org.polypheny.client.db.tpch.PostgresPlan;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
+
+
+public class OperatorProfileTest {
+
+    //Hash join of two scans: the join itself takes 100 - 60 - 20 = 20 ms, the lineitem scan 2 loops of 30 ms
+    private static final String EXPLAIN = "[{\"Plan\": {\"Node Type\": \"Hash Join\", \"Join Type\": \"Inner\", \"Startup Cost\": 1.0, \"Actual Total Time\": 100.0, \"Actual Rows\": 10, \"Actual Loops\": 1, \"Shared Hit Blocks\": 5, \"Plans\": ["
+            + "{\"Node Type\": \"Seq Scan\", \"Parent Relationship\": \"Outer\", \"Relation Name\": \"tpch_lineitem\", \"Actual Total Time\": 30.0, \"Actual Rows\": 1000, \"Actual Loops\": 2},"
+            + "{\"Node Type\": \"Hash\", \"Actual Total Time\": 20.0, \"Actual Loops\": 1, \"Plans\": [{\"Node Type\": \"Seq Scan\", \"Relation Name\": \"tpch_orders\", \"Actual Total Time\": 15.0, \"Actual Loops\": 1}]}]},"
+            + "\"Planning Time\": 0.5, \"Triggers\": [], \"Execution Time\": 101.0}]";
+
+
+    private static TPCHResultTuple tuple( int queryID, String plan ) {
+        return TPCHResultTuple.newBuilder().setQueryID( queryID ).setPlan( plan ).build();
+    }
+
+
+    @Test
+    public void testCompactKeepsTimes() {
+        String plan = PostgresPlan.compact( EXPLAIN );
+        assertFalse( plan.contains( "Startup Cost" ) );
+        assertFalse( plan.contains( "Parent Relationship" ) );
+        assertFalse( plan.contains( "Triggers" ) );
+        assertTrue( plan.contains( "\"Execution Time\":101.0" ) );
+        assertEquals( 2, plan.split( "Seq Scan" ).length - 1 );
+    }
+
+
+    @Test
+    public void testTopOperatorsByExclusiveTime() {
+        OperatorProfile profile = new OperatorProfile();
+        String plan = PostgresPlan.compact( EXPLAIN );
+        profile.process( tuple( 3, plan ) );
+        profile.process( tuple( 3, plan ) );
+        profile.process( tuple( 3, "" ) );
+
+        JsonObject results = profile.getResults();
+        assertEquals( 2, results.get( "profiledExecutions" ).getAsInt() );
+        JsonArray top = results.getAsJsonArray( "topOperators" );
+        assertEquals( 4, top.size() );
+        JsonObject first = top.get( 0 ).getAsJsonObject();
+        assertEquals( "Seq Scan on tpch_lineitem", first.get( "operator" ).getAsString() );
+        assertEquals( 120, first.get( "totalTime" ).getAsDouble(), 1e-9 );
+        assertEquals( 0.6, first.get( "share" ).getAsDouble(), 1e-9 );
+        assertEquals( "Hash Join", top.get( 1 ).getAsJsonObject().get( "operator" ).getAsString() );
+        assertEquals( 40, top.get( 1 ).getAsJsonObject().get( "totalTime" ).getAsDouble(), 1e-9 );
+
+        JsonObject query = results.getAsJsonObject( "queries" ).getAsJsonObject( "Q3" );
+        assertEquals( OperatorProfile.TOP_OPERATORS_PER_QUERY, query.getAsJsonArray( "topOperators" ).size() );
+    }
+}
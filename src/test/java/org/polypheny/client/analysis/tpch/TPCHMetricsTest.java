@@ -0,0 +1,151 @@
+package org.polypheny.client.analysis.tpch;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonObject;
+import java.util.Properties;
+import org.junit.Test;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCHTest;
+
+
+public class TPCHMetricsTest {
+
+    private static TPCHResultTuple tuple( TPCHTest test, int stream, int queryID, long start, float responseTime ) {
+        return TPCHResultTuple.newBuilder().setTest( test ).setStream( stream ).setQueryID( queryID ).setStartTimestamp( start ).setResponseTime( responseTime ).build();
+    }
+
+
+    @Test
+    public void testMetrics() {
+        TPCHMetrics metrics = new TPCHMetrics( 10 );
+        //Power test: every query and refresh function takes a second
+        for ( int id = 1; id <= TPCHMetrics.RF2; id++ ) {
+            metrics.process( tuple( TPCHTest.TPCHTESTPOWER, 0, id, id * 1_000L, 1_000 ) );
+        }
+        //Throughput test: two streams, the second one ends after an hour
+        for ( int stream = 1; stream <= 2; stream++ ) {
+            for ( int id = 1; id <= TPCHMetrics.QUERIES; id++ ) {
+                metrics.process( tuple( TPCHTest.TPCHTESTTHROUGHPUT, stream, id, 100_000 + (id - 1) * 50_000L * stream, 50_000 * stream ) );
+            }
+        }
+        for ( int pair = 0; pair < 2; pair++ ) {
+            metrics.process( tuple( TPCHTest.TPCHTESTTHROUGHPUT, 0, TPCHMetrics.RF1, 200_000, 10 ) );
+            metrics.process( tuple( TPCHTest.TPCHTESTTHROUGHPUT, 0, TPCHMetrics.RF2, 300_000, 10 ) );
+        }
+
+        JsonObject results = metrics.getResults();
+        JsonObject power = results.getAsJsonObject( "power" );
+        assertTrue( power.get( "complete" ).getAsBoolean() );
+        assertEquals( 36_000, power.get( "PowerAtSize" ).getAsDouble(), 1e-6 );
+        JsonObject throughput = results.getAsJsonObject( "throughput" );
+        assertTrue( throughput.get( "complete" ).getAsBoolean() );
+        assertEquals( 2_200, throughput.get( "measurementInterval" ).getAsDouble(), 1e-9 );
+        assertEquals( 2 * 22 * 3_600 / 2_200d * 10, throughput.get( "ThroughputAtSize" ).getAsDouble(), 1e-9 );
+        assertEquals( 1_100, throughput.getAsJsonObject( "streamIntervals" ).getAsJsonObject( "1" ).get( "duration" ).getAsDouble(), 1e-9 );
+        assertEquals( Math.sqrt( 36_000 * (2 * 22 * 3_600 / 2_200d * 10) ), results.get( "QphHAtSize" ).getAsDouble(), 1e-6 );
+    }
+
+
+    @Test
+    public void testShortIntervalsAreBounded() {
+        TPCHMetrics metrics = new TPCHMetrics( 1 );
+        metrics.process( tuple( TPCHTest.TPCHTESTPOWER, 0, 1, 0, 1 ) );
+        for ( int id = 2; id <= TPCHMetrics.QUERIES; id++ ) {
+            metrics.process( tuple( TPCHTest.TPCHTESTPOWER, 0, id, 0, 1_000_000 ) );
+        }
+        JsonObject power = metrics.getResults().getAsJsonObject( "power" );
+        //1 ms is raised to a thousandth of the longest interval
+        assertEquals( 1, power.getAsJsonObject( "intervals" ).get( "Q1" ).getAsDouble(), 1e-9 );
+        assertEquals( 3_600 / Math.exp( 21 * Math.log( 1_000 ) / 22 ), power.get( "PowerAtSize" ).getAsDouble(), 1e-6 );
+        //Without refresh functions the power test is incomplete
+        assertFalse( power.get( "complete" ).getAsBoolean() );
+        assertEquals( 0.1, TPCHMetrics.toSeconds( 1 ), 1e-9 );
+        assertEquals( 1.3, TPCHMetrics.toSeconds( 1_201 ), 1e-9 );
+    }
+
+
+    @Test
+    public void testWrongAnswersInvalidateTheTest() {
+        Properties reference = new Properties();
+        reference.setProperty( "power.Q1", "00000000000000aa:4" );
+        reference.setProperty( "power.Q2", "00000000000000bb:100" );
+        ResultValidation validation = new ResultValidation( reference, false );
+        TPCHMetrics metrics = new TPCHMetrics( 1 );
+        metrics.setValidation( validation );
+        for ( int id = 1; id <= TPCHMetrics.RF2; id++ ) {
+            TPCHResultTuple tuple = tuple( TPCHTest.TPCHTESTPOWER, 0, id, id * 1_000L, 1_000 );
+            if ( id == 1 ) {
+                tuple = tuple.toBuilder().setChecksum( "00000000000000aa" ).setResultRows( 4 ).build();
+            } else if ( id == 2 ) {
+                tuple = tuple.toBuilder().setChecksum( "00000000000000bc" ).setResultRows( 100 ).build();
+            }
+            metrics.process( tuple );
+            validation.process( tuple );
+        }
+        //Throughput answers are not compared if refresh functions run concurrently
+        validation.process( tuple( TPCHTest.TPCHTESTTHROUGHPUT, 1, 2, 0, 1 ).toBuilder().setChecksum( "1" ).setResultRows( 1 ).build() );
+
+        JsonObject results = metrics.getResults();
+        assertEquals( 1, results.get( "wrongAnswers" ).getAsInt() );
+        assertFalse( results.getAsJsonObject( "power" ).get( "complete" ).getAsBoolean() );
+        JsonObject validationResults = validation.getResults();
+        assertEquals( 3, validationResults.get( "answers" ).getAsInt() );
+        assertEquals( 2, validationResults.get( "compared" ).getAsInt() );
+        assertEquals( "power.Q2", validationResults.getAsJsonArray( "wrongAnswers" ).get( 0 ).getAsString() );
+        assertFalse( validationResults.get( "valid" ).getAsBoolean() );
+    }
+
+
+    @Test
+    public void testWithoutRefreshFunctions() {
+        TPCHMetrics metrics = new TPCHMetrics( 1 );
+        metrics.setRefreshFunctions( false );
+        for ( int id = 1; id <= TPCHMetrics.QUERIES; id++ ) {
+            metrics.process( tuple( TPCHTest.TPCHTESTPOWER, 0, id, id * 1_000L, 1_000 ) );
+            metrics.process( tuple( TPCHTest.TPCHTESTTHROUGHPUT, 1, id, id * 1_000L, 1_000 ) );
+        }
+        JsonObject results = metrics.getResults();
+        assertFalse( results.get( "refreshFunctions" ).getAsBoolean() );
+        assertTrue( results.getAsJsonObject( "power" ).get( "complete" ).getAsBoolean() );
+        assertTrue( results.getAsJsonObject( "throughput" ).get( "complete" ).getAsBoolean() );
+        assertEquals( 0, results.getAsJsonObject( "throughput" ).get( "profiledExecutions" ).getAsInt() );
+
+        //A compliant run needs the refresh stream
+        metrics.setRefreshFunctions( true );
+        assertFalse( metrics.getResults().getAsJsonObject( "throughput" ).get( "complete" ).getAsBoolean() );
+    }
+
+
+    @Test
+    public void testProfiledExecutionsAreFlagged() {
+        TPCHMetrics metrics = new TPCHMetrics( 1 );
+        for ( int id = 1; id <= TPCHMetrics.QUERIES; id++ ) {
+            TPCHResultTuple tuple = tuple( TPCHTest.TPCHTESTTHROUGHPUT, 1, id, id * 1_000L, 1_000 );
+            metrics.process( id % 10 == 0 ? tuple.toBuilder().setPlan( "{}" ).build() : tuple );
+        }
+        JsonObject results = metrics.getResults();
+        assertEquals( 2, results.getAsJsonObject( "throughput" ).get( "profiledExecutions" ).getAsInt() );
+        assertFalse( results.has( "power" ) );
+    }
+
+
+    @Test
+    public void testSubstitutedQueriesInvalidateTheTest() {
+        TPCHMetrics metrics = new TPCHMetrics( 1 );
+        metrics.setRefreshFunctions( false );
+        for ( int id = 1; id <= TPCHMetrics.QUERIES; id++ ) {
+            TPCHResultTuple tuple = tuple( TPCHTest.TPCHTESTPOWER, 0, id, id * 1_000L, 1_000 );
+            metrics.process( id == 4 || id == 7 ? tuple.toBuilder().setSubstituted( true ).build() : tuple );
+            metrics.process( tuple( TPCHTest.TPCHTESTTHROUGHPUT, 1, id, id * 1_000L, 1_000 ) );
+        }
+        JsonObject results = metrics.getResults();
+        assertFalse( results.getAsJsonObject( "power" ).get( "complete" ).getAsBoolean() );
+        assertEquals( 2, results.getAsJsonObject( "power" ).get( "substitutedQueries" ).getAsInt() );
+        assertTrue( results.getAsJsonObject( "throughput" ).get( "complete" ).getAsBoolean() );
+        assertEquals( 0, results.getAsJsonObject( "throughput" ).get( "substitutedQueries" ).getAsInt() );
+    }
+}
@@ -0,0 +1,95 @@
+package org.polypheny.client.db.access;
+
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+
+/**
+ * {@link DBConnector} without a database. Every statement affects one row and every query returns a single row in which each column holds 1, or the current time for timestamp columns. Lets tests run the transaction executors and the worker calibration without a database. Only the methods of {@link ResultSet} the executors call are implemented.
+ */
+public class CalibrationConnector implements DBConnector {
+
+    @Override
+    public void startTransaction() {
+    }
+
+
+    @Override
+    public void commitTransaction() {
+    }
+
+
+    @Override
+    public void abortTransaction() {
+    }
+
+
+    @Override
+    public ResultSet executeQuery( String query ) {
+        return singleRow();
+    }
+
+
+    @Override
+    public int executeStatement( String statement ) {
+        return 1;
+    }
+
+
+    @Override
+    public void executeScript( File file ) {
+    }
+
+
+    @Override
+    public void close() {
+    }
+
+
+    /**
+     * Timestamp columns of the TPC-C schema end with _D, _DATE or _SINCE
+     */
+    private static boolean isTimestamp( String column ) {
+        String name = column.toUpperCase();
+        return name.endsWith( "_D" ) || name.endsWith( "_DATE" ) || name.endsWith( "_SINCE" );
+    }
+
+
+    private static ResultSet singleRow() {
+        int[] row = { 0 };
+        return (ResultSet) Proxy.newProxyInstance( ResultSet.class.getClassLoader(), new Class<?>[]{ ResultSet.class }, ( proxy, method, args ) -> {
+            switch ( method.getName() ) {
+                case "next":
+                    return ++row[0] == 1;
+                case "getRow":
+                    return row[0] == 1 ? 1 : 0;
+                case "getInt":
+                    return 1;
+                case "getLong":
+                    return 1L;
+                case "getDouble":
+                    return 1d;
+                case "getString":
+                    return "1";
+                case "getObject":
+                    return args[0] instanceof String && isTimestamp( (String) args[0] ) ? new Timestamp( System.currentTimeMillis() ).toString() : "1";
+                case "wasNull":
+                case "isClosed":
+                    return false;
+                case "close":
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode( proxy );
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "CalibrationResultSet";
+                default:
+                    throw new UnsupportedOperationException( method.getName() );
+            }
+        } );
+    }
+}
@@ -0,0 +1,29 @@
+package org.polypheny.client.db.access;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Map;
+import org.junit.Test;
+
+
+public class IcarusResultSetTest {
+
+    @Test
+    public void testEngineTimesPerStore() {
+        String json = "{\"responseCode\":200,\"engineTimes\":{\"postgres\":15,\"monetdb\":4},\"results\":[{\"result\":[{\"a\":1}]}]}";
+        Map<String, Double> times = new IcarusResultSet( json ).engineTimes();
+        assertEquals( 2, times.size() );
+        assertEquals( 15, times.get( "postgres" ), 1e-9 );
+        assertEquals( 4, times.get( "monetdb" ), 1e-9 );
+    }
+
+
+    @Test
+    public void testNoBreakdownReported() {
+        //Per-result store names are not a breakdown
+        String json = "{\"responseCode\":200,\"results\":[{\"store\":\"postgres\",\"executionTime\":12.5,\"result\":[{\"a\":1}]}]}";
+        assertNull( new IcarusResultSet( json ).engineTimes() );
+    }
+}
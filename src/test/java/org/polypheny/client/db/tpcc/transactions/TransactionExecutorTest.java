@@ -0,0 +1,106 @@
+package org.polypheny.client.db.tpcc.transactions;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import org.junit.Test;
+import org.polypheny.client.db.access.DBConnector;
+import org.polypheny.client.grpc.PolyClientGRPC.QueryType;
+
+
+public class TransactionExecutorTest {
+
+    //Order lines with the items 1, 2 and 3
+    private static ResultSet threeRows() {
+        int[] row = { 0 };
+        return (ResultSet) Proxy.newProxyInstance( ResultSet.class.getClassLoader(), new Class<?>[]{ ResultSet.class }, ( proxy, method, args ) -> {
+            switch ( method.getName() ) {
+                case "next":
+                    return ++row[0] <= 3;
+                case "getInt":
+                    return row[0];
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException( method.getName() );
+            }
+        } );
+    }
+
+
+    private static TransactionExecutor executor( ResultSet resultSet ) {
+        return new TransactionExecutor( new DBConnector() {
+            @Override
+            public void startTransaction() {
+            }
+
+
+            @Override
+            public void commitTransaction() {
+            }
+
+
+            @Override
+            public void abortTransaction() {
+            }
+
+
+            @Override
+            public ResultSet executeQuery( String query ) {
+                return resultSet;
+            }
+
+
+            @Override
+            public int executeStatement( String statement ) {
+                return 0;
+            }
+
+
+            @Override
+            public void executeScript( File file ) {
+            }
+
+
+            @Override
+            public void close() {
+            }
+        } ) {
+        };
+    }
+
+
+    @Test
+    public void testRowsOfDrainedResult() {
+        TransactionExecutor executor = executor( threeRows() );
+        int sum = executor.executeQuery( resultSet -> {
+            int items = 0;
+            do {
+                items += resultSet.getInt( "ol_i_id" );
+            } while ( resultSet.next() );
+            return items;
+        }, "SELECT ol_i_id FROM tpcc_order_line", QueryType.QUERYTYPESELECT );
+        assertEquals( 6, sum );
+        assertEquals( 3, executor.queries.get( 0 ).getRows() );
+    }
+
+
+    @Test
+    public void testRowsOfFirstRowOnly() {
+        TransactionExecutor executor = executor( threeRows() );
+        executor.executeQuery( resultSet -> resultSet.getInt( "ol_i_id" ), "SELECT ol_i_id FROM tpcc_order_line", QueryType.QUERYTYPESELECT );
+        assertEquals( 3, executor.queries.get( 0 ).getRows() );
+    }
+
+
+    @Test
+    public void testUnwrap() {
+        ResultSet rows = threeRows();
+        TransactionExecutor executor = executor( rows );
+        assertSame( rows, executor.executeQuery( resultSet -> resultSet.unwrap( ResultSet.class ), "SELECT ol_i_id FROM tpcc_order_line", QueryType.QUERYTYPESELECT ) );
+    }
+}
@@ -0,0 +1,85 @@
+package org.polypheny.client.db.tpch;
+
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.Test;
+
+
+public class QueryTemplateTest {
+
+    @Test
+    public void testRenderAndBind() {
+        QueryTemplate template = QueryTemplate.parse( "SELECT ':1' FROM t WHERE a = :1 AND b < :2 AND c LIKE :3 AND d >= :1 + 10;" );
+        Object[] parameters = { 5, LocalDate.of( 1995, 3, 15 ), "it's%" };
+        assertEquals( 3, template.getParameterCount() );
+        assertEquals( "SELECT ':1' FROM t WHERE a = 5 AND b < DATE '1995-03-15' AND c LIKE 'it''s%' AND d >= 5 + 10;", template.render( parameters, TPCHDialect.POSTGRESQL ) );
+        assertEquals( "SELECT ':1' FROM t WHERE a = 5 AND b < '1995-03-15' AND c LIKE 'it''s%' AND d >= 5 + 10;", template.render( parameters, TPCHDialect.ICARUS ) );
+        assertEquals( "SELECT ':1' FROM t WHERE a = ? AND b < ? AND c LIKE ? AND d >= ? + 10;", template.toPreparedStatement() );
+        assertArrayEquals( new Object[]{ 5, LocalDate.of( 1995, 3, 15 ), "it's%", 5 }, template.bind( parameters ) );
+        assertEquals( "x < 0.00010", QueryTemplate.parse( "x < :1" ).render( new Object[]{ BigDecimal.valueOf( 0.0001 ) }, TPCHDialect.POSTGRESQL ) );
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingParameter() {
+        QueryTemplate.parse( "SELECT :2" ).render( new Object[]{ 1 }, TPCHDialect.POSTGRESQL );
+    }
+
+
+    @Test
+    public void testStreamsAreReproducible() {
+        TPCHQueryGenerator first = TPCHQueryGenerator.forStream( 42, 1 );
+        TPCHQueryGenerator repeated = TPCHQueryGenerator.forStream( 42, 1 );
+        TPCHQueryGenerator other = TPCHQueryGenerator.forStream( 42, 2 );
+        boolean differs = false;
+        for ( int queryID = 1; queryID <= 22; queryID++ ) {
+            String query = QGenPostgresql.getTemplate( queryID ).render( first.parameters( queryID, 1 ), TPCHDialect.POSTGRESQL );
+            assertEquals( query, QGenPostgresql.getTemplate( queryID ).render( repeated.parameters( queryID, 1 ), TPCHDialect.POSTGRESQL ) );
+            differs |= !query.equals( QGenPostgresql.getTemplate( queryID ).render( other.parameters( queryID, 1 ), TPCHDialect.POSTGRESQL ) );
+        }
+        assertTrue( differs );
+    }
+
+
+    @Test
+    public void testAllQueriesRender() {
+        TPCHQueryGenerator generator = new TPCHQueryGenerator( 7 );
+        for ( int queryID = 1; queryID <= 22; queryID++ ) {
+            Object[] parameters = generator.parameters( queryID, 10 );
+            assertEquals( "Q" + queryID, QGenPostgresql.getTemplate( queryID ).getParameterCount(), parameters.length );
+            assertEquals( "Q" + queryID, QGenIcarus.getTemplate( queryID ).getParameterCount(), parameters.length );
+            assertFalse( QGenIcarus.getTemplate( queryID ).render( parameters, TPCHDialect.ICARUS ).contains( "DATE '" ) );
+        }
+        assertEquals( QGenPostgresql.DISABLED_QUERY, QGenPostgresql.createQuery( generator, 1, 4 ) );
+        assertEquals( QGenIcarus.DISABLED_QUERY, QGenIcarus.createQuery( generator, 1, 4 ) );
+        assertTrue( QGenPostgresql.isDisabled( 4 ) );
+        assertFalse( QGenPostgresql.isDisabled( 1 ) );
+    }
+
+
+    @Test
+    public void testSubstitutionParameters() {
+        TPCHQueryGenerator generator = new TPCHQueryGenerator( 3 );
+        for ( int i = 0; i < 100; i++ ) {
+            Object[] q16 = generator.parameters( 16, 1 );
+            assertEquals( 8, new HashSet<>( Arrays.asList( q16 ).subList( 2, 10 ) ).size() );
+            Object[] q7 = generator.parameters( 7, 1 );
+            assertNotEquals( q7[0], q7[1] );
+            LocalDate q10 = (LocalDate) generator.parameters( 10, 1 )[0];
+            assertTrue( !q10.isBefore( LocalDate.of( 1993, 2, 1 ) ) && !q10.isAfter( LocalDate.of( 1995, 1, 1 ) ) );
+            Object[] q8 = generator.parameters( 8, 1 );
+            if ( q8[0].equals( "FRANCE" ) ) {
+                assertEquals( "EUROPE", q8[1] );
+            }
+        }
+    }
+}
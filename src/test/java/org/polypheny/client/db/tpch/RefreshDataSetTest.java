@@ -0,0 +1,63 @@
+package org.polypheny.client.db.tpch;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class RefreshDataSetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void testDeletesMatchInserts() throws IOException {
+        RefreshDataSet dataSet = RefreshDataSet.get( folder.getRoot(), 1 );
+        assertSame( dataSet, RefreshDataSet.get( folder.getRoot(), 1 ) );
+
+        List<String> orderKeys = new ArrayList<>();
+        for ( String[] row : rows( dataSet.openOrders() ) ) {
+            assertEquals( 9, row.length );
+            long slot = Long.parseLong( row[0] ) % 32;
+            assertTrue( row[0], slot >= 8 && slot < 16 );
+            orderKeys.add( row[0] );
+        }
+        assertEquals( 1500, orderKeys.size() );
+
+        List<String> deletedKeys = new ArrayList<>();
+        for ( String[] row : rows( dataSet.openDeletes() ) ) {
+            deletedKeys.add( row[0] );
+        }
+        assertEquals( orderKeys, deletedKeys );
+
+        List<String[]> lineItems = rows( dataSet.openLineItems() );
+        assertFalse( lineItems.isEmpty() );
+        for ( String[] row : lineItems ) {
+            assertEquals( 16, row.length );
+            assertTrue( row[0], orderKeys.contains( row[0] ) );
+        }
+    }
+
+
+    private static List<String[]> rows( BufferedReader reader ) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try ( BufferedReader lines = reader ) {
+            String line;
+            while ( (line = lines.readLine()) != null ) {
+                rows.add( RefreshDataSet.split( line ) );
+            }
+        }
+        return rows;
+    }
+}
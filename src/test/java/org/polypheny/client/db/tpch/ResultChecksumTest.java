@@ -0,0 +1,43 @@
+package org.polypheny.client.db.tpch;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.junit.Test;
+
+
+public class ResultChecksumTest {
+
+    private static ResultChecksum checksum( Object[]... rows ) {
+        ResultChecksum checksum = new ResultChecksum( 2 );
+        for ( Object[] row : rows ) {
+            checksum.addRow( Arrays.asList( row ) );
+        }
+        return checksum;
+    }
+
+
+    @Test
+    public void testOrderInsensitive() {
+        Object[] first = { "R", "F", new BigDecimal( "3785523.27" ), 7L };
+        Object[] second = { "N", "O", new BigDecimal( "40.50" ), 3L };
+        assertEquals( checksum( first, second ).getValue(), checksum( second, first ).getValue() );
+        assertEquals( 2, checksum( second, first ).getRows() );
+        //Duplicates count
+        assertNotEquals( checksum( first ).getValue(), checksum( first, first, first ).getValue() );
+        //Values are not interchangeable between columns
+        assertNotEquals( checksum( new Object[]{ "a", "b" } ).getValue(), checksum( new Object[]{ "b", "a" } ).getValue() );
+    }
+
+
+    @Test
+    public void testNormalization() {
+        assertEquals( checksum( new Object[]{ 25.5049, 5L, "AIR       ", null } ).getValue(), checksum( new Object[]{ new BigDecimal( "25.50" ), new BigDecimal( "5.00" ), "AIR", null } ).getValue() );
+        assertEquals( checksum( new Object[]{ 0.001 } ).getValue(), checksum( new Object[]{ 0L } ).getValue() );
+        assertNotEquals( checksum( new Object[]{ 25.51 } ).getValue(), checksum( new Object[]{ 25.5 } ).getValue() );
+        assertNotEquals( checksum( new Object[]{ "" } ).getValue(), checksum( new Object[]{ null } ).getValue() );
+    }
+}
@@ -0,0 +1,80 @@
+package org.polypheny.client.db.tpch;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.polypheny.client.storage.MappedRows;
+
+
+public class TPCHDataCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void testChunksContainAllRows() throws IOException {
+        TPCHDataCache cache = TPCHDataCache.get( folder.getRoot(), 0.01, 2 );
+        assertSame( cache, TPCHDataCache.get( folder.getRoot(), 0.01, 2 ) );
+
+        assertEquals( 1, cache.chunks( TPCHTable.REGION, 2 ).size() );
+        assertEquals( 5, count( cache.chunks( TPCHTable.REGION, 2 ), TPCHTable.REGION ) );
+        assertEquals( 25, count( cache.chunks( TPCHTable.NATION, 2 ), TPCHTable.NATION ) );
+        assertEquals( 2, cache.chunks( TPCHTable.PART, 2 ).size() );
+        assertEquals( 2_000, count( cache.chunks( TPCHTable.PART, 2 ), TPCHTable.PART ) );
+        assertEquals( 15_000, count( cache.chunks( TPCHTable.ORDERS, 2 ), TPCHTable.ORDERS ) );
+
+        //The lineitems of a chunk belong to the orders of the same chunk
+        List<File> orders = cache.chunks( TPCHTable.ORDERS, 2 );
+        List<File> lineItems = cache.chunks( TPCHTable.LINEITEM, 2 );
+        for ( int chunk = 0; chunk < 2; chunk++ ) {
+            Set<String> orderKeys = new HashSet<>();
+            for ( String line : new MappedRows( orders.get( chunk ) ) ) {
+                orderKeys.add( RefreshDataSet.split( line )[0] );
+            }
+            for ( String line : new MappedRows( lineItems.get( chunk ) ) ) {
+                assertTrue( orderKeys.contains( RefreshDataSet.split( line )[0] ) );
+            }
+        }
+    }
+
+
+    @Test
+    public void testOnlyMissingChunksAreGenerated() {
+        TPCHDataCache cache = TPCHDataCache.get( folder.getRoot(), 0.01, 2 );
+        List<File> parts = cache.chunks( TPCHTable.PART, 2 );
+        long modified = parts.get( 1 ).lastModified();
+        assertTrue( parts.get( 0 ).delete() );
+
+        cache.generate( 2 );
+        assertTrue( parts.get( 0 ).exists() );
+        assertEquals( modified, parts.get( 1 ).lastModified() );
+        String[] files = folder.getRoot().list();
+        for ( String file : files ) {
+            assertFalse( file, file.endsWith( ".tmp" ) );
+        }
+    }
+
+
+    private static long count( List<File> chunks, TPCHTable table ) throws IOException {
+        long rows = 0;
+        for ( File chunk : chunks ) {
+            for ( String line : new MappedRows( chunk ) ) {
+                assertEquals( table.getColumns().length, RefreshDataSet.split( line ).length );
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
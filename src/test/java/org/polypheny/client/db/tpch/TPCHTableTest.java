@@ -0,0 +1,95 @@
+package org.polypheny.client.db.tpch;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+import org.polypheny.client.generator.tpch.objects.LineItem;
+import org.polypheny.client.generator.tpch.objects.PartSupplier;
+import org.polypheny.client.generator.tpch.objects.TpchEntity;
+
+
+public class TPCHTableTest {
+
+    private static List<String> lines( Iterable<? extends TpchEntity> rows ) {
+        List<String> lines = new ArrayList<>();
+        rows.forEach( row -> lines.add( row.toLine() ) );
+        return lines;
+    }
+
+
+    @Test
+    public void testMissingRanges() {
+        assertEquals( 3, TPCHBenchmarker.missingRanges( 10, 20, 3 ).size() );
+        assertEquals( Pair.of( 10L, 4L ), TPCHBenchmarker.missingRanges( 10, 20, 3 ).get( 0 ) );
+        assertEquals( Pair.of( 17L, 3L ), TPCHBenchmarker.missingRanges( 10, 20, 3 ).get( 2 ) );
+        assertEquals( 2, TPCHBenchmarker.missingRanges( 0, 2, 4 ).size() );
+        assertTrue( TPCHBenchmarker.missingRanges( 5, 5, 4 ).isEmpty() );
+    }
+
+
+    @Test
+    public void testKeysUpTo() {
+        List<String> orders = lines( TPCHTable.ORDERS.generate( 0.01, 1, 1 ) );
+        String lastOrder = orders.get( orders.size() - 1 );
+        assertEquals( TPCHTable.ORDERS.getKeyCount( 0.01 ), TPCHTable.ORDERS.keysUpTo( Long.parseLong( RefreshDataSet.split( lastOrder )[0] ) ) );
+        assertEquals( 5, TPCHTable.REGION.keysUpTo( 4 ) );
+        assertEquals( 2_000, TPCHTable.PART.keysUpTo( 2_000 ) );
+    }
+
+
+    @Test
+    public void testRangesMatchWholeTable() {
+        for ( TPCHTable table : new TPCHTable[]{ TPCHTable.NATION, TPCHTable.CUSTOMER, TPCHTable.PARTSUPP, TPCHTable.LINEITEM } ) {
+            long keys = table.getKeyCount( 0.01 );
+            List<String> ranges = new ArrayList<>();
+            for ( Pair<Long, Long> range : TPCHBenchmarker.missingRanges( 0, keys, 3 ) ) {
+                ranges.addAll( lines( table.generateRange( 0.01, range.getLeft(), range.getRight() ) ) );
+            }
+            assertEquals( table.getTableName(), lines( table.generate( 0.01, 1, 1 ) ), ranges );
+        }
+    }
+
+
+    @Test
+    public void testGrownPartsMatchLargerScaleFactor() {
+        List<String> grown = lines( TPCHTable.PART.generate( 0.005, 1, 1 ) );
+        grown.addAll( lines( TPCHTable.PART.generateRange( 0.01, TPCHTable.PART.getKeyCount( 0.005 ), TPCHTable.PART.getKeyCount( 0.01 ) - TPCHTable.PART.getKeyCount( 0.005 ) ) ) );
+        assertEquals( lines( TPCHTable.PART.generate( 0.01, 1, 1 ) ), grown );
+    }
+
+
+    @Test
+    public void testGrownLineItemsReferencePartSuppliers() throws Exception {
+        //Populated with SF 0.005 and grown to 0.01
+        List<PartSupplier> partSuppliers = new ArrayList<>();
+        TPCHTable.PARTSUPP.generate( 0.005, 1, 1 ).forEach( row -> partSuppliers.add( (PartSupplier) row ) );
+        TPCHTable.PARTSUPP.generateRange( 0.01, TPCHTable.PARTSUPP.getKeyCount( 0.005 ), TPCHTable.PARTSUPP.getKeyCount( 0.01 ) - TPCHTable.PARTSUPP.getKeyCount( 0.005 ) ).forEach( row -> partSuppliers.add( (PartSupplier) row ) );
+        Map<Long, Set<Long>> suppliers = new HashMap<>();
+        partSuppliers.forEach( row -> suppliers.computeIfAbsent( row.getPartKey(), part -> new HashSet<>() ).add( row.getSupplierKey() ) );
+
+        NavigableMap<Long, Long> supplierCounts = TPCHBenchmarker.partSupplierCounts( TPCHTable.PARTSUPP.getKeyCount( 0.01 ), part -> suppliers.getOrDefault( part, new HashSet<>() ) );
+        assertEquals( 2, supplierCounts.size() );
+        assertEquals( Long.valueOf( 50 ), supplierCounts.get( 1_000L ) );
+        assertEquals( Long.valueOf( 100 ), supplierCounts.get( 2_000L ) );
+
+        long loadedOrders = TPCHTable.LINEITEM.getKeyCount( 0.005 );
+        Iterable<? extends TpchEntity> grown = TPCHTable.LINEITEM.generateRange( 0.01, loadedOrders, TPCHTable.LINEITEM.getKeyCount( 0.01 ) - loadedOrders, partKey -> supplierCounts.ceilingEntry( partKey ).getValue() );
+        int oldParts = 0;
+        for ( TpchEntity row : grown ) {
+            LineItem lineItem = (LineItem) row;
+            assertTrue( lineItem.getPartKey() + "|" + lineItem.getSupplierKey(), suppliers.get( lineItem.getPartKey() ).contains( lineItem.getSupplierKey() ) );
+            oldParts += lineItem.getPartKey() <= 1_000 ? 1 : 0;
+        }
+        assertTrue( oldParts > 0 );
+    }
+}
@@ -0,0 +1,53 @@
+package org.polypheny.client.main.analysis;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import com.google.common.util.concurrent.SettableFuture;
+import java.io.File;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.polypheny.client.analysis.tpcc.AnalysisCheckpoints;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+import org.polypheny.client.storage.StreamWriter;
+
+
+public class TPCCAnalysisTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    private void writePartition( int count ) {
+        StreamWriter<TPCCResultTuple> writer = new StreamWriter<>( SettableFuture.create(), new File( folder.getRoot(), "allresults_0.json" ), TPCCResultTuple.class );
+        for ( int i = 0; i < count; i++ ) {
+            writer.onNext( TPCCResultTuple.newBuilder().setTransactionType( TPCCTransactionType.TPCCTRANSACTIONNEWORDER ).setStartTimestamp( 1_000L * i ).setResponseTime( 10 ).build() );
+        }
+        writer.onCompleted();
+    }
+
+
+    private void analyze() {
+        TPCCAnalysis analysis = new TPCCAnalysis( folder.getRoot(), folder.getRoot(), 0 );
+        analysis.setMeasurementWindow( 0, Long.MAX_VALUE, 10_000, false );
+        analysis.setCheckpoints( new AnalysisCheckpoints( new File( folder.getRoot(), "checkpoints" ) ) );
+        analysis.analyze();
+    }
+
+
+    @Test
+    public void testWarmupWithOpenStopKeepsCheckpoints() {
+        writePartition( 100 );
+        analyze();
+        //The stop follows the last transaction, the checkpoint of the window is still the one to continue from
+        writePartition( 150 );
+        analyze();
+
+        File[] windows = new File( folder.getRoot(), "checkpoints" ).listFiles( ( dir, name ) -> name.startsWith( "allresults_0.json.window_" ) );
+        assertNotNull( windows );
+        assertEquals( 1, windows.length );
+    }
+}
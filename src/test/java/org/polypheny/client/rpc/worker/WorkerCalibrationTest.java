@@ -0,0 +1,44 @@
+package org.polypheny.client.rpc.worker;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.polypheny.client.db.access.CalibrationConnector;
+import org.polypheny.client.db.tpcc.PostgresTpccBenchmarker;
+import org.polypheny.client.generator.tpcc.TPCCGenerator;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCWorkerMessage;
+
+
+public class WorkerCalibrationTest {
+
+    @Test
+    public void testTerminalsLimitedByMemory() {
+        assertEquals( 8, WorkerCalibration.terminals( 8, 1L << 40 ) );
+        assertEquals( 2, WorkerCalibration.terminals( 8, 2 * WorkerCalibration.MEMORY_PER_TERMINAL ) );
+        assertEquals( 1, WorkerCalibration.terminals( 8, 0 ) );
+    }
+
+
+    @Test
+    public void testTransactionsRunWithoutDatabase() {
+        PostgresTpccBenchmarker benchmarker = new PostgresTpccBenchmarker( new CalibrationConnector(), 10 );
+        int cLast = TPCCGenerator.getCLast( TPCCGenerator.getcRun() );
+        int cId = TPCCGenerator.getCID( TPCCGenerator.getcRun() );
+        assertFalse( benchmarker.paymentTransaction( 1, 1, cLast, cId ).getQueriesList().isEmpty() );
+        assertFalse( benchmarker.deliveryTransaction( 2, 1 ).getQueriesList().isEmpty() );
+        assertFalse( benchmarker.orderStatusTransaction( 3, cLast, cId, 1 ).getQueriesList().isEmpty() );
+        assertFalse( benchmarker.stockLevelTransaction( 4, 1, 1 ).getQueriesList().isEmpty() );
+        assertFalse( benchmarker.newOrderTransaction( 1, 5, TPCCGenerator.getCOLIID( TPCCGenerator.getcRun() ) ).getQueriesList().isEmpty() );
+    }
+
+
+    @Test
+    public void testCalibrationRunsTransactions() {
+        TPCCWorkerMessage workerMessage = TPCCWorkerMessage.newBuilder().setNUMBEROFCONFIGUREDWAREHOUSES( 10 ).setCCLAST( TPCCGenerator.getCLast( TPCCGenerator.getcRun() ) ).setCCID( TPCCGenerator.getCID( TPCCGenerator.getcRun() ) )
+                .setCOLIID( TPCCGenerator.getCOLIID( TPCCGenerator.getcRun() ) ).build();
+        assertTrue( WorkerCalibration.calibrate( 1, 200, workerMessage, () -> new PostgresTpccBenchmarker( new CalibrationConnector(), 10 ) ) > 0 );
+    }
+}
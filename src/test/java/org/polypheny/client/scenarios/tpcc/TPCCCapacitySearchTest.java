@@ -0,0 +1,64 @@
+package org.polypheny.client.scenarios.tpcc;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.polypheny.client.analysis.ResponseTimeHistogram;
+import org.polypheny.client.scenarios.tpcc.TPCCCapacitySearch.CapacityPoint;
+
+
+/**
+ * Tests the binary search of {@link TPCCCapacitySearch} against a synthetic SUT
+ */
+public class TPCCCapacitySearchTest {
+
+    /**
+     * Pretends that the response time grows linearly with 1s per terminal
+     */
+    private CapacityPoint linearProbe( int terminals ) {
+        double responseTime = terminals * 1_000;
+        return new CapacityPoint( terminals, terminals * 10, responseTime, 0, responseTime < 5_000 );
+    }
+
+
+    @Test
+    public void testFindsHighestSustainableLoad() {
+        List<Integer> probed = new ArrayList<>();
+        TPCCCapacitySearch search = new TPCCCapacitySearch( terminals -> {
+            probed.add( terminals );
+            return linearProbe( terminals );
+        }, 1, 20, 90, 5_000 );
+        assertEquals( 4, search.search().getTerminalsPerDistrict() );
+        //Binary search should not probe every point
+        assertEquals( probed.size(), probed.stream().distinct().count() );
+        assertTrue( probed.size() <= 6 );
+        assertEquals( probed.size(), search.getResults().getAsJsonArray( "curve" ).size() );
+    }
+
+
+    @Test
+    public void testSlaViolatedAtMinimum() {
+        TPCCCapacitySearch search = new TPCCCapacitySearch( this::linearProbe, 6, 20, 90, 5_000 );
+        assertNull( search.search() );
+    }
+
+
+    @Test
+    public void testPercentile() {
+        ResponseTimeHistogram values = new ResponseTimeHistogram();
+        for ( float value : Arrays.asList( 10f, 1f, 9f, 2f, 8f, 3f, 7f, 4f, 6f, 5f ) ) {
+            values.record( value );
+        }
+        //The histogram keeps 3 significant digits
+        assertEquals( 9d, TPCCCapacitySearch.percentile( values, 90 ), 0.01 );
+        assertEquals( 1d, TPCCCapacitySearch.percentile( values, 0 ), 0.01 );
+        assertEquals( 10d, TPCCCapacitySearch.percentile( values, 100 ), 0.01 );
+        assertTrue( Double.isNaN( TPCCCapacitySearch.percentile( new ResponseTimeHistogram(), 90 ) ) );
+    }
+}
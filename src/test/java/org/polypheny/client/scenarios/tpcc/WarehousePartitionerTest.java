@@ -0,0 +1,73 @@
+package org.polypheny.client.scenarios.tpcc;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import org.junit.Test;
+import org.polypheny.client.grpc.PolyClientGRPC.Pair;
+
+
+/**
+ * Tests the assignment of warehouse ranges to workers
+ */
+public class WarehousePartitionerTest {
+
+    private static int size( Pair pair ) {
+        return pair.getUpper() - pair.getLower();
+    }
+
+
+    /**
+     * Ranges have to be contiguous and cover exactly the warehouses 1 to noWarehouses
+     */
+    private static void assertCovers( List<Pair> partitions, int noWarehouses ) {
+        int expectedLower = 1;
+        for ( Pair pair : partitions ) {
+            assertEquals( expectedLower, pair.getLower() );
+            expectedLower = pair.getUpper();
+        }
+        assertEquals( noWarehouses + 1, expectedLower );
+    }
+
+
+    @Test
+    public void testEvenSplit() {
+        List<Pair> partitions = WarehousePartitioner.partition( 10, new double[3] );
+        assertCovers( partitions, 10 );
+        assertEquals( 4, size( partitions.get( 0 ) ) );
+        assertEquals( 3, size( partitions.get( 1 ) ) );
+        assertEquals( 3, size( partitions.get( 2 ) ) );
+    }
+
+
+    @Test
+    public void testProportionalSplit() {
+        List<Pair> partitions = WarehousePartitioner.partition( 100, new double[]{ 1, 3 } );
+        assertCovers( partitions, 100 );
+        assertEquals( 25, size( partitions.get( 0 ) ) );
+        assertEquals( 75, size( partitions.get( 1 ) ) );
+    }
+
+
+    @Test
+    public void testFewerWarehousesThanWorkers() {
+        List<Pair> partitions = WarehousePartitioner.partition( 2, new double[]{ 1, 1, 1 } );
+        assertCovers( partitions, 2 );
+        assertEquals( 0, size( partitions.get( 2 ) ) );
+    }
+
+
+    @Test
+    public void testRebalance() {
+        List<Pair> partitions = WarehousePartitioner.partition( 10, new double[2] );
+        assertNull( WarehousePartitioner.rebalanceWeights( new long[]{ 100, 95 }, partitions, 0.75 ) );
+        double[] weights = WarehousePartitioner.rebalanceWeights( new long[]{ 100, 20 }, partitions, 0.75 );
+        assertNotNull( weights );
+        List<Pair> rebalanced = WarehousePartitioner.partition( 10, weights );
+        assertCovers( rebalanced, 10 );
+        assertEquals( 8, size( rebalanced.get( 0 ) ) );
+    }
+}
@@ -0,0 +1,49 @@
+package org.polypheny.client.scenarios.tpcc.worker;
+
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCArrivalMode;
+
+
+/**
+ * Tests the inter-arrival times of the {@link ArrivalScheduler}
+ */
+public class ArrivalSchedulerTest {
+
+    @Test
+    public void testConstantInterArrivalTime() {
+        ArrivalScheduler scheduler = new ArrivalScheduler( TPCCArrivalMode.TPCCARRIVALCONSTANT, 100, 10 );
+        for ( int i = 0; i < 100; i++ ) {
+            assertEquals( 10d, scheduler.nextInterArrivalTime(), 0 );
+        }
+    }
+
+
+    @Test
+    public void testPoissonMeanInterArrivalTime() {
+        ArrivalScheduler scheduler = new ArrivalScheduler( TPCCArrivalMode.TPCCARRIVALPOISSON, 100, 10 );
+        int samples = 100_000;
+        double total = 0;
+        for ( int i = 0; i < samples; i++ ) {
+            total += scheduler.nextInterArrivalTime();
+        }
+        assertEquals( 10d, total / samples, 0.5 );
+    }
+
+
+    @Test(timeout = 5_000)
+    public void testStopBeforeRun() {
+        ArrivalScheduler scheduler = new ArrivalScheduler( TPCCArrivalMode.TPCCARRIVALCONSTANT, 100, 10 );
+        scheduler.stop();
+        scheduler.run();
+        assertEquals( 0, scheduler.getPendingArrivals() );
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testClosedModeRejected() {
+        new ArrivalScheduler( TPCCArrivalMode.TPCCARRIVALCLOSED, 100, 10 );
+    }
+}
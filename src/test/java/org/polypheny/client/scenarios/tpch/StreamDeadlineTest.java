@@ -0,0 +1,41 @@
+package org.polypheny.client.scenarios.tpch;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+
+public class StreamDeadlineTest {
+
+    @Test
+    public void testNoStreamTimeout() {
+        AtomicLong clock = new AtomicLong( 0 );
+        StreamDeadline deadline = new StreamDeadline( 30, 0, clock::get );
+        clock.set( Long.MAX_VALUE / 2 );
+        assertFalse( deadline.isExpired() );
+        assertEquals( 30, deadline.nextQueryTimeout() );
+        assertEquals( 0, new StreamDeadline( 0, 0, clock::get ).nextQueryTimeout() );
+    }
+
+
+    @Test
+    public void testQueriesEndWithTheStream() {
+        AtomicLong clock = new AtomicLong( 1_000 );
+        StreamDeadline deadline = new StreamDeadline( 30, 100, clock::get );
+        assertEquals( 30, deadline.nextQueryTimeout() );
+        clock.addAndGet( 80_500 );
+        assertEquals( 20, deadline.nextQueryTimeout() );
+        assertFalse( deadline.isExpired() );
+        clock.addAndGet( 19_400 );
+        assertEquals( 1, deadline.nextQueryTimeout() );
+        clock.addAndGet( 100 );
+        assertTrue( deadline.isExpired() );
+
+        StreamDeadline unlimitedQueries = new StreamDeadline( 0, 100, clock::get );
+        assertEquals( 100, unlimitedQueries.nextQueryTimeout() );
+    }
+}
@@ -0,0 +1,31 @@
+package org.polypheny.client.scenarios.tpch;
+
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+
+public class TPCHQueryPermutationTest {
+
+    @Test
+    public void testEverySetIsAPermutation() {
+        int[] queries = new int[22];
+        Arrays.setAll( queries, i -> i + 1 );
+        for ( int stream = 0; stream < TPCHQueryPermutation.size(); stream++ ) {
+            int[] set = TPCHQueryPermutation.forStream( stream );
+            Arrays.sort( set );
+            assertArrayEquals( "Stream " + stream, queries, set );
+        }
+    }
+
+
+    @Test
+    public void testStreamsWrapAround() {
+        assertEquals( 14, TPCHQueryPermutation.forStream( 0 )[0] );
+        assertEquals( 21, TPCHQueryPermutation.forStream( 1 )[0] );
+        assertArrayEquals( TPCHQueryPermutation.forStream( 1 ), TPCHQueryPermutation.forStream( TPCHQueryPermutation.size() + 1 ) );
+    }
+}
@@ -0,0 +1,40 @@
+package org.polypheny.client.storage;
+
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class MappedRowsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void testLines() throws IOException {
+        assertEquals( Arrays.asList( "1|a|", "", "2|b|", "3|c|" ), read( "1|a|\n\n2|b|\r\n3|c|" ) );
+        assertEquals( Collections.singletonList( "1|a|" ), read( "1|a|\n" ) );
+        assertEquals( Collections.emptyList(), read( "" ) );
+    }
+
+
+    private List<String> read( String content ) throws IOException {
+        File file = folder.newFile();
+        Files.write( file.toPath(), content.getBytes( StandardCharsets.UTF_8 ) );
+        List<String> lines = new ArrayList<>();
+        new MappedRows( file ).forEach( lines::add );
+        return lines;
+    }
+}
@@ -0,0 +1,88 @@
+package org.polypheny.client.storage.columnar;
+
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.polypheny.client.grpc.PolyClientGRPC.QueryType;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCQueryTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCResultTuple;
+import org.polypheny.client.grpc.PolyClientGRPC.TPCCTransactionType;
+
+
+public class TPCCColumnStoreTest {
+
+    private static final int ROWS = 3 * TPCCColumnWriter.BLOCK_SIZE + 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    private File writeColumns() {
+        File columns = new File( folder.getRoot(), "columns" );
+        TPCCColumnWriter writer = new TPCCColumnWriter( columns );
+        for ( int i = 0; i < ROWS; i++ ) {
+            TPCCResultTuple.Builder builder = TPCCResultTuple.newBuilder()
+                    .setStartTimestamp( i )
+                    .setTransactionType( i % 2 == 0 ? TPCCTransactionType.TPCCTRANSACTIONNEWORDER : TPCCTransactionType.TPCCTRANSACTIONPAYMENT )
+                    .setResponseTime( i % 100 )
+                    .setAborted( i % 50 == 0 )
+                    .setWarehouseID( i % 10 )
+                    .setDistrictID( i % 10 + 1 )
+                    .setTerminalIdx( 3 );
+            for ( int query = 0; query < i % 3; query++ ) {
+                builder.addQueries( TPCCQueryTuple.newBuilder().setQueryType( QueryType.QUERYTYPESELECT ).setExecutionTime( i + query ) );
+            }
+            writer.append( builder.build(), i % 4 );
+        }
+        writer.close();
+        return columns;
+    }
+
+
+    @Test
+    public void testScanWithPushdown() throws IOException {
+        TPCCColumnReader reader = new TPCCColumnReader( writeColumns() );
+        assertEquals( ROWS, reader.getRows() );
+
+        AtomicLong count = new AtomicLong();
+        AtomicLong queries = new AtomicLong();
+        long from = TPCCColumnWriter.BLOCK_SIZE + 10;
+        long to = from + 1_000;
+        long skipped = reader.scan( from, to, EnumSet.of( TPCCTransactionType.TPCCTRANSACTIONPAYMENT ), row -> {
+            assertEquals( TPCCTransactionType.TPCCTRANSACTIONPAYMENT, row.getTransactionType() );
+            assertEquals( row.getStartTimestamp() % 4, row.getWorker() );
+            assertEquals( row.getStartTimestamp() % 10 + 1, row.getDistrictID() );
+            assertEquals( row.getStartTimestamp() % 3, row.getQueryCount() );
+            for ( int query = 0; query < row.getQueryCount(); query++ ) {
+                assertEquals( row.getStartTimestamp() + query, row.getQueryExecutionTime( query ) );
+                queries.incrementAndGet();
+            }
+            count.incrementAndGet();
+        } );
+        assertEquals( 500, count.get() );
+        assertEquals( 500, queries.get() );
+        //Only the second block overlaps the time range
+        assertEquals( 3, skipped );
+    }
+
+
+    @Test
+    public void testScanAll() throws IOException {
+        TPCCColumnReader reader = new TPCCColumnReader( writeColumns() );
+        AtomicLong aborted = new AtomicLong();
+        long skipped = reader.scan( Long.MIN_VALUE, Long.MAX_VALUE, null, row -> {
+            if ( row.isAborted() ) {
+                aborted.incrementAndGet();
+            }
+        } );
+        assertEquals( 0, skipped );
+        assertEquals( (ROWS + 49) / 50, aborted.get() );
+    }
+}